@@ -0,0 +1,35 @@
+package edu.southwestern.benchmarks;
+
+import java.util.Arrays;
+
+import edu.southwestern.MMNEAT.MMNEAT;
+import edu.southwestern.evolution.EvolutionaryHistory;
+import edu.southwestern.parameters.Parameters;
+import edu.southwestern.util.random.RandomNumbers;
+
+/**
+ * Parameter setup shared by the benchmarks. Every benchmark runs in its own
+ * forked JVM, so the static state set up here does not leak between them.
+ */
+class BenchmarkParameters {
+
+	// Same seed for every benchmark, so each one measures the same inputs on every run
+	static final int SEED = 0;
+
+	/**
+	 * Initialize parameters without any file output, reset innovation numbers
+	 * and genotype ids, and seed the random generator.
+	 *
+	 * @param extra
+	 *            additional parameters in the usual label:value form
+	 */
+	static void initialize(String... extra) {
+		String[] args = Arrays.copyOf(new String[] { "io:false", "netio:false", "randomSeed:" + SEED }, 3 + extra.length);
+		System.arraycopy(extra, 0, args, 3, extra.length);
+		Parameters.initializeParameterCollections(args);
+		MMNEAT.clearClasses();
+		EvolutionaryHistory.setInnovation(0);
+		EvolutionaryHistory.setHighestGenotypeId(0);
+		RandomNumbers.reset(SEED);
+	}
+}
@@ -0,0 +1,85 @@
+package edu.southwestern.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.southwestern.MMNEAT.MMNEAT;
+import edu.southwestern.evolution.EvolutionaryHistory;
+import edu.southwestern.evolution.genotypes.Genotype;
+import edu.southwestern.evolution.genotypes.TWEANNGenotype;
+import edu.southwestern.networks.TWEANN;
+
+/**
+ * Copying, mutating and crossing over TWEANN genotypes. Mutation and
+ * crossover change the genotypes they are given, so they work on copies as
+ * the evolutionary algorithms do, and their times include one or two copies.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GenotypeBenchmarks {
+
+	public static final int INPUTS = 20;
+	public static final int OUTPUTS = 5;
+
+	/**
+	 * Two parents from the same archetype, each grown by a number of mutations.
+	 * New nodes are added to the archetype by every mutation, so the parents
+	 * and archetype are rebuilt (identically) before each iteration to keep
+	 * the archetype from growing across the whole run.
+	 */
+	@State(Scope.Thread)
+	public static class Parents {
+		@Param({ "0", "50", "200" })
+		public int mutations;
+
+		TWEANNGenotype parent1;
+		TWEANNGenotype parent2;
+
+		@Setup(Level.Iteration)
+		public void setup() {
+			BenchmarkParameters.initialize("recurrency:false", "mating:true");
+			MMNEAT.loadClasses();
+			TWEANNGenotype archetype = new TWEANNGenotype(INPUTS, OUTPUTS, 0);
+			MMNEAT.genotype = archetype.copy();
+			EvolutionaryHistory.initArchetype(0);
+			parent1 = (TWEANNGenotype) archetype.copy();
+			parent2 = (TWEANNGenotype) archetype.copy();
+			for (int i = 0; i < mutations; i++) {
+				parent1.mutate();
+				parent2.mutate();
+			}
+		}
+	}
+
+	@Benchmark
+	public Genotype<TWEANN> copy(Parents parents) {
+		return parents.parent1.copy();
+	}
+
+	@Benchmark
+	public Genotype<TWEANN> copyAndMutate(Parents parents) {
+		Genotype<TWEANN> child = parents.parent1.copy();
+		child.mutate();
+		return child;
+	}
+
+	@Benchmark
+	public Genotype<TWEANN> copyAndCrossover(Parents parents) {
+		return parents.parent1.copy().crossover(parents.parent2.copy());
+	}
+}
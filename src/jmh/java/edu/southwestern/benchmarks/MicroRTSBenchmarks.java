@@ -0,0 +1,60 @@
+package edu.southwestern.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import micro.rts.CompactGameState;
+import micro.rts.GameState;
+import micro.rts.PhysicalGameState;
+import micro.rts.units.UnitTypeTable;
+
+/**
+ * Cloning microRTS game states, which the search-based opponents do at every
+ * node they expand. The usual object graph is compared with the compact
+ * array-backed copy used by the MCTS opponents.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MicroRTSBenchmarks {
+
+	@State(Scope.Thread)
+	public static class Scenario {
+		@Param({ "8x8/basesWorkers8x8.xml", "16x16/basesWorkers16x16.xml", "24x24/basesWorkers24x24.xml" })
+		public String map;
+
+		GameState gameState;
+		CompactGameState compactGameState;
+
+		@Setup
+		public void setup() throws Exception {
+			BenchmarkParameters.initialize();
+			UnitTypeTable unitTypes = new UnitTypeTable();
+			gameState = new GameState(PhysicalGameState.load("data/microRTS/maps/" + map, unitTypes), unitTypes);
+			compactGameState = new CompactGameState(gameState);
+		}
+	}
+
+	@Benchmark
+	public GameState gameStateClone(Scenario scenario) {
+		return scenario.gameState.clone();
+	}
+
+	@Benchmark
+	public CompactGameState compactGameStateClone(Scenario scenario) {
+		return scenario.compactGameState.clone();
+	}
+}
@@ -0,0 +1,99 @@
+package edu.southwestern.benchmarks;
+
+import java.util.EnumMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.southwestern.tasks.mspacman.facades.GameFacade;
+import edu.southwestern.tasks.mspacman.sensors.MsPacManControllerInputOutputMediator;
+import edu.southwestern.tasks.mspacman.sensors.mediators.FullTaskMediator;
+import oldpacman.controllers.examples.Legacy;
+import oldpacman.controllers.examples.StarterPacMan;
+import oldpacman.game.Constants.GHOST;
+import oldpacman.game.Constants.MOVE;
+import oldpacman.game.Game;
+
+/**
+ * Copying and advancing the Ms. Pac-Man simulator, and computing the sensors
+ * of the full task mediator. Sensor caching is off, and every call gets a new
+ * facade whose sensor cache holds no shared sub-results, so every call
+ * computes all of the sensor blocks.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MsPacManBenchmarks {
+
+	/**
+	 * Game after a number of time steps played by StarterPacMan against the
+	 * Legacy ghosts, and the moves those controllers make next
+	 */
+	@State(Scope.Thread)
+	public static class Simulation {
+		@Param({ "0", "500" })
+		public int steps;
+
+		Game game;
+		MOVE pacManMove;
+		EnumMap<GHOST, MOVE> ghostMoves;
+		MsPacManControllerInputOutputMediator mediator;
+
+		@Setup
+		public void setup() {
+			BenchmarkParameters.initialize("pacManSensorCaching:false");
+			StarterPacMan pacMan = new StarterPacMan();
+			Legacy ghosts = new Legacy();
+			game = new Game(BenchmarkParameters.SEED);
+			for (int i = 0; i < steps && !game.gameOver(); i++) {
+				game.advanceGame(pacMan.getMove(game.copy(), -1), ghosts.getMove(game.copy(), -1));
+			}
+			pacManMove = pacMan.getMove(game.copy(), -1);
+			ghostMoves = ghosts.getMove(game.copy(), -1);
+			mediator = new FullTaskMediator();
+		}
+	}
+
+	/**
+	 * New facade of the simulation game for each call
+	 */
+	@State(Scope.Thread)
+	public static class Facade {
+		GameFacade facade;
+
+		@Setup(Level.Invocation)
+		public void setup(Simulation state) {
+			facade = new GameFacade(state.game);
+		}
+	}
+
+	@Benchmark
+	public Game copy(Simulation state) {
+		return state.game.copy();
+	}
+
+	@Benchmark
+	public Game copyAndAdvance(Simulation state) {
+		Game next = state.game.copy();
+		next.advanceGame(state.pacManMove, state.ghostMoves);
+		return next;
+	}
+
+	@Benchmark
+	public double[] sensorBlocks(Simulation state, Facade facade) {
+		return state.mediator.getInputs(facade.facade, facade.facade.getPacmanLastMoveMade());
+	}
+}
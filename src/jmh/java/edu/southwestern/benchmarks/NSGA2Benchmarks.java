@@ -0,0 +1,72 @@
+package edu.southwestern.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.southwestern.evolution.genotypes.BoundedIntegerValuedGenotype;
+import edu.southwestern.evolution.genotypes.Genotype;
+import edu.southwestern.evolution.nsga2.NSGA2;
+import edu.southwestern.evolution.nsga2.NSGA2Score;
+import edu.southwestern.util.datastructures.ArrayUtil;
+
+/**
+ * NSGA-II selection of mu parents out of a combined parent and child
+ * population of 2 * mu with random scores
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NSGA2Benchmarks {
+
+	@State(Scope.Thread)
+	public static class Scores {
+		@Param({ "50", "500" })
+		public int mu;
+		@Param({ "2", "3", "5" })
+		public int objectives;
+
+		NSGA2Score<ArrayList<Integer>>[] scores;
+
+		@SuppressWarnings("unchecked")
+		@Setup
+		public void setup() {
+			BenchmarkParameters.initialize();
+			Random random = new Random(BenchmarkParameters.SEED);
+			scores = new NSGA2Score[2 * mu];
+			for (int i = 0; i < scores.length; i++) {
+				double[] objectiveScores = new double[objectives];
+				for (int j = 0; j < objectives; j++) {
+					// Few distinct values, so that there are ties as in real runs
+					objectiveScores[j] = random.nextInt(100);
+				}
+				BoundedIntegerValuedGenotype individual = new BoundedIntegerValuedGenotype(ArrayUtil.intListFromArray(new int[] { i }));
+				scores[i] = new NSGA2Score<ArrayList<Integer>>(individual, objectiveScores, null, new double[0]);
+			}
+		}
+	}
+
+	@Benchmark
+	public ArrayList<Genotype<ArrayList<Integer>>> staticSelection(Scores scores) {
+		return NSGA2.staticSelection(scores.mu, scores.scores);
+	}
+
+	@Benchmark
+	public ArrayList<ArrayList<NSGA2Score<ArrayList<Integer>>>> getParetoLayers(Scores scores) {
+		return NSGA2.getParetoLayers(scores.scores);
+	}
+}
@@ -0,0 +1,101 @@
+package edu.southwestern.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.southwestern.MMNEAT.MMNEAT;
+import edu.southwestern.evolution.EvolutionaryHistory;
+import edu.southwestern.evolution.genotypes.HyperNEATCPPNGenotype;
+import edu.southwestern.evolution.genotypes.TWEANNGenotype;
+import edu.southwestern.networks.TWEANN;
+import edu.southwestern.networks.hyperneat.HyperNEATSpeedTask;
+
+/**
+ * Activation of TWEANNs and construction of HyperNEAT substrate networks
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NetworkBenchmarks {
+
+	public static final int OUTPUTS = 5;
+
+	/**
+	 * Network with the given number of inputs, grown by a number of mutations
+	 * from the minimal starting structure
+	 */
+	@State(Scope.Thread)
+	public static class TWEANNState {
+		@Param({ "10", "100", "1000" })
+		public int inputs;
+		@Param({ "0", "100" })
+		public int mutations;
+
+		TWEANN network;
+		double[] values;
+
+		@Setup
+		public void setup() {
+			BenchmarkParameters.initialize("recurrency:false");
+			MMNEAT.loadClasses();
+			TWEANNGenotype genotype = new TWEANNGenotype(inputs, OUTPUTS, 0);
+			MMNEAT.genotype = genotype.copy();
+			EvolutionaryHistory.initArchetype(0);
+			for (int i = 0; i < mutations; i++) {
+				genotype.mutate();
+			}
+			network = genotype.getPhenotype();
+			Random random = new Random(BenchmarkParameters.SEED);
+			values = new double[inputs];
+			for (int i = 0; i < inputs; i++) {
+				values[i] = 2 * random.nextDouble() - 1;
+			}
+		}
+	}
+
+	/**
+	 * CPPN that encodes the substrates of HyperNEATSpeedTask at a given width
+	 */
+	@State(Scope.Thread)
+	public static class HyperNEATState {
+		@Param({ "25", "100" })
+		public int width;
+		@Param({ "false", "true" })
+		public boolean dense;
+
+		HyperNEATCPPNGenotype cppn;
+
+		@Setup
+		public void setup() {
+			BenchmarkParameters.initialize("recurrency:false", "hyperNEAT:true", "linkExpressionThreshold:-1",
+					"task:edu.southwestern.networks.hyperneat.HyperNEATSpeedTask", "denseSubstrateNetworks:" + dense);
+			MMNEAT.loadClasses();
+			MMNEAT.task = new HyperNEATSpeedTask(width, 10);
+			cppn = new HyperNEATCPPNGenotype();
+		}
+	}
+
+	@Benchmark
+	public double[] tweannProcess(TWEANNState state) {
+		return state.network.process(state.values);
+	}
+
+	@Benchmark
+	public TWEANN hyperNEATGetPhenotype(HyperNEATState state) {
+		return state.cppn.getPhenotype();
+	}
+}
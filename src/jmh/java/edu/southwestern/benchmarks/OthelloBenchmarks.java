@@ -0,0 +1,60 @@
+package edu.southwestern.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.southwestern.boardGame.othello.OthelloState;
+
+/**
+ * Generation of the Othello states reachable in one move, which every board
+ * game player and heuristic search calls at each node
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OthelloBenchmarks {
+
+	/**
+	 * Board after a number of random moves from the starting position
+	 */
+	@State(Scope.Thread)
+	public static class Board {
+		@Param({ "0", "20", "40" })
+		public int plies;
+
+		OthelloState state;
+
+		@Setup
+		public void setup() {
+			BenchmarkParameters.initialize();
+			Random random = new Random(BenchmarkParameters.SEED);
+			state = new OthelloState();
+			for (int i = 0; i < plies && !state.endState(); i++) {
+				List<OthelloState> next = new ArrayList<OthelloState>(state.possibleBoardGameStates(state));
+				state = next.get(random.nextInt(next.size()));
+			}
+		}
+	}
+
+	@Benchmark
+	public Set<OthelloState> possibleBoardGameStates(Board board) {
+		return board.state.possibleBoardGameStates(board.state);
+	}
+}
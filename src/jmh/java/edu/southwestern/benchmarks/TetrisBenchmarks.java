@@ -0,0 +1,84 @@
+package edu.southwestern.benchmarks;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.rlcommunity.environments.tetris.TetrisState;
+
+import edu.southwestern.tasks.rlglue.tetris.TetrisAfterStateGenerator;
+import edu.southwestern.tasks.rlglue.tetris.TetrisPlacement;
+import edu.southwestern.tasks.rlglue.tetris.TetrisStateActionPair;
+
+/**
+ * Search for the afterstates of a falling Tetris piece, which
+ * TetrisAfterStateAgent does before every piece is placed. The full
+ * afterstates are compared with the placements they are built from.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TetrisBenchmarks {
+
+	/**
+	 * Board whose bottom rows are randomly filled, with each kind of piece
+	 * about to fall from the top
+	 */
+	@State(Scope.Thread)
+	public static class Board {
+		@Param({ "0", "8" })
+		public int filledRows;
+
+		TetrisState[] states;
+
+		@Setup
+		public void setup() {
+			BenchmarkParameters.initialize();
+			Random random = new Random(BenchmarkParameters.SEED);
+			int[] world = new int[TetrisState.worldWidth * TetrisState.worldHeight];
+			for (int i = world.length - filledRows * TetrisState.worldWidth; i < world.length; i++) {
+				world[i] = random.nextDouble() < 0.6 ? 1 : 0;
+			}
+			states = new TetrisState[TetrisState.POSSIBLE_BLOCKS.size()];
+			for (int block = 0; block < states.length; block++) {
+				states[block] = new TetrisState();
+				System.arraycopy(world, 0, states[block].worldState, 0, world.length);
+				states[block].currentBlockId = block;
+			}
+		}
+	}
+
+	@Benchmark
+	public int generateAfterStates(Board board) {
+		int total = 0;
+		for (TetrisState state : board.states) {
+			HashSet<TetrisStateActionPair> afterStates = TetrisAfterStateGenerator.generateAfterStates(state);
+			total += afterStates.size();
+		}
+		return total;
+	}
+
+	@Benchmark
+	public int generatePlacements(Board board) {
+		int total = 0;
+		for (TetrisState state : board.states) {
+			List<TetrisPlacement> placements = TetrisAfterStateGenerator.generatePlacements(state);
+			total += placements.size();
+		}
+		return total;
+	}
+}
@@ -11,12 +11,12 @@ public class RandomAStarSimulator extends AStarSimulator
 	
     protected SearchNode pickBestPos(ArrayList<SearchNode> posPool)
     {
-    	if(RandomNumbers.randomGenerator.nextDouble() < optimalPercent) {
+    	if(RandomNumbers.generator().nextDouble() < optimalPercent) {
     		// Still pick optimal action sometimes to encourage progress
     		return super.pickBestPos(posPool);
     	} else {
     		// Just pick a random position and return it
-    		SearchNode bestPos = posPool.get(RandomNumbers.randomGenerator.nextInt(posPool.size()));
+    		SearchNode bestPos = posPool.get(RandomNumbers.generator().nextInt(posPool.size()));
     		posPool.remove(bestPos);
     		return bestPos;
     	}
@@ -18,6 +18,7 @@ import edu.southwestern.data.ResultSummaryUtilities;
 import edu.southwestern.evolution.EA;
 import edu.southwestern.evolution.EvolutionaryHistory;
 import edu.southwestern.evolution.ScoreHistory;
+import edu.southwestern.evolution.SteadyStateEA;
 import edu.southwestern.evolution.crossover.Crossover;
 import edu.southwestern.evolution.genotypes.CombinedGenotype;
 import edu.southwestern.evolution.genotypes.Genotype;
@@ -34,6 +35,7 @@ import edu.southwestern.evolution.metaheuristics.Metaheuristic;
 import edu.southwestern.evolution.metaheuristics.SubstrateLinkPenalty;
 import edu.southwestern.experiment.Experiment;
 import edu.southwestern.log.EvalLog;
+import edu.southwestern.log.GenerationMetrics;
 import edu.southwestern.log.MMNEATLog;
 import edu.southwestern.log.PerformanceLog;
 import edu.southwestern.networks.ActivationFunctions;
@@ -56,6 +58,7 @@ import edu.southwestern.tasks.boardGame.SinglePopulationCompetativeCoevolutionBo
 import edu.southwestern.tasks.boardGame.StaticOpponentBoardGameTask;
 import edu.southwestern.tasks.breve2D.Breve2DTask;
 import edu.southwestern.tasks.breve2D.NNBreve2DMonster;
+import edu.southwestern.tasks.farm.EvaluationFarm;
 import edu.southwestern.tasks.gridTorus.GroupTorusPredPreyTask;
 import edu.southwestern.tasks.gridTorus.NNTorusPredPreyController;
 import edu.southwestern.tasks.gridTorus.TorusEvolvedPredatorsVsStaticPreyTask;
@@ -114,7 +117,7 @@ import edu.southwestern.util.random.RandomGenerator;
 import edu.southwestern.util.random.RandomNumbers;
 import edu.southwestern.util.stats.Statistic;
 import oldpacman.Executor;
-import wox.serial.Easy;
+import edu.southwestern.util.file.Serialization;
 
 /**
  * Modular Multiobjective Neuro-Evolution of Augmenting Topologies.
@@ -484,7 +487,7 @@ public class MMNEAT {
 					if (multitaskNet != null && !multitaskNet.isEmpty()) {
 						// Preference networks are being evolved to pick outputs of
 						// fixed multitask network
-						MMNEAT.sharedMultitaskNetwork = (TWEANNGenotype) Easy.load(multitaskNet);
+						MMNEAT.sharedMultitaskNetwork = (TWEANNGenotype) Serialization.load(multitaskNet);
 						if (CommonConstants.showNetworks) {
 							DrawingPanel panel = new DrawingPanel(TWEANN.NETWORK_VIEW_DIM, TWEANN.NETWORK_VIEW_DIM, "Fixed Multitask Network");
 							MMNEAT.sharedMultitaskNetwork.getPhenotype().draw(panel);
@@ -492,7 +495,7 @@ public class MMNEAT {
 						// One preference neuron per multitask mode
 						setNNInputParameters(pacmanInputOutputMediator.numIn(), MMNEAT.sharedMultitaskNetwork.numModules);
 					} else if (preferenceNet != null && !preferenceNet.isEmpty()) {
-						MMNEAT.sharedPreferenceNetwork = (TWEANNGenotype) Easy.load(preferenceNet);
+						MMNEAT.sharedPreferenceNetwork = (TWEANNGenotype) Serialization.load(preferenceNet);
 						if (CommonConstants.showNetworks) {
 							DrawingPanel panel = new DrawingPanel(TWEANN.NETWORK_VIEW_DIM, TWEANN.NETWORK_VIEW_DIM, "Fixed Preference Network");
 							MMNEAT.sharedPreferenceNetwork.getPhenotype().draw(panel);
@@ -771,7 +774,7 @@ public class MMNEAT {
 			} else {
 				// Copy assures a fresh genotype id
 				System.out.println("Loading seed genotype: " + seedGenotype);
-				genotype = ((Genotype) Easy.load(seedGenotype)).copy();
+				genotype = ((Genotype) Serialization.load(seedGenotype)).copy();
 				// System.out.println(genotype);
 				seedExample = true;
 			}
@@ -784,6 +787,9 @@ public class MMNEAT {
 				if (Parameters.parameters.booleanParameter("logPerformance") && !multiPopulationCoevolution) {
 					performanceLog = new PerformanceLog("Performance");
 				}
+				if (Parameters.parameters.booleanParameter("logPhaseTiming")) {
+					GenerationMetrics.initialize(ea instanceof SteadyStateEA);
+				}
 				if (Parameters.parameters.booleanParameter("logMutationAndLineage")) {
 					EvolutionaryHistory.initLineageAndMutationLogs();
 				}
@@ -897,7 +903,7 @@ public class MMNEAT {
 			// because an archetype is required. There will be one
 			// archetype file for each population, so checking for the
 			// existence of the files verifies the number of populations.
-			while(new File(runDir + "archetype"+i+".xml").exists()) {
+			while(Serialization.exists(runDir + "archetype"+i+".xml")) {
 				ResultSummaryUtilities.processExperiment(
 						base + "/" + saveTo,
 						Parameters.parameters.stringParameter("log"), runs, Parameters.parameters.integerParameter("maxGens"),
@@ -1073,6 +1079,7 @@ public class MMNEAT {
 		mmneat.run();
 
 		closeLogs();
+		EvaluationFarm.shutdown();
 	}
 
 	/**
@@ -1082,6 +1089,7 @@ public class MMNEAT {
 		if (performanceLog != null) {
 			performanceLog.close();
 		}
+		GenerationMetrics.close();
 		if (EvolutionaryHistory.tweannLog != null) {
 			EvolutionaryHistory.tweannLog.close();
 			EvolutionaryHistory.tweannLog = null;
@@ -81,6 +81,30 @@ public abstract class TwoDimensionalBoardGameState implements BoardGameState {
 		return nextPlayer;
 	}
 
+	/**
+	 * Contents of a single space on the board. All methods of this class
+	 * read the board through this method and setSpace, so that subclasses
+	 * can store the board in some other form than an int[][]
+	 * 
+	 * @param x x-coordinate (row) of space
+	 * @param y y-coordinate (column) of space
+	 * @return piece at the space, or EMPTY
+	 */
+	public int getSpace(int x, int y) {
+		return boardState[x][y];
+	}
+
+	/**
+	 * Change the contents of a single space on the board
+	 * 
+	 * @param x x-coordinate (row) of space
+	 * @param y y-coordinate (column) of space
+	 * @param piece piece to place at the space, or EMPTY
+	 */
+	protected void setSpace(int x, int y, int piece) {
+		boardState[x][y] = piece;
+	}
+
 	/**
 	 * Places pieces on board as they will be at the start of a game
 	 */
@@ -109,7 +133,7 @@ public abstract class TwoDimensionalBoardGameState implements BoardGameState {
 		
 		for(int i = 0; i < getBoardWidth(); i++){
 			for(int j = 0; j < getBoardHeight(); j++){
-				if(boardState[i][j] == EMPTY){
+				if(getSpace(i, j) == EMPTY){
 					indexes.add(new Point(i, j));
 				}
 			}
@@ -127,8 +151,8 @@ public abstract class TwoDimensionalBoardGameState implements BoardGameState {
 	 * @return whether placement is successful
 	 */
 	public boolean placePlayerPiece(int player, Point space) {
-		if(boardState[space.x][space.y] == EMPTY) {
-			boardState[space.x][space.y] = player;
+		if(getSpace(space.x, space.y) == EMPTY) {
+			setSpace(space.x, space.y, player);
 			return true;
 		} else {
 			return false;
@@ -146,9 +170,9 @@ public abstract class TwoDimensionalBoardGameState implements BoardGameState {
 	 * @return whether successful
 	 */
 	public boolean movePlayerPiece(Point source, Point destination, boolean allowCapture) {
-		if(boardState[source.x][source.y] != EMPTY && (allowCapture || boardState[destination.x][destination.y] == EMPTY)) {
-			boardState[destination.x][destination.y] = boardState[source.x][source.y]; // move to new destination
-			boardState[source.x][source.y] = EMPTY; // remove from original space
+		if(getSpace(source.x, source.y) != EMPTY && (allowCapture || getSpace(destination.x, destination.y) == EMPTY)) {
+			setSpace(destination.x, destination.y, getSpace(source.x, source.y)); // move to new destination
+			setSpace(source.x, source.y, EMPTY); // remove from original space
 			return true;
 		} else {
 			return false;
@@ -168,7 +192,7 @@ public abstract class TwoDimensionalBoardGameState implements BoardGameState {
 
 		if((location.getX() >= 0 && location.getX() < getBoardWidth()) &&
 				(location.getX() >= 0 && location.getX() < getBoardHeight())){
-			boardState[(int) location.getX()][(int) location.getY()] = EMPTY;
+			setSpace((int) location.getX(), (int) location.getY(), EMPTY);
 			return true;
 		}else{
 			return false;
@@ -213,7 +237,7 @@ public abstract class TwoDimensionalBoardGameState implements BoardGameState {
 			for(int j = 0; j < getBoardHeight(); j++){
 				
 				char mark;
-				int space = boardState[i][j];
+				int space = getSpace(i, j);
 				
 				if(space == EMPTY){
 					mark = ' ';
@@ -254,7 +278,7 @@ public abstract class TwoDimensionalBoardGameState implements BoardGameState {
 		
 		for(int i = 0; i < getBoardWidth(); i++){
 			for(int j = 0; j < getBoardHeight(); j++){
-				if(boardState[i][j] == playerIndex) numPieces++;
+				if(getSpace(i, j) == playerIndex) numPieces++;
 			}
 		}
 		
@@ -275,7 +299,7 @@ public abstract class TwoDimensionalBoardGameState implements BoardGameState {
 		// This method will not work with BoardGames with more than 2 Players TODO: Generalize this?
 		for(int i = 0; i < getBoardHeight(); i++){
 			for(int j = 0; j < getBoardWidth(); j ++){
-				switch(boardState[i][j]){
+				switch(getSpace(i, j)){
 				case EMPTY: features[index++] = 0; break; // Empty Space
 				case 0: features[index++] = 1; break; // Player 1 = +1
 				case 1: features[index++] = -1; break; // Player 2 = -1
@@ -294,7 +318,7 @@ public abstract class TwoDimensionalBoardGameState implements BoardGameState {
 		
 		for(int i = 0; i < getBoardWidth(); i++){
 			for(int j = 0; j < getBoardHeight(); j ++){
-				pieces[index++] = boardState[i][j]; // Returns the literal Piece Values
+				pieces[index++] = getSpace(i, j); // Returns the literal Piece Values
 			}
 		}		
 		return pieces;
@@ -325,7 +349,7 @@ public abstract class TwoDimensionalBoardGameState implements BoardGameState {
 		
 		for(int i = 0; i < getBoardWidth(); i++){
 			for(int j = 0; j < getBoardHeight(); j++){
-				if(this.boardState[i][j] != other2D.boardState[i][j]){
+				if(this.getSpace(i, j) != other2D.getSpace(i, j)){
 					return false;
 				}
 			}
@@ -9,7 +9,9 @@ import edu.southwestern.util.random.RandomNumbers;
 
 public class BoardGamePlayerRandom<T extends BoardGameState> implements BoardGamePlayer<T> {
 	
-	Random random = RandomNumbers.randomGenerator;
+	// Only set by setRandomSeed. Otherwise moves are drawn from RandomNumbers.generator() when they are made,
+	// which is the generator of the evaluation the player is in.
+	private Random random = null;
 	
 	/**
 	 * Chooses a random action out of the list of possible actions at a given BoardGameState
@@ -21,11 +23,23 @@ public class BoardGamePlayerRandom<T extends BoardGameState> implements BoardGam
 	public T takeAction(T current) {
 		List<T> poss = new ArrayList<T>();
 		poss.addAll(current.possibleBoardGameStates(current));
-		T temp = poss.get(random.nextInt(poss.size()));
+		T temp = poss.get(random().nextInt(poss.size()));
 		return temp;
 	}
 	
+	/**
+	 * @return generator to draw random moves from
+	 */
+	private Random random() {
+		return random == null ? RandomNumbers.generator() : random;
+	}
+	
+	/**
+	 * Make this player draw its random moves from its own generator with the given seed
+	 * 
+	 * @param seed seed of the generator
+	 */
 	public void setRandomSeed(long seed){
-		random.setSeed(seed);
+		random = new Random(seed);
 	}
 }
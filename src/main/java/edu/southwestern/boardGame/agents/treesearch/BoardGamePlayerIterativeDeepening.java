@@ -0,0 +1,444 @@
+package edu.southwestern.boardGame.agents.treesearch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+import edu.southwestern.MMNEAT.MMNEAT;
+import edu.southwestern.boardGame.TwoDimensionalBoardGameState;
+import edu.southwestern.boardGame.agents.HeuristicBoardGamePlayer;
+import edu.southwestern.boardGame.heuristics.BoardGameHeuristic;
+import edu.southwestern.boardGame.heuristics.NNBoardGameHeuristic;
+import edu.southwestern.parameters.Parameters;
+import edu.southwestern.tasks.EvaluationPool;
+import edu.southwestern.util.ClassCreation;
+import edu.southwestern.util.random.RandomNumbers;
+
+/**
+ * Alpha-beta search that deepens one ply at a time up to minimaxSearchDepth,
+ * like BoardGamePlayerMinimaxAlphaBetaPruning at that depth, but much
+ * cheaper:
+ *
+ * - Positions are identified by Zobrist hashes, and their search results
+ *   are kept in a transposition table that persists between moves. A stored
+ *   result only cuts off search when it was searched to exactly the
+ *   remaining depth, so the value of each move is the same as that of a
+ *   fixed-depth search, but it still orders moves at other depths.
+ * - Heuristic values of leaf states are cached, so each state is only
+ *   evaluated once by a given heuristic (network). The caches are emptied
+ *   when a new heuristic is set.
+ * - Moves are ordered by the best move of the previous iteration, then
+ *   killer moves (moves that caused a cutoff at the same ply), then the
+ *   history of cutoffs made by placing a piece on each space.
+ * - With parallelBoardGameSearch, each move at the root is searched
+ *   separately by the shared EvaluationPool. Each thread has its own tables
+ *   and its own copy of an evolved network.
+ *
+ * With boardGameSearchMillis above 0, search instead deepens until time runs
+ * out, and plays the best move of the deepest completed iteration.
+ *
+ * Supports the same minimaxRandomRate and minimaxSecondBestRate as
+ * BoardGamePlayerMinimax.
+ *
+ * @param <T> Type of board game state
+ */
+public class BoardGamePlayerIterativeDeepening<T extends TwoDimensionalBoardGameState> extends HeuristicBoardGamePlayer<T> {
+
+	// 2^16 slots in the transposition table and the heuristic cache of each thread
+	public static final int TABLE_BITS = 16;
+	// Deepest search possible when deepening until time runs out
+	public static final int MAX_PLY = 64;
+	// How many nodes are searched between checks of the clock
+	private static final int NODES_PER_TIME_CHECK = 256;
+
+	private final int depth;
+	private final int searchMillis;
+	private final boolean parallel;
+	// Tables of the thread that calls takeAction, and of each thread of the pool
+	private final ConcurrentHashMap<Thread, Searcher> searchers = new ConcurrentHashMap<Thread, Searcher>();
+	private ZobristHash zobrist;
+	private volatile long deadline;
+	private double lastValue;
+	private int lastDepth;
+
+	/**
+	 * This constructor assumes an opponent agent is being created.
+	 * But if an evolved agent needs to be created, its heuristic
+	 * can be re-loaded with the setHeuristic method.
+	 */
+	@SuppressWarnings("unchecked")
+	public BoardGamePlayerIterativeDeepening() {
+		this((BoardGameHeuristic<T>) createOpponentHeuristic());
+	}
+
+	/**
+	 * New instance with a given heuristic.
+	 *
+	 * @param bgh BoardGameHeuristic
+	 */
+	public BoardGamePlayerIterativeDeepening(BoardGameHeuristic<T> bgh) {
+		boardHeuristic = bgh;
+		depth = Parameters.parameters.integerParameter("minimaxSearchDepth");
+		searchMillis = Parameters.parameters.integerParameter("boardGameSearchMillis");
+		parallel = Parameters.parameters.booleanParameter("parallelBoardGameSearch");
+		if(MMNEAT.boardGame != null && MMNEAT.boardGame.getNumPlayers() != 2) {
+			System.out.println("The BoardGamePlayerIterativeDeepening can only be applied to two-player games");
+			System.out.println("This one has " + MMNEAT.boardGame.getNumPlayers());
+			System.exit(1);
+		}
+	}
+
+	private static BoardGameHeuristic<?> createOpponentHeuristic() {
+		try {
+			return (BoardGameHeuristic<?>) ClassCreation.createObject("boardGameOpponentHeuristic");
+		} catch (NoSuchMethodException e) {
+			e.printStackTrace();
+			System.exit(1);
+			return null;
+		}
+	}
+
+	/**
+	 * Cached results of the previous heuristic are no longer valid
+	 */
+	@Override
+	public void setHeuristic(BoardGameHeuristic<T> bgh) {
+		super.setHeuristic(bgh);
+		searchers.clear();
+	}
+
+	/**
+	 * Minimax value of the move chosen by the last call to takeAction
+	 *
+	 * @return value from the perspective of player 0
+	 */
+	public double getLastValue() {
+		return lastValue;
+	}
+
+	/**
+	 * Depth of the deepest search completed by the last call to takeAction
+	 *
+	 * @return depth, where 0 means only the possible next states were evaluated
+	 */
+	public int getLastDepth() {
+		return lastDepth;
+	}
+
+	@Override
+	public T takeAction(T current) {
+		assert current.getNumPlayers() == 2 : "Only works for two player games.";
+		if(zobrist == null || !zobrist.fits(current)) {
+			zobrist = new ZobristHash(current.getBoardWidth(), current.getBoardHeight(), current.getNumPlayers());
+			searchers.clear();
+		}
+
+		List<T> poss = new ArrayList<T>(current.possibleBoardGameStates(current));
+		// If occasional random moves are allowed, then search can be skipped
+		double rand = RandomNumbers.generator().nextDouble();
+		if(rand < Parameters.parameters.doubleParameter("minimaxRandomRate")) {
+			return RandomNumbers.randomElement(poss);
+		}
+
+		boolean maximize = current.getCurrentPlayer() == 0;
+		Searcher searcher = searcher();
+		long rootKey = zobrist.hash(current, false);
+		long[] keys = new long[poss.size()];
+		boolean[] ends = new boolean[poss.size()];
+		int[] moves = new int[poss.size()];
+		for(int i = 0; i < keys.length; i++) {
+			T child = poss.get(i);
+			ends[i] = child.endState();
+			keys[i] = zobrist.hash(child, ends[i]);
+			moves[i] = movedTo(current, child);
+		}
+
+		long end = searchMillis > 0 ? System.currentTimeMillis() + searchMillis : Long.MAX_VALUE;
+		int maxDepth = searchMillis > 0 ? MAX_PLY - 1 : depth;
+		double[] values = new double[poss.size()];
+		double[] iterationValues = new double[poss.size()];
+		boolean[] excluded = new boolean[poss.size()];
+		int best = 0;
+		for(int d = 0; d <= maxDepth; d++) {
+			deadline = d == 0 ? Long.MAX_VALUE : end; // Always evaluate the possible next states
+			int found = parallel ? parallelRoot(poss, keys, ends, excluded, maximize, d, iterationValues)
+					: searcher.root(current, rootKey, poss, keys, ends, moves, excluded, d, iterationValues);
+			if(found < 0) break; // Out of time
+			best = found;
+			System.arraycopy(iterationValues, 0, values, 0, values.length);
+			lastDepth = d;
+			searcher.table.store(rootKey, d + 1, values[best], TranspositionTable.EXACT, keys[best]);
+		}
+
+		// If there is a second option, and random number is less than the second-best chance, then switch
+		if(poss.size() > 1 && rand < Parameters.parameters.doubleParameter("minimaxSecondBestRate")) {
+			excluded[best] = true;
+			if(parallel) { // All values are exact
+				best = bestIndex(values, excluded, maximize);
+			} else { // Only the best move has an exact value after sequential search
+				deadline = Long.MAX_VALUE;
+				best = searcher.root(current, rootKey, poss, keys, ends, moves, excluded, lastDepth, values);
+			}
+		}
+		lastValue = values[best];
+		return poss.get(best);
+	}
+
+	/**
+	 * Index of the highest value (for player 0) or lowest value (for player 1)
+	 * among moves that are not excluded. Ties go to the earliest move.
+	 */
+	private static int bestIndex(double[] values, boolean[] excluded, boolean maximize) {
+		int best = -1;
+		for(int i = 0; i < values.length; i++) {
+			if(excluded[i]) continue;
+			if(best == -1 || (maximize ? values[i] > values[best] : values[i] < values[best])) best = i;
+		}
+		return best;
+	}
+
+	/**
+	 * Search every move at the root to the given depth in a separate task
+	 *
+	 * @param values filled with the exact value of every move
+	 * @return index of the best move, or -1 if time ran out
+	 */
+	private int parallelRoot(List<T> poss, long[] keys, boolean[] ends, boolean[] excluded, boolean maximize, int d, double[] values) {
+		List<Callable<Double>> calls = new ArrayList<Callable<Double>>(poss.size());
+		for(int i = 0; i < poss.size(); i++) {
+			final T child = poss.get(i);
+			final long key = keys[i];
+			final boolean end = ends[i];
+			calls.add(new Callable<Double>() {
+				@Override
+				public Double call() {
+					Searcher searcher = searcher();
+					searcher.aborted = false;
+					double value = searcher.search(child, key, end, d, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 1);
+					return searcher.aborted ? Double.NaN : value;
+				}
+			});
+		}
+		ArrayList<Double> results = EvaluationPool.invokeAll(calls);
+		for(int i = 0; i < values.length; i++) {
+			values[i] = results.get(i);
+			if(Double.isNaN(values[i])) return -1;
+		}
+		return bestIndex(values, excluded, maximize);
+	}
+
+	/**
+	 * Tables of the current thread
+	 */
+	private Searcher searcher() {
+		Thread thread = Thread.currentThread();
+		Searcher searcher = searchers.get(thread);
+		if(searcher == null) {
+			// The first thread to search uses the heuristic itself, all others get copies
+			searcher = new Searcher(searchers.isEmpty() ? boardHeuristic : heuristicCopy());
+			searchers.put(thread, searcher);
+		}
+		return searcher;
+	}
+
+	/**
+	 * Heuristic that can be used at the same time as boardHeuristic by another thread.
+	 * Evolved heuristics get their own network, and other heuristics are assumed
+	 * to be stateless.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private BoardGameHeuristic<T> heuristicCopy() {
+		if(boardHeuristic instanceof NNBoardGameHeuristic) {
+			return ((NNBoardGameHeuristic) boardHeuristic).copy();
+		}
+		return boardHeuristic;
+	}
+
+	/**
+	 * Space where the move from parent to child places a piece: the first
+	 * space that is empty in parent but not in child.
+	 *
+	 * @return index of space (row-major), or -1 if there is none (a pass)
+	 */
+	private static int movedTo(TwoDimensionalBoardGameState parent, TwoDimensionalBoardGameState child) {
+		int space = 0;
+		for(int x = 0; x < parent.getBoardWidth(); x++) {
+			for(int y = 0; y < parent.getBoardHeight(); y++) {
+				if(parent.getSpace(x, y) == TwoDimensionalBoardGameState.EMPTY && child.getSpace(x, y) != TwoDimensionalBoardGameState.EMPTY) return space;
+				space++;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Alpha-beta search with the tables of one thread
+	 */
+	private class Searcher {
+
+		final BoardGameHeuristic<T> heuristic;
+		final TranspositionTable table = new TranspositionTable(TABLE_BITS);
+		final long[] evaluatedKeys = new long[1 << TABLE_BITS];
+		final double[] evaluatedValues = new double[1 << TABLE_BITS];
+		final boolean[] evaluated = new boolean[1 << TABLE_BITS];
+		// Two killer moves per ply, and history scores per player and space
+		final int[][] killers = new int[MAX_PLY + 1][2];
+		int[][] history = new int[2][0];
+		long nodes;
+		boolean aborted;
+
+		Searcher(BoardGameHeuristic<T> heuristic) {
+			this.heuristic = heuristic;
+			for(int[] k : killers) Arrays.fill(k, -1);
+		}
+
+		/**
+		 * Heuristic value of a leaf, evaluated at most once per state
+		 */
+		double evaluate(T state, long key) {
+			int i = (int) (key ^ (key >>> 32)) & (evaluated.length - 1);
+			if(evaluated[i] && evaluatedKeys[i] == key) return evaluatedValues[i];
+			double value = heuristic.heuristicEvalution(state);
+			evaluated[i] = true;
+			evaluatedKeys[i] = key;
+			evaluatedValues[i] = value;
+			return value;
+		}
+
+		/**
+		 * Search all moves at the root that are not excluded, best move of
+		 * the previous iteration first
+		 *
+		 * @param values filled with the value of every move: exact for the best
+		 *        move, but only a bound for moves that were worse
+		 * @return index of the best move (first in search order among equals),
+		 *         or -1 if time ran out
+		 */
+		int root(T current, long rootKey, List<T> poss, long[] keys, boolean[] ends, int[] moves, boolean[] excluded, int d, double[] values) {
+			aborted = false;
+			boolean maximize = current.getCurrentPlayer() == 0;
+			int[] order = order(current, rootKey, keys, moves, 0);
+			double alpha = Double.NEGATIVE_INFINITY;
+			double beta = Double.POSITIVE_INFINITY;
+			int best = -1;
+			for(int i : order) {
+				if(excluded[i]) continue;
+				values[i] = search(poss.get(i), keys[i], ends[i], d, alpha, beta, 1);
+				if(aborted) return -1;
+				// Moves that fail low may return a bound equal to the best value, so ties keep the earlier move
+				if(best == -1 || (maximize ? values[i] > values[best] : values[i] < values[best])) best = i;
+				if(maximize) alpha = Math.max(alpha, values[i]);
+				else beta = Math.min(beta, values[i]);
+			}
+			return best;
+		}
+
+		/**
+		 * Alpha-beta search of a state. Player 0 maximizes and player 1 minimizes.
+		 *
+		 * @param state state to search
+		 * @param key Zobrist hash of state
+		 * @param end whether state is an end state
+		 * @param remaining remaining depth; 0 means evaluate the state
+		 * @param alpha lower bound of interesting values
+		 * @param beta upper bound of interesting values
+		 * @param ply distance from the root
+		 * @return value of the state, or a bound on it outside of (alpha,beta)
+		 */
+		double search(T state, long key, boolean end, int remaining, double alpha, double beta, int ply) {
+			if(++nodes % NODES_PER_TIME_CHECK == 0 && System.currentTimeMillis() > deadline) aborted = true;
+			if(aborted) return 0;
+			if(remaining == 0 || end) {
+				return evaluate(state, key);
+			}
+
+			int slot = table.find(key);
+			if(slot >= 0 && table.depth(slot) == remaining) {
+				double stored = table.value(slot);
+				byte flag = table.flag(slot);
+				if(flag == TranspositionTable.EXACT) return stored;
+				if(flag == TranspositionTable.LOWER_BOUND) alpha = Math.max(alpha, stored);
+				else beta = Math.min(beta, stored);
+				if(beta <= alpha) return stored;
+			}
+
+			List<T> poss = new ArrayList<T>(state.possibleBoardGameStates(state));
+			long[] keys = new long[poss.size()];
+			boolean[] ends = new boolean[poss.size()];
+			int[] moves = new int[poss.size()];
+			for(int i = 0; i < keys.length; i++) {
+				T child = poss.get(i);
+				ends[i] = child.endState();
+				keys[i] = zobrist.hash(child, ends[i]);
+				moves[i] = movedTo(state, child);
+			}
+			int[] order = order(state, key, keys, moves, ply);
+
+			int player = state.getCurrentPlayer();
+			boolean maximize = player == 0;
+			double alphaOriginal = alpha;
+			double betaOriginal = beta;
+			double v = maximize ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+			long bestKey = keys[order[0]];
+			for(int i : order) {
+				double childValue = search(poss.get(i), keys[i], ends[i], remaining - 1, alpha, beta, ply + 1);
+				if(aborted) return 0;
+				if(maximize ? childValue > v : childValue < v) {
+					v = childValue;
+					bestKey = keys[i];
+				}
+				if(maximize) alpha = Math.max(alpha, v);
+				else beta = Math.min(beta, v);
+				if(beta <= alpha) { // Cut-off
+					recordCutoff(player, moves[i], remaining, ply);
+					break;
+				}
+			}
+
+			byte flag = v <= alphaOriginal ? TranspositionTable.UPPER_BOUND : (v >= betaOriginal ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT);
+			table.store(key, remaining, v, flag, bestKey);
+			return v;
+		}
+
+		private void recordCutoff(int player, int move, int remaining, int ply) {
+			if(move < 0) return;
+			if(ply < killers.length && killers[ply][0] != move) {
+				killers[ply][1] = killers[ply][0];
+				killers[ply][0] = move;
+			}
+			history[player][move] += remaining * remaining;
+		}
+
+		/**
+		 * Order in which to search the moves: best move stored in the table first,
+		 * then killer moves, then moves by history score
+		 */
+		private int[] order(T state, long key, long[] keys, int[] moves, int ply) {
+			int spaces = state.getBoardWidth() * state.getBoardHeight();
+			if(history[0].length != spaces) history = new int[2][spaces];
+			int player = state.getCurrentPlayer();
+			int slot = table.find(key);
+			long bestKey = slot >= 0 ? table.bestMove(slot) : 0;
+			long[] scores = new long[keys.length];
+			for(int i = 0; i < keys.length; i++) {
+				if(slot >= 0 && keys[i] == bestKey) scores[i] = Long.MAX_VALUE;
+				else if(moves[i] >= 0 && ply < killers.length && moves[i] == killers[ply][0]) scores[i] = Long.MAX_VALUE - 1;
+				else if(moves[i] >= 0 && ply < killers.length && moves[i] == killers[ply][1]) scores[i] = Long.MAX_VALUE - 2;
+				else scores[i] = moves[i] >= 0 ? history[player][moves[i]] : 0;
+			}
+			// Insertion sort by decreasing score; ties keep their original order
+			int[] order = new int[keys.length];
+			for(int i = 0; i < order.length; i++) {
+				int j = i;
+				while(j > 0 && scores[order[j - 1]] < scores[i]) {
+					order[j] = order[j - 1];
+					j--;
+				}
+				order[j] = i;
+			}
+			return order;
+		}
+	}
+}
@@ -93,7 +93,7 @@ public class BoardGamePlayerMinimax<T extends BoardGameState> extends HeuristicB
 		//System.out.println(poss);
 		
 		// If occasional random moves are allowed, then minimax calculation can be skipped
-		double rand = RandomNumbers.randomGenerator.nextDouble();
+		double rand = RandomNumbers.generator().nextDouble();
 		if(rand < Parameters.parameters.doubleParameter("minimaxRandomRate")){
 			return RandomNumbers.randomElement(poss);
 		} 
@@ -0,0 +1,106 @@
+package edu.southwestern.boardGame.agents.treesearch;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size table of search results indexed by Zobrist hash. Each slot
+ * holds one position; a new result replaces the stored one unless it
+ * belongs to the same position and was searched less deeply. The table
+ * is made of parallel primitive arrays, so storing and probing does not
+ * allocate.
+ */
+public class TranspositionTable {
+
+	/** The value is the exact minimax value */
+	public static final byte EXACT = 0;
+	/** The true value is at least the stored value */
+	public static final byte LOWER_BOUND = 1;
+	/** The true value is at most the stored value */
+	public static final byte UPPER_BOUND = 2;
+
+	private final long[] keys;
+	private final double[] values;
+	private final int[] depths; // -1 marks an empty slot
+	private final byte[] flags;
+	private final long[] bestMoves;
+	private final int mask;
+
+	/**
+	 * Empty table
+	 *
+	 * @param bits the table has 2^bits slots
+	 */
+	public TranspositionTable(int bits) {
+		int size = 1 << bits;
+		mask = size - 1;
+		keys = new long[size];
+		values = new double[size];
+		depths = new int[size];
+		flags = new byte[size];
+		bestMoves = new long[size];
+		clear();
+	}
+
+	private int index(long key) {
+		return (int) (key ^ (key >>> 32)) & mask;
+	}
+
+	/**
+	 * Remove all entries
+	 */
+	public void clear() {
+		Arrays.fill(depths, -1);
+	}
+
+	/**
+	 * Slot holding a position
+	 *
+	 * @param key Zobrist hash of the position
+	 * @return slot index, or -1 if the position is not in the table
+	 */
+	public int find(long key) {
+		int i = index(key);
+		return depths[i] >= 0 && keys[i] == key ? i : -1;
+	}
+
+	public double value(int slot) {
+		return values[slot];
+	}
+
+	public int depth(int slot) {
+		return depths[slot];
+	}
+
+	public byte flag(int slot) {
+		return flags[slot];
+	}
+
+	/**
+	 * Best move found for the position, identified by the hash of the resulting state
+	 *
+	 * @param slot slot index returned by find
+	 * @return Zobrist hash of the best child state
+	 */
+	public long bestMove(int slot) {
+		return bestMoves[slot];
+	}
+
+	/**
+	 * Store a search result
+	 *
+	 * @param key Zobrist hash of the position
+	 * @param depth remaining search depth of the result
+	 * @param value value found
+	 * @param flag EXACT, LOWER_BOUND or UPPER_BOUND
+	 * @param bestMove Zobrist hash of the best child state
+	 */
+	public void store(long key, int depth, double value, byte flag, long bestMove) {
+		int i = index(key);
+		if (depths[i] >= 0 && keys[i] == key && depths[i] > depth) return; // Keep the deeper result
+		keys[i] = key;
+		depths[i] = depth;
+		values[i] = value;
+		flags[i] = flag;
+		bestMoves[i] = bestMove;
+	}
+}
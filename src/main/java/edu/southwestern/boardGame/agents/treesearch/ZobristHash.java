@@ -0,0 +1,83 @@
+package edu.southwestern.boardGame.agents.treesearch;
+
+import java.util.Random;
+
+import edu.southwestern.boardGame.TwoDimensionalBoardGameState;
+
+/**
+ * Zobrist hashing of TwoDimensionalBoardGameStates: every combination of
+ * space and piece has a random 64-bit key, and the hash of a state is the
+ * XOR of the keys of all its pieces, the key of the player to move, and a
+ * key for terminal states. Two states with the same board and the same
+ * player to move (which is what equals compares) get the same hash, and
+ * different states get different hashes with overwhelming probability.
+ * The keys come from a fixed seed, so hashes are the same in every run.
+ */
+public class ZobristHash {
+
+	private static final long SEED = 0x5DEECE66DL;
+	// Piece values from EMPTY (-1) up to this bound have keys
+	private static final int MAX_PIECE = 7;
+
+	private final int width;
+	private final int height;
+	// keys[space][piece + 1], where EMPTY spaces do not contribute
+	private final long[][] keys;
+	private final long[] playerKeys;
+	private final long endKey;
+
+	/**
+	 * Keys for boards of the given size
+	 *
+	 * @param width board width
+	 * @param height board height
+	 * @param numPlayers number of players
+	 */
+	public ZobristHash(int width, int height, int numPlayers) {
+		this.width = width;
+		this.height = height;
+		Random random = new Random(SEED);
+		keys = new long[width * height][MAX_PIECE + 2];
+		for (long[] spaceKeys : keys) {
+			for (int p = 1; p < spaceKeys.length; p++) { // Index 0 (EMPTY) stays 0
+				spaceKeys[p] = random.nextLong();
+			}
+		}
+		playerKeys = new long[numPlayers];
+		for (int i = 0; i < numPlayers; i++) {
+			playerKeys[i] = random.nextLong();
+		}
+		endKey = random.nextLong();
+	}
+
+	/**
+	 * Whether these keys apply to the given state
+	 *
+	 * @param state board game state
+	 * @return true if the board has the size these keys were made for
+	 */
+	public boolean fits(TwoDimensionalBoardGameState state) {
+		return state.getBoardWidth() == width && state.getBoardHeight() == height && state.getNumPlayers() == playerKeys.length;
+	}
+
+	/**
+	 * Hash of a whole state
+	 *
+	 * @param state state to hash
+	 * @param end whether the state is an end state
+	 * @return 64-bit Zobrist hash
+	 */
+	public long hash(TwoDimensionalBoardGameState state, boolean end) {
+		long hash = playerKeys[state.getCurrentPlayer()];
+		if (end) hash ^= endKey;
+		int space = 0;
+		for (int x = 0; x < width; x++) {
+			for (int y = 0; y < height; y++) {
+				int piece = state.getSpace(x, y);
+				assert piece >= TwoDimensionalBoardGameState.EMPTY && piece <= MAX_PIECE : "No key for piece " + piece;
+				hash ^= keys[space++][piece + 1];
+			}
+		}
+		return hash;
+	}
+}
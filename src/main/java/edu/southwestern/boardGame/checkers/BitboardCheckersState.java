@@ -0,0 +1,483 @@
+package edu.southwestern.boardGame.checkers;
+
+import java.awt.Point;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+import edu.southwestern.boardGame.BoardGameState;
+
+/**
+ * CheckersState that stores the board as 64-bit masks of black checks,
+ * red checks and kings instead of an int[][]. Space (x,y) is bit x*8 + y.
+ * Moves are generated with precomputed tables of the diagonal neighbor and
+ * jump landing square of every square, and are encoded as ints, so move
+ * generation does not copy the state or allocate Points. Copies only copy
+ * a few longs.
+ *
+ * Search code can avoid copies entirely with legalMoves, makeMove and
+ * unmakeMove. The rules are those that CheckersState intends: jumps are
+ * forced, and a check that can continue jumping after a jump must do so
+ * before the turn passes. Any check that can jump may be chosen to make
+ * the first jump of a turn, and only the jumping check may continue a
+ * multi-jump. CheckersState only allows the last check in row-major order
+ * to jump whenever that check can jump, and forgets which check has to
+ * continue a multi-jump once it has generated its moves. The two only have
+ * the same moves in other positions, so Checkers does not start from this
+ * state.
+ */
+public class BitboardCheckersState extends CheckersState {
+
+	public static final int NUM_SQUARES = BOARD_WIDTH * BOARD_WIDTH;
+	// Comfortably more than the number of moves available in any position
+	public static final int MAX_MOVES = 64;
+	// Number of moves made without jumps and without men for the game to end in a draw
+	public static final int DRAW_MOVES = 50;
+
+	private static final int TO_SHIFT = 6;
+	private static final int SQUARE_MASK = (1 << TO_SHIFT) - 1;
+	private static final int JUMP_FLAG = 1 << (2 * TO_SHIFT);
+
+	// Black men move towards higher x (directions 0 and 1), red men towards lower x (2 and 3)
+	private static final int[] DX = new int[] { 1, 1, -1, -1 };
+	private static final int[] DY = new int[] { -1, 1, -1, 1 };
+	// Square diagonally adjacent in each direction, or -1 if off the board
+	private static final int[][] STEPS = new int[DX.length][NUM_SQUARES];
+	// Square two steps away in each direction (landing of a jump), or -1 if off the board
+	private static final int[][] JUMPS = new int[DX.length][NUM_SQUARES];
+
+	static {
+		for (int d = 0; d < DX.length; d++) {
+			for (int x = 0; x < BOARD_WIDTH; x++) {
+				for (int y = 0; y < BOARD_WIDTH; y++) {
+					STEPS[d][square(x, y)] = onBoard(x + DX[d], y + DY[d]) ? square(x + DX[d], y + DY[d]) : -1;
+					JUMPS[d][square(x, y)] = onBoard(x + 2 * DX[d], y + 2 * DY[d]) ? square(x + 2 * DX[d], y + 2 * DY[d]) : -1;
+				}
+			}
+		}
+	}
+
+	// Flags in the undo information returned by makeMove
+	private static final long UNDO_CAPTURED_KING = 1L << 48;
+	private static final long UNDO_CROWNED = 1L << 49;
+
+	// Not initialized here: setupStartingBoard assigns them during the super constructor
+	long blackChecks;
+	long redChecks;
+	long kings;
+	// Square of the check that must continue a multi-jump, or -1
+	int doubleJumpSquare;
+
+	/**
+	 * Default Constructor
+	 */
+	public BitboardCheckersState() {
+		super();
+	}
+
+	/**
+	 * Copy Constructor
+	 *
+	 * @param state State to copy
+	 */
+	public BitboardCheckersState(BitboardCheckersState state) {
+		super((int[][]) null, state.nextPlayer, new LinkedList<Integer>(state.winners)); // No int[][] is ever used
+		this.blackChecks = state.blackChecks;
+		this.redChecks = state.redChecks;
+		this.kings = state.kings;
+		this.doubleJumpSquare = state.doubleJumpSquare;
+		this.movesSinceLastJump = state.movesSinceLastJump;
+		this.movesSinceNon_King = state.movesSinceNon_King;
+	}
+
+	/**
+	 * Index of the bit representing a space
+	 *
+	 * @param x x-coordinate (row)
+	 * @param y y-coordinate (column)
+	 * @return bit index from 0 to 63
+	 */
+	public static int square(int x, int y) {
+		return x * BOARD_WIDTH + y;
+	}
+
+	private static boolean onBoard(int x, int y) {
+		return x >= 0 && x < BOARD_WIDTH && y >= 0 && y < BOARD_WIDTH;
+	}
+
+	/**
+	 * Encode a move as an int
+	 *
+	 * @param from square of the moving check
+	 * @param to square where the check lands
+	 * @param jump whether the move jumps over an opponent check
+	 * @return encoded move
+	 */
+	public static int move(int from, int to, boolean jump) {
+		return from | (to << TO_SHIFT) | (jump ? JUMP_FLAG : 0);
+	}
+
+	public static int moveFrom(int move) {
+		return move & SQUARE_MASK;
+	}
+
+	public static int moveTo(int move) {
+		return (move >> TO_SHIFT) & SQUARE_MASK;
+	}
+
+	public static boolean isJump(int move) {
+		return (move & JUMP_FLAG) != 0;
+	}
+
+	/**
+	 * Mask of all checks (men and kings) belonging to a player
+	 *
+	 * @param player BLACK_CHECK or RED_CHECK
+	 * @return mask with a bit set for every check of the player
+	 */
+	public long checks(int player) {
+		return player == BLACK_CHECK ? blackChecks : redChecks;
+	}
+
+	private void setChecks(int player, long checks) {
+		if (player == BLACK_CHECK) blackChecks = checks;
+		else redChecks = checks;
+	}
+
+	/**
+	 * Mask of all kings of both players
+	 *
+	 * @return mask of kings
+	 */
+	public long kings() {
+		return kings;
+	}
+
+	/**
+	 * Square of the check that has to continue jumping
+	 *
+	 * @return square, or -1 if any check of the next player may move
+	 */
+	public int getDoubleJumpSquare() {
+		return doubleJumpSquare;
+	}
+
+	// Directions from firstDirection (inclusive) to lastDirection (exclusive) are allowed for the check
+	private int firstDirection(int player, long squareBit) {
+		return (kings & squareBit) != 0 || player == BLACK_CHECK ? 0 : 2;
+	}
+
+	private int lastDirection(int player, long squareBit) {
+		return (kings & squareBit) != 0 || player == RED_CHECK ? DX.length : 2;
+	}
+
+	/**
+	 * Add the jumps available to the check at a square to the moves array
+	 *
+	 * @param from square of a check of the next player
+	 * @param moves array of moves, or null to only count
+	 * @param count number of moves already in the array
+	 * @return new number of moves
+	 */
+	private int addJumps(int from, int[] moves, int count) {
+		long fromBit = 1L << from;
+		long opponent = checks(1 - nextPlayer);
+		long occupied = blackChecks | redChecks;
+		for (int d = firstDirection(nextPlayer, fromBit); d < lastDirection(nextPlayer, fromBit); d++) {
+			int to = JUMPS[d][from];
+			if (to >= 0 && (opponent & (1L << STEPS[d][from])) != 0 && (occupied & (1L << to)) == 0) {
+				if (moves != null) moves[count] = move(from, to, true);
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Fill an array with all legal moves of the next player. Only jumps
+	 * are legal if any jump is possible.
+	 *
+	 * @param moves array of length at least MAX_MOVES, or null to only count the moves
+	 * @return number of legal moves
+	 */
+	public int legalMoves(int[] moves) {
+		if (doubleJumpSquare >= 0) return addJumps(doubleJumpSquare, moves, 0);
+		long own = checks(nextPlayer);
+		int count = 0;
+		for (long m = own; m != 0; m &= m - 1) {
+			count = addJumps(Long.numberOfTrailingZeros(m), moves, count);
+		}
+		if (count > 0) return count; // Forced to jump
+		long occupied = blackChecks | redChecks;
+		for (long m = own; m != 0; m &= m - 1) {
+			int from = Long.numberOfTrailingZeros(m);
+			long fromBit = 1L << from;
+			for (int d = firstDirection(nextPlayer, fromBit); d < lastDirection(nextPlayer, fromBit); d++) {
+				int to = STEPS[d][from];
+				if (to >= 0 && (occupied & (1L << to)) == 0) {
+					if (moves != null) moves[count] = move(from, to, false);
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Make a move returned by legalMoves. If the move is a jump and the
+	 * check can jump again, the same player moves next.
+	 *
+	 * @param move encoded legal move
+	 * @return information needed by unmakeMove to undo the move
+	 */
+	public long makeMove(int move) {
+		assert movesSinceLastJump <= 0xFFFF && movesSinceNon_King <= 0xFFFF : "Move counters too large to undo";
+		long undo = movesSinceLastJump | ((long) movesSinceNon_King << 16) | ((long) (doubleJumpSquare + 1) << 32) | ((long) nextPlayer << 40);
+		int from = moveFrom(move);
+		int to = moveTo(move);
+		long fromBit = 1L << from;
+		long toBit = 1L << to;
+		boolean king = (kings & fromBit) != 0;
+
+		setChecks(nextPlayer, checks(nextPlayer) ^ (fromBit | toBit));
+		if (king) kings ^= fromBit | toBit;
+
+		if (isJump(move)) {
+			long overBit = 1L << ((from + to) >>> 1); // Middle square of a diagonal jump
+			if ((kings & overBit) != 0) {
+				undo |= UNDO_CAPTURED_KING;
+				kings &= ~overBit;
+			}
+			setChecks(1 - nextPlayer, checks(1 - nextPlayer) & ~overBit);
+			movesSinceLastJump = 0;
+		} else {
+			movesSinceLastJump++;
+		}
+		movesSinceNon_King = king ? movesSinceNon_King + 1 : 0;
+
+		boolean crowned = false;
+		if (!king && to / BOARD_WIDTH == (nextPlayer == BLACK_CHECK ? BOARD_WIDTH - 1 : 0)) { // Reached the other side
+			kings |= toBit;
+			undo |= UNDO_CROWNED;
+			crowned = true;
+		}
+
+		doubleJumpSquare = -1;
+		if (isJump(move) && !crowned && addJumps(to, null, 0) > 0) {
+			doubleJumpSquare = to; // Same player continues jumping
+		} else {
+			nextPlayer = 1 - nextPlayer;
+		}
+		winners.clear();
+		return undo;
+	}
+
+	/**
+	 * Undo a move made by makeMove
+	 *
+	 * @param move encoded move that was made
+	 * @param undo value returned by makeMove
+	 */
+	public void unmakeMove(int move, long undo) {
+		nextPlayer = (int) ((undo >>> 40) & 1);
+		int from = moveFrom(move);
+		int to = moveTo(move);
+		long fromBit = 1L << from;
+		long toBit = 1L << to;
+
+		if ((undo & UNDO_CROWNED) != 0) kings &= ~toBit;
+		setChecks(nextPlayer, checks(nextPlayer) ^ (fromBit | toBit));
+		if ((kings & toBit) != 0) kings ^= fromBit | toBit;
+
+		if (isJump(move)) {
+			long overBit = 1L << ((from + to) >>> 1);
+			setChecks(1 - nextPlayer, checks(1 - nextPlayer) | overBit);
+			if ((undo & UNDO_CAPTURED_KING) != 0) kings |= overBit;
+		}
+
+		movesSinceLastJump = (int) (undo & 0xFFFF);
+		movesSinceNon_King = (int) ((undo >>> 16) & 0xFFFF);
+		doubleJumpSquare = (int) ((undo >>> 32) & 0xFF) - 1;
+		winners.clear();
+	}
+
+	@Override
+	public boolean endState() {
+		if (blackChecks == 0 || redChecks == 0) {
+			return true;
+		} else if (legalMoves(null) == 0) {
+			if (winners.isEmpty()) {
+				winners.add(1 - nextPlayer); // One Player can't make a Move; other Player is the winner
+			}
+			return true;
+		} else if (movesSinceLastJump > DRAW_MOVES && movesSinceNon_King > DRAW_MOVES) { // A Draw has been reached
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public List<Integer> getWinners() {
+		if (endState() && winners.isEmpty()) {
+			int blackChecksLeft = Long.bitCount(blackChecks);
+			int redChecksLeft = Long.bitCount(redChecks);
+			if (blackChecksLeft >= redChecksLeft) winners.add(BLACK_CHECK);
+			if (redChecksLeft >= blackChecksLeft) winners.add(RED_CHECK);
+		}
+		return winners;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T extends BoardGameState> Set<T> possibleBoardGameStates(T currentState) {
+		Set<T> possible = new HashSet<T>();
+		int[] moves = new int[MAX_MOVES];
+		int count = legalMoves(moves);
+		for (int i = 0; i < count; i++) {
+			BitboardCheckersState next = copy();
+			next.makeMove(moves[i]);
+			possible.add((T) next);
+		}
+		return possible;
+	}
+
+	/**
+	 * Move as done by a human player: moveTo is diagonally adjacent to
+	 * moveThis, and holds the opponent check to jump over if the move
+	 * is a jump.
+	 */
+	@Override
+	public boolean moveDoublePoint(Point moveThis, Point moveTo) {
+		assert isPointInBounds(moveThis);
+		assert isPointInBounds(moveTo);
+		int from = square(moveThis.x, moveThis.y);
+		int to = square(moveTo.x, moveTo.y);
+		boolean jump = ((blackChecks | redChecks) & (1L << to)) != 0;
+		if (jump) {
+			int landX = 2 * moveTo.x - moveThis.x;
+			int landY = 2 * moveTo.y - moveThis.y;
+			if (!onBoard(landX, landY)) return false;
+			to = square(landX, landY);
+		}
+		int requested = move(from, to, jump);
+		int[] moves = new int[MAX_MOVES];
+		int count = legalMoves(moves);
+		for (int i = 0; i < count; i++) {
+			if (moves[i] == requested) {
+				makeMove(requested);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public BitboardCheckersState copy() {
+		return new BitboardCheckersState(this);
+	}
+
+	/**
+	 * The int[][] of the parent class is never created
+	 */
+	@Override
+	protected void emptyBoard() {
+		blackChecks = 0;
+		redChecks = 0;
+		kings = 0;
+	}
+
+	@Override
+	public void setupStartingBoard() {
+		emptyBoard();
+		int rows = STARTCHECKS / (BOARD_WIDTH / 2);
+		for (int x = 0; x < BOARD_WIDTH; x++) {
+			for (int y = 0; y < BOARD_WIDTH; y++) {
+				if ((x + y) % 2 == 1) { // Checks only occupy dark squares
+					if (x < rows) blackChecks |= 1L << square(x, y);
+					else if (x >= BOARD_WIDTH - rows) redChecks |= 1L << square(x, y);
+				}
+			}
+		}
+		movesSinceLastJump = 0;
+		movesSinceNon_King = 0;
+		doubleJumpSquare = -1;
+		doubleJumpCheck = null;
+	}
+
+	@Override
+	public int getSpace(int x, int y) {
+		long b = 1L << square(x, y);
+		boolean king = (kings & b) != 0;
+		if ((blackChecks & b) != 0) return king ? BLACK_CHECK_KING : BLACK_CHECK;
+		if ((redChecks & b) != 0) return king ? RED_CHECK_KING : RED_CHECK;
+		return EMPTY;
+	}
+
+	@Override
+	protected void setSpace(int x, int y, int piece) {
+		long b = 1L << square(x, y);
+		blackChecks &= ~b;
+		redChecks &= ~b;
+		kings &= ~b;
+		if (piece == BLACK_CHECK || piece == BLACK_CHECK_KING) blackChecks |= b;
+		if (piece == RED_CHECK || piece == RED_CHECK_KING) redChecks |= b;
+		if (piece == BLACK_CHECK_KING || piece == RED_CHECK_KING) kings |= b;
+	}
+
+	@Override
+	public int numberOfPieces(int playerIndex) {
+		switch (playerIndex) {
+		case BLACK_CHECK: return Long.bitCount(blackChecks & ~kings);
+		case RED_CHECK: return Long.bitCount(redChecks & ~kings);
+		case BLACK_CHECK_KING: return Long.bitCount(blackChecks & kings);
+		case RED_CHECK_KING: return Long.bitCount(redChecks & kings);
+		case EMPTY: return NUM_SQUARES - Long.bitCount(blackChecks | redChecks);
+		default: return 0;
+		}
+	}
+
+	/**
+	 * Same descriptor as CheckersState: row-major, 0.5 for black,
+	 * -0.5 for red, 0.75 and -0.75 for their kings, 0 for empty
+	 */
+	@Override
+	public double[] getDescriptor() {
+		double[] features = new double[NUM_SQUARES];
+		for (long b = blackChecks; b != 0; b &= b - 1) {
+			int s = Long.numberOfTrailingZeros(b);
+			features[s] = (kings & (1L << s)) != 0 ? 0.75 : 0.5;
+		}
+		for (long r = redChecks; r != 0; r &= r - 1) {
+			int s = Long.numberOfTrailingZeros(r);
+			features[s] = (kings & (1L << s)) != 0 ? -0.75 : -0.5;
+		}
+		return features;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + Long.hashCode(blackChecks);
+		result = prime * result + Long.hashCode(redChecks);
+		result = prime * result + Long.hashCode(kings);
+		result = prime * result + nextPlayer;
+		result = prime * result + doubleJumpSquare;
+		result = prime * result + winners.hashCode();
+		return result;
+	}
+
+	/**
+	 * Only equal to other BitboardCheckersStates, so that hashCode can
+	 * be computed from the masks
+	 */
+	@Override
+	public boolean equals(Object other) {
+		if (!(other instanceof BitboardCheckersState)) return false;
+		BitboardCheckersState o = (BitboardCheckersState) other;
+		return blackChecks == o.blackChecks && redChecks == o.redChecks && kings == o.kings && nextPlayer == o.nextPlayer
+				&& doubleJumpSquare == o.doubleJumpSquare && winners.equals(o.winners);
+	}
+}
@@ -38,6 +38,16 @@ public class NNBoardGameHeuristic<T extends Network, S extends BoardGameState> i
 		return gene;
 	}
 
+	/**
+	 * Heuristic with its own network built from the same genotype, so
+	 * that both can evaluate states at the same time in different threads
+	 * 
+	 * @return Copy of this heuristic
+	 */
+	public NNBoardGameHeuristic<T,S> copy(){
+		return new NNBoardGameHeuristic<T,S>(ID, featExtract, gene);
+	}
+
 	@Override
 	public double heuristicEvalution(S current) {
 		//		if(Parameters.parameters.booleanParameter("stepByStep")){
@@ -0,0 +1,361 @@
+package edu.southwestern.boardGame.othello;
+
+import java.awt.Point;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.Set;
+
+import edu.southwestern.boardGame.BoardGameState;
+
+/**
+ * OthelloState that stores the board as two 64-bit masks, one per player,
+ * instead of an int[][]. Space (x,y) is bit x*8 + y. Legal moves are found
+ * for all squares at once by shifting the masks in each of the eight
+ * directions, and the chips flipped by a move are found with precomputed
+ * rays from each square, so neither needs to copy the state or allocate
+ * Points. Copies only copy a few longs.
+ *
+ * Search code can avoid copies entirely with legalMoves, makeMove and
+ * unmakeMove. possibleBoardGameStates returns exactly the same states
+ * as OthelloState.
+ */
+public class BitboardOthelloState extends OthelloState {
+
+	public static final int BOARD_SIZE = 8;
+	public static final int NUM_SQUARES = BOARD_SIZE * BOARD_SIZE;
+	// Never more legal moves than empty squares
+	public static final int MAX_MOVES = NUM_SQUARES;
+
+	private static final long COLUMN_0 = 0x0101010101010101L;
+	private static final long COLUMN_7 = COLUMN_0 << (BOARD_SIZE - 1);
+
+	// Offsets (dX,dY) of the eight directions, and corresponding bit shifts
+	private static final int[] DX = new int[] { -1, -1, -1, 0, 0, 1, 1, 1 };
+	private static final int[] DY = new int[] { -1, 0, 1, -1, 1, -1, 0, 1 };
+	private static final int[] SHIFTS = new int[DX.length];
+	// Removes bits that wrapped around to the other side of the board after a shift
+	private static final long[] WRAP_MASKS = new long[DX.length];
+	// RAYS[d][s] has all squares after s in direction d, up to the edge of the board
+	private static final long[][] RAYS = new long[DX.length][NUM_SQUARES];
+
+	static {
+		for (int d = 0; d < DX.length; d++) {
+			SHIFTS[d] = DX[d] * BOARD_SIZE + DY[d];
+			WRAP_MASKS[d] = DY[d] == 1 ? ~COLUMN_0 : (DY[d] == -1 ? ~COLUMN_7 : -1L);
+			for (int x = 0; x < BOARD_SIZE; x++) {
+				for (int y = 0; y < BOARD_SIZE; y++) {
+					long ray = 0;
+					for (int rx = x + DX[d], ry = y + DY[d]; rx >= 0 && rx < BOARD_SIZE && ry >= 0 && ry < BOARD_SIZE; rx += DX[d], ry += DY[d]) {
+						ray |= bit(rx, ry);
+					}
+					RAYS[d][square(x, y)] = ray;
+				}
+			}
+		}
+	}
+
+	// Not initialized here: setupStartingBoard assigns them during the super constructor
+	long blackChips;
+	long whiteChips;
+
+	/**
+	 * Default Constructor
+	 */
+	public BitboardOthelloState() {
+		super();
+	}
+
+	/**
+	 * Copy Constructor
+	 *
+	 * @param state State to copy
+	 */
+	public BitboardOthelloState(BitboardOthelloState state) {
+		super((int[][]) null, state.nextPlayer, new LinkedList<Integer>(state.winners)); // No int[][] is ever used
+		this.blackChips = state.blackChips;
+		this.whiteChips = state.whiteChips;
+		this.numPasses = state.numPasses;
+	}
+
+	/**
+	 * Index of the bit representing a space
+	 *
+	 * @param x x-coordinate (row)
+	 * @param y y-coordinate (column)
+	 * @return bit index from 0 to 63
+	 */
+	public static int square(int x, int y) {
+		return x * BOARD_SIZE + y;
+	}
+
+	private static long bit(int x, int y) {
+		return 1L << square(x, y);
+	}
+
+	private static long shift(long chips, int direction) {
+		int s = SHIFTS[direction];
+		return (s > 0 ? chips << s : chips >>> -s) & WRAP_MASKS[direction];
+	}
+
+	/**
+	 * Mask of the chips belonging to a player
+	 *
+	 * @param player BLACK_CHIP or WHITE_CHIP
+	 * @return mask with a bit set for every chip of the player
+	 */
+	public long chips(int player) {
+		return player == BLACK_CHIP ? blackChips : whiteChips;
+	}
+
+	/**
+	 * Mask of all empty squares where the next player can place a chip
+	 *
+	 * @return mask of legal moves, or 0 if the player must pass
+	 */
+	public long legalMoveMask() {
+		long own = chips(nextPlayer);
+		long opponent = chips(1 - nextPlayer);
+		long empty = ~(blackChips | whiteChips);
+		long moves = 0;
+		for (int d = 0; d < SHIFTS.length; d++) {
+			// Opponent chips reachable in a line from an own chip, up to six long
+			long line = shift(own, d) & opponent;
+			for (int i = 0; i < BOARD_SIZE - 3; i++) {
+				line |= shift(line, d) & opponent;
+			}
+			moves |= shift(line, d) & empty;
+		}
+		return moves;
+	}
+
+	/**
+	 * Fill an array with the squares of all legal moves of the next player,
+	 * in increasing order
+	 *
+	 * @param moves array of length at least MAX_MOVES
+	 * @return number of legal moves placed in the array
+	 */
+	public int legalMoves(int[] moves) {
+		long mask = legalMoveMask();
+		int count = 0;
+		while (mask != 0) {
+			moves[count++] = Long.numberOfTrailingZeros(mask);
+			mask &= mask - 1;
+		}
+		return count;
+	}
+
+	/**
+	 * Opponent chips that would be flipped if the next player placed
+	 * a chip at the given square
+	 *
+	 * @param square bit index of an empty square
+	 * @return mask of flipped chips, 0 if the move is not legal
+	 */
+	public long flips(int square) {
+		long own = chips(nextPlayer);
+		long opponent = chips(1 - nextPlayer);
+		long flips = 0;
+		for (int d = 0; d < SHIFTS.length; d++) {
+			long ray = RAYS[d][square];
+			long blockers = ray & ~opponent;
+			if (blockers == 0) continue;
+			// The first non-opponent square along the ray must hold an own chip
+			if (SHIFTS[d] > 0) {
+				long first = Long.lowestOneBit(blockers);
+				if ((first & own) != 0) flips |= ray & (first - 1);
+			} else {
+				long first = Long.highestOneBit(blockers);
+				if ((first & own) != 0) flips |= ray & ~((first << 1) - 1);
+			}
+		}
+		return flips;
+	}
+
+	/**
+	 * Place a chip of the next player at a square, flip the captured chips
+	 * and pass the turn. The move is assumed to be legal.
+	 *
+	 * @param square bit index of a legal move
+	 * @return mask of flipped chips, needed by unmakeMove
+	 */
+	public long makeMove(int square) {
+		long flips = flips(square);
+		assert flips != 0 : "Illegal move at " + square + "\n" + this;
+		long placed = 1L << square;
+		if (nextPlayer == BLACK_CHIP) {
+			blackChips |= flips | placed;
+			whiteChips &= ~flips;
+		} else {
+			whiteChips |= flips | placed;
+			blackChips &= ~flips;
+		}
+		nextPlayer = 1 - nextPlayer;
+		numPasses = 0;
+		winners.clear();
+		return flips;
+	}
+
+	/**
+	 * Undo a move made by makeMove
+	 *
+	 * @param square bit index where the chip was placed
+	 * @param flips mask returned by makeMove
+	 * @param previousPasses numPasses before the move was made
+	 */
+	public void unmakeMove(int square, long flips, int previousPasses) {
+		nextPlayer = 1 - nextPlayer;
+		long placed = 1L << square;
+		if (nextPlayer == BLACK_CHIP) {
+			blackChips &= ~(flips | placed);
+			whiteChips |= flips;
+		} else {
+			whiteChips &= ~(flips | placed);
+			blackChips |= flips;
+		}
+		numPasses = previousPasses;
+		winners.clear();
+	}
+
+	/**
+	 * Pass the turn without moving, as happens when there is no legal move
+	 */
+	public void makePass() {
+		numPasses++;
+		nextPlayer = 1 - nextPlayer;
+		winners.clear();
+	}
+
+	/**
+	 * Undo makePass
+	 */
+	public void unmakePass() {
+		numPasses--;
+		nextPlayer = 1 - nextPlayer;
+		winners.clear();
+	}
+
+	/**
+	 * Number of consecutive passes leading to this state
+	 *
+	 * @return 0, 1, or 2 (game over)
+	 */
+	public int getNumPasses() {
+		return numPasses;
+	}
+
+	@Override
+	public boolean moveSinglePoint(Point goTo) {
+		int square = square(goTo.x, goTo.y);
+		if (((blackChips | whiteChips) & (1L << square)) != 0 || flips(square) == 0) return false;
+		makeMove(square);
+		return true;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T extends BoardGameState> Set<T> possibleBoardGameStates(T currentState) {
+		Set<T> possible = new HashSet<T>();
+		long moves = legalMoveMask();
+		if (moves == 0) { // Must pass
+			possible.add((T) pass());
+			return possible;
+		}
+		while (moves != 0) {
+			BitboardOthelloState next = copy();
+			next.makeMove(Long.numberOfTrailingZeros(moves));
+			possible.add((T) next);
+			moves &= moves - 1;
+		}
+		return possible;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public BitboardOthelloState copy() {
+		return new BitboardOthelloState(this);
+	}
+
+	/**
+	 * The int[][] of the parent class is never created
+	 */
+	@Override
+	protected void emptyBoard() {
+		blackChips = 0;
+		whiteChips = 0;
+	}
+
+	@Override
+	public void setupStartingBoard() {
+		numPasses = 0;
+		int core1 = BOARD_SIZE / 2 - 1;
+		int core2 = BOARD_SIZE / 2;
+		blackChips = bit(core1, core1) | bit(core2, core2);
+		whiteChips = bit(core1, core2) | bit(core2, core1);
+	}
+
+	@Override
+	public int getSpace(int x, int y) {
+		long b = bit(x, y);
+		if ((blackChips & b) != 0) return BLACK_CHIP;
+		if ((whiteChips & b) != 0) return WHITE_CHIP;
+		return EMPTY;
+	}
+
+	@Override
+	protected void setSpace(int x, int y, int piece) {
+		long b = bit(x, y);
+		blackChips &= ~b;
+		whiteChips &= ~b;
+		if (piece == BLACK_CHIP) blackChips |= b;
+		else if (piece == WHITE_CHIP) whiteChips |= b;
+	}
+
+	@Override
+	public int numberOfPieces(int playerIndex) {
+		switch (playerIndex) {
+		case BLACK_CHIP: return Long.bitCount(blackChips);
+		case WHITE_CHIP: return Long.bitCount(whiteChips);
+		case EMPTY: return NUM_SQUARES - Long.bitCount(blackChips | whiteChips);
+		default: return 0;
+		}
+	}
+
+	/**
+	 * Same descriptor as TwoDimensionalBoardGameState: row-major,
+	 * 1 for black, -1 for white, 0 for empty
+	 */
+	@Override
+	public double[] getDescriptor() {
+		double[] features = new double[NUM_SQUARES];
+		for (long b = blackChips; b != 0; b &= b - 1) {
+			features[Long.numberOfTrailingZeros(b)] = 1;
+		}
+		for (long w = whiteChips; w != 0; w &= w - 1) {
+			features[Long.numberOfTrailingZeros(w)] = -1;
+		}
+		return features;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + Long.hashCode(blackChips);
+		result = prime * result + Long.hashCode(whiteChips);
+		result = prime * result + nextPlayer;
+		result = prime * result + winners.hashCode();
+		return result;
+	}
+
+	/**
+	 * Only equal to other BitboardOthelloStates, so that hashCode can
+	 * be computed from the masks
+	 */
+	@Override
+	public boolean equals(Object other) {
+		if (!(other instanceof BitboardOthelloState)) return false;
+		BitboardOthelloState o = (BitboardOthelloState) other;
+		return blackChips == o.blackChips && whiteChips == o.whiteChips && nextPlayer == o.nextPlayer && winners.equals(o.winners);
+	}
+}
@@ -52,7 +52,16 @@ public class Othello extends TwoDimensionalBoardGame<OthelloState>{
 	 * Default Constructor
 	 */
 	public Othello(){
-		super(new OthelloState());
+		super(startingState());
+	}
+	
+	/**
+	 * Starting state of the game, stored as bitboards if bitboardBoardGames is set
+	 * 
+	 * @return New OthelloState at the start of a game
+	 */
+	private static OthelloState startingState() {
+		return Parameters.parameters != null && Parameters.parameters.booleanParameter("bitboardBoardGames") ? new BitboardOthelloState() : new OthelloState();
 	}
 	
 	Othello(OthelloState state){
@@ -8,6 +8,7 @@ import edu.southwestern.breve2D.sensor.RaySensor;
 import edu.southwestern.parameters.Parameters;
 import edu.southwestern.util.CartesianGeometricUtilities;
 import edu.southwestern.util.datastructures.Triple;
+import edu.southwestern.util.random.RandomNumbers;
 import edu.southwestern.util.util2D.Box2D;
 import edu.southwestern.util.util2D.Distance2DComparator;
 import edu.southwestern.util.util2D.ILocated2D;
@@ -16,11 +17,9 @@ import java.awt.Color;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.Random;
 
 public class Breve2DGame {
 
-	public static Random rand = new Random(0);
 	public static final int SIZE_X = 500;
 	public static final int SIZE_Y = 500;
 	public static final double FORCE_MULTIPLIER = 2; // 3;
@@ -94,9 +93,7 @@ public class Breve2DGame {
 		resetAll = true;
 		double heading = 0;
 		if (!Parameters.parameters.booleanParameter("deterministic")) {
-			heading = rand.nextDouble() * 2 * Math.PI;
-		} else {
-			rand = new Random(0);
+			heading = RandomNumbers.generator().nextDouble() * 2 * Math.PI;
 		}
 		player = new Agent(new Tuple2D(SIZE_X / 2, SIZE_Y / 2), heading);
 		
@@ -4,6 +4,7 @@ import edu.southwestern.evolution.crossover.network.CombiningTWEANNCrossover;
 import edu.southwestern.evolution.genotypes.CombinedGenotype;
 import edu.southwestern.evolution.genotypes.Genotype;
 import edu.southwestern.evolution.genotypes.HyperNEATCPPNforDL4JGenotype;
+import edu.southwestern.evolution.genotypes.InnovationIndex;
 import edu.southwestern.evolution.genotypes.TWEANNGenotype;
 import edu.southwestern.evolution.genotypes.TWEANNGenotype.NodeGene;
 import edu.southwestern.log.MMNEATLog;
@@ -18,11 +19,12 @@ import edu.southwestern.util.file.FileUtilities;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 
-import wox.serial.Easy;
+import edu.southwestern.util.file.Serialization;
 
 /**
  * Stores and tracks information about a population of networks. Uses an
@@ -42,6 +44,8 @@ public class EvolutionaryHistory {
 	// keeps track of archetype of every genotype from each generation of every
 	// member of population in an array list
 	public static ArrayList<NodeGene>[] archetypes = null;
+	// Speeds up indexOfArchetypeInnovation
+	private static InnovationIndex[] archetypeIndices = null;
 	public static int[] archetypeOut = null;
 	// logs that keep track of history of genotype
 	public static TWEANNLog tweannLog = null;
@@ -75,7 +79,7 @@ public class EvolutionaryHistory {
 		// loadedNetworks hashmap
 		if (!loadedNetworks.containsKey(xml)) {
 			System.out.println("Added to subnetworks: " + xml);
-			loadedNetworks.put(xml, (Genotype<T>) Easy.load(xml));
+			loadedNetworks.put(xml, (Genotype<T>) Serialization.load(xml));
 		}
 		return loadedNetworks.get(xml).copy();
 	}
@@ -171,7 +175,7 @@ public class EvolutionaryHistory {
 		String base = Parameters.parameters.stringParameter("base");
 		String xml = Parameters.parameters.stringParameter("archetype");
 		String file = xml + populationIndex + ".xml";
-		if (base.equals("") || !(new File(file).exists())) {
+		if (base.equals("") || !Serialization.exists(file)) {
 			file = null;
 		}
 		initArchetype(populationIndex, file);
@@ -217,7 +221,7 @@ public class EvolutionaryHistory {
 		if (archetypes == null) {// checks to see if an archetype has been created yet for this genotype
 			archetypes = new ArrayList[size];
 		} // this if statement happens if the current experiment hasn't yet been run or is a resume
-		if (loadedArchetype == null || loadedArchetype.equals("") || !(new File(loadedArchetype).exists())) {
+		if (loadedArchetype == null || loadedArchetype.equals("") || !Serialization.exists(loadedArchetype)) {
 			System.out.println("Init archetype from genotype example");
 			// ternary operator allows for coevolution to be implemented
 			TWEANNGenotype tg = startingGenotype;
@@ -229,7 +233,7 @@ public class EvolutionaryHistory {
 			// The loaded archetype might not simply be from a resume, the seed
 			// could be from elsewhere
 			System.out.println("Loading archetype: " + loadedArchetype);
-			archetypes[populationIndex] = (ArrayList<NodeGene>) Easy.load(loadedArchetype);
+			archetypes[populationIndex] = (ArrayList<NodeGene>) Serialization.load(loadedArchetype);
 			String combiningCrossoverFile = Parameters.parameters.stringParameter("combiningCrossoverMapping");
 			// implement for multimodal behavior. Allows for combining of two separate subpopulations to create a multimodal network
 			if (!combiningCrossoverFile.isEmpty()) {
@@ -282,7 +286,7 @@ public class EvolutionaryHistory {
 			String file = FileUtilities.getSaveDirectory() + "/" + "archetype";
 			Parameters.parameters.setString("archetype", file);
 			file += populationIndex + ".xml";
-			Easy.save(archetypes[populationIndex], file);
+			Serialization.save(archetypes[populationIndex], file);
 			System.out.println("Done saving " + file);
 			// Could make more explicit using
 			// CommonConstants.trackCombiningCrossover
@@ -387,15 +391,29 @@ public class EvolutionaryHistory {
 	 */
 	public static int indexOfArchetypeInnovation(int populationIndex, long sourceInnovation) {
 		if (archetypes[populationIndex] != null) {
-			for (int i = 0; i < archetypes[populationIndex].size(); i++) {
-				if (archetypes[populationIndex].get(i).innovation == sourceInnovation) {
-					return i;
-				}
-			}
+			return archetypeIndex(populationIndex).indexOf(archetypes[populationIndex], sourceInnovation);
 		}
 		return -1;// returns if innovation number not found
 	}
 
+	/**
+	 * Index of the node positions in an archetype, created when first needed.
+	 * The index notices when the archetype changes, so it never needs to be reset.
+	 *
+	 * @param populationIndex
+	 *            Index of archetype
+	 * @return index of archetype innovation numbers
+	 */
+	private static synchronized InnovationIndex archetypeIndex(int populationIndex) {
+		if (archetypeIndices == null || archetypeIndices.length < archetypes.length) {
+			archetypeIndices = archetypeIndices == null ? new InnovationIndex[archetypes.length] : Arrays.copyOf(archetypeIndices, archetypes.length);
+		}
+		if (archetypeIndices[populationIndex] == null) {
+			archetypeIndices[populationIndex] = new InnovationIndex();
+		}
+		return archetypeIndices[populationIndex];
+	}
+
 	/**
 	 * Removes from the archetype all nodes that are not part of the given
 	 * network in the population
@@ -6,6 +6,7 @@ import java.util.Arrays;
 import edu.southwestern.evolution.EvolutionaryHistory;
 import edu.southwestern.evolution.crossover.Crossover;
 import edu.southwestern.evolution.genotypes.Genotype;
+import edu.southwestern.evolution.genotypes.InnovationIndex;
 import edu.southwestern.evolution.genotypes.TWEANNGenotype;
 import edu.southwestern.evolution.genotypes.TWEANNGenotype.Gene;
 import edu.southwestern.evolution.genotypes.TWEANNGenotype.LinkGene;
@@ -15,6 +16,7 @@ import edu.southwestern.evolution.mutation.tweann.MeltThenFreezePreferenceMutati
 import edu.southwestern.networks.TWEANN;
 import edu.southwestern.parameters.CommonConstants;
 import edu.southwestern.parameters.Parameters;
+import edu.southwestern.util.datastructures.LongIntHashMap;
 import edu.southwestern.util.datastructures.Pair;
 import edu.southwestern.util.random.RandomNumbers;
 
@@ -64,7 +66,7 @@ public class TWEANNCrossover extends Crossover<TWEANN> {
 	 */
 	@Override
 	public Genotype<TWEANN> crossover(Genotype<TWEANN> toModify, Genotype<TWEANN> toReturn) {
-		includeExcess = RandomNumbers.randomGenerator.nextFloat() < includeExcessRate;
+		includeExcess = RandomNumbers.generator().nextFloat() < includeExcessRate;
 
 		TWEANNGenotype tr = (TWEANNGenotype) toReturn;
 		TWEANNGenotype tm = (TWEANNGenotype) toModify;
@@ -205,7 +207,7 @@ public class TWEANNCrossover extends Crossover<TWEANN> {
 	 *            partially finished list of genes for offspring 2
 	 */
 	public <G extends Gene> void crossIndex(G leftGene, G rightGene, ArrayList<G> crossedLeft, ArrayList<G> crossedRight) {
-		boolean swap = RandomNumbers.randomGenerator.nextBoolean();
+		boolean swap = RandomNumbers.generator().nextBoolean();
 		if (swap) {
 			Pair<G, G> p = swap(leftGene, rightGene);
 			leftGene = p.t1;
@@ -351,6 +353,10 @@ public class TWEANNCrossover extends Crossover<TWEANN> {
 		TWEANNGenotype.sortLinkGenesByInnovationNumber(left);
 		TWEANNGenotype.sortLinkGenesByInnovationNumber(right);
 
+		// Positions of innovation numbers, so disjoint genes are recognized in constant time
+		LongIntHashMap leftPositions = innovationPositions(left);
+		LongIntHashMap rightPositions = innovationPositions(right);
+
 		int maxSize = Math.max(left.size(), right.size());
 		ArrayList<LinkGene> alignedLeft = new ArrayList<LinkGene>(maxSize);
 		ArrayList<LinkGene> alignedRight = new ArrayList<LinkGene>(maxSize);
@@ -370,17 +376,17 @@ public class TWEANNCrossover extends Crossover<TWEANN> {
 			} else {
 				// System.out.println("Diff innovation: " + leftInnovation + ",
 				// " + rightInnovation);
-				Integer leftHasRightAt = containsInnovationAt(left, rightInnovation);
-				Integer rightHasLeftAt = containsInnovationAt(right, leftInnovation);
+				boolean leftHasRight = leftPositions.containsKey(rightInnovation);
+				boolean rightHasLeft = rightPositions.containsKey(leftInnovation);
 				// System.out.println("Innovation: leftHasRight: " +
-				// leftHasRightAt + ", rightHasLeft: " + rightHasLeftAt);
+				// leftHasRight + ", rightHasLeft: " + rightHasLeft);
 
-				if (leftHasRightAt == null) {
-					// System.out.println("leftHasRight is null");
+				if (!leftHasRight) {
+					// System.out.println("leftHasRight is false");
 					alignedLeft.add(null);
 					alignedRight.add(right.get(rightPos++));
-				} else if (rightHasLeftAt == null) {
-					// System.out.println("rightHasLeftAt is null");
+				} else if (!rightHasLeft) {
+					// System.out.println("rightHasLeft is false");
 					alignedLeft.add(left.get(leftPos++));
 					alignedRight.add(null);
 				}
@@ -425,13 +431,47 @@ public class TWEANNCrossover extends Crossover<TWEANN> {
 	 *            link genes of parent 2
 	 */
 	private static void mergeDuplicates(ArrayList<LinkGene> left, ArrayList<LinkGene> right) {
-		for (LinkGene lg : left) {
-			for (LinkGene rg : right) {
-				if (lg.sourceInnovation == rg.sourceInnovation && lg.targetInnovation == rg.targetInnovation
-						&& lg.innovation != rg.innovation) {
-					rg.innovation = lg.innovation;
+		// Last link in left between each pair of nodes, which is the one whose
+		// innovation number a nested loop over both lists would leave behind
+		LongIntHashMap lastLeft = new LongIntHashMap(left.size());
+		for (int i = 0; i < left.size(); i++) {
+			LinkGene lg = left.get(i);
+			lastLeft.put(InnovationIndex.endpointKey(lg.sourceInnovation, lg.targetInnovation), i);
+		}
+		for (LinkGene rg : right) {
+			int i = lastLeft.get(InnovationIndex.endpointKey(rg.sourceInnovation, rg.targetInnovation), -1);
+			if (i == -1) {
+				continue;
+			}
+			LinkGene lg = left.get(i);
+			if (lg.sourceInnovation != rg.sourceInnovation || lg.targetInnovation != rg.targetInnovation) {
+				// Endpoint keys collided: search for the last matching link instead
+				lg = null;
+				for (i = left.size() - 1; i >= 0 && lg == null; i--) {
+					LinkGene candidate = left.get(i);
+					if (candidate.sourceInnovation == rg.sourceInnovation && candidate.targetInnovation == rg.targetInnovation) {
+						lg = candidate;
+					}
 				}
 			}
+			if (lg != null && lg.innovation != rg.innovation) {
+				rg.innovation = lg.innovation;
+			}
+		}
+	}
+
+	/**
+	 * Position of the first gene with each innovation number in a list
+	 *
+	 * @param genes
+	 *            list of link genes
+	 * @return map from innovation numbers to positions
+	 */
+	private static LongIntHashMap innovationPositions(ArrayList<LinkGene> genes) {
+		LongIntHashMap positions = new LongIntHashMap(genes.size());
+		for (int i = 0; i < genes.size(); i++) {
+			positions.putIfAbsent(genes.get(i).innovation, i);
 		}
+		return positions;
 	}
 }
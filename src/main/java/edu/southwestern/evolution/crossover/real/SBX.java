@@ -35,7 +35,7 @@ public class SBX extends ArrayCrossover<Double> {
 	}
 
 	public Pair<Double, Double> newIndexContents(Double par1, Double par2, Double upper, Double lower) {
-		double rnd = RandomNumbers.randomGenerator.nextDouble();
+		double rnd = RandomNumbers.generator().nextDouble();
 		/* Check whether variable is selected or not */
 		if (rnd <= 0.5) {
 			double y1, y2, betaq;
@@ -62,7 +62,7 @@ public class SBX extends ArrayCrossover<Double> {
 					System.exit(-1);
 				}
 
-				rnd = RandomNumbers.randomGenerator.nextDouble();
+				rnd = RandomNumbers.generator().nextDouble();
 				if (rnd <= 1.0 / alpha) {
 					alpha = alpha * rnd;
 					expp = 1.0 / (DEB_DI + 1.0);
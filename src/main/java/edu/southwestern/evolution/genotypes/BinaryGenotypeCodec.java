@@ -0,0 +1,516 @@
+package edu.southwestern.evolution.genotypes;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+
+import edu.southwestern.evolution.genotypes.TWEANNGenotype.FullLinkGene;
+import edu.southwestern.evolution.genotypes.TWEANNGenotype.FullNodeGene;
+import edu.southwestern.evolution.genotypes.TWEANNGenotype.LinkGene;
+import edu.southwestern.evolution.genotypes.TWEANNGenotype.NodeGene;
+import edu.southwestern.evolution.genotypes.TWEANNGenotype.NormalizedMemoryNodeGene;
+import wox.serial.Util;
+
+/**
+ * Compact binary file format for the most commonly saved genotypes and for
+ * TWEANN archetypes. This is much faster to write and much smaller than the
+ * reflective XML produced by wox.serial.Easy, which matters when large
+ * populations are saved every generation.
+ *
+ * Each file starts with a magic number, a format version, and a tag
+ * identifying the class of the encoded object. Only the exact classes below
+ * are supported (not their subclasses, which may have extra fields).
+ * Everything else must still be saved as XML.
+ *
+ * Like XML loading, decoding does not run any constructor, so genotype IDs
+ * are restored exactly and loading does not consume new IDs. Transient
+ * fields are left at their default values, except that lists of parent IDs
+ * are recreated empty.
+ */
+public class BinaryGenotypeCodec {
+
+	// "MMNG" in ASCII
+	public static final int MAGIC = 0x4D4D4E47;
+	// Increase when the format changes, and keep reading older versions
+	public static final short VERSION = 1;
+
+	private static final byte TAG_TWEANN = 1;
+	private static final byte TAG_HYPERNEAT_CPPN = 2;
+	private static final byte TAG_MLP = 3;
+	private static final byte TAG_REAL_VALUED = 4;
+	private static final byte TAG_BOUNDED_REAL_VALUED = 5;
+	private static final byte TAG_BOUNDED_INTEGER_VALUED = 6;
+	private static final byte TAG_ARCHETYPE = 7;
+
+	private static final byte NODE_PLAIN = 0;
+	private static final byte NODE_FULL = 1;
+	private static final byte NODE_NORMALIZED = 2;
+	private static final byte LINK_PLAIN = 0;
+	private static final byte LINK_FULL = 1;
+
+	private static final HashMap<Class<?>, Constructor<?>> ALLOCATORS = new HashMap<Class<?>, Constructor<?>>();
+	private static final Field TWEANN_ID = idField(TWEANNGenotype.class);
+	private static final Field MLP_ID = idField(MLPGenotype.class);
+	private static final Field NUMERIC_ARRAY_ID = idField(NumericArrayGenotype.class);
+
+	/**
+	 * Whether the object can be saved in the binary format.
+	 *
+	 * @param ob Object to save
+	 * @return true if the class of ob is supported
+	 */
+	public static boolean canEncode(Object ob) {
+		return tag(ob) != -1;
+	}
+
+	/**
+	 * Whether a file starts with the binary magic number.
+	 *
+	 * @param filename File to check
+	 * @return true if the file is in the binary format
+	 */
+	public static boolean isBinaryFile(String filename) {
+		File file = new File(filename);
+		if (!file.isFile() || file.length() < 4) {
+			return false;
+		}
+		try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+			return in.readInt() == MAGIC;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Write a supported object to a binary file.
+	 *
+	 * @param ob Genotype or archetype to save
+	 * @param filename File to create or overwrite
+	 * @throws IOException if writing fails
+	 * @throws IllegalArgumentException if the class of ob is not supported
+	 */
+	public static void save(Object ob, String filename) throws IOException {
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filename), 1 << 16))) {
+			write(out, ob);
+		}
+	}
+
+	/**
+	 * Encode a supported object in memory, in the same format as save.
+	 * Used to send genotypes to other processes.
+	 *
+	 * @param ob Genotype or archetype to encode
+	 * @return The encoded bytes
+	 * @throws IllegalArgumentException if the class of ob is not supported
+	 */
+	public static byte[] encode(Object ob) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			write(out, ob);
+		} catch (IOException e) {
+			// Not possible when writing to memory
+			throw new IllegalStateException(e);
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Decode an object encoded by encode (or the contents of a file written by save).
+	 *
+	 * @param bytes Encoded object
+	 * @return The decoded genotype or archetype
+	 * @throws IOException if the bytes are not a binary genotype, or are from
+	 *                     a newer version of the format
+	 */
+	public static Object decode(byte[] bytes) throws IOException {
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+			return read(in, "Encoded object");
+		}
+	}
+
+	/**
+	 * Whether some bytes start with the binary magic number.
+	 *
+	 * @param bytes Encoded object
+	 * @return true if the bytes are in the binary format
+	 */
+	public static boolean isBinary(byte[] bytes) {
+		return bytes.length >= 4 && ((bytes[0] & 0xFF) << 24 | (bytes[1] & 0xFF) << 16 | (bytes[2] & 0xFF) << 8 | (bytes[3] & 0xFF)) == MAGIC;
+	}
+
+	/**
+	 * Read an object written by save.
+	 *
+	 * @param filename Binary file
+	 * @return The decoded genotype or archetype
+	 * @throws IOException if the file cannot be read, is not a binary genotype,
+	 *                     or was written by a newer version of the format
+	 */
+	public static Object load(String filename) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(filename), 1 << 16))) {
+			return read(in, filename);
+		}
+	}
+
+	/**
+	 * Write the header and encoding of a supported object
+	 */
+	private static void write(DataOutputStream out, Object ob) throws IOException {
+		byte tag = tag(ob);
+		if (tag == -1) {
+			throw new IllegalArgumentException("No binary encoding for " + (ob == null ? null : ob.getClass().getName()));
+		}
+		out.writeInt(MAGIC);
+		out.writeShort(VERSION);
+		out.writeByte(tag);
+		encode(out, tag, ob);
+	}
+
+	/**
+	 * Check the header and decode the object that follows it
+	 *
+	 * @param source Description of where the bytes come from, for error messages
+	 */
+	private static Object read(DataInputStream in, String source) throws IOException {
+		if (in.readInt() != MAGIC) {
+			throw new IOException(source + " is not a binary genotype file");
+		}
+		short version = in.readShort();
+		if (version > VERSION) {
+			throw new IOException(source + " has format version " + version + " but only " + VERSION + " is supported");
+		}
+		return decode(in, in.readByte());
+	}
+
+	/**
+	 * Tag for the exact class of the object, or -1 if not supported.
+	 * Archetypes are lists of node genes.
+	 */
+	private static byte tag(Object ob) {
+		if (ob == null) return -1;
+		Class<?> c = ob.getClass();
+		if (c == TWEANNGenotype.class) return TAG_TWEANN;
+		if (c == HyperNEATCPPNGenotype.class) return TAG_HYPERNEAT_CPPN;
+		if (c == MLPGenotype.class) return TAG_MLP;
+		if (c == RealValuedGenotype.class) return TAG_REAL_VALUED;
+		if (c == BoundedRealValuedGenotype.class) return TAG_BOUNDED_REAL_VALUED;
+		if (c == BoundedIntegerValuedGenotype.class) return TAG_BOUNDED_INTEGER_VALUED;
+		if (c == ArrayList.class) {
+			for (Object o : (ArrayList<?>) ob) {
+				if (!(o instanceof NodeGene)) return -1;
+			}
+			return TAG_ARCHETYPE;
+		}
+		return -1;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void encode(DataOutputStream out, byte tag, Object ob) throws IOException {
+		switch (tag) {
+		case TAG_TWEANN:
+		case TAG_HYPERNEAT_CPPN:
+			writeTWEANN(out, (TWEANNGenotype) ob);
+			break;
+		case TAG_MLP:
+			MLPGenotype mlp = (MLPGenotype) ob;
+			out.writeLong(mlp.getId());
+			writeMatrix(out, mlp.firstConnectionLayer);
+			writeMatrix(out, mlp.secondConnectionLayer);
+			break;
+		case TAG_REAL_VALUED:
+		case TAG_BOUNDED_REAL_VALUED:
+			RealValuedGenotype real = (RealValuedGenotype) ob;
+			out.writeLong(real.getId());
+			out.writeInt(real.genes.size());
+			for (Double d : real.genes) {
+				out.writeDouble(d);
+			}
+			if (tag == TAG_BOUNDED_REAL_VALUED) {
+				BoundedRealValuedGenotype bounded = (BoundedRealValuedGenotype) ob;
+				writeDoubles(out, bounded.lower);
+				writeDoubles(out, bounded.upper);
+				out.writeBoolean(bounded.polynomialMutation);
+			}
+			break;
+		case TAG_BOUNDED_INTEGER_VALUED:
+			BoundedIntegerValuedGenotype integer = (BoundedIntegerValuedGenotype) ob;
+			out.writeLong(integer.getId());
+			out.writeInt(integer.genes.size());
+			for (Integer i : integer.genes) {
+				out.writeInt(i);
+			}
+			break;
+		case TAG_ARCHETYPE:
+			writeNodes(out, (ArrayList<NodeGene>) ob);
+			break;
+		default:
+			throw new IllegalArgumentException("Unknown tag " + tag);
+		}
+	}
+
+	private static Object decode(DataInputStream in, byte tag) throws IOException {
+		switch (tag) {
+		case TAG_TWEANN:
+			return readTWEANN(in, allocate(TWEANNGenotype.class));
+		case TAG_HYPERNEAT_CPPN:
+			return readTWEANN(in, allocate(HyperNEATCPPNGenotype.class));
+		case TAG_MLP:
+			MLPGenotype mlp = allocate(MLPGenotype.class);
+			setId(MLP_ID, mlp, in.readLong());
+			mlp.firstConnectionLayer = readMatrix(in);
+			mlp.secondConnectionLayer = readMatrix(in);
+			mlp.parents = new LinkedList<Long>();
+			return mlp;
+		case TAG_REAL_VALUED:
+		case TAG_BOUNDED_REAL_VALUED:
+			RealValuedGenotype real = tag == TAG_REAL_VALUED ? allocate(RealValuedGenotype.class) : allocate(BoundedRealValuedGenotype.class);
+			setId(NUMERIC_ARRAY_ID, real, in.readLong());
+			int size = in.readInt();
+			real.genes = new ArrayList<Double>(size);
+			for (int i = 0; i < size; i++) {
+				real.genes.add(in.readDouble());
+			}
+			if (tag == TAG_BOUNDED_REAL_VALUED) {
+				BoundedRealValuedGenotype bounded = (BoundedRealValuedGenotype) real;
+				bounded.lower = readDoubles(in);
+				bounded.upper = readDoubles(in);
+				bounded.polynomialMutation = in.readBoolean();
+			}
+			real.parents = new LinkedList<Long>();
+			return real;
+		case TAG_BOUNDED_INTEGER_VALUED:
+			BoundedIntegerValuedGenotype integer = allocate(BoundedIntegerValuedGenotype.class);
+			setId(NUMERIC_ARRAY_ID, integer, in.readLong());
+			int length = in.readInt();
+			integer.genes = new ArrayList<Integer>(length);
+			for (int i = 0; i < length; i++) {
+				integer.genes.add(in.readInt());
+			}
+			integer.parents = new LinkedList<Long>();
+			return integer;
+		case TAG_ARCHETYPE:
+			return readNodes(in);
+		default:
+			throw new IOException("Unknown genotype tag " + tag);
+		}
+	}
+
+	private static void writeTWEANN(DataOutputStream out, TWEANNGenotype g) throws IOException {
+		out.writeLong(g.getId());
+		out.writeInt(g.archetypeIndex);
+		out.writeInt(g.numIn);
+		out.writeInt(g.numOut);
+		out.writeInt(g.numModules);
+		out.writeInt(g.neuronsPerModule);
+		out.writeBoolean(g.standardMultitask);
+		out.writeBoolean(g.hierarchicalMultitask);
+		writeInts(out, g.moduleAssociations);
+		writeInts(out, g.moduleUsage);
+		writeNodes(out, g.nodes);
+		out.writeInt(g.links.size());
+		for (LinkGene lg : g.links) {
+			boolean full = lg instanceof FullLinkGene;
+			out.writeByte(full ? LINK_FULL : LINK_PLAIN);
+			out.writeLong(lg.innovation);
+			out.writeLong(lg.sourceInnovation);
+			out.writeLong(lg.targetInnovation);
+			out.writeDouble(lg.weight);
+			if (full) {
+				FullLinkGene flg = (FullLinkGene) lg;
+				out.writeBoolean(flg.active);
+				out.writeBoolean(flg.recurrent);
+				out.writeBoolean(flg.frozen);
+				out.writeInt(flg.moduleSource);
+			}
+		}
+	}
+
+	private static TWEANNGenotype readTWEANN(DataInputStream in, TWEANNGenotype g) throws IOException {
+		setId(TWEANN_ID, g, in.readLong());
+		g.archetypeIndex = in.readInt();
+		g.numIn = in.readInt();
+		g.numOut = in.readInt();
+		g.numModules = in.readInt();
+		g.neuronsPerModule = in.readInt();
+		g.standardMultitask = in.readBoolean();
+		g.hierarchicalMultitask = in.readBoolean();
+		g.moduleAssociations = readInts(in);
+		g.moduleUsage = readInts(in);
+		g.nodes = readNodes(in);
+		int numLinks = in.readInt();
+		g.links = new ArrayList<LinkGene>(numLinks);
+		for (int i = 0; i < numLinks; i++) {
+			byte kind = in.readByte();
+			long innovation = in.readLong();
+			long source = in.readLong();
+			long target = in.readLong();
+			double weight = in.readDouble();
+			if (kind == LINK_FULL) {
+				boolean active = in.readBoolean();
+				boolean recurrent = in.readBoolean();
+				boolean frozen = in.readBoolean();
+				int moduleSource = in.readInt();
+				g.links.add(new FullLinkGene(source, target, weight, innovation, active, recurrent, frozen, moduleSource));
+			} else {
+				g.links.add(new LinkGene(source, target, weight, innovation));
+			}
+		}
+		g.parents = new LinkedList<Long>();
+		return g;
+	}
+
+	private static void writeNodes(DataOutputStream out, ArrayList<NodeGene> nodes) throws IOException {
+		out.writeInt(nodes.size());
+		for (NodeGene ng : nodes) {
+			byte kind = ng instanceof NormalizedMemoryNodeGene ? NODE_NORMALIZED : (ng instanceof FullNodeGene ? NODE_FULL : NODE_PLAIN);
+			out.writeByte(kind);
+			out.writeLong(ng.innovation);
+			out.writeInt(ng.ntype);
+			out.writeInt(ng.ftype);
+			out.writeDouble(ng.bias);
+			if (kind != NODE_PLAIN) {
+				FullNodeGene fng = (FullNodeGene) ng;
+				out.writeBoolean(fng.frozen);
+				out.writeBoolean(fng.fromCombiningCrossover);
+			}
+			if (kind == NODE_NORMALIZED) {
+				out.writeDouble(ng.getMemoryGamma());
+				out.writeDouble(ng.getMemoryBeta());
+			}
+		}
+	}
+
+	private static ArrayList<NodeGene> readNodes(DataInputStream in) throws IOException {
+		int numNodes = in.readInt();
+		ArrayList<NodeGene> nodes = new ArrayList<NodeGene>(numNodes);
+		for (int i = 0; i < numNodes; i++) {
+			byte kind = in.readByte();
+			long innovation = in.readLong();
+			int ntype = in.readInt();
+			int ftype = in.readInt();
+			double bias = in.readDouble();
+			if (kind == NODE_PLAIN) {
+				nodes.add(new NodeGene(ftype, ntype, bias, innovation));
+			} else {
+				boolean frozen = in.readBoolean();
+				boolean fromCombiningCrossover = in.readBoolean();
+				FullNodeGene fng = kind == NODE_NORMALIZED
+						? new NormalizedMemoryNodeGene(ftype, ntype, innovation, frozen, bias, in.readDouble(), in.readDouble())
+						: new FullNodeGene(ftype, ntype, innovation, frozen, bias);
+				fng.fromCombiningCrossover = fromCombiningCrossover;
+				nodes.add(fng);
+			}
+		}
+		return nodes;
+	}
+
+	// Arrays may be null, which is written as length -1
+
+	private static void writeInts(DataOutputStream out, int[] array) throws IOException {
+		out.writeInt(array == null ? -1 : array.length);
+		if (array != null) {
+			for (int x : array) {
+				out.writeInt(x);
+			}
+		}
+	}
+
+	private static int[] readInts(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length == -1) return null;
+		int[] array = new int[length];
+		for (int i = 0; i < length; i++) {
+			array[i] = in.readInt();
+		}
+		return array;
+	}
+
+	private static void writeDoubles(DataOutputStream out, double[] array) throws IOException {
+		out.writeInt(array == null ? -1 : array.length);
+		if (array != null) {
+			for (double x : array) {
+				out.writeDouble(x);
+			}
+		}
+	}
+
+	private static double[] readDoubles(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length == -1) return null;
+		double[] array = new double[length];
+		for (int i = 0; i < length; i++) {
+			array[i] = in.readDouble();
+		}
+		return array;
+	}
+
+	private static void writeMatrix(DataOutputStream out, double[][] matrix) throws IOException {
+		out.writeInt(matrix == null ? -1 : matrix.length);
+		if (matrix != null) {
+			for (double[] row : matrix) {
+				writeDoubles(out, row);
+			}
+		}
+	}
+
+	private static double[][] readMatrix(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length == -1) return null;
+		double[][] matrix = new double[length][];
+		for (int i = 0; i < length; i++) {
+			matrix[i] = readDoubles(in);
+		}
+		return matrix;
+	}
+
+	/**
+	 * Create an instance without running any constructor, the same way that
+	 * wox.serial does when loading XML.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <G> G allocate(Class<G> c) throws IOException {
+		try {
+			Constructor<?> cons;
+			synchronized (ALLOCATORS) {
+				cons = ALLOCATORS.get(c);
+				if (cons == null) {
+					cons = Util.forceDefaultConstructor(c);
+					ALLOCATORS.put(c, cons);
+				}
+			}
+			return (G) cons.newInstance();
+		} catch (Exception e) {
+			throw new IOException("Could not create instance of " + c.getName(), e);
+		}
+	}
+
+	private static Field idField(Class<?> c) {
+		try {
+			Field f = c.getDeclaredField("id");
+			f.setAccessible(true);
+			return f;
+		} catch (NoSuchFieldException e) {
+			throw new IllegalStateException(c.getName() + " has no id field", e);
+		}
+	}
+
+	private static void setId(Field idField, Object genotype, long id) throws IOException {
+		try {
+			idField.setLong(genotype, id);
+		} catch (IllegalAccessException e) {
+			throw new IOException("Could not restore genotype id", e);
+		}
+	}
+}
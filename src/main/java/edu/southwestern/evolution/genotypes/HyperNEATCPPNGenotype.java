@@ -4,16 +4,23 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 
 import edu.southwestern.MMNEAT.MMNEAT;
+import edu.southwestern.log.GenerationMetrics;
 import edu.southwestern.networks.NetworkUtil;
 import edu.southwestern.networks.TWEANN;
+import edu.southwestern.networks.hyperneat.DenseSubstrateNetwork;
 import edu.southwestern.networks.hyperneat.HyperNEATTask;
 import edu.southwestern.networks.hyperneat.HyperNEATUtil;
 import edu.southwestern.networks.hyperneat.Substrate;
 import edu.southwestern.networks.hyperneat.SubstrateConnectivity;
+import edu.southwestern.networks.hyperneat.SubstrateLinkSink;
 import edu.southwestern.parameters.CommonConstants;
+import edu.southwestern.parameters.ParameterSnapshot;
 import edu.southwestern.parameters.Parameters;
+import edu.southwestern.tasks.EvaluationPool;
 import edu.southwestern.util.CartesianGeometricUtilities;
 import edu.southwestern.util.datastructures.ArrayUtil;
 import edu.southwestern.util.datastructures.Pair;
@@ -40,6 +47,8 @@ public class HyperNEATCPPNGenotype extends TWEANNGenotype {
 	// Transient values not saved to XML files
 	public transient static boolean constructingNetwork = false;
 	public transient int innovationID = 0;// provides unique innovation numbers for links and genes
+	// Number of CPPN queries handled by each task when queries are batched and split across threads
+	private static final int QUERIES_PER_TASK = 16 * TWEANN.BATCH_BLOCK_SIZE;
 
 	// Determines whether node normalization occurs across past activations in substrate networks
 	public static boolean normalizedNodeMemory;
@@ -117,10 +126,19 @@ public class HyperNEATCPPNGenotype extends TWEANNGenotype {
 	 */
 	@Override
 	public TWEANN getPhenotype() {
-		TWEANNGenotype tg = getSubstrateGenotype((HyperNEATTask) MMNEAT.task) ;
-		TWEANN result = tg.getPhenotype();//return call to substrate genotype
-		result.passSubstrateInformation(getSubstrateInformation((HyperNEATTask) MMNEAT.task));
-		return result;
+		long start = GenerationMetrics.startPhenotype();
+		try {
+			HyperNEATTask hnt = (HyperNEATTask) MMNEAT.task;
+			TWEANN result = CommonConstants.denseSubstrateNetworks ? getDenseSubstrateNetwork(hnt) : null;
+			if(result == null) { // Either not requested, or not supported by the substrates
+				TWEANNGenotype tg = getSubstrateGenotype(hnt);
+				result = tg.getPhenotype();//return call to substrate genotype
+			}
+			result.passSubstrateInformation(getSubstrateInformation(hnt));
+			return result;
+		} finally {
+			GenerationMetrics.recordPhenotype(start);
+		}
 	}
 
 	/**
@@ -150,41 +168,23 @@ public class HyperNEATCPPNGenotype extends TWEANNGenotype {
 
 		// Total outputs in substrate network
 		int phenotypeOutputs = 0;
-		// Max number of substrates at the same height/depth
-		int layersWidth = 0;
-		// Number of layers of substrates including inputs and outputs
-		int layersHeight = 0;
 		// Figure out number of output neurons
 		for (Substrate s : subs) {
 			if (s.getStype() == Substrate.OUTPUT_SUBSTRATE) {
 				phenotypeOutputs += s.getSize().t1 * s.getSize().t2;
 			}
-			layersWidth = Math.max(layersWidth, s.getSubLocation().t1); 
-			layersHeight = Math.max(layersHeight, s.getSubLocation().t2); // Should depend on output layer 
-		}		
-		// Coordinates start at 0, so actual width/height is one more than max coordinate in each dimension
-		layersWidth++;
-		layersHeight++;
+		}
+		// Max number of substrates at the same height/depth
+		int layersWidth = layersWidth(subs);
+		// Number of layers of substrates including inputs and outputs
+		int layersHeight = layersHeight(subs);
 
 		innovationID = 0;// reset each time a phenotype is generated		
 		newNodes = createSubstrateNodes(hnt, cppn, subs, layersWidth, layersHeight);
 
-		// Will map substrate names to index in subs List
-		HashMap<String, Integer> substrateIndexMapping = new HashMap<String, Integer>();
-		for (int i = 0; i < subs.size(); i++) {
-			substrateIndexMapping.put(subs.get(i).getName(), i);
-		}
-
-		try {
-			// loop through connections and add links, based on contents of subs
-			newLinks = createNodeLinks(hnt, cppn, connections, subs, substrateIndexMapping, layersWidth, layersHeight);
-		}catch(NullPointerException npe) {
-			System.out.println("Error in substrate configuration!");
-			System.out.println(subs);
-			System.out.println(connections);
-			npe.printStackTrace();
-			System.exit(1);
-		}
+		newLinks = new ArrayList<LinkGene>();
+		// loop through connections and add links, based on contents of subs
+		createNodeLinks(hnt, cppn, connections, subs, layersWidth, layersHeight, linkGeneSink(newLinks, subs));
 		constructingNetwork = false;
 
 		// the instantiation of the TWEANNgenotype in question
@@ -196,6 +196,83 @@ public class HyperNEATCPPNGenotype extends TWEANNGenotype {
 		TWEANNGenotype tg = new TWEANNGenotype(newNodes,newLinks, phenotypeOutputs, false, false, -1);
 		return tg;
 	}
+
+	/**
+	 * Use the CPPN to construct the substrate network directly as a
+	 * DenseSubstrateNetwork, which stores the links between each pair of
+	 * connected substrates as a block of weights. No substrate genotype or
+	 * link objects are created, but the network has the same outputs as
+	 * the one encoded by getSubstrateGenotype.
+	 * 
+	 * @param hnt HyperNEAT task that defines a substrate description used here
+	 * @return substrate network, or null if the substrate description or
+	 *         node type cannot be represented by a DenseSubstrateNetwork
+	 */
+	public DenseSubstrateNetwork getDenseSubstrateNetwork(HyperNEATTask hnt) {
+		List<Substrate> subs = getSubstrateInformation(hnt);// extract substrate information from domain
+		List<SubstrateConnectivity> connections = getSubstrateConnectivity(hnt);// extract substrate connectivity from domain
+		// Normalized nodes have memory that blocks of weights do not model
+		if(normalizedNodeMemory || !DenseSubstrateNetwork.supports(subs, connections)) {
+			return null;
+		}
+		constructingNetwork = true; // prevent displaying of substrates
+		TWEANN cppn = getCPPN();// CPPN used to create TWEANN network
+		int layersWidth = layersWidth(subs);
+		int layersHeight = layersHeight(subs);
+
+		innovationID = 0;// reset each time a phenotype is generated
+		ArrayList<NodeGene> newNodes = createSubstrateNodes(hnt, cppn, subs, layersWidth, layersHeight);
+		// Same archetype index as the TWEANN from getSubstrateGenotype
+		DenseSubstrateNetwork result = new DenseSubstrateNetwork(subs, newNodes, connections, -1);
+		createNodeLinks(hnt, cppn, connections, subs, layersWidth, layersHeight, result.linkSink());
+		constructingNetwork = false;
+		return result;
+	}
+
+	/**
+	 * Number of substrates at the same height/depth, which is one more than
+	 * the largest horizontal substrate coordinate, since coordinates start at 0.
+	 * 
+	 * @param subs list of substrates
+	 * @return width of the layers of substrates
+	 */
+	private static int layersWidth(List<Substrate> subs) {
+		int layersWidth = 0;
+		for (Substrate s : subs) {
+			layersWidth = Math.max(layersWidth, s.getSubLocation().t1); 
+		}
+		return layersWidth + 1;
+	}
+
+	/**
+	 * Number of layers of substrates including inputs and outputs, which is
+	 * one more than the largest vertical substrate coordinate.
+	 * 
+	 * @param subs list of substrates
+	 * @return height of the layers of substrates
+	 */
+	private static int layersHeight(List<Substrate> subs) {
+		int layersHeight = 0;
+		for (Substrate s : subs) {
+			layersHeight = Math.max(layersHeight, s.getSubLocation().t2); // Should depend on output layer 
+		}
+		return layersHeight + 1;
+	}
+
+	/**
+	 * Sink that turns each link expressed by the CPPN into a link gene
+	 * 
+	 * @param linksSoFar All added links are accumulated in this list
+	 * @param subs list of substrates, used to determine node innovation numbers
+	 * @return sink adding to linksSoFar
+	 */
+	private SubstrateLinkSink linkGeneSink(ArrayList<LinkGene> linksSoFar, List<Substrate> subs) {
+		return (sourceSubstrate, sourceX, sourceY, targetSubstrate, targetX, targetY, weight, innovation, module) -> {
+			long sourceID = getInnovationID(sourceX, sourceY, sourceSubstrate, subs);
+			long targetID = getInnovationID(targetX, targetY, targetSubstrate, subs);
+			linksSoFar.add(newLinkGene(sourceID, targetID, weight, innovation, true, false, false, module));
+		};
+	}
 	
 	/**
  	 * Method that returns a list of information about the substrate layers
@@ -287,7 +364,7 @@ public class HyperNEATCPPNGenotype extends TWEANNGenotype {
 	 */
 	public ArrayList<NodeGene> createSubstrateNodes(HyperNEATTask hnt, TWEANN cppn, List<Substrate> subs, int layersWidth, int layersHeight) {
 
-		boolean convolutionWeightSharing = Parameters.parameters.booleanParameter("convolutionWeightSharing");
+		boolean convolutionWeightSharing = Parameters.parameters.snapshot().convolutionWeightSharing;
 
 		int biasIndex = indexFirstBiasOutput(hnt); // first bias index
 		ArrayList<NodeGene> newNodes = new ArrayList<NodeGene>();
@@ -408,7 +485,7 @@ public class HyperNEATCPPNGenotype extends TWEANNGenotype {
 	}
 	
 	/**
-	 * creates an array list of links between substrates as dictated by
+	 * creates all links between substrates as dictated by
 	 * connections parameter
 	 *
 	 * @param cppn
@@ -417,14 +494,36 @@ public class HyperNEATCPPNGenotype extends TWEANNGenotype {
 	 *            list of different connections between substrates
 	 * @param subs
 	 *            list of substrates in question
+	 * @param sink
+	 *            receives all the links between substrates
+	 */
+	private void createNodeLinks(HyperNEATTask hnt, TWEANN cppn, List<SubstrateConnectivity> connections, List<Substrate> subs, int layersWidth, int layersHeight, SubstrateLinkSink sink) {
+		// Will map substrate names to index in subs List
+		HashMap<String, Integer> sIMap = new HashMap<String, Integer>();
+		for (int i = 0; i < subs.size(); i++) {
+			sIMap.put(subs.get(i).getName(), i);
+		}
+		try {
+			// loop through connections and add links, based on contents of subs
+			createNodeLinks(hnt, cppn, connections, subs, sIMap, layersWidth, layersHeight, sink);
+		}catch(NullPointerException npe) {
+			System.out.println("Error in substrate configuration!");
+			System.out.println(subs);
+			System.out.println(connections);
+			npe.printStackTrace();
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Loops through the connections, linking substrates with either full or
+	 * convolutional structure
+	 *
 	 * @param sIMap
 	 *            hashmap that maps the substrate in question to its index in
 	 *            the substrate list
-	 *
-	 * @return array list containing all the links between substrates
 	 */
-	private ArrayList<LinkGene> createNodeLinks(HyperNEATTask hnt, TWEANN cppn, List<SubstrateConnectivity> connections, List<Substrate> subs, HashMap<String, Integer> sIMap, int layersWidth, int layersHeight) {
-		ArrayList<LinkGene> result = new ArrayList<LinkGene>();
+	private void createNodeLinks(HyperNEATTask hnt, TWEANN cppn, List<SubstrateConnectivity> connections, List<Substrate> subs, HashMap<String, Integer> sIMap, int layersWidth, int layersHeight, SubstrateLinkSink sink) {
 		for (int i = 0; i < connections.size(); i++) { // For each pair of substrates that are connected
 			SubstrateConnectivity currentConnection = connections.get(i);
 			int sourceSubstrateIndex = sIMap.get(currentConnection.sourceSubstrateName);
@@ -438,13 +537,12 @@ public class HyperNEATCPPNGenotype extends TWEANNGenotype {
 			int outputIndex = CommonConstants.substrateLocationInputs ? 0 : i;
 			// both options add links from between two substrates to whole list of links
 			if(convolution) {
-				convolutionalLoopThroughLinks(hnt, result, cppn, outputIndex, sourceSubstrate, targetSubstrate, sourceSubstrateIndex, targetSubstrateIndex,
+				convolutionalLoopThroughLinks(hnt, sink, cppn, outputIndex, sourceSubstrate, targetSubstrate, sourceSubstrateIndex, targetSubstrateIndex,
 						subs, layersWidth, layersHeight, currentConnection.receptiveFieldWidth, currentConnection.receptiveFieldHeight);
 			} else {
-				loopThroughLinks(hnt, result, cppn, outputIndex, sourceSubstrate, targetSubstrate, sourceSubstrateIndex, targetSubstrateIndex, subs, layersWidth, layersHeight);
+				loopThroughLinks(hnt, sink, cppn, outputIndex, sourceSubstrate, targetSubstrate, sourceSubstrateIndex, targetSubstrateIndex, subs, layersWidth, layersHeight);
 			}
 		}
-		return result;
 	}
 	
 	/**
@@ -488,20 +586,39 @@ public class HyperNEATCPPNGenotype extends TWEANNGenotype {
 	void convolutionalLoopThroughLinks(HyperNEATTask hnt, ArrayList<LinkGene> linksSoFar, TWEANN cppn, int outputIndex,
 			Substrate s1, Substrate s2, int s1Index, int s2Index,
 			List<Substrate> subs, int substrateHorizontalCoordinate, int substrateVerticalCoordinate, int receptiveFieldWidth, int receptiveFieldHeight) {
+		convolutionalLoopThroughLinks(hnt, linkGeneSink(linksSoFar, subs), cppn, outputIndex, s1, s2, s1Index, s2Index, subs,
+				substrateHorizontalCoordinate, substrateVerticalCoordinate, receptiveFieldWidth, receptiveFieldHeight);
+	}
+
+	/**
+	 * Connect two substrate layers using convolutional link structures,
+	 * passing each expressed link to a sink
+	 * @param sink Receives each link that is added
+	 * @see #convolutionalLoopThroughLinks(HyperNEATTask, ArrayList, TWEANN, int, Substrate, Substrate, int, int, List, int, int, int, int)
+	 */
+	void convolutionalLoopThroughLinks(HyperNEATTask hnt, SubstrateLinkSink sink, TWEANN cppn, int outputIndex,
+			Substrate s1, Substrate s2, int s1Index, int s2Index,
+			List<Substrate> subs, int substrateHorizontalCoordinate, int substrateVerticalCoordinate, int receptiveFieldWidth, int receptiveFieldHeight) {
+		if(batchSubstrateQueries(cppn)) {
+			batchedConvolutionalLoopThroughLinks(sink, cppn, outputIndex, s1, s2, s1Index, s2Index,
+					substrateHorizontalCoordinate, substrateVerticalCoordinate, receptiveFieldWidth, receptiveFieldHeight);
+			return;
+		}
 
-		boolean convolutionDeltas = Parameters.parameters.booleanParameter("convolutionDeltas");
-		boolean convolutionCoordinates = Parameters.parameters.booleanParameter("convolutionCoordinates");
-		boolean convolutionWeightSharing = Parameters.parameters.booleanParameter("convolutionWeightSharing");
+		ParameterSnapshot parameters = Parameters.parameters.snapshot();
+		boolean convolutionDeltas = parameters.convolutionDeltas;
+		boolean convolutionCoordinates = parameters.convolutionCoordinates;
+		boolean convolutionWeightSharing = parameters.convolutionWeightSharing;
 		assert receptiveFieldHeight % 2 == 1 : "Receptive field height needs to be odd to be centered: " + receptiveFieldHeight;
 		assert receptiveFieldWidth % 2 == 1 : "Receptive field width needs to be odd to be centered: " + receptiveFieldWidth;
 		// Need to watch out for links that want to connect out of bounds
-		boolean zeroPadding = Parameters.parameters.booleanParameter("zeroPadding");
+		boolean zeroPadding = parameters.zeroPadding;
 		int xOffset = receptiveFieldWidth / 2;
 		int yOffset = receptiveFieldHeight / 2;
 		int xEdgeOffset = zeroPadding ? 0 : xOffset;
 		int yEdgeOffset = zeroPadding ? 0 : yOffset;
 		
-		int stride = Parameters.parameters.integerParameter("stride");
+		int stride = parameters.stride;
 
 		// Traverse center points of receptive fields
 		for(int x = xEdgeOffset; x < s1.getSize().t1 - xEdgeOffset; x += stride) {
@@ -587,7 +704,7 @@ public class HyperNEATCPPNGenotype extends TWEANNGenotype {
 												assert -1 <= inputs[8] && inputs[8] <= 1 : "CPPN input 8 out of range: " + inputs[8];
 											}
 										}
-										conditionalLinkAdd(linksSoFar, cppn, inputs, outputIndex, fromXIndex, fromYIndex, s1Index, targetXIndex, targetYIndex, s2Index, subs, innovationID++);
+										conditionalLinkAdd(sink, cppn, inputs, outputIndex, fromXIndex, fromYIndex, s1Index, targetXIndex, targetYIndex, s2Index, innovationID++);
 									}	
 								}
 							}						
@@ -622,7 +739,24 @@ public class HyperNEATCPPNGenotype extends TWEANNGenotype {
 	 *
 	 */
 	void loopThroughLinks(HyperNEATTask hnt, ArrayList<LinkGene> linksSoFar, TWEANN cppn, int outputIndex, Substrate s1, Substrate s2, int s1Index, int s2Index, List<Substrate> subs, int layersWidth, int layersHeight) {
+		loopThroughLinks(hnt, linkGeneSink(linksSoFar, subs), cppn, outputIndex, s1, s2, s1Index, s2Index, subs, layersWidth, layersHeight);
+	}
+
+	/**
+	 * Loops through all nodes of two substrates to be linked, passing each
+	 * expressed link to a sink
+	 *
+	 * @param sink
+	 * 			  Receives each link that is added
+	 * @see #loopThroughLinks(HyperNEATTask, ArrayList, TWEANN, int, Substrate, Substrate, int, int, List, int, int)
+	 */
+	void loopThroughLinks(HyperNEATTask hnt, SubstrateLinkSink sink, TWEANN cppn, int outputIndex, Substrate s1, Substrate s2, int s1Index, int s2Index, List<Substrate> subs, int layersWidth, int layersHeight) {
+		if(batchSubstrateQueries(cppn)) {
+			batchedLoopThroughLinks(hnt, sink, cppn, outputIndex, s1, s2, s1Index, s2Index, layersWidth, layersHeight);
+			return;
+		}
 
+		boolean substrateLocations = CommonConstants.substrateLocationInputs || Parameters.parameters.snapshot().convolutionWeightSharing;
 		// This loop goes through every (x,y) coordinate in Substrate s1: source substrate
 		for(Pair<Integer,Integer> src : s1.coordinateList()) {
 			int fromXIndex = src.t1;
@@ -649,7 +783,7 @@ public class HyperNEATCPPNGenotype extends TWEANNGenotype {
 						assert 3 >= inputs.length || (-1 <= inputs[3] && inputs[3] <= 1) : "CPPN input 3 out of range: " + inputs[3];
 						assert 4 >= inputs.length || (-1 <= inputs[4] && inputs[4] <= 1) : "CPPN input 4 out of range: " + inputs[4];
 
-						if(CommonConstants.substrateLocationInputs || Parameters.parameters.booleanParameter("convolutionWeightSharing")) {
+						if(substrateLocations) {
 							// Extra inputs are locations of the substrates (just x/y coordinates)
 							ILocated2D scaledSubstrate1Coordinates = MMNEAT.substrateMapping.transformCoordinates(new Tuple2D(s1.getSubLocation().t1, s1.getSubLocation().t2), layersWidth, layersHeight);
 							ILocated2D scaledSubstrate2Coordinates = MMNEAT.substrateMapping.transformCoordinates(new Tuple2D(s2.getSubLocation().t1, s2.getSubLocation().t2), layersWidth, layersHeight);
@@ -660,7 +794,7 @@ public class HyperNEATCPPNGenotype extends TWEANNGenotype {
 							assert -1 <= inputs[7] && inputs[7] <= 1 : "CPPN input 7 out of range: " + inputs[7];
 							assert -1 <= inputs[8] && inputs[8] <= 1 : "CPPN input 8 out of range: " + inputs[8];
 						}
-						conditionalLinkAdd(linksSoFar, cppn, inputs, outputIndex, fromXIndex, fromYIndex, s1Index, targetXindex, targetYIndex, s2Index, subs, innovationID++); // increment innovation regardless of whether link is added
+						conditionalLinkAdd(sink, cppn, inputs, outputIndex, fromXIndex, fromYIndex, s1Index, targetXindex, targetYIndex, s2Index, innovationID++); // increment innovation regardless of whether link is added
 					}
 				}
 			}
@@ -668,10 +802,10 @@ public class HyperNEATCPPNGenotype extends TWEANNGenotype {
 	}
 
 	/**
-	 * If the given inputs to the CPPN indicate that a link should be added, then it is added to the provided list of links with the
+	 * If the given inputs to the CPPN indicate that a link should be added, then it is passed to the provided sink with the
 	 * appropriate weight.
 	 * 
-	 * @param linksSoFar List of links to add to
+	 * @param sink Receives the link if it is added
 	 * @param cppn Network generating link weights
 	 * @param inputs inputs to the CPPN
 	 * @param outputIndex index within CPPN outputs to look for weight information
@@ -681,26 +815,326 @@ public class HyperNEATCPPNGenotype extends TWEANNGenotype {
 	 * @param targetXindex x-coordinate of neuron in target substrate
 	 * @param targetYIndex y-coordinate of neuron in target substrate
 	 * @param s2Index target substrate index in substrate list
-	 * @param subs list of substrates
+	 * @param linkInnovationID innovation number of the link
 	 */
-	void conditionalLinkAdd(ArrayList<LinkGene> linksSoFar, TWEANN cppn, double[] inputs, int outputIndex, int fromXIndex, int fromYIndex, int s1Index, int targetXindex, int targetYIndex, int s2Index, List<Substrate> subs, long linkInnovationID) {
+	void conditionalLinkAdd(SubstrateLinkSink sink, TWEANN cppn, double[] inputs, int outputIndex, int fromXIndex, int fromYIndex, int s1Index, int targetXindex, int targetYIndex, int s2Index, long linkInnovationID) {
 		double[] outputs = cppn.process(inputs);
 		int module = cppn.lastModule();
+		double weight = linkWeight(outputs, outputIndex);
+		if (!Double.isNaN(weight)) { // Link is expressed
+			sink.addLink(s1Index, fromXIndex, fromYIndex, s2Index, targetXindex, targetYIndex, weight, linkInnovationID, module);
+		}
+	}
+
+	/**
+	 * Weight of the link that the CPPN outputs define for one pair of neurons.
+	 * 
+	 * @param outputs CPPN outputs for the pair
+	 * @param outputIndex index within CPPN outputs to look for weight information
+	 * @return weight of the link, or NaN if the link is not expressed
+	 */
+	private static double linkWeight(double[] outputs, int outputIndex) {
 		boolean expressLink = CommonConstants.leo
 				// Specific network output determines link expression
 				? outputs[(numCPPNOutputsPerLayerPair * outputIndex) + LEO_INDEX] > CommonConstants.linkExpressionThreshold
 						// Output magnitude determines link expression
 						: Math.abs(outputs[(numCPPNOutputsPerLayerPair * outputIndex) + LINK_INDEX]) > CommonConstants.linkExpressionThreshold;
-						if (expressLink) {
-							long sourceID = getInnovationID(fromXIndex, fromYIndex, s1Index, subs);
-							long targetID = getInnovationID(targetXindex, targetYIndex, s2Index, subs);
-							double weight = CommonConstants.leo
-									// LEO takes its weight directly from the designated network output
-									? outputs[(numCPPNOutputsPerLayerPair * outputIndex) + LINK_INDEX]
-											// Standard HyperNEAT must scale the weight
-											: NetworkUtil.calculateWeight(outputs[(numCPPNOutputsPerLayerPair * outputIndex) + LINK_INDEX]);
-									linksSoFar.add(newLinkGene(sourceID, targetID, weight, linkInnovationID, true, false, false, module));									
+		if (!expressLink) {
+			return Double.NaN;
+		}
+		return CommonConstants.leo
+				// LEO takes its weight directly from the designated network output
+				? outputs[(numCPPNOutputsPerLayerPair * outputIndex) + LINK_INDEX]
+						// Standard HyperNEAT must scale the weight
+						: NetworkUtil.calculateWeight(outputs[(numCPPNOutputsPerLayerPair * outputIndex) + LINK_INDEX]);
+	}
+
+	/**
+	 * Whether the CPPN queries for substrate links can be evaluated in batches
+	 * spread across threads. This gives the same links as querying one pair
+	 * at a time only if no activation or mode preference carries over from
+	 * one query to the next.
+	 * 
+	 * @param cppn Network generating link weights
+	 * @return true if the batched query pass should be used
+	 */
+	private static boolean batchSubstrateQueries(TWEANN cppn) {
+		return CommonConstants.parallelSubstrateQueries && NetworkUtil.canBatchSequentialInputs(cppn);
+	}
+
+	/**
+	 * Writes the CPPN inputs for one query into a row of a batch.
+	 * Must be safe to call from several threads at once.
+	 */
+	private interface QueryInputs {
+		/**
+		 * @param query index of the query
+		 * @param scratch array of length 5 that may be used while filling
+		 * @param row where the inputs go
+		 */
+		void fill(int query, double[] scratch, double[] row);
+	}
+
+	/**
+	 * Batched equivalent of loopThroughLinks. Scaled coordinates of all
+	 * neurons are computed once, the queries for all pairs of living neurons
+	 * are evaluated by queryAll, and then the expressed links are passed to
+	 * the sink in the order and with the innovation numbers that
+	 * loopThroughLinks would give them.
+	 */
+	private void batchedLoopThroughLinks(HyperNEATTask hnt, SubstrateLinkSink sink, TWEANN cppn, int outputIndex, Substrate s1, Substrate s2, int s1Index, int s2Index, int layersWidth, int layersHeight) {
+		int[] sources = liveNeurons(s1);
+		int[] targets = liveNeurons(s2);
+		double[][] sourceCoordinates = scaledNeuronCoordinates(s1);
+		double[][] targetCoordinates = scaledNeuronCoordinates(s2);
+		double[] locations = null;
+		if(CommonConstants.substrateLocationInputs || Parameters.parameters.snapshot().convolutionWeightSharing) {
+			// Extra inputs are locations of the substrates (just x/y coordinates)
+			ILocated2D scaledSubstrate1Coordinates = MMNEAT.substrateMapping.transformCoordinates(new Tuple2D(s1.getSubLocation().t1, s1.getSubLocation().t2), layersWidth, layersHeight);
+			ILocated2D scaledSubstrate2Coordinates = MMNEAT.substrateMapping.transformCoordinates(new Tuple2D(s2.getSubLocation().t1, s2.getSubLocation().t2), layersWidth, layersHeight);
+			locations = new double[]{scaledSubstrate1Coordinates.getX(), scaledSubstrate1Coordinates.getY(), scaledSubstrate2Coordinates.getX(), scaledSubstrate2Coordinates.getY()};
+		}
+		final double[] substrateLocations = locations;
+		assert (long) sources.length * targets.length <= Integer.MAX_VALUE : "Too many neuron pairs: " + sources.length + " * " + targets.length;
+		int numQueries = sources.length * targets.length;
+		// The number of inputs left after filtering only depends on the task
+		int rowLength = hnt.filterCPPNInputs(new double[]{0, 0, 0, 0, BIAS}).length + (locations == null ? 0 : locations.length);
+
+		double[] weights = queryAll(cppn, numQueries, rowLength, outputIndex, (query, scratch, row) -> {
+			int source = sources[query / targets.length];
+			int target = targets[query % targets.length];
+			scratch[0] = sourceCoordinates[0][source];
+			scratch[1] = sourceCoordinates[1][source];
+			scratch[2] = targetCoordinates[0][target];
+			scratch[3] = targetCoordinates[1][target];
+			scratch[4] = BIAS;
+			double[] filtered = hnt.filterCPPNInputs(scratch);
+			System.arraycopy(filtered, 0, row, 0, filtered.length);
+			if(substrateLocations != null) {
+				System.arraycopy(substrateLocations, 0, row, filtered.length, substrateLocations.length);
+			}
+		});
+
+		long firstInnovation = innovationID;
+		innovationID += numQueries; // every query uses an innovation number, whether the link is added or not
+		int s1Width = s1.getSize().t1;
+		int s2Width = s2.getSize().t1;
+		for(int q = 0; q < numQueries; q++) {
+			if(!Double.isNaN(weights[q])) {
+				int source = sources[q / targets.length];
+				int target = targets[q % targets.length];
+				// The CPPN has a single module
+				sink.addLink(s1Index, source % s1Width, source / s1Width, s2Index, target % s2Width, target / s2Width, weights[q], firstInnovation + q, 0);
+			}
+		}
+	}
+
+	/**
+	 * Batched equivalent of convolutionalLoopThroughLinks. The queries are
+	 * listed in the same order as in convolutionalLoopThroughLinks, with the
+	 * coordinates of neurons and receptive field positions computed once,
+	 * and then evaluated by queryAll.
+	 */
+	private void batchedConvolutionalLoopThroughLinks(SubstrateLinkSink sink, TWEANN cppn, int outputIndex,
+			Substrate s1, Substrate s2, int s1Index, int s2Index,
+			int substrateHorizontalCoordinate, int substrateVerticalCoordinate, int receptiveFieldWidth, int receptiveFieldHeight) {
+		ParameterSnapshot parameters = Parameters.parameters.snapshot();
+		boolean convolutionDeltas = parameters.convolutionDeltas;
+		boolean convolutionCoordinates = parameters.convolutionCoordinates;
+		boolean convolutionWeightSharing = parameters.convolutionWeightSharing;
+		boolean zeroPadding = parameters.zeroPadding;
+		int stride = parameters.stride;
+		int xOffset = receptiveFieldWidth / 2;
+		int yOffset = receptiveFieldHeight / 2;
+		int xEdgeOffset = zeroPadding ? 0 : xOffset;
+		int yEdgeOffset = zeroPadding ? 0 : yOffset;
+		int s1Width = s1.getSize().t1;
+		int s1Height = s1.getSize().t2;
+		int s2Width = s2.getSize().t1;
+
+		// List the queries: source neuron, target neuron and position in receptive field
+		int fieldSize = receptiveFieldWidth * receptiveFieldHeight;
+		int maxQueries = ((s1Width + stride - 1) / stride) * ((s1Height + stride - 1) / stride) * fieldSize;
+		int[] sources = new int[maxQueries];
+		int[] targets = new int[maxQueries];
+		int[] fieldPositions = new int[maxQueries];
+		int numQueries = 0;
+		for(int x = xEdgeOffset; x < s1Width - xEdgeOffset; x += stride) {
+			for(int y = yEdgeOffset; y < s1Height - yEdgeOffset; y += stride) {
+				int targetXIndex = (x - xEdgeOffset) / stride; 
+				int targetYIndex = (y - yEdgeOffset) / stride;
+				if(!s2.isNeuronDead(targetXIndex, targetYIndex)) {
+					for(int fX = -xOffset; fX <= xOffset; fX++) {
+						int fromXIndex = x + fX;
+						if(fromXIndex >= 0 && fromXIndex < s1Width) {
+							for(int fY = -yOffset; fY <= yOffset; fY++) {
+								int fromYIndex = y + fY;
+								if(fromYIndex >= 0 && fromYIndex < s1Height && !s1.isNeuronDead(fromXIndex, fromYIndex)) {
+									sources[numQueries] = fromYIndex * s1Width + fromXIndex;
+									targets[numQueries] = targetYIndex * s2Width + targetXIndex;
+									fieldPositions[numQueries] = (fY + yOffset) * receptiveFieldWidth + (fX + xOffset);
+									numQueries++;
+								}
+							}
 						}
+					}
+				}
+			}
+		}
+
+		double[][] sourceCoordinates = scaledNeuronCoordinates(s1);
+		double[][] targetCoordinates = scaledNeuronCoordinates(s2);
+		// Receptive field scaling is with respect to the center of the field
+		double[][] fieldCoordinates = new double[2][fieldSize];
+		for(int fY = 0; fY < receptiveFieldHeight; fY++) {
+			for(int fX = 0; fX < receptiveFieldWidth; fX++) {
+				ILocated2D scaledFieldCoordinates = CartesianGeometricUtilities.centerAndScale(new Tuple2D(fX, fY), receptiveFieldWidth, receptiveFieldHeight);
+				fieldCoordinates[0][fY * receptiveFieldWidth + fX] = scaledFieldCoordinates.getX();
+				fieldCoordinates[1][fY * receptiveFieldWidth + fX] = scaledFieldCoordinates.getY();
+			}
+		}
+		double[] locations = null;
+		if(CommonConstants.substrateLocationInputs || convolutionWeightSharing) {
+			ILocated2D scaledSubstrate1Coordinates = MMNEAT.substrateMapping.transformCoordinates(new Tuple2D(s1.getSubLocation().t1, s1.getSubLocation().t2), substrateHorizontalCoordinate, substrateVerticalCoordinate);
+			ILocated2D scaledSubstrate2Coordinates = MMNEAT.substrateMapping.transformCoordinates(new Tuple2D(s2.getSubLocation().t1, s2.getSubLocation().t2), substrateHorizontalCoordinate, substrateVerticalCoordinate);
+			locations = convolutionDeltas
+					// Location of target substrate, and delta between target and source substrates
+					? new double[]{scaledSubstrate2Coordinates.getX() - scaledSubstrate1Coordinates.getX(), scaledSubstrate2Coordinates.getY() - scaledSubstrate1Coordinates.getY(), scaledSubstrate2Coordinates.getX(), scaledSubstrate2Coordinates.getY()}
+					// Locations of the substrates
+					: new double[]{scaledSubstrate1Coordinates.getX(), scaledSubstrate1Coordinates.getY(), scaledSubstrate2Coordinates.getX(), scaledSubstrate2Coordinates.getY()};
+		}
+		final double[] substrateLocations = locations;
+		int rowLength = 5 + (locations == null ? 0 : locations.length);
+
+		double[] weights = queryAll(cppn, numQueries, rowLength, outputIndex, (query, scratch, row) -> {
+			int source = sources[query];
+			int target = targets[query];
+			double targetX = targetCoordinates[0][target];
+			double targetY = targetCoordinates[1][target];
+			// Same inputs as in convolutionalLoopThroughLinks
+			if(convolutionDeltas) {
+				row[0] = targetX - sourceCoordinates[0][source];
+				row[1] = targetY - sourceCoordinates[1][source];
+			} else if(convolutionCoordinates) {
+				row[0] = sourceCoordinates[0][source];
+				row[1] = sourceCoordinates[1][source];
+			} else {
+				row[0] = fieldCoordinates[0][fieldPositions[query]];
+				row[1] = fieldCoordinates[1][fieldPositions[query]];
+			}
+			boolean shareWeights = convolutionWeightSharing && !convolutionDeltas && !convolutionCoordinates;
+			row[2] = shareWeights ? 0 : targetX;
+			row[3] = shareWeights ? 0 : targetY;
+			row[4] = BIAS;
+			if(substrateLocations != null) {
+				System.arraycopy(substrateLocations, 0, row, 5, substrateLocations.length);
+			}
+		});
+
+		long firstInnovation = innovationID;
+		innovationID += numQueries;
+		for(int q = 0; q < numQueries; q++) {
+			if(!Double.isNaN(weights[q])) {
+				// The CPPN has a single module
+				sink.addLink(s1Index, sources[q] % s1Width, sources[q] / s1Width, s2Index, targets[q] % s2Width, targets[q] / s2Width, weights[q], firstInnovation + q, 0);
+			}
+		}
+	}
+
+	/**
+	 * Indices (y * width + x) of all neurons in a substrate that are not dead,
+	 * in the order of the substrate coordinate list.
+	 * 
+	 * @param s substrate
+	 * @return indices of living neurons
+	 */
+	private static int[] liveNeurons(Substrate s) {
+		int width = s.getSize().t1;
+		int[] result = new int[s.numberOfNeurons()];
+		int count = 0;
+		for(Pair<Integer,Integer> coord : s.coordinateList()) {
+			if(!s.isNeuronDead(coord.t1, coord.t2)) {
+				result[count++] = coord.t2 * width + coord.t1;
+			}
+		}
+		return Arrays.copyOf(result, count);
+	}
+
+	/**
+	 * Scaled coordinates of every neuron in a substrate, as the substrate
+	 * mapping defines them, computed once instead of once per link.
+	 * 
+	 * @param s substrate
+	 * @return x-coordinates followed by y-coordinates, each indexed by y * width + x
+	 */
+	private static double[][] scaledNeuronCoordinates(Substrate s) {
+		int width = s.getSize().t1;
+		int height = s.getSize().t2;
+		double[][] result = new double[2][width * height];
+		for(int y = 0; y < height; y++) {
+			for(int x = 0; x < width; x++) {
+				ILocated2D scaled = MMNEAT.substrateMapping.transformCoordinates(new Tuple2D(x, y), width, height);
+				result[0][y * width + x] = scaled.getX();
+				result[1][y * width + x] = scaled.getY();
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Evaluate all CPPN queries and determine the link weight of each. The
+	 * queries are split into ranges that run as tasks of the evaluation pool,
+	 * where each thread uses its own copy of the CPPN and processes its
+	 * range in batches, reusing the same input rows.
+	 * 
+	 * @param cppn Network generating link weights
+	 * @param numQueries number of queries
+	 * @param rowLength number of CPPN inputs per query
+	 * @param outputIndex index within CPPN outputs to look for weight information
+	 * @param inputs defines the CPPN inputs of each query
+	 * @return weight of each query's link, or NaN if the link is not expressed
+	 */
+	private static double[] queryAll(TWEANN cppn, int numQueries, int rowLength, int outputIndex, QueryInputs inputs) {
+		double[] weights = new double[numQueries];
+		int numTasks = (numQueries + QUERIES_PER_TASK - 1) / QUERIES_PER_TASK;
+		if(numTasks <= 1) {
+			queryRange(cppn, 0, numQueries, rowLength, outputIndex, inputs, weights);
+		} else {
+			ConcurrentHashMap<Thread, TWEANN> copies = new ConcurrentHashMap<Thread, TWEANN>();
+			ArrayList<Callable<Void>> calls = new ArrayList<Callable<Void>>(numTasks);
+			for(int t = 0; t < numTasks; t++) {
+				int start = t * QUERIES_PER_TASK;
+				int end = Math.min(numQueries, start + QUERIES_PER_TASK);
+				calls.add(() -> {
+					TWEANN copy = copies.computeIfAbsent(Thread.currentThread(), thread -> cppn.copy());
+					queryRange(copy, start, end, rowLength, outputIndex, inputs, weights);
+					return null;
+				});
+			}
+			EvaluationPool.invokeAll(calls);
+			// Usage was counted by the copies, but would have been counted by the CPPN
+			cppn.getModuleUsage()[0] += numQueries;
+		}
+		return weights;
+	}
+
+	/**
+	 * Evaluate a range of CPPN queries in batches
+	 */
+	private static void queryRange(TWEANN cppn, int start, int end, int rowLength, int outputIndex, QueryInputs inputs, double[] weights) {
+		double[] scratch = new double[5];
+		double[][] rows = new double[Math.min(TWEANN.BATCH_BLOCK_SIZE, end - start)][rowLength];
+		for(int blockStart = start; blockStart < end; blockStart += rows.length) {
+			int count = Math.min(rows.length, end - blockStart);
+			double[][] batch = count == rows.length ? rows : Arrays.copyOf(rows, count);
+			for(int r = 0; r < count; r++) {
+				inputs.fill(blockStart + r, scratch, batch[r]);
+			}
+			double[][] outputs = cppn.processBatch(batch);
+			for(int r = 0; r < count; r++) {
+				weights[blockStart + r] = linkWeight(outputs[r], outputIndex);
+			}
+		}
 	}
 
 	/**
@@ -0,0 +1,130 @@
+package edu.southwestern.evolution.genotypes;
+
+import java.util.List;
+
+import edu.southwestern.evolution.genotypes.TWEANNGenotype.Gene;
+import edu.southwestern.evolution.genotypes.TWEANNGenotype.LinkGene;
+import edu.southwestern.util.datastructures.LongIntHashMap;
+
+/**
+ * Positions of genes within a gene list, looked up either by innovation
+ * number or, for links, by the innovation numbers of their endpoints.
+ *
+ * Gene lists are public and modified in many places, so the index is not
+ * updated along with the list. Instead, every position it returns is checked
+ * against the list, and the index is rebuilt when it turns out to be out of
+ * date. Lookups of genes that are present take constant time as long as the
+ * list does not change, and the result is the same gene a linear search
+ * would find, as long as keys are not duplicated within the list. Looking up
+ * a gene that is absent still searches the list, since the index cannot know
+ * whether it missed a recent addition.
+ *
+ * Lookups are synchronized because they may rebuild the index, so several
+ * threads can read the same genotype at once. Modifying a gene list while
+ * another thread reads it is as unsafe as before.
+ */
+public class InnovationIndex {
+
+	private final LongIntHashMap positions = new LongIntHashMap();
+	private final boolean byEndpoints;
+	private List<? extends Gene> indexed = null;
+	private int indexedSize = -1;
+
+	/**
+	 * Index of genes by their innovation numbers
+	 */
+	public InnovationIndex() {
+		this(false);
+	}
+
+	/**
+	 * @param byEndpoints if true, index link genes by source and target
+	 *            innovation rather than by their own innovation numbers
+	 */
+	public InnovationIndex(boolean byEndpoints) {
+		this.byEndpoints = byEndpoints;
+	}
+
+	/**
+	 * Index of the first gene in the list with the given innovation number
+	 *
+	 * @param genes list of genes
+	 * @param innovation innovation number to look for
+	 * @return index in genes, or -1 if not present
+	 */
+	public synchronized int indexOf(List<? extends Gene> genes, long innovation) {
+		assert !byEndpoints : "This index is by link endpoints";
+		int i = lookup(genes, innovation);
+		if (i >= 0 && i < genes.size() && genes.get(i).innovation == innovation) {
+			return i;
+		}
+		for (i = 0; i < genes.size(); i++) {
+			if (genes.get(i).innovation == innovation) {
+				rebuild(genes); // Index was out of date
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Index of the first link in the list from the source to the target node
+	 *
+	 * @param links list of link genes
+	 * @param sourceInnovation innovation number of the source node
+	 * @param targetInnovation innovation number of the target node
+	 * @return index in links, or -1 if not present
+	 */
+	public synchronized int indexOfLink(List<? extends LinkGene> links, long sourceInnovation, long targetInnovation) {
+		assert byEndpoints : "This index is by innovation number";
+		int i = lookup(links, endpointKey(sourceInnovation, targetInnovation));
+		if (i >= 0 && i < links.size() && connects(links.get(i), sourceInnovation, targetInnovation)) {
+			return i;
+		}
+		for (i = 0; i < links.size(); i++) {
+			if (connects(links.get(i), sourceInnovation, targetInnovation)) {
+				rebuild(links); // Index was out of date, or two endpoint keys collided
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static boolean connects(LinkGene lg, long sourceInnovation, long targetInnovation) {
+		return lg.sourceInnovation == sourceInnovation && lg.targetInnovation == targetInnovation;
+	}
+
+	/**
+	 * Single long key for a pair of node innovation numbers. Different pairs
+	 * can share a key, which is why all results are checked against the list.
+	 *
+	 * @param sourceInnovation innovation number of the source node
+	 * @param targetInnovation innovation number of the target node
+	 * @return combined key
+	 */
+	public static long endpointKey(long sourceInnovation, long targetInnovation) {
+		return sourceInnovation * 0x9E3779B97F4A7C15L + targetInnovation;
+	}
+
+	/**
+	 * Position stored for a key, after rebuilding the index if the list
+	 * was replaced or changed size
+	 */
+	private int lookup(List<? extends Gene> genes, long key) {
+		if (genes != indexed || genes.size() != indexedSize) {
+			rebuild(genes);
+		}
+		return positions.get(key, -1);
+	}
+
+	private void rebuild(List<? extends Gene> genes) {
+		positions.clear(genes.size());
+		for (int i = 0; i < genes.size(); i++) {
+			Gene g = genes.get(i);
+			// The first occurrence is kept, as with a linear search
+			positions.putIfAbsent(byEndpoints ? endpointKey(((LinkGene) g).sourceInnovation, ((LinkGene) g).targetInnovation) : g.innovation, i);
+		}
+		indexed = genes;
+		indexedSize = genes.size();
+	}
+}
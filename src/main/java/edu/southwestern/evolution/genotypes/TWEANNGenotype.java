@@ -6,7 +6,9 @@ import edu.southwestern.evolution.mutation.tweann.*;
 import edu.southwestern.evolution.nsga2.bd.characterizations.GeneralNetworkCharacterization;
 import edu.southwestern.evolution.nsga2.bd.localcompetition.TWEANNModulesNicheDefinition;
 import edu.southwestern.MMNEAT.MMNEAT;
+import edu.southwestern.log.GenerationMetrics;
 import edu.southwestern.networks.ActivationFunctions;
+import edu.southwestern.networks.CompiledTWEANN;
 import edu.southwestern.networks.TWEANN;
 import edu.southwestern.parameters.CommonConstants;
 import edu.southwestern.parameters.Parameters;
@@ -87,7 +89,7 @@ public class TWEANNGenotype implements NetworkGenotype<TWEANN> {
 		 * @param frozen = false if node can accept new inputs
 		 * @param bias = bias offset to sum of this node before activation
 		 */
-		private NodeGene(int ftype, int ntype, double bias, long innovation) {
+		NodeGene(int ftype, int ntype, double bias, long innovation) {
 			super(innovation);
 			this.ftype = ftype;
 			this.ntype = ntype;
@@ -270,7 +272,7 @@ public class TWEANNGenotype implements NetworkGenotype<TWEANN> {
 		 * @param recurrent Whether the link is considered recurrent
 		 * @param frozen Whether the link is immune to modifications by mutation
 		 */
-		private LinkGene(long sourceInnovation, long targetInnovation, double weight, long innovation) {
+		LinkGene(long sourceInnovation, long targetInnovation, double weight, long innovation) {
 			super(innovation);
 			this.sourceInnovation = sourceInnovation;
 			this.targetInnovation = targetInnovation;
@@ -346,7 +348,7 @@ public class TWEANNGenotype implements NetworkGenotype<TWEANN> {
 		 * @param recurrent Whether the link is considered recurrent
 		 * @param frozen Whether the link is immune to modifications by mutation
 		 */
-		private FullLinkGene(long sourceInnovation, long targetInnovation, double weight, long innovation, boolean active, boolean recurrent, boolean frozen, int moduleSource) {
+		FullLinkGene(long sourceInnovation, long targetInnovation, double weight, long innovation, boolean active, boolean recurrent, boolean frozen, int moduleSource) {
 			super(sourceInnovation, targetInnovation, weight, innovation);
 			this.active = active;
 			this.recurrent = recurrent;
@@ -463,6 +465,12 @@ public class TWEANNGenotype implements NetworkGenotype<TWEANN> {
 	// Added to allow tracking of who parents are for score history purposes
 	transient List<Long> parents = new LinkedList<Long>();
 
+	// Positions of node genes by innovation, and link genes by endpoints.
+	// Final so that wox does not save them. Genotypes that were loaded from
+	// file without calling a constructor have none, and search linearly.
+	private final InnovationIndex nodeIndex = new InnovationIndex();
+	private final InnovationIndex linkIndex = new InnovationIndex(true);
+
 	@Override
 	public void addParent(long id) {
 		parents.add(id);
@@ -825,7 +833,7 @@ public class TWEANNGenotype implements NetworkGenotype<TWEANN> {
 	 */
 	public LinkGene deleteLinkMutation() {
 		if(links.size()>0)
-			return deleteLink(RandomNumbers.randomGenerator.nextInt(links.size()));
+			return deleteLink(RandomNumbers.generator().nextInt(links.size()));
 		else
 			return null;
 	}
@@ -845,7 +853,7 @@ public class TWEANNGenotype implements NetworkGenotype<TWEANN> {
 	 */
 	public void deleteRandomModeMutation() {
 		if (numModules > 1) {
-			deleteMode(RandomNumbers.randomGenerator.nextInt(numModules));
+			deleteMode(RandomNumbers.generator().nextInt(numModules));
 		}
 	}
 
@@ -929,7 +937,7 @@ public class TWEANNGenotype implements NetworkGenotype<TWEANN> {
 	 */
 	public void allWeightMutation(RandomGenerator rand, double rate) {
 		for (LinkGene l : links) {
-			if (!l.isFrozen() && RandomNumbers.randomGenerator.nextDouble() < rate) {
+			if (!l.isFrozen() && RandomNumbers.generator().nextDouble() < rate) {
 				perturbLink(l, rand.randomOutput());
 			}
 		}
@@ -968,7 +976,7 @@ public class TWEANNGenotype implements NetworkGenotype<TWEANN> {
 			System.out.println("No links to choose from. All are frozen!");
 			System.exit(1);
 		}
-		return indicies.get(RandomNumbers.randomGenerator.nextInt(indicies.size()));
+		return indicies.get(RandomNumbers.generator().nextInt(indicies.size()));
 	}
 
 	/**
@@ -1027,6 +1035,10 @@ public class TWEANNGenotype implements NetworkGenotype<TWEANN> {
 	 * @return = null on failure, LinkGene otherwise
 	 */
 	public LinkGene getLinkBetween(long sourceInnovation, long targetInnovation) {
+		if (linkIndex != null) {
+			int index = linkIndex.indexOfLink(links, sourceInnovation, targetInnovation);
+			return index == -1 ? null : links.get(index);
+		}
 		for (LinkGene l : links) {
 			if (l.sourceInnovation == sourceInnovation && l.targetInnovation == targetInnovation) {
 				return l;
@@ -1063,7 +1075,7 @@ public class TWEANNGenotype implements NetworkGenotype<TWEANN> {
 	 */
 	private long getRandomLinkSourceNodeInnovationNumber() {
 		return nodes.get(
-				RandomNumbers.randomGenerator.nextInt(nodes.size() + (CommonConstants.recurrency ? 0 : -1))).innovation;
+				RandomNumbers.generator().nextInt(nodes.size() + (CommonConstants.recurrency ? 0 : -1))).innovation;
 	}
 
 	/**
@@ -1072,7 +1084,7 @@ public class TWEANNGenotype implements NetworkGenotype<TWEANN> {
 	 * @return any node innovation that is not an output node
 	 */
 	private long getRandomNonOutputNodeInnovationNumber() {
-		return nodes.get(RandomNumbers.randomGenerator.nextInt(outputStartIndex())).innovation;
+		return nodes.get(RandomNumbers.generator().nextInt(outputStartIndex())).innovation;
 	}
 
 	/**
@@ -1135,7 +1147,7 @@ public class TWEANNGenotype implements NetworkGenotype<TWEANN> {
 			}
 		}
 		Long[] options = new Long[sourceInnovationNumbers.size()];
-		return sourceInnovationNumbers.toArray(options)[RandomNumbers.randomGenerator.nextInt(sourceInnovationNumbers.size())];
+		return sourceInnovationNumbers.toArray(options)[RandomNumbers.generator().nextInt(sourceInnovationNumbers.size())];
 	}
 
 	/**
@@ -1259,9 +1271,16 @@ public class TWEANNGenotype implements NetworkGenotype<TWEANN> {
 	 * @return
 	 */
 	private NodeGene getNodeWithInnovation(long innovation) {
-		for(NodeGene ng : nodes) {
-			if(ng.innovation == innovation) {
-				return ng;
+		if(nodeIndex != null) {
+			int index = nodeIndex.indexOf(nodes, innovation);
+			if(index != -1) {
+				return nodes.get(index);
+			}
+		} else {
+			for(NodeGene ng : nodes) {
+				if(ng.innovation == innovation) {
+					return ng;
+				}
 			}
 		}
 		throw new IllegalArgumentException("Node innovation not found: " + innovation);
@@ -1424,6 +1443,13 @@ public class TWEANNGenotype implements NetworkGenotype<TWEANN> {
 	 * @return Index in list where gene is located
 	 */
 	private int indexOfNodeInnovation(long innovation) {
+		if (nodeIndex != null) {
+			int index = nodeIndex.indexOf(nodes, innovation);
+			if (index == -1) {
+				System.out.println("innovation " + innovation + " not found in net " + this.getId());
+			}
+			return index;
+		}
 		return indexOfGeneInnovation(innovation, nodes);
 	}
 
@@ -1484,10 +1510,15 @@ public class TWEANNGenotype implements NetworkGenotype<TWEANN> {
 	 */
 	@Override
 	public TWEANN getPhenotype() {
-		TWEANN result = new TWEANN(this);
-		// This is the point where old parent module usage is finally erased
-		this.moduleUsage = result.moduleUsage;
-		return result;
+		long start = GenerationMetrics.startPhenotype();
+		try {
+			TWEANN result = CommonConstants.compiledTWEANN ? new CompiledTWEANN(this) : new TWEANN(this);
+			// This is the point where old parent module usage is finally erased
+			this.moduleUsage = result.moduleUsage;
+			return result;
+		} finally {
+			GenerationMetrics.recordPhenotype(start);
+		}
 	}
 
 	/**
@@ -1625,7 +1656,7 @@ public class TWEANNGenotype implements NetworkGenotype<TWEANN> {
 	 * randomly duplicates a module in the network
 	 */
 	public void moduleDuplication() {
-		int module = RandomNumbers.randomGenerator.nextInt(this.numModules);
+		int module = RandomNumbers.generator().nextInt(this.numModules);
 		duplicateModule(module);
 	}
 
@@ -1691,7 +1722,7 @@ public class TWEANNGenotype implements NetworkGenotype<TWEANN> {
 				+ desiredPreferenceLoc + ",nodes.size()=" + nodes.size() + ",neuronsPerModule=" + neuronsPerModule
 				+ ",outputStart=" + outputStart;
 		// Node that will link into the new preference neuron
-		long randomSourceInnovation = nodes.get(RandomNumbers.randomGenerator.nextInt(outputStart)).innovation;
+		long randomSourceInnovation = nodes.get(RandomNumbers.generator().nextInt(outputStart)).innovation;
 		// Last mode?
 		long newNodeInnovation;
 		if (desiredPreferenceLoc == nodes.size()) {
@@ -35,7 +35,7 @@ import java.util.Scanner;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import wox.serial.Easy;
+import edu.southwestern.util.file.Serialization;
 
 /**
  * This complicated, clunky file is used to browse the lineage of an evolved
@@ -1245,7 +1245,7 @@ public class Offspring {
 		System.out.println(xmlNetwork);
 		System.out.println(this);
 		TWEANNGenotype g = null;
-		if (xmlNetwork == null || !(new File(xmlNetwork).exists())) {
+		if (xmlNetwork == null || !Serialization.exists(xmlNetwork)) {
 			System.out.println("Unsaved network");
 		} else {
 			String oldTitle = panel.getFrame().getTitle();
@@ -1263,7 +1263,7 @@ public class Offspring {
 	 */
 	@SuppressWarnings("unchecked")
 	public static Genotype<? extends Network> getGenotype(String xml) {
-		return (Genotype<? extends Network>) Easy.load(xml);
+		return (Genotype<? extends Network>) Serialization.load(xml);
 	}
 
 	/**
@@ -3,21 +3,30 @@ package edu.southwestern.evolution.mapelites;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.PrintStream;
-import java.util.Vector;
-import java.util.stream.IntStream;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import edu.southwestern.scores.Score;
 import edu.southwestern.util.ClassCreation;
 import edu.southwestern.util.file.FileUtilities;
 import edu.southwestern.util.random.RandomNumbers;
-import wox.serial.Easy;
+import edu.southwestern.util.file.Serialization;
 
 public class Archive<T> {
 	
-	Vector<Score<T>> archive; // Vector is used because it is thread-safe
+	// Each bin is replaced with compare-and-set, so several threads can add at once
+	AtomicReferenceArray<Score<T>> archive;
 	private BinLabels<T> mapping;
 	private boolean saveElites;
 	private String archiveDir;
+	// Elites are written to disk by a background thread so that add() never waits on file I/O
+	private ExecutorService eliteWriter;
+	// Bins whose current elite still needs to be written
+	private Set<Integer> unsavedBins;
 
 	@SuppressWarnings("unchecked")
 	public Archive(boolean saveElites) {
@@ -31,7 +40,7 @@ public class Archive<T> {
 			System.exit(1);
 		}
 		int numBins = mapping.binLabels().size();
-		archive = new Vector<Score<T>>(numBins);
+		archive = new AtomicReferenceArray<Score<T>>(numBins); // All bins start empty (null)
 		// Archive directory
 		String experimentDir = FileUtilities.getSaveDirectory();
 		archiveDir = experimentDir + File.separator + "archive";
@@ -42,7 +51,14 @@ public class Archive<T> {
 				// Create all of the bin directories
 				new File(binPath).mkdirs(); // make directory
 			}
-			archive.add(null); // Place holder for first individual and future elites
+		}
+		if(saveElites) {
+			unsavedBins = ConcurrentHashMap.newKeySet();
+			eliteWriter = Executors.newSingleThreadExecutor((r) -> {
+				Thread t = new Thread(r, "MAP Elites archive writer");
+				t.setDaemon(true);
+				return t;
+			});
 		}
 	}
 
@@ -52,7 +68,7 @@ public class Archive<T> {
 	 * @return
 	 */
 	public float[] getEliteScores() {
-		float[] result = new float[archive.size()];
+		float[] result = new float[archive.length()];
 		for(int i = 0; i < result.length; i++) {
 			Score<T> score = archive.get(i);
 			result[i] = score == null ? Float.NEGATIVE_INFINITY : score.behaviorVector.get(i).floatValue();
@@ -78,45 +94,81 @@ public class Archive<T> {
 		
 	/**
 	 * Given an ArchivedOrganism (which contains some evaluation information about the genotype),
-	 * figure out which bin it belongs in and add it at the front if it is a new elite.
-	 * Otherwise, add it at the end.
+	 * figure out which bins it belongs in and replace the elites that it beats.
+	 * Safe to call from several threads at once: if another thread replaces a bin's
+	 * elite first, the candidate is compared against that new elite instead.
 	 * @param candidate Organism containing genotype and eval information
 	 * @return Whether organism was a new elite
 	 */
 	public boolean add(Score<T> candidate) {
-		// Java's new stream features allow for easy parallelism
-		IntStream stream = IntStream.range(0, archive.size());
-		long newElites = stream.parallel().filter((i) -> {
-			Score<T> elite = archive.get(i);
+		boolean newElite = false;
+		Score<T> copy = null; // Shared by every bin that the candidate wins
+		for(int i = 0; i < archive.length(); i++) {
 			double candidateScore = candidate.behaviorVector.get(i);
-			// If the bin is empty, or the candidate is better than the elite for that bin's score
-			if(elite == null || candidateScore > elite.behaviorVector.get(i)) {
-				archive.set(i, candidate.copy()); // Replace elite
-				// Need to save all elites so that re-load on resume works
-				if(saveElites) {
-					// Easier to reload on resume if file name is uniform. Will also save space by overwriting
-					String binPath = archiveDir + File.separator + mapping.binLabels().get(i);
-					Easy.save(candidate.individual, binPath + File.separator + "elite.xml");
-					// Write scores as simple text file (less to write than xml)
-					try {
-						PrintStream ps = new PrintStream(new File(binPath + File.separator + "scores.txt"));
-						for(Double score : candidate.behaviorVector) {
-							ps.println(score);
-						}
-					} catch (FileNotFoundException e) {
-						System.out.println("Could not write scores for " + candidate.individual.getId() + ":" + candidate.behaviorVector);
-						e.printStackTrace();
-						System.exit(1);
+			while(true) {
+				Score<T> elite = archive.get(i);
+				// Only an empty bin, or a candidate better than the elite for that bin's score, replaces the elite
+				if(elite != null && !(candidateScore > elite.behaviorVector.get(i))) {
+					break;
+				}
+				if(copy == null) {
+					copy = candidate.copy();
+				}
+				if(archive.compareAndSet(i, elite, copy)) { // Replace elite
+					newElite = true;
+					// Need to save all elites so that re-load on resume works
+					if(saveElites && unsavedBins.add(i)) {
+						// No save of this bin is pending yet, so schedule one
+						final int binIndex = i;
+						eliteWriter.execute(() -> saveElite(binIndex));
 					}
+					break;
 				}
-				return true;
-			} else {
-				return false;
+				// Elite was replaced by another thread in the meantime: try again
+			}
+		}
+		return newElite;
+	}
+
+	/**
+	 * Write the current elite of a bin to disk. Runs on the writer thread.
+	 * The bin is marked as saved before its elite is read, so an elite that
+	 * arrives during the write schedules another save.
+	 * @param binIndex Bin to save
+	 */
+	private void saveElite(int binIndex) {
+		unsavedBins.remove(binIndex);
+		Score<T> elite = archive.get(binIndex);
+		// Easier to reload on resume if file name is uniform. Will also save space by overwriting
+		String binPath = archiveDir + File.separator + mapping.binLabels().get(binIndex);
+		Serialization.save(elite.individual, binPath + File.separator + "elite.xml");
+		// Write scores as simple text file (less to write than xml)
+		try {
+			PrintStream ps = new PrintStream(new File(binPath + File.separator + "scores.txt"));
+			for(Double score : elite.behaviorVector) {
+				ps.println(score);
 			}
-		}).count(); // Number of bins whose elite was replaced
-		//System.out.println(newElites + " elites were replaced");
-		// Whether any elites were replaced
-		return newElites > 0;
+			ps.close();
+		} catch (FileNotFoundException e) {
+			System.out.println("Could not write scores for " + elite.individual.getId() + ":" + elite.behaviorVector);
+			e.printStackTrace();
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Block until every elite added so far has been written to disk.
+	 */
+	public void waitForSaves() {
+		if(saveElites) {
+			try {
+				// The writer is a single thread, so this runs after all earlier saves
+				eliteWriter.submit(() -> {}).get();
+			} catch (InterruptedException | ExecutionException e) {
+				e.printStackTrace();
+				System.exit(1);
+			}
+		}
 	}
 
 	/**
@@ -144,6 +196,6 @@ public class Archive<T> {
 	 * @return index of a random bin
 	 */
 	public int randomBinIndex() {
-		return RandomNumbers.randomGenerator.nextInt(archive.size());
+		return RandomNumbers.generator().nextInt(archive.length());
 	}
 }
@@ -5,7 +5,15 @@ import java.io.FileNotFoundException;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 import java.util.Scanner;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.commons.lang.ArrayUtils;
 import org.apache.commons.lang.StringUtils;
@@ -14,14 +22,18 @@ import edu.southwestern.MMNEAT.MMNEAT;
 import edu.southwestern.evolution.EvolutionaryHistory;
 import edu.southwestern.evolution.SteadyStateEA;
 import edu.southwestern.evolution.genotypes.Genotype;
+import edu.southwestern.log.GenerationMetrics;
+import edu.southwestern.log.GenerationMetrics.Phase;
 import edu.southwestern.log.MMNEATLog;
 import edu.southwestern.parameters.Parameters;
 import edu.southwestern.scores.Score;
+import edu.southwestern.tasks.EvaluationPool;
 import edu.southwestern.tasks.LonerTask;
 import edu.southwestern.util.PopulationUtil;
 import edu.southwestern.util.file.FileUtilities;
 import edu.southwestern.util.random.RandomNumbers;
-import wox.serial.Easy;
+import edu.southwestern.util.random.RandomStreams;
+import edu.southwestern.util.file.Serialization;
 
 public class MAPElites<T> implements SteadyStateEA<T> {
 
@@ -34,6 +46,13 @@ public class MAPElites<T> implements SteadyStateEA<T> {
 	private int iterations;
 	private int iterationsWithoutElite;
 	private int individualsPerGeneration;
+	// Asynchronous mode: several children are evaluated at once and added to the archive by the workers
+	private final boolean parallel;
+	private final int threads;
+	private final int maxIterations;
+	private ExecutorService evaluationPool;
+	private CompletionService<Boolean> completedEvaluations; // Results say whether each child was a new elite
+	private int evaluationsInFlight;
 	
 	@SuppressWarnings("unchecked")
 	public MAPElites() {
@@ -76,6 +95,14 @@ public class MAPElites<T> implements SteadyStateEA<T> {
 		this.crossoverRate = Parameters.parameters.doubleParameter("crossoverRate");
 		this.iterations = Parameters.parameters.integerParameter("lastSavedGeneration");
 		this.iterationsWithoutElite = 0; // Not accurate on resume
+		this.parallel = Parameters.parameters.booleanParameter("parallelEvaluations");
+		this.threads = Parameters.parameters.integerParameter("threads");
+		this.maxIterations = Parameters.parameters.integerParameter("maxGens");
+		if(parallel) {
+			evaluationPool = Executors.newFixedThreadPool(threads);
+			completedEvaluations = new ExecutorCompletionService<Boolean>(evaluationPool);
+			evaluationsInFlight = 0;
+		}
 	}
 	
 	/**
@@ -102,7 +129,7 @@ public class MAPElites<T> implements SteadyStateEA<T> {
 			for(int i = 0; i < binLabels.size(); i++) {
 				String binDir = archiveDir + "/" + binLabels.get(i) + "/";
 				@SuppressWarnings("unchecked")
-				Genotype<T> elite = (Genotype<T>) Easy.load(binDir + "elite.xml"); // Load genotype
+				Genotype<T> elite = (Genotype<T>) Serialization.load(binDir + "elite.xml"); // Load genotype
 				// Load behavior scores
 				ArrayList<Double> scores = new ArrayList<Double>(numLabels); 
 				try {
@@ -124,10 +151,25 @@ public class MAPElites<T> implements SteadyStateEA<T> {
 			// Start from scratch
 			int startSize = Parameters.parameters.integerParameter("mu");
 			ArrayList<Genotype<T>> startingPopulation = PopulationUtil.initialPopulation(example, startSize);
-			for(Genotype<T> g : startingPopulation) {
-				Score<T> s = task.evaluate(g);
-				archive.add(s); // Fill the archive with random starting individuals
-			}	
+			if(parallel) {
+				ArrayList<Callable<Boolean>> evaluations = new ArrayList<Callable<Boolean>>(startingPopulation.size());
+				for(Genotype<T> g : startingPopulation) {
+					evaluations.add(evaluateAndAdd(g));
+				}
+				try {
+					for(Future<Boolean> f : evaluationPool.invokeAll(evaluations)) {
+						f.get(); // Rethrows any exception from evaluation
+					}
+				} catch (InterruptedException | ExecutionException e) {
+					e.printStackTrace();
+					System.exit(1);
+				}
+			} else {
+				for(Genotype<T> g : startingPopulation) {
+					Score<T> s = evaluate(g);
+					archive.add(s); // Fill the archive with random starting individuals
+				}
+			}
 		}
 	}
 
@@ -147,9 +189,41 @@ public class MAPElites<T> implements SteadyStateEA<T> {
 	 * In this case, both children can potentially be added 
 	 * to the archive, and both trigger logging to file. This
 	 * actually counts as 2 iterations.
+	 * 
+	 * With parallelEvaluations, children are instead handed to a pool of
+	 * threads, keeping up to "threads" evaluations in flight. Each call waits
+	 * for at least one of them to finish, and accounts for every finished
+	 * evaluation. Children are still created on the calling thread, since
+	 * mutation and lineage logging are not thread-safe.
 	 */
 	@Override
 	public void newIndividual() {
+		if(parallel) {
+			// Keep all workers busy, but do not start more children than the run will use
+			while(evaluationsInFlight < threads && belowIterationCap()) {
+				createChildren();
+			}
+			if(evaluationsInFlight == 0) return; // Nothing left to wait for
+			try {
+				Future<Boolean> finished = completedEvaluations.take(); // Wait for at least one
+				do {
+					evaluationsInFlight--;
+					fileUpdates(finished.get()); // Log for each individual produced
+				} while((finished = completedEvaluations.poll()) != null);
+			} catch (InterruptedException | ExecutionException e) {
+				e.printStackTrace();
+				System.exit(1);
+			}
+		} else {
+			createChildren();
+		}
+	}
+	
+	/**
+	 * Select one or two elites and derive new children from them
+	 * as described in newIndividual.
+	 */
+	private void createChildren() {
 		int index = archive.randomBinIndex();
 		Genotype<T> parent1 = archive.getElite(index).individual;
 		long parentId1 = parent1.getId(); // Parent Id comes from original genome
@@ -157,7 +231,7 @@ public class MAPElites<T> implements SteadyStateEA<T> {
 		Genotype<T> child1 = parent1.copy(); // Copy with different Id (will be further modified below)
 		
 		// Potentially mate with second individual
-		if (mating && RandomNumbers.randomGenerator.nextDouble() < crossoverRate) {
+		if (mating && RandomNumbers.generator().nextDouble() < crossoverRate) {
 			int otherIndex = archive.randomBinIndex(); // From a different bin
 			Genotype<T> parent2 = archive.getElite(otherIndex).individual;
 			parentId2 = parent2.getId(); // Parent Id comes from original genome
@@ -165,26 +239,74 @@ public class MAPElites<T> implements SteadyStateEA<T> {
 			
 			// Replace child2 with a crossover result, and modify child1 in the process (two new children)
 			child2 = child1.crossover(child2);
+			long mutationStart = GenerationMetrics.start();
 			child2.mutate(); // Probabilistic mutation of child
+			GenerationMetrics.record(Phase.MUTATION, mutationStart);
 			EvolutionaryHistory.logLineageData(parentId1,parentId2,child2);
-			// Evaluate and add child to archive
-			Score<T> s2 = task.evaluate(child2);
-			// Indicate whether elite was added
-			boolean child2WasElite = archive.add(s2);
-			fileUpdates(child2WasElite); // Log for each individual produced
+			processChild(child2);
+			// The second child would go past the end of the run
+			if(!belowIterationCap()) return;
 		}
 		
+		long mutationStart = GenerationMetrics.start();
 		child1.mutate(); // Was potentially modified by crossover
+		GenerationMetrics.record(Phase.MUTATION, mutationStart);
 		if (parentId2 == -1) {
 			EvolutionaryHistory.logLineageData(parentId1,child1);
 		} else {
 			EvolutionaryHistory.logLineageData(parentId1,parentId2,child1);
 		}
-		// Evaluate and add child to archive
-		Score<T> s1 = task.evaluate(child1);
-		// Indicate whether elite was added
-		boolean child1WasElite = archive.add(s1);
-		fileUpdates(child1WasElite); // Log for each individual produced
+		processChild(child1);
+	}
+	
+	/**
+	 * Whether another child can be created without exceeding maxGens
+	 * iterations, counting children whose evaluations are still in flight.
+	 * @return true if there is room for another child
+	 */
+	private boolean belowIterationCap() {
+		return iterations + evaluationsInFlight < maxIterations;
+	}
+
+	/**
+	 * Evaluate the child and add it to the archive. In parallel mode,
+	 * this only starts the evaluation on the worker pool.
+	 * @param child Newly created genotype
+	 */
+	private void processChild(Genotype<T> child) {
+		if(parallel) {
+			completedEvaluations.submit(evaluateAndAdd(child));
+			evaluationsInFlight++;
+		} else {
+			// Evaluate and add child to archive
+			Score<T> s = evaluate(child);
+			// Indicate whether elite was added
+			boolean childWasElite = archive.add(s);
+			fileUpdates(childWasElite); // Log for each individual produced
+		}
+	}
+	
+	/**
+	 * Work for a pool thread: evaluate the genotype and add it to the archive.
+	 * The evaluation draws from a random stream of its own, seeded by the genotype id.
+	 * @param g Genotype to evaluate
+	 * @return Computes whether the genotype became a new elite
+	 */
+	private Callable<Boolean> evaluateAndAdd(Genotype<T> g) {
+		Random generator = new Random(EvaluationPool.evaluationSeed(g));
+		return () -> RandomStreams.withGenerator(generator, () -> archive.add(evaluate(g)));
+	}
+
+	/**
+	 * Evaluate a genotype, counting the evaluation in the GenerationMetrics
+	 * @param g Genotype to evaluate
+	 * @return Score of the genotype
+	 */
+	private Score<T> evaluate(Genotype<T> g) {
+		long start = GenerationMetrics.start();
+		Score<T> s = task.evaluate(g);
+		GenerationMetrics.recordEvaluation(start);
+		return s;
 	}
 	
 	public void fileUpdates(boolean newEliteProduced) {
@@ -214,6 +336,10 @@ public class MAPElites<T> implements SteadyStateEA<T> {
 
 	@Override
 	public void finalCleanup() {
+		if(parallel) {
+			evaluationPool.shutdown();
+		}
+		archive.waitForSaves(); // Archive on disk must be complete
 		task.finalCleanup();
 	}
 
@@ -222,9 +348,9 @@ public class MAPElites<T> implements SteadyStateEA<T> {
 	 */
 	@Override
 	public ArrayList<Genotype<T>> getPopulation() {
-		ArrayList<Genotype<T>> result = new ArrayList<Genotype<T>>(archive.archive.size());
-		for(Score<T> s : archive.archive) {
-			result.add(s.individual);
+		ArrayList<Genotype<T>> result = new ArrayList<Genotype<T>>(archive.archive.length());
+		for(int i = 0; i < archive.archive.length(); i++) {
+			result.add(archive.archive.get(i).individual);
 		}
 		return result;
 	}
@@ -7,6 +7,8 @@ import edu.southwestern.evolution.genotypes.TWEANNGenotype;
 import edu.southwestern.evolution.nsga2.NSGA2;
 import edu.southwestern.evolution.nsga2.NSGA2Score;
 import edu.southwestern.log.FitnessLog;
+import edu.southwestern.log.GenerationMetrics;
+import edu.southwestern.log.GenerationMetrics.Phase;
 import edu.southwestern.MMNEAT.MMNEAT;
 import edu.southwestern.parameters.CommonConstants;
 import edu.southwestern.parameters.Parameters;
@@ -62,7 +64,7 @@ public abstract class CoevolutionMuLambda implements MultiplePopulationGeneratio
 		} else {
 			successfulOffspringSearches++;
 			ArrayList<Long> offspring = recentOffspring.get(parentId);
-			return offspring.get(RandomNumbers.randomGenerator.nextInt(offspring.size()));
+			return offspring.get(RandomNumbers.generator().nextInt(offspring.size()));
 		}
 	}
 
@@ -200,10 +202,14 @@ public abstract class CoevolutionMuLambda implements MultiplePopulationGeneratio
 		evaluatingParents = true;
 		long start = System.currentTimeMillis();
 		System.out.println("Eval parents: "); 
+		long phaseStart = GenerationMetrics.start();
 		ArrayList<ArrayList<Score>> parentScores = task.evaluateAllPopulations(populations);
+		GenerationMetrics.record(Phase.EVALUATION, phaseStart);
 		long end = System.currentTimeMillis();
 		System.out.println("Done parents: " + TimeUnit.MILLISECONDS.toMinutes(end - start) + " minutes");
+		phaseStart = GenerationMetrics.start();
 		logParentInfo(parentScores);
+		GenerationMetrics.record(Phase.LOGGING, phaseStart);
 
 		evaluatingParents = false;
 		start = System.currentTimeMillis();
@@ -216,12 +222,14 @@ public abstract class CoevolutionMuLambda implements MultiplePopulationGeneratio
 			((GroupTask) task).teamLog.log("---Gen " + generation + " Over-----------------");
 		}
 
+		phaseStart = GenerationMetrics.start();
 		ArrayList<ArrayList<Genotype>> finalKeepers = new ArrayList<ArrayList<Genotype>>(parentScores.size());
 		for (int i = 0; i < parentScores.size(); i++) {
 			ArrayList<Score> sourcePopulation = prepareSourcePopulation(i, parentScores.get(i), childrenScores.get(i), mltype);
 			ArrayList<Genotype> selectedPopulation = selection(i, mu[i], sourcePopulation);
 			finalKeepers.add(selectedPopulation);
 		}
+		GenerationMetrics.record(Phase.SELECTION, phaseStart);
 
 		generation++;
 		CommonConstants.trialsByGenerationUpdate(generation);
@@ -274,16 +282,22 @@ public abstract class CoevolutionMuLambda implements MultiplePopulationGeneratio
 		recentOffspring = new HashMap<Long, ArrayList<Long>>();
 		successfulOffspringSearches = 0;
 		totalOffspringSearches = 0;
+		long phaseStart = GenerationMetrics.start();
 		for (int i = 0; i < parentScores.size(); i++) {
 			children.add(generateChildren(lambda[i], parentScores.get(i)));
 		}
+		GenerationMetrics.record(Phase.CHILD_GENERATION, phaseStart);
 
+		phaseStart = GenerationMetrics.start();
 		ArrayList<ArrayList<Score>> childrenScores = task.evaluateAllPopulations(children);
+		GenerationMetrics.record(Phase.EVALUATION, phaseStart);
 		if (CommonConstants.logChildScores) {
 			// Log child scores
+			phaseStart = GenerationMetrics.start();
 			for (int i = 0; i < childLogs.length; i++) {
 				childLogs[i].log(childrenScores.get(i), generation);
 			}
+			GenerationMetrics.record(Phase.LOGGING, phaseStart);
 		}
 		return childrenScores;
 	}
@@ -13,6 +13,8 @@ import edu.southwestern.evolution.genotypes.HyperNEATCPPNAndSubstrateArchitectur
 import edu.southwestern.evolution.genotypes.OffsetHybrIDGenotype;
 import edu.southwestern.evolution.genotypes.TWEANNGenotype;
 import edu.southwestern.log.FitnessLog;
+import edu.southwestern.log.GenerationMetrics;
+import edu.southwestern.log.GenerationMetrics.Phase;
 import edu.southwestern.log.PlotLog;
 import edu.southwestern.networks.TWEANN;
 import edu.southwestern.networks.hyperneat.HyperNEATTask;
@@ -245,13 +247,19 @@ public abstract class MuLambda<T> implements SinglePopulationGenerationalEA<T> {
 	 */
 	public ArrayList<Score<T>> processChildren(ArrayList<Score<T>> parentScores) {
 		// Get offspring from parents
+		long phaseStart = GenerationMetrics.start();
 		ArrayList<Genotype<T>> children = performDeltaCoding(generation)
 				? PopulationUtil.getBestAndDeltaCode(parentScores) : generateChildren(lambda, parentScores);
+				GenerationMetrics.record(Phase.CHILD_GENERATION, phaseStart);
 				// Evaluate the children
+				phaseStart = GenerationMetrics.start();
 				ArrayList<Score<T>> childrenScores = task.evaluateAll(children);
+				GenerationMetrics.record(Phase.EVALUATION, phaseStart);
 				// Log child information to file
 				if (writeOutput && CommonConstants.logChildScores) {
+					phaseStart = GenerationMetrics.start();
 					childLog.log(childrenScores, generation);
+					GenerationMetrics.record(Phase.LOGGING, phaseStart);
 				}
 				return childrenScores;
 	}
@@ -367,7 +375,9 @@ public abstract class MuLambda<T> implements SinglePopulationGenerationalEA<T> {
 		evaluatingParents = true;
 		long start = System.currentTimeMillis();
 		System.out.println("Eval parents: ");
+		long phaseStart = GenerationMetrics.start();
 		ArrayList<Score<T>> parentScores = task.evaluateAll(parents);
+		GenerationMetrics.record(Phase.EVALUATION, phaseStart);
 		long end = System.currentTimeMillis();
 		System.out.println("Done parents: " + TimeUnit.MILLISECONDS.toMinutes(end - start) + " minutes");
 
@@ -396,6 +406,7 @@ public abstract class MuLambda<T> implements SinglePopulationGenerationalEA<T> {
 		// getting out of sync.
 		// This way, all logs are updated at once, along with the generation
 		// param being advanced.
+		phaseStart = GenerationMetrics.start();
 		logParentInfo(parentScores);
 		if (writeOutput) {
 			ArrayList<Score<T>> combined = new ArrayList<Score<T>>(mu + lambda);
@@ -403,7 +414,10 @@ public abstract class MuLambda<T> implements SinglePopulationGenerationalEA<T> {
 			combined.addAll(childrenScores);
 			MMNEAT.logPerformanceInformation(combined, generation);
 		}
+		GenerationMetrics.record(Phase.LOGGING, phaseStart);
+		phaseStart = GenerationMetrics.start();
 		ArrayList<Genotype<T>> result = selectAndAdvance(parentScores, childrenScores);
+		GenerationMetrics.record(Phase.SELECTION, phaseStart);
 		if(CommonConstants.hybrID && currentGeneration() == Parameters.parameters.integerParameter("hybrIDSwitchGeneration")) {	
 			if(Parameters.parameters.booleanParameter("offsetHybrID")) { //offsetHybrid is being used
 				result = OffsetHybrIDGenotype.getSubstrateGenotypesFromCPPNs(result);
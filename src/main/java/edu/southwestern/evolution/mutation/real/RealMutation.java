@@ -28,7 +28,7 @@ public abstract class RealMutation extends Mutation<ArrayList<Double>> {
 	 */
 	@Override
 	public boolean perform() {
-		return RandomNumbers.randomGenerator.nextDouble() <= rate;
+		return RandomNumbers.generator().nextDouble() <= rate;
 	}
 
 	@Override
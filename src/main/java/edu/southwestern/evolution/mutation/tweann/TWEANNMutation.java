@@ -53,7 +53,7 @@ public abstract class TWEANNMutation extends Mutation<TWEANN> {
 	 */
 	@Override
 	public boolean perform() {
-		return (RandomNumbers.randomGenerator.nextDouble() < rate);
+		return (RandomNumbers.generator().nextDouble() < rate);
 	}
 
 	/**
@@ -111,7 +111,7 @@ public abstract class TWEANNMutation extends Mutation<TWEANN> {
 				// Update bestWeight based on evaluation
 				// TODO: This can be generalized later using the 'Better'
 				// interface
-				if (s.isBetter(bestScore) || (!s.isWorse(bestScore) && RandomNumbers.randomGenerator.nextBoolean())) {
+				if (s.isBetter(bestScore) || (!s.isWorse(bestScore) && RandomNumbers.generator().nextBoolean())) {
 					// Keep new weight if it is better, or by chance if neither
 					// is better
 					// System.out.println("Swap:" + (s.isBetter(bestScore) ? "Is
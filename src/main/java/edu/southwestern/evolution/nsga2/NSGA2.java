@@ -3,15 +3,19 @@ package edu.southwestern.evolution.nsga2;
 import edu.southwestern.evolution.EvolutionaryHistory;
 import edu.southwestern.evolution.genotypes.Genotype;
 import edu.southwestern.evolution.mulambda.MuPlusLambda;
+import edu.southwestern.evolution.nsga2.sorting.EfficientNonDominatedSorting;
+import edu.southwestern.evolution.nsga2.sorting.NonDominatedSorting;
+import edu.southwestern.log.GenerationMetrics;
+import edu.southwestern.log.GenerationMetrics.Phase;
 import edu.southwestern.MMNEAT.MMNEAT;
 import edu.southwestern.parameters.CommonConstants;
 import edu.southwestern.parameters.Parameters;
 import edu.southwestern.scores.Better;
 import edu.southwestern.scores.MultiObjectiveScore;
-import edu.southwestern.scores.ObjectiveComparator;
 import edu.southwestern.scores.Score;
 import edu.southwestern.tasks.NoisyLonerTask;
 import edu.southwestern.tasks.SinglePopulationTask;
+import edu.southwestern.util.ClassCreation;
 import edu.southwestern.util.datastructures.Pair;
 import edu.southwestern.util.random.RandomNumbers;
 
@@ -30,6 +34,10 @@ public class NSGA2<T> extends MuPlusLambda<T> {
 	protected boolean mating;// whether or not mating will occur
 	protected double crossoverRate;// rate at which phenotypes are crossed over
 
+	// Engine that assigns Pareto fronts, and the class it was created from
+	private static NonDominatedSorting sorting = null;
+	private static Class<?> sortingClass = null;
+
 	/**
 	 * Default constructor
 	 */
@@ -107,8 +115,8 @@ public class NSGA2<T> extends MuPlusLambda<T> {
 		}
 
 		for (int i = 0; i < numChildren; i++) {
-			int e1 = RandomNumbers.randomGenerator.nextInt(scoresArray.length);
-			int e2 = RandomNumbers.randomGenerator.nextInt(scoresArray.length);
+			int e1 = RandomNumbers.generator().nextInt(scoresArray.length);
+			int e2 = RandomNumbers.generator().nextInt(scoresArray.length);
 			// determines which of the two randomly chosen scores is better
 			NSGA2Score<T> better = judge.better(scoresArray[e1], scoresArray[e2]);
 			Genotype<T> source = better.individual;// stores better genotype
@@ -122,9 +130,9 @@ public class NSGA2<T> extends MuPlusLambda<T> {
 			if (!CommonConstants.requireFitnessDifferenceForChange || better.scores[0] > 0) {
 				// If neither net has reached a given level, the scores of 0
 				// will prevent mating.
-				if (mating && RandomNumbers.randomGenerator.nextDouble() < crossoverRate) {
-					e1 = RandomNumbers.randomGenerator.nextInt(scoresArray.length);
-					e2 = RandomNumbers.randomGenerator.nextInt(scoresArray.length);
+				if (mating && RandomNumbers.generator().nextDouble() < crossoverRate) {
+					e1 = RandomNumbers.generator().nextInt(scoresArray.length);
+					e2 = RandomNumbers.generator().nextInt(scoresArray.length);
 
 					Genotype<T> otherSource = judge.better(scoresArray[e1], scoresArray[e2]).individual;
 					parentId2 = otherSource.getId();
@@ -150,13 +158,17 @@ public class NSGA2<T> extends MuPlusLambda<T> {
 					 * always be added.
 					 */
 					if (i < numChildren) {
+						long mutationStart = GenerationMetrics.start();
 						otherOffspring.mutate();
+						GenerationMetrics.record(Phase.MUTATION, mutationStart);
 						offspring.add(otherOffspring);
 						EvolutionaryHistory.logLineageData(parentId1,parentId2,otherOffspring);
 					}
 				}
 
+				long mutationStart = GenerationMetrics.start();
 				e.mutate();// randomly mutates copied source
+				GenerationMetrics.record(Phase.MUTATION, mutationStart);
 			}
 
 			offspring.add(e);
@@ -258,42 +270,61 @@ public class NSGA2<T> extends MuPlusLambda<T> {
 	 * Given the whole population of scores (after evaluation), assign crowding
 	 * distances to each individual.
 	 * 
+	 * Each used objective stably sorts the population by that objective,
+	 * starting from the order of the previous objective, and the array is
+	 * left in the final order. Only an array of indices is sorted, and the
+	 * scores are rearranged once at the end.
+	 * 
 	 * @param scores
 	 *            Each instance is a set of multiple scores for a member of the
 	 *            population that was just evaluated.
 	 */
 	private static <T> void assignCrowdingDistance(NSGA2Score<T>[] scores) {
-		// reset distances
-		for (int i = 0; i < scores.length; i++) {
-			scores[i].setCrowdingDistance(0);
+		int n = scores.length;
+		double[] distances = new double[n]; // Indexed by original position
+		Integer[] order = new Integer[n];
+		for (int i = 0; i < n; i++) {
+			order[i] = i;
 		}
+		final double[] column = new double[n];
 		int numObjectives = scores[0].numObjectives();
 
 		for (int j = 0; j < numObjectives; j++) {
 			if (scores[0].useObjective(j)) {
-				Arrays.sort(scores, new ObjectiveComparator<T>(j));
+				for (int i = 0; i < n; i++) {
+					column[i] = scores[i].objectiveScore(j);
+				}
+				// Same comparison as ObjectiveComparator
+				Arrays.sort(order, (a, b) -> (int) Math.signum(column[a] - column[b]));
 
-				scores[0].setCrowdingDistance(Float.POSITIVE_INFINITY);
-				scores[scores.length - 1].setCrowdingDistance(Float.POSITIVE_INFINITY);
+				distances[order[0]] = Float.POSITIVE_INFINITY;
+				distances[order[n - 1]] = Float.POSITIVE_INFINITY;
 
-				double min = scores[0].objectiveScore(j);
-				double max = scores[scores.length - 1].objectiveScore(j);
+				double min = column[order[0]];
+				double max = column[order[n - 1]];
 
 				// Just leave all crowding distances at 0 if all objective
 				// scores are the same
 				if (max - min > 0) {
-					for (int k = 1; k < scores.length - 1; k++) {
-						scores[k].crowdingDistance += Math
-								.abs(scores[k + 1].objectiveScore(j) - scores[k - 1].objectiveScore(j)) / (max - min);
+					for (int k = 1; k < n - 1; k++) {
+						distances[order[k]] += Math.abs(column[order[k + 1]] - column[order[k - 1]]) / (max - min);
 					}
 				}
 			}
 		}
+
+		NSGA2Score<T>[] original = Arrays.copyOf(scores, n);
+		for (int k = 0; k < n; k++) {
+			scores[k] = original[order[k]];
+			scores[k].setCrowdingDistance(distances[order[k]]);
+		}
 	}
 
 	/**
 	 * Sort the evaluated population into Pareto fronts according to their
-	 * objective scores.
+	 * objective scores. Only objectives that the scores use are considered.
+	 * The actual sorting is done by the NonDominatedSorting engine on a
+	 * packed matrix of objective scores.
 	 * 
 	 * @param scores
 	 *            Each instance is a set of multiple scores for a member of the
@@ -301,55 +332,80 @@ public class NSGA2<T> extends MuPlusLambda<T> {
 	 * @return List of lists in which each sublist is one Pareto front. Each
 	 *         member of the original scores array will be in exactly one of the
 	 *         sublists that is returned. Earlier sublists dominate subsequent
-	 *         sublists.
+	 *         sublists. Within each sublist, scores are in array order.
 	 */
 	private static <T> ArrayList<ArrayList<NSGA2Score<T>>> fastNonDominatedSort(NSGA2Score<T>[] scores) {
+		int[] ranks = sortingEngine().frontRanks(objectiveMatrix(scores));
 
+		int numFronts = 0;
+		for (int rank : ranks) {
+			numFronts = Math.max(numFronts, rank + 1);
+		}
+		int[] frontSizes = new int[numFronts];
+		for (int rank : ranks) {
+			frontSizes[rank]++;
+		}
+		ArrayList<ArrayList<NSGA2Score<T>>> frontSet = new ArrayList<ArrayList<NSGA2Score<T>>>(numFronts);
+		for (int f = 0; f < numFronts; f++) {
+			frontSet.add(new ArrayList<NSGA2Score<T>>(frontSizes[f]));
+		}
 		for (int i = 0; i < scores.length; i++) {
-			assert scores[i] != null : "Score is null! " + i;
-			scores[i].reset();
+			frontSet.get(ranks[i]).add(scores[i]);
+			scores[i].assign(ranks[i]);
 		}
+		return frontSet;
+	}
 
-		for (int i = 0; i < scores.length; i++) {
-			NSGA2Score<T> p = scores[i];
-			for (int j = 0; j < scores.length; j++) {
-				if (i != j) {
-					NSGA2Score<T> q = scores[j];
-					if (p.isBetter(q)) {// here is where actual sorting occurs
-						p.addDominatedIndividual(q);
-						q.increaseNumDominators();
-					}
-				}
+	/**
+	 * Copy the objective scores that are used into a matrix with one row
+	 * per individual. All scores are expected to use the same objectives.
+	 * 
+	 * @param scores
+	 *            Multiobjective scores for evaluated individuals.
+	 * @return matrix of used objective scores
+	 */
+	public static <T> double[][] objectiveMatrix(NSGA2Score<T>[] scores) {
+		int numObjectives = scores.length == 0 ? 0 : scores[0].numObjectives();
+		int[] used = new int[numObjectives];
+		int numUsed = 0;
+		for (int j = 0; j < numObjectives; j++) {
+			if (scores[0].useObjective(j)) {
+				used[numUsed++] = j;
 			}
 		}
-
-		int numAssigned = 0;
-		int currentFront = 0;
-		ArrayList<ArrayList<NSGA2Score<T>>> frontSet = new ArrayList<ArrayList<NSGA2Score<T>>>(scores.length);
-		// adds an array list of front members to an array list of fronts
-		while (numAssigned < scores.length) {
-			// Although this sizing scheme will waste space, it will assure that
-			// no resize is ever needed
-			frontSet.add(new ArrayList<NSGA2Score<T>>(scores.length - numAssigned));
-
-			for (int i = 0; i < scores.length; i++) {
-				if (!scores[i].isAssigned && scores[i].numDominators == 0) {
-					frontSet.get(currentFront).add(scores[i]);
-					scores[i].assign(currentFront);
-					numAssigned++;
-				}
+		double[][] matrix = new double[scores.length][numUsed];
+		for (int i = 0; i < scores.length; i++) {
+			assert scores[i] != null : "Score is null! " + i;
+			for (int k = 0; k < numUsed; k++) {
+				assert scores[i].useObjective(used[k]) : "Scores use different objectives";
+				matrix[i][k] = scores[i].objectiveScore(used[k]);
 			}
+		}
+		return matrix;
+	}
 
-			for (int i = 0; i < scores.length; i++) {
-				if (scores[i].isAssigned && !scores[i].processed) {
-					scores[i].process();
-				}
+	/**
+	 * Engine used to sort populations into Pareto fronts, as specified by the
+	 * nonDominatedSorting parameter. Recreated whenever that parameter changes.
+	 * 
+	 * @return sorting engine
+	 */
+	public static synchronized NonDominatedSorting sortingEngine() {
+		Class<?> c = Parameters.parameters == null ? null : Parameters.parameters.classParameter("nonDominatedSorting");
+		if (c == null) {
+			c = EfficientNonDominatedSorting.class;
+		}
+		if (sorting == null || sortingClass != c) {
+			try {
+				sorting = (NonDominatedSorting) ClassCreation.createObject(c);
+			} catch (NoSuchMethodException e) {
+				System.out.println("Could not create non-dominated sorting engine " + c);
+				e.printStackTrace();
+				System.exit(1);
 			}
-
-			currentFront++;
+			sortingClass = c;
 		}
-
-		return frontSet;
+		return sorting;
 	}
 
 	/**
@@ -0,0 +1,83 @@
+package edu.southwestern.evolution.nsga2.sorting;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Deb's fast non-dominated sort: count how many solutions dominate each
+ * solution, and remember which solutions each one dominates. The front of
+ * non-dominated solutions is then peeled off repeatedly. This needs
+ * O(M N^2) comparisons for N solutions and M objectives, but makes no
+ * assumptions about the scores, so it also handles NaN exactly like
+ * MultiObjectiveScore.isBetter.
+ *
+ * Each row of comparisons only reads the objective matrix, so large
+ * populations compare rows in parallel.
+ */
+public class DominanceCountSorting implements NonDominatedSorting {
+
+	// Smaller populations are not worth the overhead of parallel streams
+	public static final int PARALLEL_THRESHOLD = 256;
+
+	@Override
+	public int[] frontRanks(double[][] objectives) {
+		int n = objectives.length;
+		int[] numDominators = new int[n];
+		int[][] dominated = new int[n][];
+		IntStream rows = IntStream.range(0, n);
+		if (n >= PARALLEL_THRESHOLD) {
+			rows = rows.parallel();
+		}
+		rows.forEach(i -> {
+			int dominators = 0;
+			int[] dominatedByI = new int[8];
+			int size = 0;
+			double[] p = objectives[i];
+			for (int j = 0; j < n; j++) {
+				if (i != j) {
+					double[] q = objectives[j];
+					if (NonDominatedSorting.dominates(q, p)) {
+						dominators++;
+					} else if (NonDominatedSorting.dominates(p, q)) {
+						if (size == dominatedByI.length) {
+							dominatedByI = Arrays.copyOf(dominatedByI, 2 * size);
+						}
+						dominatedByI[size++] = j;
+					}
+				}
+			}
+			// Each row writes only its own entries
+			numDominators[i] = dominators;
+			dominated[i] = Arrays.copyOf(dominatedByI, size);
+		});
+
+		int[] ranks = new int[n];
+		int[] current = new int[n];
+		int currentSize = 0;
+		for (int i = 0; i < n; i++) {
+			if (numDominators[i] == 0) {
+				current[currentSize++] = i;
+			}
+		}
+		int[] next = new int[n];
+		int front = 0;
+		while (currentSize > 0) {
+			int nextSize = 0;
+			for (int c = 0; c < currentSize; c++) {
+				int p = current[c];
+				ranks[p] = front;
+				for (int q : dominated[p]) {
+					if (--numDominators[q] == 0) {
+						next[nextSize++] = q;
+					}
+				}
+			}
+			int[] temp = current;
+			current = next;
+			next = temp;
+			currentSize = nextSize;
+			front++;
+		}
+		return ranks;
+	}
+}
@@ -0,0 +1,118 @@
+package edu.southwestern.evolution.nsga2.sorting;
+
+import java.util.Arrays;
+
+/**
+ * Efficient Non-dominated Sort with binary search (ENS-BS) from Zhang et al.
+ * (2015), "An Efficient Approach to Nondominated Sorting for Evolutionary
+ * Multiobjective Optimization". Solutions are sorted lexicographically from
+ * best to worst, so that every solution comes after all solutions that
+ * dominate it. Each solution is then placed in the first front that contains
+ * no solution dominating it, which is found by binary search over the fronts.
+ *
+ * With two objectives only the most recently added member of a front needs
+ * to be checked, giving O(N log N) time. With three objectives the whole front
+ * is checked, newest members first, which is still far faster than comparing
+ * all pairs for typical populations. For more objectives, or when any score
+ * is NaN (which makes dominance intransitive), this falls back to
+ * DominanceCountSorting.
+ */
+public class EfficientNonDominatedSorting implements NonDominatedSorting {
+
+	public static final int MAX_OBJECTIVES = 3;
+
+	private final NonDominatedSorting fallback = new DominanceCountSorting();
+
+	@Override
+	public int[] frontRanks(double[][] objectives) {
+		int n = objectives.length;
+		if (n == 0) {
+			return new int[0];
+		}
+		int m = objectives[0].length;
+		if (m > MAX_OBJECTIVES || containsNaN(objectives)) {
+			return fallback.frontRanks(objectives);
+		}
+
+		// Best first in lexicographic order. Ties keep index order.
+		Integer[] order = new Integer[n];
+		for (int i = 0; i < n; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, (a, b) -> {
+			double[] x = objectives[a];
+			double[] y = objectives[b];
+			for (int k = 0; k < m; k++) {
+				if (x[k] > y[k]) return -1;
+				if (x[k] < y[k]) return 1;
+			}
+			return 0;
+		});
+
+		int[] ranks = new int[n];
+		int[][] fronts = new int[8][];
+		int[] frontSizes = new int[8];
+		int numFronts = 0;
+		for (int s : order) {
+			double[] solution = objectives[s];
+			// Fronts 0 to low-1 dominate the solution, fronts high and beyond do not
+			int low = 0;
+			int high = numFronts;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (frontDominates(objectives, fronts[mid], frontSizes[mid], solution, m == 2)) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			if (low == numFronts) { // New front
+				if (numFronts == fronts.length) {
+					fronts = Arrays.copyOf(fronts, 2 * numFronts);
+					frontSizes = Arrays.copyOf(frontSizes, 2 * numFronts);
+				}
+				fronts[numFronts] = new int[8];
+				numFronts++;
+			}
+			if (frontSizes[low] == fronts[low].length) {
+				fronts[low] = Arrays.copyOf(fronts[low], 2 * frontSizes[low]);
+			}
+			fronts[low][frontSizes[low]++] = s;
+			ranks[s] = low;
+		}
+		return ranks;
+	}
+
+	/**
+	 * Whether any member of a front dominates the solution. Members were
+	 * added in lexicographic order, so later members are more similar to
+	 * the solution and are checked first.
+	 *
+	 * @param objectives all objective scores
+	 * @param front indices of front members
+	 * @param size number of front members
+	 * @param solution objective scores of solution
+	 * @param lastOnly Only check the last member (sufficient with two objectives)
+	 * @return whether solution is dominated by the front
+	 */
+	private static boolean frontDominates(double[][] objectives, int[] front, int size, double[] solution, boolean lastOnly) {
+		int stop = lastOnly ? size - 1 : 0;
+		for (int i = size - 1; i >= stop; i--) {
+			if (NonDominatedSorting.dominates(objectives[front[i]], solution)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean containsNaN(double[][] objectives) {
+		for (double[] row : objectives) {
+			for (double x : row) {
+				if (Double.isNaN(x)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,43 @@
+package edu.southwestern.evolution.nsga2.sorting;
+
+/**
+ * Assigns each member of a population to a Pareto front. Objectives are
+ * maximized, and one solution dominates another if it is at least as good in
+ * every objective and strictly better in at least one (see
+ * MultiObjectiveScore.isBetter). Implementations work on a packed matrix of
+ * objective scores rather than on Score objects, and the NSGA2 classes choose
+ * the implementation with the nonDominatedSorting parameter.
+ */
+public interface NonDominatedSorting {
+
+	/**
+	 * Sort the population into Pareto fronts.
+	 *
+	 * @param objectives objectives[i][j] is the score of individual i in
+	 *                   objective j. Every row has the same length.
+	 * @return Front of each individual: 0 for the non-dominated front, 1 for
+	 *         the front that is non-dominated once front 0 is removed, etc.
+	 */
+	public int[] frontRanks(double[][] objectives);
+
+	/**
+	 * Whether solution a dominates solution b. Comparisons involving NaN
+	 * count as ties, like in MultiObjectiveScore.isBetter.
+	 *
+	 * @param a objective scores of first solution
+	 * @param b objective scores of second solution
+	 * @return true if a is at least as good in every objective, and better in at least one
+	 */
+	public static boolean dominates(double[] a, double[] b) {
+		boolean better = false;
+		for (int k = 0; k < a.length; k++) {
+			if (a[k] < b[k]) {
+				return false;
+			}
+			if (a[k] > b[k]) {
+				better = true;
+			}
+		}
+		return better;
+	}
+}
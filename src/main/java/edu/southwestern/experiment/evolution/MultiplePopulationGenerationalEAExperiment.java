@@ -8,6 +8,8 @@ import edu.southwestern.evolution.genotypes.SimpleBlueprintGenotype;
 import edu.southwestern.evolution.genotypes.TWEANNGenotype;
 import edu.southwestern.evolution.mulambda.CoevolutionMuLambda;
 import edu.southwestern.experiment.Experiment;
+import edu.southwestern.log.GenerationMetrics;
+import edu.southwestern.log.GenerationMetrics.Phase;
 import edu.southwestern.log.PlotLog;
 import edu.southwestern.MMNEAT.MMNEAT;
 import edu.southwestern.parameters.Parameters;
@@ -143,8 +145,10 @@ public abstract class MultiplePopulationGenerationalEAExperiment implements Expe
 			save("initial");
 			Parameters.parameters.saveParameters();
 		}
+		GenerationMetrics.startGeneration();
 		while (!shouldStop()) {
-			System.out.println("Starting generation: " + ea.currentGeneration());
+			int evaluatedGeneration = ea.currentGeneration();
+			System.out.println("Starting generation: " + evaluatedGeneration);
 			populations = ea.getNextGeneration(populations);
 			int gen = ea.currentGeneration();
 			// May need to fix blueprints whose member networks are no longer in
@@ -211,6 +215,7 @@ public abstract class MultiplePopulationGenerationalEAExperiment implements Expe
 					EvolutionaryHistory.cleanArchetype(i, tweannPopulation, gen);
 				}
 			}
+			long savingStart = GenerationMetrics.start();
 			if (writeOutput) {
 				ScoreHistory.save(); // Only saves if actually being used
 			}
@@ -237,6 +242,8 @@ public abstract class MultiplePopulationGenerationalEAExperiment implements Expe
 					lastDir.delete();
 				}
 			}
+			GenerationMetrics.record(Phase.SAVING, savingStart);
+			GenerationMetrics.endGeneration(evaluatedGeneration);
 		}
 		ea.close(populations);
 		if (blueprintLog != null) {
@@ -283,6 +290,6 @@ public abstract class MultiplePopulationGenerationalEAExperiment implements Expe
 	@SuppressWarnings("rawtypes") // Each population can be a different type
 	public long randomIdFromSubpop(int subpop) {
 		ArrayList<Genotype> pop = populations.get(subpop);
-		return pop.get(RandomNumbers.randomGenerator.nextInt(pop.size())).getId();
+		return pop.get(RandomNumbers.generator().nextInt(pop.size())).getId();
 	}
 }
\ No newline at end of file
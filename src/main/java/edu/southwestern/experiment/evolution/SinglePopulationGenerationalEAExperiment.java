@@ -8,6 +8,8 @@ import edu.southwestern.evolution.crossover.network.CombiningTWEANNCrossover;
 import edu.southwestern.evolution.genotypes.Genotype;
 import edu.southwestern.evolution.genotypes.TWEANNGenotype;
 import edu.southwestern.experiment.Experiment;
+import edu.southwestern.log.GenerationMetrics;
+import edu.southwestern.log.GenerationMetrics.Phase;
 import edu.southwestern.parameters.Parameters;
 import edu.southwestern.util.PopulationUtil;
 import edu.southwestern.util.file.FileUtilities;
@@ -105,7 +107,7 @@ public abstract class SinglePopulationGenerationalEAExperiment<T> implements Exp
 			Genotype<T> g = population.get(0);
 			assert g instanceof TWEANNGenotype : "Cannot init Combining Crossover on genotype other than TWEANNGenotype";
 			if (((TWEANNGenotype) g).numModules == 1) {
-				Collections.shuffle(population, RandomNumbers.randomGenerator);
+				Collections.shuffle(population, RandomNumbers.generator());
 				CombiningTWEANNCrossover combCross = new CombiningTWEANNCrossover();
 				assert population.size()
 						% 2 == 0 : "Need even number of individuals to properly pair off entire population";
@@ -210,8 +212,10 @@ public abstract class SinglePopulationGenerationalEAExperiment<T> implements Exp
 			save("initial");
 			Parameters.parameters.saveParameters();
 		}
+		GenerationMetrics.startGeneration();
 		while (!shouldStop()) {
-			System.out.println("Starting generation: " + ea.currentGeneration());
+			int evaluatedGeneration = ea.currentGeneration();
+			System.out.println("Starting generation: " + evaluatedGeneration);
 			population = ea.getNextGeneration(population);
 			// ScoreHistory.clean();
 			int gen = ea.currentGeneration();
@@ -222,6 +226,7 @@ public abstract class SinglePopulationGenerationalEAExperiment<T> implements Exp
 				}
 				EvolutionaryHistory.cleanArchetype(0, tweannPopulation, gen);
 			}
+			long savingStart = GenerationMetrics.start();
 			if (writeOutput) {
 				ScoreHistory.save(); // Only saves if actually being used
 			}
@@ -240,6 +245,8 @@ public abstract class SinglePopulationGenerationalEAExperiment<T> implements Exp
 					}
 				}
 			}
+			GenerationMetrics.record(Phase.SAVING, savingStart);
+			GenerationMetrics.endGeneration(evaluatedGeneration);
 		}
 		ea.close(population);
 		System.out.println("Finished evolving");
@@ -8,6 +8,8 @@ import edu.southwestern.evolution.SteadyStateEA;
 import edu.southwestern.evolution.genotypes.Genotype;
 import edu.southwestern.evolution.genotypes.TWEANNGenotype;
 import edu.southwestern.experiment.Experiment;
+import edu.southwestern.log.GenerationMetrics;
+import edu.southwestern.log.GenerationMetrics.Phase;
 import edu.southwestern.parameters.Parameters;
 
 public class SteadyStateExperiment<T> implements Experiment {
@@ -15,6 +17,8 @@ public class SteadyStateExperiment<T> implements Experiment {
 	private SteadyStateEA<T> ea;
 	private int maxIterations;
 	private boolean cleanArchetype;
+	// Number of iterations that count as one generation in logs
+	private int individualsPerGeneration;
 
 	@SuppressWarnings("unchecked")
 	public SteadyStateExperiment() {
@@ -27,6 +31,7 @@ public class SteadyStateExperiment<T> implements Experiment {
 		// Overriding the meaning of maxGens to treat it like maxIterations
 		maxIterations = Parameters.parameters.integerParameter("maxGens");
 		this.cleanArchetype = MMNEAT.genotype instanceof TWEANNGenotype;
+		this.individualsPerGeneration = Parameters.parameters.integerParameter("steadyStateIndividualsPerGeneration");
 	}
 	
 	@Override
@@ -36,18 +41,26 @@ public class SteadyStateExperiment<T> implements Experiment {
 
 	@Override
 	public void run() {
+		int generation = ea.currentIteration() / individualsPerGeneration;
+		GenerationMetrics.startGeneration();
 		while(!shouldStop()) { // Until done
 			ea.newIndividual(); // Make new individuals
+			long savingStart = GenerationMetrics.start();
 			Parameters.parameters.saveParameters(); // Save the parameters and the archetype
 			if(ea.populationChanged()) { // In steady state, not every individual is added to the population
 				EvolutionaryHistory.saveArchetype(0);
 			}
+			GenerationMetrics.record(Phase.SAVING, savingStart);
 			if(cleanArchetype) { // Periodically clean extinct genes from the archetype
 				ArrayList<Genotype<T>> pop = ea.getPopulation();
 				ArrayList<TWEANNGenotype> tweannPop = new ArrayList<TWEANNGenotype>(pop.size());
 				for(Genotype<T> g : pop) tweannPop.add((TWEANNGenotype) g);
 				EvolutionaryHistory.cleanArchetype(0, tweannPop, ea.currentIteration());
 			}
+			// Metrics cover the same blocks of iterations that MAPElites logs as generations
+			while(ea.currentIteration() / individualsPerGeneration > generation) {
+				GenerationMetrics.endGeneration(generation++);
+			}
 		}
 		ea.finalCleanup();
 	}
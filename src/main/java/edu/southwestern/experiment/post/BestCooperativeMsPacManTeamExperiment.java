@@ -9,7 +9,7 @@ import edu.southwestern.util.file.FileUtilities;
 import edu.southwestern.util.graphics.DrawingPanel;
 
 import java.util.ArrayList;
-import wox.serial.Easy;
+import edu.southwestern.util.file.Serialization;
 
 /**
  * Actually only works for coevolved Ms. Pac-Man experiments.
@@ -33,7 +33,7 @@ public class BestCooperativeMsPacManTeamExperiment implements Experiment {
 		team = new Genotype[numMembers];
 		String teamDir = FileUtilities.getSaveDirectory() + "/bestTeam";
 		for (int i = 0; i < numMembers; i++) {
-			team[i] = (Genotype) Easy.load(teamDir + "/teamMember" + i + ".xml");
+			team[i] = (Genotype) Serialization.load(teamDir + "/teamMember" + i + ".xml");
 		}
 	}
 
@@ -7,7 +7,7 @@ import edu.southwestern.scores.Score;
 import edu.southwestern.tasks.LonerTask;
 import edu.southwestern.util.file.FileUtilities;
 import edu.southwestern.util.random.RandomNumbers;
-import wox.serial.Easy;
+import edu.southwestern.util.file.Serialization;
 
 /**
  * This really only works for Ms. Pac-Man (rename it?).
@@ -29,7 +29,7 @@ public class BestNetworkExperiment implements Experiment {
 	@Override
 	public void init() {
 		String dir = FileUtilities.getSaveDirectory() + "/bestPacMan";
-		net = (Genotype) Easy.load(dir + "/bestPacMan.xml");
+		net = (Genotype) Serialization.load(dir + "/bestPacMan.xml");
 	}
 
 	// Will always be running the Ms. Pac-Man experiment
@@ -24,7 +24,7 @@ import edu.southwestern.util.random.RandomNumbers;
 import java.io.FileNotFoundException;
 import java.util.ArrayList;
 import java.util.Arrays;
-import wox.serial.Easy;
+import edu.southwestern.util.file.Serialization;
 
 /**
  * Designed to take several pre-evolved populations and evaluate them (not
@@ -79,9 +79,9 @@ public final class MultinetworkMsPacManExperiment<T extends Network> implements
 			mediators[1] = new PillTaskMediator();
 
 			populations[0] = new ArrayList<Genotype<T>>(1);
-			populations[0].add((Genotype<T>) Easy.load(Parameters.parameters.stringParameter("ghostEatingSubnetwork")));
+			populations[0].add((Genotype<T>) Serialization.load(Parameters.parameters.stringParameter("ghostEatingSubnetwork")));
 			populations[1] = new ArrayList<Genotype<T>>(1);
-			populations[1].add((Genotype<T>) Easy.load(Parameters.parameters.stringParameter("pillEatingSubnetwork")));
+			populations[1].add((Genotype<T>) Serialization.load(Parameters.parameters.stringParameter("pillEatingSubnetwork")));
 		} else {
 			for (int i = 0; i < populations.length; i++) {
 				mediators[i] = tempMediators[i];
@@ -197,7 +197,7 @@ public class TorusWorld {
 	 * @return a random cell (or x-y coordinate) within the grid world
 	 */
 	public int[] randomCell() {
-		return new int[] { RandomNumbers.randomGenerator.nextInt(xDim), RandomNumbers.randomGenerator.nextInt(yDim) };
+		return new int[] { RandomNumbers.generator().nextInt(xDim), RandomNumbers.generator().nextInt(yDim) };
 	}
 
 	/**
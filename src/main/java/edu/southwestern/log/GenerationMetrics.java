@@ -0,0 +1,370 @@
+package edu.southwestern.log;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import edu.southwestern.parameters.Parameters;
+
+/**
+ * Per-generation timing of the phases of evolution, along with evaluation
+ * throughput, thread pool utilization, garbage collection time and heap use.
+ * The EAs and experiments mark the phases they perform, and at the end of each
+ * generation the totals are written as one line of the PhaseTiming log and
+ * published through JMX as the MBean named by OBJECT_NAME.
+ *
+ * Mutation is part of child generation, and phenotype construction is mostly
+ * part of evaluation, so those phases overlap. Phenotype construction also
+ * includes the networks built when TWEANN genotypes are copied. Phenotype
+ * construction and evaluation can happen on several threads at once, so their
+ * times are summed over all threads and can exceed the generation time. Thread
+ * utilization is the summed time of all evaluations divided by the time that
+ * all evaluation threads (or evaluation farm workers) were available during
+ * the generation.
+ *
+ * Nothing is recorded unless logPhaseTiming is on.
+ */
+public class GenerationMetrics implements GenerationMetricsMBean {
+
+	/**
+	 * Phases of a generation that are timed separately
+	 */
+	public enum Phase {
+		CHILD_GENERATION("Child Generation"),
+		MUTATION("Mutation"),
+		PHENOTYPE_CONSTRUCTION("Phenotype Construction"),
+		EVALUATION("Evaluation"),
+		SELECTION("Selection"),
+		LOGGING("Logging"),
+		SAVING("Saving");
+
+		public final String label;
+
+		Phase(String label) {
+			this.label = label;
+		}
+	}
+
+	public static final String OBJECT_NAME = "edu.southwestern:type=GenerationMetrics";
+
+	// Returned instead of a start time when nothing should be recorded
+	private static final long NOT_TIMED = Long.MIN_VALUE;
+	private static final double NANOS_PER_MILLI = 1000000.0;
+	private static final double BYTES_PER_MEGABYTE = 1024.0 * 1024.0;
+
+	// Positions of values in the log line after the generation number
+	private static final int GENERATION_TIME = 0;
+	private static final int FIRST_PHASE = 1;
+	private static final int EVALUATIONS = FIRST_PHASE + Phase.values().length;
+	private static final int EVALUATIONS_PER_SECOND = EVALUATIONS + 1;
+	private static final int THREAD_UTILIZATION = EVALUATIONS + 2;
+	private static final int GC_TIME = EVALUATIONS + 3;
+	private static final int HEAP_USED = EVALUATIONS + 4;
+	private static final int HEAP_MAX = EVALUATIONS + 5;
+	private static final int NUM_VALUES = HEAP_MAX + 1;
+
+	private static final LongAdder[] phaseNanos = new LongAdder[Phase.values().length];
+	private static final LongAdder evaluations = new LongAdder();
+	private static final LongAdder evaluationNanos = new LongAdder();
+	// How deeply nested the phenotype construction of each thread currently is
+	private static final ThreadLocal<int[]> phenotypeDepth = ThreadLocal.withInitial(() -> new int[1]);
+
+	static {
+		for (int i = 0; i < phaseNanos.length; i++) {
+			phaseNanos[i] = new LongAdder();
+		}
+	}
+
+	private static volatile boolean enabled = false;
+	private static PlotLog log = null;
+	private static GenerationMetrics bean = null;
+	private static long generationStart;
+	private static long garbageCollectionStart;
+
+	// Last completed generation, read by JMX clients
+	private volatile int generation = -1;
+	private volatile double[] values = new double[NUM_VALUES];
+
+	/**
+	 * Labels of the logged values, in the order they appear in each line after
+	 * the generation number
+	 *
+	 * @return list of labels
+	 */
+	public static ArrayList<String> getLabels() {
+		ArrayList<String> result = new ArrayList<String>(NUM_VALUES);
+		result.add("Generation Time (ms)");
+		for (Phase p : Phase.values()) {
+			result.add(p.label + " Time (ms)");
+		}
+		result.add("Evaluations");
+		result.add("Evaluations Per Second");
+		result.add("Thread Utilization");
+		result.add("Garbage Collection Time (ms)");
+		result.add("Heap Used (MB)");
+		result.add("Heap Max (MB)");
+		return result;
+	}
+
+	/**
+	 * Start recording metrics: create the PhaseTiming log, register the MBean
+	 * and start timing the first generation.
+	 *
+	 * @param raw Whether the log should be appended to on resume instead of
+	 *            reloaded, as for steady state EAs whose lastSavedGeneration
+	 *            counts iterations rather than generations
+	 */
+	public static synchronized void initialize(boolean raw) {
+		close();
+		log = new PlotLog("PhaseTiming", getLabels(), raw);
+		bean = new GenerationMetrics();
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if (server.isRegistered(name)) {
+				server.unregisterMBean(name);
+			}
+			server.registerMBean(bean, name);
+		} catch (JMException e) {
+			// The log is still written
+			System.out.println("Could not register " + OBJECT_NAME + ": " + e);
+		}
+		enabled = true;
+		startGeneration();
+	}
+
+	/**
+	 * Stop recording metrics, close the log and unregister the MBean
+	 */
+	public static synchronized void close() {
+		if (!enabled) {
+			return;
+		}
+		enabled = false;
+		log.close();
+		log = null;
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(OBJECT_NAME));
+		} catch (JMException e) {
+			// Was never registered
+		}
+		bean = null;
+	}
+
+	/**
+	 * Start timing a phase
+	 *
+	 * @return Start time to pass to record
+	 */
+	public static long start() {
+		return enabled ? System.nanoTime() : NOT_TIMED;
+	}
+
+	/**
+	 * Add the time since start to the total for a phase in the current generation
+	 *
+	 * @param phase Phase that was being performed
+	 * @param start Value returned by start
+	 */
+	public static void record(Phase phase, long start) {
+		if (start != NOT_TIMED) {
+			phaseNanos[phase.ordinal()].add(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Start timing the construction of a phenotype. Constructing some
+	 * phenotypes involves constructing others (the CPPN of a HyperNEAT
+	 * genotype, for example), and only the outermost construction is timed.
+	 *
+	 * @return Start time to pass to recordPhenotype
+	 */
+	public static long startPhenotype() {
+		int[] depth = phenotypeDepth.get();
+		return depth[0]++ == 0 && enabled ? System.nanoTime() : NOT_TIMED;
+	}
+
+	/**
+	 * Finish timing the construction of a phenotype
+	 *
+	 * @param start Value returned by startPhenotype
+	 */
+	public static void recordPhenotype(long start) {
+		phenotypeDepth.get()[0]--;
+		record(Phase.PHENOTYPE_CONSTRUCTION, start);
+	}
+
+	/**
+	 * Count one completed evaluation, and add its time to the time spent by
+	 * evaluation threads. Called from each evaluation, on whatever thread it
+	 * ran on.
+	 *
+	 * @param start Value returned by start when the evaluation began
+	 */
+	public static void recordEvaluation(long start) {
+		if (start != NOT_TIMED) {
+			evaluationNanos.add(System.nanoTime() - start);
+			evaluations.increment();
+		}
+	}
+
+	/**
+	 * Count one evaluation that was performed in another process, such as a
+	 * worker of the EvaluationFarm, and add the time it took.
+	 *
+	 * @param nanos Duration of the evaluation
+	 */
+	public static void recordEvaluationTime(long nanos) {
+		if (enabled) {
+			evaluationNanos.add(nanos);
+			evaluations.increment();
+		}
+	}
+
+	/**
+	 * Start timing a new generation, discarding anything recorded since the last one
+	 */
+	public static void startGeneration() {
+		for (LongAdder phase : phaseNanos) {
+			phase.reset();
+		}
+		evaluations.reset();
+		evaluationNanos.reset();
+		garbageCollectionStart = garbageCollectionMillis();
+		generationStart = System.nanoTime();
+	}
+
+	/**
+	 * Log and publish the metrics of a completed generation, then start timing
+	 * the next one.
+	 *
+	 * @param gen Generation that was just completed
+	 */
+	public static synchronized void endGeneration(int gen) {
+		if (!enabled) {
+			return;
+		}
+		long generationNanos = System.nanoTime() - generationStart;
+		double[] result = new double[NUM_VALUES];
+		result[GENERATION_TIME] = generationNanos / NANOS_PER_MILLI;
+		for (Phase p : Phase.values()) {
+			result[FIRST_PHASE + p.ordinal()] = phaseNanos[p.ordinal()].sum() / NANOS_PER_MILLI;
+		}
+		result[EVALUATIONS] = evaluations.sum();
+		result[EVALUATIONS_PER_SECOND] = generationNanos == 0 ? 0 : evaluations.sum() / (generationNanos / (1000 * NANOS_PER_MILLI));
+		int threads = Parameters.parameters.booleanParameter("evaluationFarm") ? Math.max(1, Parameters.parameters.integerParameter("farmLocalWorkers"))
+				: Parameters.parameters.booleanParameter("parallelEvaluations") ? Parameters.parameters.integerParameter("threads") : 1;
+		result[THREAD_UTILIZATION] = generationNanos == 0 ? 0 : evaluationNanos.sum() / ((double) generationNanos * threads);
+		result[GC_TIME] = garbageCollectionMillis() - garbageCollectionStart;
+		MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+		result[HEAP_USED] = heap.getUsed() / BYTES_PER_MEGABYTE;
+		// Max is undefined (-1) on some JVMs, in which case the committed size is the limit
+		result[HEAP_MAX] = (heap.getMax() < 0 ? heap.getCommitted() : heap.getMax()) / BYTES_PER_MEGABYTE;
+
+		ArrayList<Double> logValues = new ArrayList<Double>(NUM_VALUES);
+		for (double v : result) {
+			logValues.add(v);
+		}
+		log.log(gen, logValues);
+		bean.values = result;
+		bean.generation = gen;
+		startGeneration();
+	}
+
+	/**
+	 * @return Total time spent collecting garbage by all collectors since the JVM started
+	 */
+	private static long garbageCollectionMillis() {
+		long total = 0;
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			// -1 when a collector does not report its time
+			total += Math.max(0, gc.getCollectionTime());
+		}
+		return total;
+	}
+
+	private GenerationMetrics() {
+		// Only the instance registered with JMX is created
+	}
+
+	@Override
+	public int getGeneration() {
+		return generation;
+	}
+
+	@Override
+	public double getGenerationMillis() {
+		return values[GENERATION_TIME];
+	}
+
+	@Override
+	public double getChildGenerationMillis() {
+		return values[FIRST_PHASE + Phase.CHILD_GENERATION.ordinal()];
+	}
+
+	@Override
+	public double getMutationMillis() {
+		return values[FIRST_PHASE + Phase.MUTATION.ordinal()];
+	}
+
+	@Override
+	public double getPhenotypeConstructionMillis() {
+		return values[FIRST_PHASE + Phase.PHENOTYPE_CONSTRUCTION.ordinal()];
+	}
+
+	@Override
+	public double getEvaluationMillis() {
+		return values[FIRST_PHASE + Phase.EVALUATION.ordinal()];
+	}
+
+	@Override
+	public double getSelectionMillis() {
+		return values[FIRST_PHASE + Phase.SELECTION.ordinal()];
+	}
+
+	@Override
+	public double getLoggingMillis() {
+		return values[FIRST_PHASE + Phase.LOGGING.ordinal()];
+	}
+
+	@Override
+	public double getSavingMillis() {
+		return values[FIRST_PHASE + Phase.SAVING.ordinal()];
+	}
+
+	@Override
+	public double getEvaluations() {
+		return values[EVALUATIONS];
+	}
+
+	@Override
+	public double getEvaluationsPerSecond() {
+		return values[EVALUATIONS_PER_SECOND];
+	}
+
+	@Override
+	public double getThreadUtilization() {
+		return values[THREAD_UTILIZATION];
+	}
+
+	@Override
+	public double getGarbageCollectionMillis() {
+		return values[GC_TIME];
+	}
+
+	@Override
+	public double getHeapUsedMegabytes() {
+		return values[HEAP_USED];
+	}
+
+	@Override
+	public double getHeapMaxMegabytes() {
+		return values[HEAP_MAX];
+	}
+}
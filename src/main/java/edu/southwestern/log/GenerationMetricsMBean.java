@@ -0,0 +1,39 @@
+package edu.southwestern.log;
+
+/**
+ * Management interface through which JMX clients (such as jconsole or
+ * VisualVM) read the GenerationMetrics of the last completed generation.
+ * Times are in milliseconds and memory in megabytes.
+ */
+public interface GenerationMetricsMBean {
+
+	public int getGeneration();
+
+	public double getGenerationMillis();
+
+	public double getChildGenerationMillis();
+
+	public double getMutationMillis();
+
+	public double getPhenotypeConstructionMillis();
+
+	public double getEvaluationMillis();
+
+	public double getSelectionMillis();
+
+	public double getLoggingMillis();
+
+	public double getSavingMillis();
+
+	public double getEvaluations();
+
+	public double getEvaluationsPerSecond();
+
+	public double getThreadUtilization();
+
+	public double getGarbageCollectionMillis();
+
+	public double getHeapUsedMegabytes();
+
+	public double getHeapMaxMegabytes();
+}
@@ -13,7 +13,16 @@ import java.util.ArrayList;
 public class PlotLog extends MMNEATLog {
 
 	public PlotLog(String name, ArrayList<String> labels) {
-		super(name);
+		this(name, labels, false);
+	}
+
+	/**
+	 * @param name Part of file name
+	 * @param labels Labels of the plotted values
+	 * @param raw Do not reload the old log on resume, just append to it
+	 */
+	public PlotLog(String name, ArrayList<String> labels, boolean raw) {
+		super(name, false, false, false, raw);
 		createPlotFile(labels);
 	}
 
@@ -186,6 +186,16 @@ public class ActivationFunctions {
 		return activation;
 	}
 
+	/**
+	 * The function instance associated with an ftype. Lets a network
+	 * resolve each neuron's function once instead of on every activation.
+	 * @param ftype Identifier for activation function
+	 * @return Function instance
+	 */
+	public static ActivationFunction getFunction(int ftype) {
+		return functionMap.get(ftype);
+	}
+
 	/**
 	 * String name of the activation function
 	 * @param ftype Identifier for activation function
@@ -223,7 +233,7 @@ public class ActivationFunctions {
 	 * @return function for either TWEANN or CPPN
 	 */
 	public static int newNodeFunction() {
-		if (Parameters.parameters.booleanParameter("allowMultipleFunctions")) { 
+		if (Parameters.parameters.snapshot().allowMultipleFunctions) { 
 			// for CPPN
 			return randomFunction();
 		} else {
@@ -0,0 +1,32 @@
+package edu.southwestern.networks;
+
+/**
+ * Network that can process a whole matrix of inputs at once, such as the
+ * (x, y, distance, bias) inputs for every pixel of an image. Evaluating
+ * node-by-node across the batch is much faster than calling process once
+ * per row.
+ */
+public interface BatchNetwork extends Network {
+
+	/**
+	 * Outputs for each row of inputs. Every row is processed from a flushed
+	 * state, so the result matches calling flush() and then process(row) on
+	 * each row in turn. Module usage is counted as it would be by those calls.
+	 * Implementations may fall back on exactly those calls, so the recurrent
+	 * state of the network is not preserved: call flush() before using
+	 * process() again.
+	 * 
+	 * @param inputs
+	 *            Each row is one array of sensor inputs (length == numInputs())
+	 * @return Array with one row of outputs per input row (length == effectiveNumOutputs())
+	 */
+	public double[][] processBatch(double[][] inputs);
+
+	/**
+	 * Whether any link carries activation backwards. If not, processing rows
+	 * one after another without flushing gives the same results as processBatch.
+	 * 
+	 * @return true if the network has recurrent links
+	 */
+	public boolean hasRecurrentLinks();
+}
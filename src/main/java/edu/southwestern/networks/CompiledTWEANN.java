@@ -0,0 +1,120 @@
+package edu.southwestern.networks;
+
+import java.util.Arrays;
+
+import edu.southwestern.evolution.genotypes.TWEANNGenotype;
+import edu.southwestern.parameters.CommonConstants;
+
+/**
+ * TWEANN whose activation is flattened into contiguous primitive arrays.
+ * The regular Node/Link object graph is still built so that drawing,
+ * mutation and genotype conversion work as usual, but process() never
+ * touches it. Instead, node sums and activations live in double arrays,
+ * and the structure comes from a CompiledTopology, where outgoing links
+ * are stored in compressed sparse row form and each neuron's activation
+ * function is resolved once at construction.
+ *
+ * Nodes are activated in the same order and links transmit in the same
+ * order as in TWEANN, so the floating point results are bit-identical.
+ */
+public class CompiledTWEANN extends TWEANN {
+
+	private final CompiledTopology topology;
+	private final double[] sums;
+	private final double[] activations;
+	// Only NormalizedMemoryNodes have memory. Null if there are none.
+	private final int[] memoryCount;
+	private final double[] memoryMean;
+	private final double[] memorySumOfSquares;
+
+	/**
+	 * Build the TWEANN for the genotype and then compile it.
+	 *
+	 * @param g
+	 *            The genotype
+	 */
+	public CompiledTWEANN(TWEANNGenotype g) {
+		super(g);
+		topology = compiledTopology();
+		int numNodes = topology.numNodes;
+		sums = Arrays.copyOf(topology.biases, numNodes); // Same as freshly flushed nodes
+		activations = new double[numNodes];
+		boolean anyNormalized = topology.normalized != null;
+		memoryCount = anyNormalized ? new int[numNodes] : null;
+		memoryMean = anyNormalized ? new double[numNodes] : null;
+		memorySumOfSquares = anyNormalized ? new double[numNodes] : null;
+	}
+
+	@Override
+	protected void activate(double[] inputs) {
+		for (int i = 0; i < numIn; i++) {
+			assert !Double.isNaN(inputs[i]) : "Input " + i + " is NaN!" + Arrays.toString(inputs);
+			sums[i] += inputs[i];
+		}
+
+		// Activate nodes in forward order
+		int numNodes = topology.numNodes;
+		for (int i = 0; i < numNodes; i++) {
+			activateAndTransmit(i);
+		}
+
+		// See TWEANN.activate
+		if (finalPassOnOutputActivation) {
+			for (int i = outputStart; i < numNodes; i++) {
+				if (sums[i] != topology.biases[i]) {
+					activateAndTransmit(i);
+				}
+			}
+		}
+
+		// Graphical displays read activations from the Node objects
+		if (canDraw && (panel != null || (CommonConstants.hyperNEAT && CommonConstants.monitorSubstrates))) {
+			for (int i = 0; i < numNodes; i++) {
+				Node n = nodes.get(i);
+				n.sum = sums[i];
+				n.activation = activations[i];
+			}
+		}
+	}
+
+	/**
+	 * Array equivalent of Node.activateAndTransmit (and the override in
+	 * NormalizedMemoryNode).
+	 *
+	 * @param i
+	 *            index of node to activate
+	 */
+	private void activateAndTransmit(int i) {
+		double activation = topology.functions[i].f(sums[i]);
+		assert !Double.isNaN(activation) : "Activation of node " + i + " is NaN on " + sums[i];
+		if (topology.normalized != null && topology.normalized[i]) {
+			memoryCount[i]++;
+			double oldMean = memoryMean[i];
+			memoryMean[i] += (activation - memoryMean[i]) / memoryCount[i];
+			memorySumOfSquares[i] += (activation - oldMean) * (activation - memoryMean[i]);
+			double variance = memorySumOfSquares[i] / memoryCount[i];
+			activation = (activation - memoryMean[i]) / Math.sqrt(variance + NormalizedMemoryNode.EPSILON);
+			activation = topology.memoryGamma[i] * activation + topology.memoryBeta[i];
+		}
+		activations[i] = activation;
+		// reset sum to original bias after activation
+		sums[i] = topology.biases[i];
+		int[] linkTarget = topology.linkTarget;
+		double[] linkWeight = topology.linkWeight;
+		for (int l = topology.linkStart[i]; l < topology.linkStart[i + 1]; l++) {
+			sums[linkTarget[l]] += activation * linkWeight[l];
+		}
+	}
+
+	@Override
+	protected double outputActivation(int index) {
+		return activations[index];
+	}
+
+	@Override
+	public void flush() {
+		super.flush();
+		System.arraycopy(topology.biases, 0, sums, 0, topology.numNodes);
+		Arrays.fill(activations, 0.0);
+	}
+}
@@ -0,0 +1,126 @@
+package edu.southwestern.networks;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import edu.southwestern.networks.TWEANN.Link;
+import edu.southwestern.networks.TWEANN.Node;
+import edu.southwestern.networks.activationfunctions.ActivationFunction;
+
+/**
+ * Immutable, array-based copy of the structure of a TWEANN. Node i of the
+ * TWEANN's linear node order becomes index i here. Outgoing links are stored
+ * in compressed sparse row form: the links leaving node i are at positions
+ * linkStart[i] up to (but excluding) linkStart[i+1] of linkTarget and
+ * linkWeight. Activation functions are resolved once.
+ *
+ * Link order within each node matches the order of the TWEANN's Node.outputs
+ * lists, so sums accumulate in exactly the same order as in TWEANN.
+ */
+final class CompiledTopology {
+
+	final int numNodes;
+	final ActivationFunction[] functions;
+	final double[] biases;
+	final int[] linkStart;
+	final int[] linkTarget;
+	final double[] linkWeight;
+	// Null if no node is a NormalizedMemoryNode
+	final boolean[] normalized;
+	final double[] memoryGamma;
+	final double[] memoryBeta;
+	// Any link whose target does not come after its source
+	final boolean recurrent;
+
+	CompiledTopology(List<Node> nodes) {
+		numNodes = nodes.size();
+		functions = new ActivationFunction[numNodes];
+		biases = new double[numNodes];
+		linkStart = new int[numNodes + 1];
+
+		IdentityHashMap<Node, Integer> index = new IdentityHashMap<Node, Integer>(numNodes);
+		int numLinks = 0;
+		boolean anyNormalized = false;
+		for (int i = 0; i < numNodes; i++) {
+			Node n = nodes.get(i);
+			index.put(n, i);
+			numLinks += n.outputs.size();
+			anyNormalized = anyNormalized || n instanceof NormalizedMemoryNode;
+		}
+
+		linkTarget = new int[numLinks];
+		linkWeight = new double[numLinks];
+		normalized = anyNormalized ? new boolean[numNodes] : null;
+		memoryGamma = anyNormalized ? new double[numNodes] : null;
+		memoryBeta = anyNormalized ? new double[numNodes] : null;
+
+		boolean anyRecurrent = false;
+		int l = 0;
+		for (int i = 0; i < numNodes; i++) {
+			Node n = nodes.get(i);
+			functions[i] = ActivationFunctions.getFunction(n.ftype);
+			biases[i] = n.bias;
+			linkStart[i] = l;
+			for (Link link : n.outputs) {
+				linkTarget[l] = index.get(link.target);
+				linkWeight[l] = link.weight;
+				anyRecurrent = anyRecurrent || linkTarget[l] <= i;
+				l++;
+			}
+			if (n instanceof NormalizedMemoryNode) {
+				normalized[i] = true;
+				memoryGamma[i] = ((NormalizedMemoryNode) n).getGamma();
+				memoryBeta[i] = ((NormalizedMemoryNode) n).getBeta();
+			}
+		}
+		linkStart[numNodes] = l;
+		recurrent = anyRecurrent;
+	}
+
+	/**
+	 * Activate every node for a block of independent input rows. Sums and
+	 * activations are stored node-major: the value for node i and row r is
+	 * at i*block + r. The caller fills the sums with biases plus inputs
+	 * beforehand. Normalized memory nodes are not supported.
+	 *
+	 * @param sums node sums for each row, modified in place
+	 * @param activations resulting activations for each node and row
+	 * @param block stride between consecutive nodes in the arrays
+	 * @param rows number of rows actually in use (at most block)
+	 * @param outputStart index of first output node
+	 * @param finalPass whether to empty remaining activation from outputs (see TWEANN)
+	 */
+	void activateBatch(double[] sums, double[] activations, int block, int rows, int outputStart, boolean finalPass) {
+		for (int i = 0; i < numNodes; i++) {
+			int base = i * block;
+			ActivationFunction f = functions[i];
+			double bias = biases[i];
+			for (int r = 0; r < rows; r++) {
+				activations[base + r] = f.f(sums[base + r]);
+				sums[base + r] = bias;
+			}
+			for (int l = linkStart[i]; l < linkStart[i + 1]; l++) {
+				int targetBase = linkTarget[l] * block;
+				double weight = linkWeight[l];
+				for (int r = 0; r < rows; r++) {
+					sums[targetBase + r] += activations[base + r] * weight;
+				}
+			}
+		}
+
+		if (finalPass) {
+			for (int i = outputStart; i < numNodes; i++) {
+				int base = i * block;
+				for (int r = 0; r < rows; r++) {
+					if (sums[base + r] != biases[i]) {
+						activations[base + r] = functions[i].f(sums[base + r]);
+						sums[base + r] = biases[i];
+						for (int l = linkStart[i]; l < linkStart[i + 1]; l++) {
+							sums[linkTarget[l] * block + r] += activations[base + r] * linkWeight[l];
+						}
+					}
+				}
+			}
+		}
+	}
+}
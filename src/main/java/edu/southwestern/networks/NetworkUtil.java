@@ -76,4 +76,36 @@ public class NetworkUtil {
 			}
 		}
 	}
+
+	/**
+	 * Process many independent rows of inputs. Uses the batched evaluation of
+	 * a BatchNetwork when available, and otherwise flushes and processes each
+	 * row separately, which gives the same result.
+	 * @param n Network to evaluate
+	 * @param inputs One row of network inputs per evaluation
+	 * @return One row of network outputs per input row
+	 */
+	public static double[][] processBatch(Network n, double[][] inputs) {
+		if (n instanceof BatchNetwork) {
+			return ((BatchNetwork) n).processBatch(inputs);
+		}
+		double[][] results = new double[inputs.length][];
+		for (int i = 0; i < inputs.length; i++) {
+			n.flush();
+			results[i] = n.process(inputs[i]);
+		}
+		return results;
+	}
+
+	/**
+	 * Whether the rows of inputs can be processed as one batch by a network that
+	 * would otherwise process them in sequence without flushing. This is only
+	 * true when no activation or mode preference can carry over from one row
+	 * to the next.
+	 * @param n Network to evaluate
+	 * @return true if processBatch would give the same result as sequential processing
+	 */
+	public static boolean canBatchSequentialInputs(Network n) {
+		return n instanceof BatchNetwork && n.numModules() == 1 && !((BatchNetwork) n).hasRecurrentLinks();
+	}
 }
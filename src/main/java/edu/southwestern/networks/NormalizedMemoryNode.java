@@ -19,6 +19,14 @@ public class NormalizedMemoryNode extends TWEANN.Node{
 		this.beta = beta;
 	}
 
+	public double getGamma() {
+		return gamma;
+	}
+
+	public double getBeta() {
+		return beta;
+	}
+
 	@Override
 	protected void activateAndTransmit() {
 		double immediateActivation = ActivationFunctions.activation(ftype, sum);
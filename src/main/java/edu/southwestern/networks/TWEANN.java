@@ -6,6 +6,7 @@ import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -21,6 +22,7 @@ import edu.southwestern.networks.hyperneat.Substrate;
 import edu.southwestern.parameters.CommonConstants;
 import edu.southwestern.parameters.Parameters;
 import edu.southwestern.util.CombinatoricUtilities;
+import edu.southwestern.util.datastructures.LongIntHashMap;
 import edu.southwestern.util.graphics.DrawingPanel;
 import edu.southwestern.util.graphics.GraphicsUtil;
 import edu.southwestern.util.graphics.Plot;
@@ -41,7 +43,7 @@ import edu.southwestern.util.stats.StatisticsUtilities;
  *
  * @author Jacob Schrum
  */
-public class TWEANN implements Network {
+public class TWEANN implements BatchNetwork {
 
 	// Variables used for watching the behavior of an active network in a
 	// graphical display
@@ -360,6 +362,10 @@ public class TWEANN implements Network {
 	public final int archetypeIndex;
 	public final int outputStart;
 	public static boolean finalPassOnOutputActivation = Parameters.parameters.booleanParameter("finalPassOnOutputActivation");
+	// Number of rows activated together by processBatch
+	public static final int BATCH_BLOCK_SIZE = 256;
+	// Array-based copy of the structure, built the first time it is needed
+	private CompiledTopology compiledTopology = null;
 
 	/**
 	 * Whether or not networks being used can/do have preference neurons
@@ -516,6 +522,8 @@ public class TWEANN implements Network {
 		this.archetypeIndex = g.archetypeIndex;
 		this.id = g.getId();
 		this.nodes = new ArrayList<Node>(g.nodes.size());
+		// Positions of nodes by innovation number, so each link is connected in constant time
+		LongIntHashMap positions = new LongIntHashMap(g.nodes.size());
 
 		int countIn = 0;
 		int countOut = 0;
@@ -546,6 +554,7 @@ public class TWEANN implements Network {
 				countOut++;
 				break;
 			}
+			positions.putIfAbsent(ng.innovation, nodes.size());
 			nodes.add(n);
 		}
 
@@ -581,8 +590,8 @@ public class TWEANN implements Network {
 
 		for (LinkGene lg : g.links) {
 			if (lg.isActive()) {
-				Node source = getNode(lg.sourceInnovation);
-				Node target = getNode(lg.targetInnovation);
+				Node source = getNode(positions, lg.sourceInnovation);
+				Node target = getNode(positions, lg.targetInnovation);
 				assert(target != null) : "No target: " + lg + "\nNet:" + g.getId();
 				assert(source != null) : "How could the source be null?";
 				source.connect(target, lg.weight, lg.innovation, lg.isRecurrent(), lg.isFrozen(), lg.getModuleSource());
@@ -592,6 +601,92 @@ public class TWEANN implements Network {
 		allViable();
 	}
 
+	/**
+	 * Single module network whose nodes are added by a subclass, which also
+	 * takes over activation. Used by phenotypes that store their links in
+	 * some form other than Node.outputs, such as DenseSubstrateNetwork.
+	 *
+	 * @param numIn
+	 *            Number of input nodes
+	 * @param numOut
+	 *            Number of output nodes
+	 * @param numNodes
+	 *            Total number of nodes the subclass will add
+	 * @param archetypeIndex
+	 *            archetype to align with for crossover
+	 */
+	protected TWEANN(int numIn, int numOut, int numNodes, int archetypeIndex) {
+		NETWORK_VIEW_DIM = (Parameters.parameters != null && Parameters.parameters.booleanParameter("hyperNEAT")) ? Parameters.parameters.integerParameter("hyperNEATNetworkDisplaySize") : 500;
+		this.archetypeIndex = archetypeIndex;
+		this.numIn = numIn;
+		this.numOut = numOut;
+		this.numModes = 1;
+		this.neuronsPerModule = numOut;
+		this.standardMultitask = false;
+		this.hierarchicalMultitask = false;
+		this.moduleAssociations = new int[1];
+		this.moduleUsage = new int[1];
+		this.preferenceFatigue = new double[1];
+		this.nodes = new ArrayList<Node>(numNodes);
+		this.outputStart = numNodes - numOut;
+		allViable();
+	}
+
+	/**
+	 * Create an independent copy of the original network. The copy has the
+	 * same structure and weights, but its own activation state, so that the
+	 * original and the copy can be used on different threads at once. Module
+	 * usage is not copied.
+	 *
+	 * @param original
+	 *            Network to copy
+	 */
+	protected TWEANN(TWEANN original) {
+		this.archetypeIndex = original.archetypeIndex;
+		this.id = original.id;
+		this.numIn = original.numIn;
+		this.numOut = original.numOut;
+		this.numModes = original.numModes;
+		this.neuronsPerModule = original.neuronsPerModule;
+		this.standardMultitask = original.standardMultitask;
+		this.hierarchicalMultitask = original.hierarchicalMultitask;
+		this.moduleAssociations = Arrays.copyOf(original.moduleAssociations, original.moduleAssociations.length);
+		this.moduleUsage = new int[numModes];
+		this.preferenceFatigue = new double[numModes];
+		this.canDraw = false;
+		this.nodes = new ArrayList<Node>(original.nodes.size());
+		IdentityHashMap<Node, Node> copies = new IdentityHashMap<Node, Node>(original.nodes.size());
+		for (Node n : original.nodes) {
+			Node copy = n instanceof NormalizedMemoryNode ?
+					new NormalizedMemoryNode(this, n.ftype, n.ntype, n.innovation, n.frozen, n.bias, ((NormalizedMemoryNode) n).getGamma(), ((NormalizedMemoryNode) n).getBeta()) :
+					new Node(n.ftype, n.ntype, n.innovation, n.frozen, n.bias);
+			copies.put(n, copy);
+			nodes.add(copy);
+		}
+		for (Node n : original.nodes) {
+			Node source = copies.get(n);
+			for (Link l : n.outputs) {
+				source.connect(copies.get(l.target), l.weight, l.innovation, l.recurrent, l.frozen, l.moduleSource);
+			}
+		}
+		this.outputStart = original.outputStart;
+		// Structure is immutable, so it can be shared
+		this.compiledTopology = original.compiledTopology;
+		// The mode chosen for the original still applies to the copy
+		this.presetMode = original.presetMode;
+		this.viableModes = Arrays.copyOf(original.viableModes, original.viableModes.length);
+	}
+
+	/**
+	 * Independent copy of this network with fresh activation state,
+	 * which allows the same network to be used by several threads.
+	 *
+	 * @return copy of network
+	 */
+	public TWEANN copy() {
+		return new TWEANN(this);
+	}
+
 	// Getters
 	@Override
 	public int[] getModuleUsage() {
@@ -672,33 +767,8 @@ public class TWEANN implements Network {
 		assert(inputs.length == numIn) : "Input mismatch! numIn = " + numIn + "\n" + "inputs.length = " + inputs.length + "\n" + Arrays.toString(inputs);
 		assert(numIn <= nodes.size()) : "Input mismatch! numIn = " + numIn + "\n" + "nodes.size() = " + nodes.size() + "\n" + nodes;
 
-		try {
-			// Load inputs
-			for (int i = 0; i < numIn; i++) {
-				assert !Double.isNaN(inputs[i]) : "Input " + i + " is NaN!" + Arrays.toString(inputs);
-				nodes.get(i).load(inputs[i]);
-			}
-		} catch(ArrayIndexOutOfBoundsException e) {
-			System.out.println("CRASH! inputs = " + Arrays.toString(inputs));
-			throw e;
-		}
+		activate(inputs);
 
-		// Activate nodes in forward order
-		for (int i = 0; i < nodes.size(); i++) {
-			nodes.get(i).activateAndTransmit();
-		}
-		
-		// Option: if there is remaining activation in the output neurons, 
-		// then process it. Used when importing CPPNs from original Picbreeder
-		if(finalPassOnOutputActivation) {
-			for(int i = this.outputStart; i < nodes.size(); i++) {
-				// This means input arrived after last reset
-				if(nodes.get(i).sum != nodes.get(i).bias) {
-					nodes.get(i).activateAndTransmit();
-				}
-			}
-		}
-		
 		// All outputs
 
 		double[] preferences = new double[numModes];
@@ -712,9 +782,9 @@ public class TWEANN implements Network {
 				preferences[presetMode] = 1.0;
 			} else {
 				for (int m = 0; m < numModes; m++) {
-					Node out = nodes.get(outputStart + (m * (neuronsPerModule + 1)) + neuronsPerModule);
+					int out = outputStart + (m * (neuronsPerModule + 1)) + neuronsPerModule;
 					// Inviable modes have minimal preference
-					preferences[m] = viableModes[m] ? out.output() : -Double.MAX_VALUE;
+					preferences[m] = viableModes[m] ? outputActivation(out) : -Double.MAX_VALUE;
 				}
 			}
 			// subtract fatigue
@@ -754,7 +824,7 @@ public class TWEANN implements Network {
 			for (int i = 0; i < outputs.length; i++) {
 				for (int j = 0; j < numModes; j++) {
 					int modeStart = outputStart + (j * (neuronsPerModule + (CommonConstants.ensembleModeMutation ? 0 : 1)));
-					outputs[i] += preferences[j] * nodes.get(modeStart + i).output();
+					outputs[i] += preferences[j] * outputActivation(modeStart + i);
 				}
 				outputs[i] /= numModes;
 			}
@@ -766,7 +836,7 @@ public class TWEANN implements Network {
 			if(!HyperNEATCPPNGenotype.constructingNetwork && CommonConstants.hyperNEAT && CommonConstants.monitorSubstrates) {
 				animateSubstrate();
 			}
-			if (panel != null && Parameters.parameters.booleanParameter("animateNetwork")) {
+			if (panel != null && Parameters.parameters.snapshot().animateNetwork) {
 				draw(panel);
 			}
 			if (inputPanel != null) {
@@ -777,6 +847,73 @@ public class TWEANN implements Network {
 		return outputs;
 	}
 
+	/**
+	 * Load the sensor inputs and propagate activation through every node
+	 * in forward order. Afterwards, outputActivation can be used to read
+	 * the activation of any output neuron.
+	 *
+	 * @param inputs
+	 *            sensor readings for the network
+	 */
+	protected void activate(double[] inputs) {
+		try {
+			// Load inputs
+			for (int i = 0; i < numIn; i++) {
+				assert !Double.isNaN(inputs[i]) : "Input " + i + " is NaN!" + Arrays.toString(inputs);
+				nodes.get(i).load(inputs[i]);
+			}
+		} catch(ArrayIndexOutOfBoundsException e) {
+			System.out.println("CRASH! inputs = " + Arrays.toString(inputs));
+			throw e;
+		}
+
+		// Activate nodes in forward order
+		for (int i = 0; i < nodes.size(); i++) {
+			nodes.get(i).activateAndTransmit();
+		}
+		
+		// Option: if there is remaining activation in the output neurons, 
+		// then process it. Used when importing CPPNs from original Picbreeder
+		if(finalPassOnOutputActivation) {
+			for(int i = this.outputStart; i < nodes.size(); i++) {
+				// This means input arrived after last reset
+				if(nodes.get(i).sum != nodes.get(i).bias) {
+					nodes.get(i).activateAndTransmit();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Activation of the node at the given position in the linear node
+	 * order, as of the most recent call to process.
+	 *
+	 * @param index
+	 *            position of node in nodes list
+	 * @return activation of that node
+	 */
+	protected double outputActivation(int index) {
+		return nodes.get(index).output();
+	}
+
+	/**
+	 * Overwrite the sum and activation of a node. Used by subclasses that
+	 * activate the network without the Node objects, so that graphical
+	 * displays can still show the state of each neuron.
+	 *
+	 * @param index
+	 *            position of node in nodes list
+	 * @param sum
+	 *            current sum of the node
+	 * @param activation
+	 *            current activation of the node
+	 */
+	protected void setNodeState(int index, double sum, double activation) {
+		Node n = nodes.get(index);
+		n.sum = sum;
+		n.activation = activation;
+	}
+
 	/**
 	 * After processing, the neurons retain their activations. Therefore, the
 	 * output values can be accessed for any mode, not just the chosen one.
@@ -790,12 +927,80 @@ public class TWEANN implements Network {
 		int selectedModeStart = outputStart + (mode * (neuronsPerModule + (standardMultitask ? 0 : 1)));
 		double[] outputs = new double[neuronsPerModule];
 		for (int i = 0; i < neuronsPerModule; i++) {
-			Node out = nodes.get(selectedModeStart + i);
-			outputs[i] = out.output();
+			outputs[i] = outputActivation(selectedModeStart + i);
 		}
 		return outputs;
 	}
 
+	/**
+	 * Array-based copy of the network structure. Networks never change after
+	 * being created, so this is only built once.
+	 *
+	 * @return compiled structure of this network
+	 */
+	protected CompiledTopology compiledTopology() {
+		if (compiledTopology == null) {
+			compiledTopology = new CompiledTopology(nodes);
+		}
+		return compiledTopology;
+	}
+
+	@Override
+	public boolean hasRecurrentLinks() {
+		return compiledTopology().recurrent;
+	}
+
+	/**
+	 * Process many independent input rows, activating each node across a
+	 * block of rows before moving to the next node. Networks with multiple
+	 * modules or normalized memory nodes simply process each row separately,
+	 * since their outputs depend on more than the current row.
+	 *
+	 * @param inputs
+	 *            sensor readings for the network, one row per evaluation
+	 * @return network outputs (single module) for each row
+	 */
+	@Override
+	public double[][] processBatch(double[][] inputs) {
+		CompiledTopology topology = compiledTopology();
+		double[][] results = new double[inputs.length][];
+		if (numModes != 1 || CommonConstants.ensembleModeMutation || topology.normalized != null) {
+			for (int r = 0; r < inputs.length; r++) {
+				flush();
+				results[r] = process(inputs[r]);
+			}
+			return results;
+		}
+
+		int block = Math.min(BATCH_BLOCK_SIZE, inputs.length);
+		double[] sums = new double[topology.numNodes * block];
+		double[] activations = new double[topology.numNodes * block];
+		for (int start = 0; start < inputs.length; start += block) {
+			int rows = Math.min(block, inputs.length - start);
+			for (int i = 0; i < topology.numNodes; i++) {
+				Arrays.fill(sums, i * block, i * block + rows, topology.biases[i]);
+			}
+			// Load inputs
+			for (int r = 0; r < rows; r++) {
+				double[] row = inputs[start + r];
+				assert row.length == numIn : "Input mismatch! numIn = " + numIn + "\n" + "inputs.length = " + row.length;
+				for (int i = 0; i < numIn; i++) {
+					sums[i * block + r] += row[i];
+				}
+			}
+			topology.activateBatch(sums, activations, block, rows, outputStart, finalPassOnOutputActivation);
+			for (int r = 0; r < rows; r++) {
+				double[] outputs = new double[neuronsPerModule];
+				for (int i = 0; i < neuronsPerModule; i++) {
+					outputs[i] = activations[(outputStart + i) * block + r];
+				}
+				results[start + r] = outputs;
+			}
+		}
+		moduleUsage[0] += inputs.length;
+		return results;
+	}
+
 	@SuppressWarnings("unchecked")
 	@Override
 	public void flush() {
@@ -816,14 +1021,18 @@ public class TWEANN implements Network {
 		}
 	}
 
-	private Node getNode(long targetInnovation) {
-		Node targetNode = null;
-		for (Node n : nodes) {
-			if (n.innovation == targetInnovation) {
-				targetNode = n;
-				break;
-			}
-		}
+	/**
+	 * Node with the given innovation number
+	 *
+	 * @param positions
+	 *            indices of nodes by innovation number
+	 * @param targetInnovation
+	 *            innovation number of node
+	 * @return the node, or null if there is none
+	 */
+	private Node getNode(LongIntHashMap positions, long targetInnovation) {
+		int index = positions.get(targetInnovation, -1);
+		Node targetNode = index == -1 ? null : nodes.get(index);
 		assert targetNode != null : "No node with innovation " + targetInnovation + " existed";
 		return targetNode;
 	}
@@ -1410,12 +1619,13 @@ public class TWEANN implements Network {
 	 */
 	private void checkNode(Graphics2D g, Node display)	 {
 		double activation = display.activation;
-		if(Parameters.parameters.booleanParameter("allowMultipleFunctions") && display.frozen) { // TODO: Is this case even reachable?
+		boolean allowMultipleFunctions = Parameters.parameters.snapshot().allowMultipleFunctions;
+		if(allowMultipleFunctions && display.frozen) { // TODO: Is this case even reachable?
 			drawBorder(g, Color.CYAN, display.displayX, display.displayY, activation, 4);
 			drawBorder(g, CombinatoricUtilities.colorFromInt(display.ftype), display.displayX, display.displayY, activation, 4);
 		} else if (display.frozen) {
 			drawBorder(g, Color.CYAN, display.displayX, display.displayY, activation, 2);
-		} else if (Parameters.parameters.booleanParameter("allowMultipleFunctions")) { // TODO: Just move this to where the node is drawn in the first place?
+		} else if (allowMultipleFunctions) { // TODO: Just move this to where the node is drawn in the first place?
 			drawBorder(g, CombinatoricUtilities.colorFromInt(display.ftype), display.displayX, display.displayY, activation, 2);
 		}
 	}
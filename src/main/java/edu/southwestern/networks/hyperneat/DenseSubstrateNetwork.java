@@ -0,0 +1,408 @@
+package edu.southwestern.networks.hyperneat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import edu.southwestern.evolution.genotypes.TWEANNGenotype.NodeGene;
+import edu.southwestern.networks.ActivationFunctions;
+import edu.southwestern.networks.TWEANN;
+import edu.southwestern.networks.activationfunctions.ActivationFunction;
+import edu.southwestern.parameters.CommonConstants;
+import edu.southwestern.parameters.Parameters;
+
+/**
+ * Substrate network that stores the links between each connected pair of
+ * substrates as a block of weights instead of as individual links. Fully
+ * connected pairs use a dense target-by-source weight matrix, and
+ * convolutional pairs store one receptive field of weights per target
+ * neuron. Activating a substrate is then a matrix-vector product (or
+ * convolution) per outgoing block. HyperNEATCPPNGenotype fills the blocks
+ * directly from the CPPN, without creating link genes or Link objects.
+ *
+ * Nodes are still created so that numbers of inputs and outputs, drawing of
+ * neurons and substrate monitoring work as usual, but they have no outgoing
+ * links. Substrates are activated in list order and each block adds its
+ * products in source neuron order, so sums accumulate in the same order as
+ * in the TWEANN built from the substrate genotype. The only difference is
+ * that unexpressed links are stored as zero weights, which can at most turn
+ * a negative zero sum into a positive zero.
+ *
+ * Only substrate descriptions that satisfy supports() can be represented.
+ */
+public class DenseSubstrateNetwork extends TWEANN {
+
+	/**
+	 * Weights of all links from one substrate to another
+	 */
+	private static abstract class WeightBlock {
+		final int sourceStart;
+		final int targetStart;
+
+		WeightBlock(int sourceStart, int targetStart) {
+			this.sourceStart = sourceStart;
+			this.targetStart = targetStart;
+		}
+
+		/**
+		 * Set the weight of a single link
+		 */
+		abstract void set(int sourceX, int sourceY, int targetX, int targetY, double weight);
+
+		/**
+		 * Add the weighted activations of all source neurons to the sums of
+		 * all target neurons
+		 */
+		abstract void transmit(double[] activations, double[] sums);
+	}
+
+	/**
+	 * Every source neuron may link to every target neuron. Row t of the
+	 * matrix holds the weights into target neuron t.
+	 */
+	private static class DenseBlock extends WeightBlock {
+		final int sourceWidth;
+		final int sourceSize;
+		final int targetWidth;
+		final int targetSize;
+		final double[] weights;
+
+		DenseBlock(Substrate source, int sourceStart, Substrate target, int targetStart) {
+			super(sourceStart, targetStart);
+			sourceWidth = source.getSize().t1;
+			sourceSize = source.numberOfNeurons();
+			targetWidth = target.getSize().t1;
+			targetSize = target.numberOfNeurons();
+			weights = new double[targetSize * sourceSize];
+		}
+
+		@Override
+		void set(int sourceX, int sourceY, int targetX, int targetY, double weight) {
+			weights[(targetY * targetWidth + targetX) * sourceSize + sourceY * sourceWidth + sourceX] = weight;
+		}
+
+		@Override
+		void transmit(double[] activations, double[] sums) {
+			for (int t = 0, row = 0; t < targetSize; t++, row += sourceSize) {
+				double sum = sums[targetStart + t];
+				for (int s = 0; s < sourceSize; s++) {
+					sum += activations[sourceStart + s] * weights[row + s];
+				}
+				sums[targetStart + t] = sum;
+			}
+		}
+	}
+
+	/**
+	 * Each target neuron only links to the source neurons in a receptive
+	 * field, whose center moves across the source substrate by the stride.
+	 * Fields are laid out as in HyperNEATCPPNGenotype.convolutionalLoopThroughLinks.
+	 */
+	private static class ConvolutionalBlock extends WeightBlock {
+		final int sourceWidth;
+		final int sourceHeight;
+		final int targetWidth;
+		final int fieldWidth;
+		final int fieldHeight;
+		// Target neuron, and center of its field in the source, for each field
+		final int[] fieldTarget;
+		final int[] centerX;
+		final int[] centerY;
+		// Field of each target neuron, or -1 if no field leads to it
+		final int[] targetField;
+		// Weights of field f start at f * fieldWidth * fieldHeight, row by row
+		final double[] weights;
+
+		ConvolutionalBlock(Substrate source, int sourceStart, Substrate target, int targetStart, int fieldWidth, int fieldHeight, int stride, boolean zeroPadding) {
+			super(sourceStart, targetStart);
+			sourceWidth = source.getSize().t1;
+			sourceHeight = source.getSize().t2;
+			targetWidth = target.getSize().t1;
+			this.fieldWidth = fieldWidth;
+			this.fieldHeight = fieldHeight;
+			int xEdgeOffset = zeroPadding ? 0 : fieldWidth / 2;
+			int yEdgeOffset = zeroPadding ? 0 : fieldHeight / 2;
+			ArrayList<int[]> fields = new ArrayList<int[]>();
+			for (int x = xEdgeOffset; x < sourceWidth - xEdgeOffset; x += stride) {
+				for (int y = yEdgeOffset; y < sourceHeight - yEdgeOffset; y += stride) {
+					int targetX = (x - xEdgeOffset) / stride;
+					int targetY = (y - yEdgeOffset) / stride;
+					fields.add(new int[] { targetY * targetWidth + targetX, x, y });
+				}
+			}
+			fieldTarget = new int[fields.size()];
+			centerX = new int[fields.size()];
+			centerY = new int[fields.size()];
+			targetField = new int[target.numberOfNeurons()];
+			Arrays.fill(targetField, -1);
+			for (int f = 0; f < fields.size(); f++) {
+				fieldTarget[f] = fields.get(f)[0];
+				centerX[f] = fields.get(f)[1];
+				centerY[f] = fields.get(f)[2];
+				targetField[fieldTarget[f]] = f;
+			}
+			weights = new double[fields.size() * fieldWidth * fieldHeight];
+		}
+
+		@Override
+		void set(int sourceX, int sourceY, int targetX, int targetY, double weight) {
+			int f = targetField[targetY * targetWidth + targetX];
+			assert f >= 0 : "No receptive field leads to (" + targetX + "," + targetY + ")";
+			int fx = sourceX - centerX[f] + fieldWidth / 2;
+			int fy = sourceY - centerY[f] + fieldHeight / 2;
+			weights[(f * fieldHeight + fy) * fieldWidth + fx] = weight;
+		}
+
+		@Override
+		void transmit(double[] activations, double[] sums) {
+			int xOffset = fieldWidth / 2;
+			int yOffset = fieldHeight / 2;
+			for (int f = 0; f < fieldTarget.length; f++) {
+				double sum = sums[targetStart + fieldTarget[f]];
+				// Rows of the field in order, so sources are added in node order
+				for (int fy = 0; fy < fieldHeight; fy++) {
+					int y = centerY[f] + fy - yOffset;
+					if (y >= 0 && y < sourceHeight) {
+						int row = (f * fieldHeight + fy) * fieldWidth;
+						for (int fx = 0; fx < fieldWidth; fx++) {
+							int x = centerX[f] + fx - xOffset;
+							if (x >= 0 && x < sourceWidth) {
+								sum += activations[sourceStart + y * sourceWidth + x] * weights[row + fx];
+							}
+						}
+					}
+				}
+				sums[targetStart + fieldTarget[f]] = sum;
+			}
+		}
+	}
+
+	// Structure, shared by copies
+	private final int[] substrateStart;
+	private final ActivationFunction[] functions;
+	private final double[] biases;
+	// Outgoing blocks of each substrate, in connectivity order
+	private final WeightBlock[][] outgoing;
+	// Block between each pair of substrates, by source then target index
+	private final WeightBlock[][] between;
+	private final boolean recurrent;
+	// Activation state
+	private final double[] sums;
+	private final double[] activations;
+
+	/**
+	 * Whether a substrate description can be represented by this class, and
+	 * have the same outputs as the TWEANN built from the substrate genotype.
+	 * Substrates must be ordered inputs first and outputs last, as in any
+	 * TWEANN, and each connected pair of substrates must be connected only
+	 * once and not to itself. The final pass on output activation is not
+	 * supported.
+	 *
+	 * @param subs substrates of the network
+	 * @param connections connectivity between the substrates
+	 * @return whether a DenseSubstrateNetwork can be built for these substrates
+	 */
+	public static boolean supports(List<Substrate> subs, List<SubstrateConnectivity> connections) {
+		if (TWEANN.finalPassOnOutputActivation) {
+			return false;
+		}
+		HashMap<String, Integer> index = new HashMap<String, Integer>();
+		for (int i = 0; i < subs.size(); i++) {
+			if (i > 0 && subs.get(i).getStype() < subs.get(i - 1).getStype()) {
+				return false;
+			}
+			index.put(subs.get(i).getName(), i);
+		}
+		boolean[][] connected = new boolean[subs.size()][subs.size()];
+		for (SubstrateConnectivity sc : connections) {
+			Integer source = index.get(sc.sourceSubstrateName);
+			Integer target = index.get(sc.targetSubstrateName);
+			if (source == null || target == null || source.equals(target) || connected[source][target]) {
+				return false;
+			}
+			connected[source][target] = true;
+		}
+		return true;
+	}
+
+	/**
+	 * Network with all weights zero. The weights are then set by adding each
+	 * expressed link with addLink.
+	 *
+	 * @param subs substrates of the network
+	 * @param nodes node genes of all substrate neurons, in substrate order
+	 * @param connections connectivity between the substrates
+	 * @param archetypeIndex archetype to align with for crossover
+	 */
+	public DenseSubstrateNetwork(List<Substrate> subs, List<NodeGene> nodes, List<SubstrateConnectivity> connections, int archetypeIndex) {
+		super(count(nodes, Node.NTYPE_INPUT), count(nodes, Node.NTYPE_OUTPUT), nodes.size(), archetypeIndex);
+		assert supports(subs, connections) : "Substrates cannot be represented by dense blocks: " + subs + "\n" + connections;
+		int numNodes = nodes.size();
+		functions = new ActivationFunction[numNodes];
+		biases = new double[numNodes];
+		for (int i = 0; i < numNodes; i++) {
+			NodeGene ng = nodes.get(i);
+			this.nodes.add(new Node(ng.ftype, ng.ntype, ng.innovation, ng.isFrozen(), ng.getBias()));
+			functions[i] = ActivationFunctions.getFunction(ng.ftype);
+			biases[i] = ng.getBias();
+		}
+
+		substrateStart = new int[subs.size() + 1];
+		HashMap<String, Integer> index = new HashMap<String, Integer>();
+		for (int i = 0; i < subs.size(); i++) {
+			substrateStart[i + 1] = substrateStart[i] + subs.get(i).numberOfNeurons();
+			index.put(subs.get(i).getName(), i);
+		}
+		assert substrateStart[subs.size()] == numNodes : "Substrates have " + substrateStart[subs.size()] + " neurons, but there are " + numNodes + " nodes";
+
+		int stride = Parameters.parameters.integerParameter("stride");
+		boolean zeroPadding = Parameters.parameters.booleanParameter("zeroPadding");
+		between = new WeightBlock[subs.size()][subs.size()];
+		@SuppressWarnings("unchecked")
+		ArrayList<WeightBlock>[] fromSubstrate = new ArrayList[subs.size()];
+		boolean anyRecurrent = false;
+		for (SubstrateConnectivity sc : connections) {
+			int source = index.get(sc.sourceSubstrateName);
+			int target = index.get(sc.targetSubstrateName);
+			// Same choice as in HyperNEATCPPNGenotype
+			WeightBlock block = sc.connectivityType == SubstrateConnectivity.CTYPE_CONVOLUTION && CommonConstants.convolution
+					? new ConvolutionalBlock(subs.get(source), substrateStart[source], subs.get(target), substrateStart[target], sc.receptiveFieldWidth, sc.receptiveFieldHeight, stride, zeroPadding)
+					: new DenseBlock(subs.get(source), substrateStart[source], subs.get(target), substrateStart[target]);
+			between[source][target] = block;
+			if (fromSubstrate[source] == null) {
+				fromSubstrate[source] = new ArrayList<WeightBlock>();
+			}
+			fromSubstrate[source].add(block);
+			anyRecurrent = anyRecurrent || target < source;
+		}
+		outgoing = new WeightBlock[subs.size()][];
+		for (int i = 0; i < subs.size(); i++) {
+			outgoing[i] = fromSubstrate[i] == null ? new WeightBlock[0] : fromSubstrate[i].toArray(new WeightBlock[fromSubstrate[i].size()]);
+		}
+		recurrent = anyRecurrent;
+		sums = Arrays.copyOf(biases, numNodes); // Same as freshly flushed nodes
+		activations = new double[numNodes];
+	}
+
+	/**
+	 * Copy with the same weights, which are shared, but its own activation state.
+	 *
+	 * @param original network to copy
+	 */
+	protected DenseSubstrateNetwork(DenseSubstrateNetwork original) {
+		super(original);
+		substrateStart = original.substrateStart;
+		functions = original.functions;
+		biases = original.biases;
+		outgoing = original.outgoing;
+		between = original.between;
+		recurrent = original.recurrent;
+		sums = Arrays.copyOf(biases, biases.length);
+		activations = new double[biases.length];
+	}
+
+	private static int count(List<NodeGene> nodes, int ntype) {
+		int count = 0;
+		for (NodeGene ng : nodes) {
+			if (ng.ntype == ntype) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Set the weight of a link between substrate neurons. Meant to be used
+	 * only while the network is being constructed.
+	 *
+	 * @param sourceSubstrate index of source substrate in substrate list
+	 * @param sourceX x-coordinate of neuron in source substrate
+	 * @param sourceY y-coordinate of neuron in source substrate
+	 * @param targetSubstrate index of target substrate in substrate list
+	 * @param targetX x-coordinate of neuron in target substrate
+	 * @param targetY y-coordinate of neuron in target substrate
+	 * @param weight synaptic weight
+	 */
+	public void setWeight(int sourceSubstrate, int sourceX, int sourceY, int targetSubstrate, int targetX, int targetY, double weight) {
+		WeightBlock block = between[sourceSubstrate][targetSubstrate];
+		assert block != null : "Substrates " + sourceSubstrate + " and " + targetSubstrate + " are not connected";
+		block.set(sourceX, sourceY, targetX, targetY, weight);
+	}
+
+	/**
+	 * Sink that sets the weight of each link it receives
+	 *
+	 * @return sink for links of the CPPN
+	 */
+	public SubstrateLinkSink linkSink() {
+		return (sourceSubstrate, sourceX, sourceY, targetSubstrate, targetX, targetY, weight, innovation, module) -> setWeight(sourceSubstrate, sourceX, sourceY, targetSubstrate, targetX, targetY, weight);
+	}
+
+	@Override
+	protected void activate(double[] inputs) {
+		for (int i = 0; i < numIn; i++) {
+			assert !Double.isNaN(inputs[i]) : "Input " + i + " is NaN!" + Arrays.toString(inputs);
+			sums[i] += inputs[i];
+		}
+
+		// Activate whole substrates in order, and then transmit through their blocks
+		for (int s = 0; s < outgoing.length; s++) {
+			for (int i = substrateStart[s]; i < substrateStart[s + 1]; i++) {
+				activations[i] = functions[i].f(sums[i]);
+				assert !Double.isNaN(activations[i]) : "Activation of node " + i + " is NaN on " + sums[i];
+				// reset sum to original bias after activation
+				sums[i] = biases[i];
+			}
+			for (WeightBlock block : outgoing[s]) {
+				block.transmit(activations, sums);
+			}
+		}
+
+		// Graphical displays read activations from the Node objects
+		if (canDraw && (panel != null || (CommonConstants.hyperNEAT && CommonConstants.monitorSubstrates))) {
+			for (int i = 0; i < activations.length; i++) {
+				setNodeState(i, sums[i], activations[i]);
+			}
+		}
+	}
+
+	@Override
+	protected double outputActivation(int index) {
+		return activations[index];
+	}
+
+	@Override
+	public void flush() {
+		super.flush();
+		System.arraycopy(biases, 0, sums, 0, biases.length);
+		Arrays.fill(activations, 0.0);
+	}
+
+	@Override
+	public boolean hasRecurrentLinks() {
+		return recurrent;
+	}
+
+	/**
+	 * The nodes have no links, so the batched activation of TWEANN does not
+	 * apply. Each row is processed on its own.
+	 *
+	 * @param inputs sensor readings for the network, one row per evaluation
+	 * @return network outputs for each row
+	 */
+	@Override
+	public double[][] processBatch(double[][] inputs) {
+		double[][] results = new double[inputs.length][];
+		for (int r = 0; r < inputs.length; r++) {
+			flush();
+			results[r] = process(inputs[r]);
+		}
+		return results;
+	}
+
+	@Override
+	public TWEANN copy() {
+		return new DenseSubstrateNetwork(this);
+	}
+}
@@ -0,0 +1,68 @@
+package edu.southwestern.networks.hyperneat;
+
+import edu.southwestern.MMNEAT.MMNEAT;
+import edu.southwestern.evolution.genotypes.HyperNEATCPPNGenotype;
+import edu.southwestern.evolution.genotypes.TWEANNGenotype;
+import edu.southwestern.evolution.genotypes.TWEANNGenotype.LinkGene;
+import edu.southwestern.networks.TWEANN;
+import edu.southwestern.parameters.Parameters;
+
+/**
+ * Measures how the construction of HyperNEAT substrate networks scales with
+ * substrate size. Uses the substrates of HyperNEATSpeedTask (100 by 10 by
+ * default) at several widths, and times building the substrate genotype,
+ * building the phenotype from it, copying the genotype, looking up every
+ * link by its endpoints, and building the DenseSubstrateNetwork directly.
+ * With innovation numbers indexed, the time per link should stay roughly
+ * constant as the substrates grow.
+ *
+ * Not a JUnit test, since timings depend on the machine. Run main directly.
+ */
+public class HyperNEATConstructionBenchmark {
+
+	public static final int[] WIDTHS = new int[] { 25, 50, 100, 200, 400 };
+	public static final int HEIGHT = 10;
+	public static final int REPEATS = 3;
+
+	public static void main(String[] args) {
+		Parameters.initializeParameterCollections(new String[] { "io:false", "netio:false", "recurrency:false", "hyperNEAT:true",
+				"task:edu.southwestern.networks.hyperneat.HyperNEATSpeedTask", "linkExpressionThreshold:-1" });
+		MMNEAT.loadClasses();
+		System.out.println("width\tneurons\tlinks\tgenotype ms\tphenotype ms\tcopy ms\tlookup ms\tphenotype ns/link\tdense ms");
+		for (int width : WIDTHS) {
+			HyperNEATSpeedTask task = new HyperNEATSpeedTask(width, HEIGHT);
+			MMNEAT.task = task;
+			HyperNEATCPPNGenotype cppn = new HyperNEATCPPNGenotype();
+			long genotypeTime = Long.MAX_VALUE, phenotypeTime = Long.MAX_VALUE, copyTime = Long.MAX_VALUE, lookupTime = Long.MAX_VALUE, denseTime = Long.MAX_VALUE;
+			TWEANNGenotype substrate = null;
+			for (int r = 0; r < REPEATS; r++) {
+				long start = System.nanoTime();
+				substrate = cppn.getSubstrateGenotype(task);
+				genotypeTime = Math.min(genotypeTime, System.nanoTime() - start);
+
+				start = System.nanoTime();
+				TWEANN network = substrate.getPhenotype();
+				phenotypeTime = Math.min(phenotypeTime, System.nanoTime() - start);
+				assert network.numInputs() == width * HEIGHT : "Wrong number of inputs: " + network.numInputs();
+
+				start = System.nanoTime();
+				substrate.copy();
+				copyTime = Math.min(copyTime, System.nanoTime() - start);
+
+				start = System.nanoTime();
+				for (LinkGene lg : substrate.links) {
+					LinkGene found = substrate.getLinkBetween(lg.sourceInnovation, lg.targetInnovation);
+					assert found != null : "Link not found: " + lg;
+				}
+				lookupTime = Math.min(lookupTime, System.nanoTime() - start);
+
+				start = System.nanoTime();
+				cppn.getDenseSubstrateNetwork(task);
+				denseTime = Math.min(denseTime, System.nanoTime() - start);
+			}
+			int links = substrate.links.size();
+			System.out.printf("%d\t%d\t%d\t%.1f\t%.1f\t%.1f\t%.1f\t%.0f\t%.1f%n", width, substrate.nodes.size(), links,
+					genotypeTime / 1e6, phenotypeTime / 1e6, copyTime / 1e6, lookupTime / 1e6, (double) phenotypeTime / links, denseTime / 1e6);
+		}
+	}
+}
@@ -22,10 +22,20 @@ public class HyperNEATSpeedTask implements HyperNEATTask, Task, SinglePopulation
 	private Substrate output;
 	
 	public HyperNEATSpeedTask() {
-		input = new Substrate(new Pair<Integer, Integer>(100, 10), Substrate.INPUT_SUBSTRATE, new Triple<Integer, Integer, Integer>(0, 0, 0), "I_0");
-		process = new Substrate(new Pair<Integer, Integer>(100, 10), Substrate.PROCCESS_SUBSTRATE, new Triple<Integer, Integer, Integer>(0, 4, 0), "P_0");
-		output = new Substrate(new Pair<Integer, Integer>(2, 2), Substrate.OUTPUT_SUBSTRATE, new Triple<Integer, Integer, Integer>(0, 8, 0), "O_0");
+		this(100, 10);
+	}
 
+	/**
+	 * Same structure with input and process substrates of a different size,
+	 * used to measure how network construction scales
+	 * 
+	 * @param width width of input and process substrates
+	 * @param height height of input and process substrates
+	 */
+	public HyperNEATSpeedTask(int width, int height) {
+		input = new Substrate(new Pair<Integer, Integer>(width, height), Substrate.INPUT_SUBSTRATE, new Triple<Integer, Integer, Integer>(0, 0, 0), "I_0");
+		process = new Substrate(new Pair<Integer, Integer>(width, height), Substrate.PROCCESS_SUBSTRATE, new Triple<Integer, Integer, Integer>(0, 4, 0), "P_0");
+		output = new Substrate(new Pair<Integer, Integer>(2, 2), Substrate.OUTPUT_SUBSTRATE, new Triple<Integer, Integer, Integer>(0, 8, 0), "O_0");
 	}
 
 
@@ -0,0 +1,26 @@
+package edu.southwestern.networks.hyperneat;
+
+/**
+ * Receives the links that a CPPN expresses between substrate neurons.
+ * HyperNEATCPPNGenotype queries the CPPN for every pair of neurons in
+ * connected substrates and passes each expressed link here, so that the
+ * same queries can produce either link genes or weights of a
+ * DenseSubstrateNetwork.
+ */
+public interface SubstrateLinkSink {
+
+	/**
+	 * Add a link between two substrate neurons
+	 *
+	 * @param sourceSubstrate index of source substrate in substrate list
+	 * @param sourceX x-coordinate of neuron in source substrate
+	 * @param sourceY y-coordinate of neuron in source substrate
+	 * @param targetSubstrate index of target substrate in substrate list
+	 * @param targetX x-coordinate of neuron in target substrate
+	 * @param targetY y-coordinate of neuron in target substrate
+	 * @param weight synaptic weight
+	 * @param innovation innovation number of the link
+	 * @param module CPPN module that produced the weight
+	 */
+	public void addLink(int sourceSubstrate, int sourceX, int sourceY, int targetSubstrate, int targetX, int targetY, double weight, long innovation, int module);
+}
@@ -25,11 +25,13 @@ public class CommonConstants {
 	public static boolean allowRandomGhostReversals;
 	public static boolean checkEachAbsoluteDistanceGhostSort;
 	public static boolean checkEachFlushWalls;
+	public static boolean compiledTWEANN;
 	public static boolean connectToInputs;
 	public static boolean constantTUGGoalIncrements;
 	public static boolean cullCrossovers;
 	public static boolean cullModeMutations;
 	public static boolean deleteLeastUsed;
+	public static boolean denseSubstrateNetworks;
 	public static boolean eliminateImpossibleDirections;
 	public static boolean ensembleModeMutation;
 	public static boolean evalReport;
@@ -55,6 +57,7 @@ public class CommonConstants {
 	public static boolean onlyModeMutationWhenModesSame;
 	public static boolean pacmanFatalTimeLimit;
 	public static boolean pacManSensorCaching;
+	public static boolean parallelSubstrateQueries;
 	public static boolean polynomialWeightMutation;
 	public static boolean probabilisticSelection;
 	public static boolean randomArgMaxTieBreak;
@@ -136,11 +139,13 @@ public class CommonConstants {
 		allowRandomGhostReversals = Parameters.parameters.booleanParameter("allowRandomGhostReversals");
 		checkEachAbsoluteDistanceGhostSort = Parameters.parameters.booleanParameter("checkEachAbsoluteDistanceGhostSort");
 		checkEachFlushWalls = Parameters.parameters.booleanParameter("checkEachFlushWalls");
+		compiledTWEANN = Parameters.parameters.booleanParameter("compiledTWEANN");
 		connectToInputs = Parameters.parameters.booleanParameter("connectToInputs");
 		constantTUGGoalIncrements = Parameters.parameters.booleanParameter("constantTUGGoalIncrements");
 		cullCrossovers = Parameters.parameters.booleanParameter("cullCrossovers");
 		cullModeMutations = Parameters.parameters.booleanParameter("cullModeMutations");
 		deleteLeastUsed = Parameters.parameters.booleanParameter("deleteLeastUsed");
+		denseSubstrateNetworks = Parameters.parameters.booleanParameter("denseSubstrateNetworks");
 		eliminateImpossibleDirections = Parameters.parameters.booleanParameter("eliminateImpossibleDirections");
 		ensembleModeMutation = Parameters.parameters.booleanParameter("ensembleModeMutation");
 		evalReport = Parameters.parameters.booleanParameter("evalReport");
@@ -166,6 +171,7 @@ public class CommonConstants {
 		onlyModeMutationWhenModesSame = Parameters.parameters.booleanParameter("onlyModeMutationWhenModesSame");
 		pacmanFatalTimeLimit = Parameters.parameters.booleanParameter("pacmanFatalTimeLimit");
 		pacManSensorCaching = Parameters.parameters.booleanParameter("pacManSensorCaching");
+		parallelSubstrateQueries = Parameters.parameters.booleanParameter("parallelSubstrateQueries");
 		polynomialWeightMutation = Parameters.parameters.booleanParameter("polynomialWeightMutation");
 		probabilisticSelection = Parameters.parameters.booleanParameter("probabilisticSelection");
 		randomArgMaxTieBreak = Parameters.parameters.booleanParameter("randomArgMaxTieBreak");
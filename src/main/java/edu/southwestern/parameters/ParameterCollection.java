@@ -1,7 +1,9 @@
 package edu.southwestern.parameters;
 
 import java.io.PrintStream;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Map;
 
 /**
  * This class represents a collection of command-line parameters of a particular
@@ -66,6 +68,15 @@ public class ParameterCollection<T> {
 		return options.get(label);
 	}
 
+	/**
+	 * Copy of the current values that later changes to the collection do not affect
+	 * 
+	 * @return unmodifiable map from lookup key to value
+	 */
+	public Map<String, T> copyValues() {
+		return Collections.unmodifiableMap(new HashMap<String, T>(options));
+	}
+
 	/**
 	 * Check whether the parameter collection even contains a parameter with the
 	 * specified label
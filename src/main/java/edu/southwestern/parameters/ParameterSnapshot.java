@@ -0,0 +1,134 @@
+package edu.southwestern.parameters;
+
+import java.util.Map;
+
+/**
+ * Immutable copy of all parameter values at one point in time. Unlike
+ * CommonConstants, a snapshot never changes: when a parameter is set, the
+ * next call to Parameters.snapshot() creates a new snapshot, and code that
+ * still holds the old one keeps a consistent view. All fields are final, so
+ * a snapshot can be handed to other threads without synchronization.
+ *
+ * Parameters that are read on every time step, network activation or
+ * substrate query have their own typed fields, which avoids the HashMap
+ * lookup of each ParameterCollection. Any other parameter can be read with
+ * the same methods as in Parameters.
+ */
+public final class ParameterSnapshot {
+
+	// boolean
+	public final boolean allowMultipleFunctions;
+	public final boolean animateNetwork;
+	public final boolean convolutionCoordinates;
+	public final boolean convolutionDeltas;
+	public final boolean convolutionWeightSharing;
+	public final boolean senseTetrisHolesAsPositive;
+	public final boolean stepByStep;
+	public final boolean watch;
+	public final boolean zeroPadding;
+	// integer
+	public final int doomInputColorVal;
+	public final int doomInputHeight;
+	public final int doomInputPixelSmudge;
+	public final int doomInputStartX;
+	public final int doomInputStartY;
+	public final int doomInputWidth;
+	public final int stride;
+
+	private final Map<String, Boolean> booleanOptions;
+	private final Map<String, Integer> integerOptions;
+	private final Map<String, Long> longOptions;
+	private final Map<String, Double> doubleOptions;
+	private final Map<String, String> stringOptions;
+	@SuppressWarnings("rawtypes")
+	private final Map<String, Class> classOptions;
+
+	/**
+	 * Copy the current values of all parameter collections
+	 *
+	 * @param parameters
+	 *            Parameters to copy
+	 */
+	ParameterSnapshot(Parameters parameters) {
+		booleanOptions = parameters.booleanOptions.copyValues();
+		integerOptions = parameters.integerOptions.copyValues();
+		longOptions = parameters.longOptions.copyValues();
+		doubleOptions = parameters.doubleOptions.copyValues();
+		stringOptions = parameters.stringOptions.copyValues();
+		classOptions = parameters.classOptions.copyValues();
+
+		// boolean
+		allowMultipleFunctions = booleanParameter("allowMultipleFunctions");
+		animateNetwork = booleanParameter("animateNetwork");
+		convolutionCoordinates = booleanParameter("convolutionCoordinates");
+		convolutionDeltas = booleanParameter("convolutionDeltas");
+		convolutionWeightSharing = booleanParameter("convolutionWeightSharing");
+		senseTetrisHolesAsPositive = booleanParameter("senseTetrisHolesAsPositive");
+		stepByStep = booleanParameter("stepByStep");
+		watch = booleanParameter("watch");
+		zeroPadding = booleanParameter("zeroPadding");
+		// integer
+		doomInputColorVal = integerParameter("doomInputColorVal");
+		doomInputHeight = integerParameter("doomInputHeight");
+		doomInputPixelSmudge = integerParameter("doomInputPixelSmudge");
+		doomInputStartX = integerParameter("doomInputStartX");
+		doomInputStartY = integerParameter("doomInputStartY");
+		doomInputWidth = integerParameter("doomInputWidth");
+		stride = integerParameter("stride");
+	}
+
+	/**
+	 * @param label
+	 *            Parameter label
+	 * @return boolean value when the snapshot was taken
+	 */
+	public boolean booleanParameter(String label) {
+		return booleanOptions.get(label);
+	}
+
+	/**
+	 * @param label
+	 *            Parameter label
+	 * @return int value when the snapshot was taken
+	 */
+	public int integerParameter(String label) {
+		return integerOptions.get(label);
+	}
+
+	/**
+	 * @param label
+	 *            Parameter label
+	 * @return long value when the snapshot was taken
+	 */
+	public long longParameter(String label) {
+		return longOptions.get(label);
+	}
+
+	/**
+	 * @param label
+	 *            Parameter label
+	 * @return double value when the snapshot was taken
+	 */
+	public double doubleParameter(String label) {
+		return doubleOptions.get(label);
+	}
+
+	/**
+	 * @param label
+	 *            Parameter label
+	 * @return String value when the snapshot was taken
+	 */
+	public String stringParameter(String label) {
+		return stringOptions.get(label);
+	}
+
+	/**
+	 * @param label
+	 *            Parameter label
+	 * @return Class value when the snapshot was taken
+	 */
+	@SuppressWarnings("rawtypes")
+	public Class classParameter(String label) {
+		return classOptions.get(label);
+	}
+}
@@ -1,5 +1,6 @@
 package edu.southwestern.parameters;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
@@ -20,6 +21,7 @@ import edu.southwestern.evolution.crossover.network.TWEANNCrossover;
 import edu.southwestern.evolution.genotypes.TWEANNGenotype;
 import edu.southwestern.evolution.nsga2.NSGA2;
 import edu.southwestern.evolution.nsga2.bd.characterizations.DomainSpecificCharacterization;
+import edu.southwestern.evolution.nsga2.sorting.EfficientNonDominatedSorting;
 import edu.southwestern.experiment.evolution.LimitedSinglePopulationGenerationalEAExperiment;
 import edu.southwestern.gridTorus.controllers.AggressivePredatorController;
 import edu.southwestern.gridTorus.controllers.PreyFleeClosestPredatorController;
@@ -65,6 +67,10 @@ public class Parameters {
 	// Class can be any type, hence <T> details are inappropriate
 	@SuppressWarnings("rawtypes")
 	public ParameterCollection<Class> classOptions;
+	// Immutable copy of the current values, or null after a change. Changes and
+	// the copying of values both hold the lock of this object, so a change
+	// cannot happen while a snapshot is being built and then be missed by it.
+	private volatile ParameterSnapshot snapshot;
 
 	/**
 	 * Initialize the static Parameters instance using command line parameters.
@@ -95,6 +101,7 @@ public class Parameters {
 			}
 		}
 		CommonConstants.load();
+		parameters.snapshot();
 	}
 
 	/**
@@ -111,6 +118,7 @@ public class Parameters {
 		System.out.println("Loading parameters from " + parameterFile);
 		parameters.loadParameters(parameterFile);
 		CommonConstants.load();
+		parameters.snapshot();
 	}
 
 	/**
@@ -178,18 +186,42 @@ public class Parameters {
 	public void saveParameters(String filename) {
 		// PrintStream will be cleaned up as part of the try
 		try (PrintStream stream = new PrintStream(new FileOutputStream(filename))) {
-			integerOptions.writeLabels(stream);
-			longOptions.writeLabels(stream);
-			booleanOptions.writeLabels(stream);
-			doubleOptions.writeLabels(stream);
-			stringOptions.writeLabels(stream);
-			classOptions.writeLabels(stream);
+			writeParameters(stream);
 		} catch (FileNotFoundException ex) {
 			System.out.println("Could not save parameters");
 			System.exit(1);
 		}
 	}
 
+	/**
+	 * All parameter values as command line arguments of the form label:value,
+	 * which recreate the current settings when passed to
+	 * initializeParameterCollections. Used to configure other processes.
+	 *
+	 * @return Array of command line arguments
+	 */
+	public String[] toArgs() {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (PrintStream stream = new PrintStream(bytes)) {
+			writeParameters(stream);
+		}
+		return bytes.toString().split(System.lineSeparator());
+	}
+
+	/**
+	 * Write each parameter value on its own line as label:value
+	 *
+	 * @param stream Where to write
+	 */
+	private void writeParameters(PrintStream stream) {
+		integerOptions.writeLabels(stream);
+		longOptions.writeLabels(stream);
+		booleanOptions.writeLabels(stream);
+		doubleOptions.writeLabels(stream);
+		stringOptions.writeLabels(stream);
+		classOptions.writeLabels(stream);
+	}
+
 	/**
 	 * Define all parameter labels, default values, and help text
 	 */
@@ -199,6 +231,7 @@ public class Parameters {
 		integerOptions.add("HNProcessWidth", 1, "The number of adjacent processing substrates per layer in a HN substrate");
 		integerOptions.add("bdArchiveSize", 0, "Maximum allowable size of archive for BD");
 		integerOptions.add("boardGameOpeningRandomMoves", 0, "In board games, making the first few moves random makes evals noisy in a useful way");
+		integerOptions.add("boardGameSearchMillis", 0, "If above 0, BoardGamePlayerIterativeDeepening deepens its search until this many milliseconds per move have passed");
 		integerOptions.add("boardGameStaticOpponentRuns", 1, "Number of Board Game matches to play against the Static Opponent Fitness Function");
 		integerOptions.add("breve2DAgentHealth", 50, "Hitpoints of agents in breve 2D domains");
 		integerOptions.add("breve2DTimeLimit", 1000, "Number of time steps allowed in breve 2D domains");
@@ -228,6 +261,10 @@ public class Parameters {
 		integerOptions.add("endTUGGeneration", Integer.MAX_VALUE, "Generation at which TUG will stop being used");
 		integerOptions.add("escapeNodeDepth", 0, "How deep to forward simulate with escape nodes");
 		integerOptions.add("evaluationBudget", 0, "Number of extra evals that UCB1 has to work with");
+		integerOptions.add("farmHeartbeatMillis", 1000, "Interval between heartbeats sent by evaluation farm workers; a worker silent for several intervals is presumed dead");
+		integerOptions.add("farmLocalWorkers", 2, "Number of worker processes the evaluation farm launches on this machine");
+		integerOptions.add("farmMaxRetries", 3, "Number of times the evaluation farm retries an evaluation whose worker failed");
+		integerOptions.add("farmPort", 0, "Port the evaluation farm listens on for workers (0 means any free port)");
 		integerOptions.add("freezeMeltAlternateFrequency", 25, "Generations between freezing/melting pref/policy neurons");
 		integerOptions.add("fsLinksPerOut", 1, "Initial links per output with feature selective nets");
 		integerOptions.add("ftype", ActivationFunctions.FTYPE_TANH, "Integer designation of default activation function for networks");
@@ -276,6 +313,7 @@ public class Parameters {
 		integerOptions.add("maxTrials", Integer.MAX_VALUE, "Max trials allowed by individual when using UCB1 or increasing trials");
 		integerOptions.add("microRTSInputSize", 1, "how many by how many tiles in microRTS should be smudged together into a single input");
 		integerOptions.add("microRTSInputSize", 1, "x by x cells in the game that are condensed into a single input");
+		integerOptions.add("microRTSSearchTrees", 1, "MCTS opponents in enemy sequences search this many trees in parallel (root parallelization)");
 		integerOptions.add("minAnimationLength", 10, "Minimum length of animation in AnimationBreeder");
 		integerOptions.add("minAnimationLength", 10, "Minimum length of animation in AnimationBreeder");
 		integerOptions.add("minEdibleTime", Constants.EDIBLE_TIME, "What edible time is reduced to across generations");
@@ -353,6 +391,7 @@ public class Parameters {
 		booleanOptions.add("averageScoreHistory", false, "Surviving parent fitness averaged across generations");
 		booleanOptions.add("boardGameIncreasingRandomOpens", false, "Number of random moves at the start of each game increases as evolved agents improve");
 		booleanOptions.add("boardGameWinPercentFitness", false, "Is percentage of games won a fitness function for board games?");
+		booleanOptions.add("bitboardBoardGames", false, "Othello stores its board states as bitboards instead of int[][]");
 		booleanOptions.add("botprizeMod", false, "Whether or not to use the 2012 BotPrize mod in UT2004 games");
 		booleanOptions.add("cascadeExpansion", false, "allows for cascade expansion in HyperNEAT, adding layers during evaluation");
 		booleanOptions.add("convolution", false, "HyperNEAT phenotypes allow convolutional structure");
@@ -385,6 +424,8 @@ public class Parameters {
 		booleanOptions.add("logChildScores", false, "For Mu/Lambda approaches that generate separate parent/child populations, indicates whether to log child info");
 		booleanOptions.add("logMutationAndLineage", false, "Whether or not to log information about the mutations and lineage");
 		booleanOptions.add("logPerformance", false, "Whether or not to log performance information in a performance log");
+		booleanOptions.add("logPhaseTiming", false, "Log the time spent in each phase of every generation, and publish it through JMX");
+		booleanOptions.add("logRenderingSpeed", false, "Print the frames per second achieved when rendering CPPN images and animations");
 		booleanOptions.add("logTWEANNData", false, "Whether or not to log TWEANN data");
 		booleanOptions.add("loopAnimationInReverse", false, "loops animations in reverse for 2dAnimationBreeder and 3dAnimationBreeder");
 		booleanOptions.add("moMario", false, "Mario is multiobjective");
@@ -450,6 +491,7 @@ public class Parameters {
 		booleanOptions.add("antiMaxModeUsage", false, "Negative fitness for highest percent mode usage, to encourage multiple mode use");
 		booleanOptions.add("avgGhostsPerPowerPill", false, "Ghost score used is the average eaten per power pill eaten");
 		booleanOptions.add("awardProperPowerPillEating", false, "Fitness for eating power pills when all ghosts are threats");
+		booleanOptions.add("binaryGenotypes", false, "Save genotypes and archetypes in a compact binary format instead of XML where possible");
 		booleanOptions.add("bestTeamScore", true, "Coevolution assigns subcomponent the score of the best team it is in instead of AVG");
 		booleanOptions.add("boardGameOthelloFitness", false, "Enables the OthelloPiece BoardGame Fitness Function to be used as a Selection Function");
 		booleanOptions.add("boardGameSimpleFitness", true, "Enables the SimpleWinLoseDraw BoardGame Fitness Function to be used as a Selection Function");
@@ -460,6 +502,7 @@ public class Parameters {
 		booleanOptions.add("clearTimeScore", false, "Pac-Man rewarded for clearing level fast (single level only)");
 		booleanOptions.add("cluster", true, "Use Pacman ghost cluster sensors");
 		booleanOptions.add("communalDeathMemory", false, "Sense locations of past deaths (requires logging death locations)");
+		booleanOptions.add("compiledTWEANN", false, "TWEANN phenotypes are flattened into primitive arrays for faster activation");
 		booleanOptions.add("computeDirectionalPaths", true, "For pacman, compute/load all directional paths at the start instead of on the fly");
 		booleanOptions.add("connectToInputs", false, "TWEANN links can lead into input nodes");
 		booleanOptions.add("consistentLevelObjective", false, "Level objective for Ms Pac-Man based on statistical mode");
@@ -469,6 +512,7 @@ public class Parameters {
 		booleanOptions.add("cullCrossovers", false, "Cull a litter of different crossover possibilities");
 		booleanOptions.add("cullModeMutations", false, "Cull different weightings of mode mutation synapses");
 		booleanOptions.add("defaultMediator", true, "For certain pacman coevolution experiments, all subnets use the same default mediator");
+		booleanOptions.add("denseSubstrateNetworks", false, "HyperNEAT substrate networks store the links between substrates as blocks of weights instead of individual links");
 		booleanOptions.add("deleteLeastUsed", false, "Delete least-used mode when doing mode deletion");
 		booleanOptions.add("deterministic", false, "Make evaluations deterministic, if supported");
 		booleanOptions.add("dieOnImproperPowerPillEating", false, "Pacman dies if power pill is eaten when less than 4 threat ghosts are present");
@@ -485,6 +529,7 @@ public class Parameters {
 		booleanOptions.add("erasePWTrails", true, "Puddle World trails are erased after each eval");
 		booleanOptions.add("escapeToPowerPills", false, "Power pills are considered escape nodes");
 		booleanOptions.add("evalReport", false, "Write file of details for each eval");
+		booleanOptions.add("evaluationFarm", false, "Evaluate populations of LonerTasks in separate worker processes that connect over sockets");
 		booleanOptions.add("evolveGhosts", false, "Evolve ghosts instead of pacman");
 		booleanOptions.add("evolveNetworkSelector", false, "The evolved controller simply selects between the actions of other controllers");
 		booleanOptions.add("exitLairEdible", false, "Ghosts are edible when exiting lair");
@@ -493,6 +538,7 @@ public class Parameters {
 		booleanOptions.add("farthestDis", true, "Use Pacman farthest distance sensors");
 		booleanOptions.add("finalPassOnOutputActivation", false, "Empty all remaining activation from network output layer");
 		booleanOptions.add("freezeBeforeModeMutation", false, "Existing network is frozen before new mode is added");
+		booleanOptions.add("farmBackupTasks", true, "Idle evaluation farm workers re-run the slowest evaluations in progress, and the first result is used");
 		booleanOptions.add("fs", false, "Use feature selective initial networks instead of fully connected networks");
 		booleanOptions.add("getRemainingPills", false, "CEC 2011 rule that Ms. Pac-Man gets the pills in the level when time runs out");
 		booleanOptions.add("ghostMonitorsSensePills", false, "Individual ghost monitors have redundant pill senses");
@@ -597,13 +643,17 @@ public class Parameters {
 		booleanOptions.add("overwriteGameBots", true, "determines whether the version of gamebots present on the computer should be overwritten");
 		booleanOptions.add("pacManGainsLives", false, "Whether or not Pac-Man can gain new lives");
 		booleanOptions.add("pacManLureFitness", false, "Pacman evolved using luring fitness");
-		booleanOptions.add("pacManSensorCaching", true, "Allows multiple networks to use same sensors without recalculating");
+		booleanOptions.add("pacManSensorCaching", true, "Allows multiple networks to use same sensors without recalculating (cached per game, so safe with parallelEvaluations)");
 		booleanOptions.add("pacManTimeFitness", false, "Fitness based on survival and speedy level completion");
 		booleanOptions.add("pacmanFatalTimeLimit", true, "Pacman dies if level time limit expires");
 		booleanOptions.add("pacmanLevelClearingFitness", false, "Fitness favors finishing levels quickly in Ms. Pac-Man");
 		booleanOptions.add("pacmanMultitaskSeed", false, "Seed genotype for multitask run is combo of two separately evolved networks");
+		booleanOptions.add("parallelBoardGameSearch", false, "BoardGamePlayerIterativeDeepening searches each move at the root in a separate thread");
 		booleanOptions.add("parallelEvaluations", false, "Perform evaluations in parallel");
+		booleanOptions.add("parallelRendering", true, "Render tiles of CPPN images and frames of animations in parallel");
 		booleanOptions.add("parallelSave", false, "Perform file saving in parallel");
+		booleanOptions.add("parallelSubstrateQueries", true, "HyperNEAT CPPN queries for substrate links are evaluated in batches, split across threads");
+		booleanOptions.add("parallelTrials", false, "Trials of one individual in a noisy task are evaluated in parallel, each with its own random stream");
 		booleanOptions.add("penalizeLinks", false, "Number of links is negative fitness");
 		booleanOptions.add("penalizeLinksPerMode", false, "Combined with penalizeLinks, only penalize links per mode");
 		booleanOptions.add("periodicDeltaCoding", false, "Every few generations create child population by delta coding");
@@ -795,6 +845,7 @@ public class Parameters {
 		stringOptions.add("coevolvedNet5", "", "Source of fifth network to combine into a coevolved team");
 		stringOptions.add("combiningCrossoverMapping", "", "File with HashMap from innovations in single mode nets to corresponding duplicate in multitask nets");
 		stringOptions.add("csvInputFile", "data/csv/poly.csv", "CSV file used for supervised model learning");
+		stringOptions.add("farmWorkerJVMOptions", "", "Space separated JVM options (such as -Xmx4g) for evaluation farm worker processes");
 		stringOptions.add("fixedMultitaskPolicy", "", "Path to xml file with multitask network, whose outputs control agent based on evolved preference selectors");
 		stringOptions.add("fixedPreferenceNetwork", "", "Path to xml file with preference network, used on top of evolved multitask networks");
 		stringOptions.add("gameWad", "freedoom2.wad", "The wad file name for the current VizDoom game");
@@ -870,6 +921,7 @@ public class Parameters {
 		classOptions.add("microRTSOpponent", RandomBiasedAI.class, "File containing AI to play against in MicroRTSTask");
 		classOptions.add("microRTSOpponentEvaluationFunction", null, "File containing evaluation function for opponent in MicroRTSTask");
 		classOptions.add("nicheDefinition", null, "Method for getting the niche of an individual for local competition");
+		classOptions.add("nonDominatedSorting", EfficientNonDominatedSorting.class, "Algorithm that sorts populations into Pareto fronts for NSGA2");
 		classOptions.add("noisyTaskStat", Average.class, "Class for the statistic defining agent score after multiple noisy evals");
 		classOptions.add("pacManMediatorClass1", null, "Sensors and actuators for 1st network of multinetwork");
 		classOptions.add("pacManMediatorClass2", null, "Sensors and actuators for 2nd network of multinetwork");
@@ -899,6 +951,28 @@ public class Parameters {
 		classOptions.add("weightPerturber", GaussianGenerator.class, "Random generator used to perturb mutated weights");
 	}
 
+	/**
+	 * Immutable copy of all parameter values, which is only copied again after a
+	 * parameter changes. Code on hot paths reads the typed fields of the
+	 * snapshot instead of looking up labels, and code that keeps a snapshot
+	 * sees the same values for its whole run even if parameters change meanwhile.
+	 *
+	 * @return snapshot of the current parameter values
+	 */
+	public ParameterSnapshot snapshot() {
+		ParameterSnapshot result = snapshot;
+		if (result == null) {
+			synchronized (this) {
+				result = snapshot;
+				if (result == null) {
+					result = new ParameterSnapshot(this);
+					snapshot = result;
+				}
+			}
+		}
+		return result;
+	}
+
 	/**
 	 * Get boolean parameter with given label
 	 *
@@ -975,7 +1049,7 @@ public class Parameters {
 	 * @param terminateOnUnrecognized
 	 *            Whether to exit program on invalid parameter
 	 */
-	private void parseArgs(String[] args, boolean terminateOnUnrecognized) {
+	private synchronized void parseArgs(String[] args, boolean terminateOnUnrecognized) {
 		if (args.length > 0 && args[0].equals("help")) {
 			System.out.println("Paremeter help:");
 			usage(0);
@@ -1027,6 +1101,7 @@ public class Parameters {
 				}
 			}
 		}
+		snapshot = null;
 	}
 
 	/**
@@ -1115,8 +1190,9 @@ public class Parameters {
 	 * @param value
 	 *            new value
 	 */
-	public void setInteger(String label, int value) {
+	public synchronized void setInteger(String label, int value) {
 		this.integerOptions.change(label, value);
+		snapshot = null;
 	}
 
 	/**
@@ -1127,8 +1203,9 @@ public class Parameters {
 	 * @param value
 	 *            new value
 	 */
-	public void setLong(String label, long value) {
+	public synchronized void setLong(String label, long value) {
 		this.longOptions.change(label, value);
+		snapshot = null;
 	}
 
 	/**
@@ -1139,8 +1216,9 @@ public class Parameters {
 	 * @param value
 	 *            new value
 	 */
-	public void setDouble(String label, double value) {
+	public synchronized void setDouble(String label, double value) {
 		this.doubleOptions.change(label, value);
+		snapshot = null;
 	}
 
 	/**
@@ -1151,8 +1229,9 @@ public class Parameters {
 	 * @param value
 	 *            new value
 	 */
-	public void setBoolean(String label, boolean value) {
+	public synchronized void setBoolean(String label, boolean value) {
 		this.booleanOptions.change(label, value);
+		snapshot = null;
 	}
 
 	/**
@@ -1163,8 +1242,9 @@ public class Parameters {
 	 * @param value
 	 *            new value
 	 */
-	public void setString(String label, String value) {
+	public synchronized void setString(String label, String value) {
 		this.stringOptions.change(label, value);
+		snapshot = null;
 	}
 
 	/**
@@ -1176,7 +1256,8 @@ public class Parameters {
 	 *            new value
 	 */
 	@SuppressWarnings("rawtypes")
-	public void setClass(String label, Class value) {
+	public synchronized void setClass(String label, Class value) {
 		this.classOptions.change(label, value);
+		snapshot = null;
 	}
 }
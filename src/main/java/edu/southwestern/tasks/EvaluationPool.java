@@ -0,0 +1,95 @@
+package edu.southwestern.tasks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import edu.southwestern.MMNEAT.MMNEAT;
+import edu.southwestern.evolution.GenerationalEA;
+import edu.southwestern.evolution.genotypes.Genotype;
+import edu.southwestern.parameters.Parameters;
+import edu.southwestern.util.random.RandomStreams;
+
+/**
+ * Work-stealing thread pool shared by all parallel evaluation: individuals
+ * in LonerTask, teams in GroupTask, groups in SinglePopulationCoevolutionTask
+ * and the trials of a single individual in NoisyLonerTask. Because there is
+ * only one pool of "threads" workers, nested parallelism does not create
+ * extra threads. A worker that waits for the trials of its individual runs
+ * other queued evaluations in the meantime.
+ *
+ * Work in the pool must not draw from the shared RandomNumbers.randomGenerator,
+ * since the order in which the workers draw from it depends on scheduling.
+ * Instead, each evaluation gets its own random stream (see evaluationSeed).
+ */
+public class EvaluationPool {
+
+	private static ForkJoinPool pool = null;
+
+	/**
+	 * The shared pool, created on first use. A new pool replaces the old
+	 * one if the threads parameter has changed. The old pool is not shut
+	 * down, since evaluations still in flight may be waiting on it or
+	 * submitting more work to it. Its workers finish that work and then
+	 * exit once idle.
+	 *
+	 * @return pool with the number of workers specified by threads
+	 */
+	public static synchronized ForkJoinPool pool() {
+		int threads = Parameters.parameters.integerParameter("threads");
+		if (pool == null || pool.getParallelism() != threads) {
+			pool = new ForkJoinPool(threads);
+		}
+		return pool;
+	}
+
+	/**
+	 * Seed of the random stream of one evaluation. Depends only on the master
+	 * seed, the current generation and the ids of the evaluated genotypes, never
+	 * on which thread runs the evaluation, so the results of parallel evaluation
+	 * do not depend on the number of threads. Including the generation means
+	 * that parents evaluated again in a later generation see new noise.
+	 *
+	 * @param evaluated Genotypes evaluated together (usually just one)
+	 * @return Seed for this evaluation
+	 */
+	public static long evaluationSeed(Genotype<?>... evaluated) {
+		long[] path = new long[evaluated.length + 1];
+		path[0] = MMNEAT.ea instanceof GenerationalEA ? ((GenerationalEA) MMNEAT.ea).currentGeneration() : 0;
+		for (int i = 0; i < evaluated.length; i++) {
+			path[i + 1] = evaluated[i].getId();
+		}
+		return RandomStreams.seed(path);
+	}
+
+	/**
+	 * Run all calls in the shared pool and wait for the results. When called
+	 * from a worker of the pool, the calls are forked so that the waiting
+	 * worker helps with them instead of blocking.
+	 *
+	 * @param <R> Result type
+	 * @param calls Work to perform
+	 * @return Results in the same order as the calls
+	 */
+	public static <R> ArrayList<R> invokeAll(List<? extends Callable<R>> calls) {
+		ForkJoinPool pool = pool();
+		boolean worker = ForkJoinTask.getPool() == pool;
+		ArrayList<ForkJoinTask<R>> tasks = new ArrayList<ForkJoinTask<R>>(calls.size());
+		for (Callable<R> call : calls) {
+			ForkJoinTask<R> task = ForkJoinTask.adapt(call);
+			if (worker) {
+				task.fork();
+			} else {
+				pool.execute(task);
+			}
+			tasks.add(task);
+		}
+		ArrayList<R> results = new ArrayList<R>(calls.size());
+		for (ForkJoinTask<R> task : tasks) {
+			results.add(task.join());
+		}
+		return results;
+	}
+}
@@ -5,14 +5,20 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
-import wox.serial.Easy;
+import edu.southwestern.util.file.Serialization;
 import edu.southwestern.MMNEAT.MMNEAT;
 import edu.southwestern.evolution.GenerationalEA;
 import edu.southwestern.evolution.genotypes.Genotype;
 import edu.southwestern.evolution.genotypes.TWEANNGenotype;
 import edu.southwestern.evolution.lineage.Offspring;
 import edu.southwestern.evolution.mulambda.CoevolutionMuLambda;
+import edu.southwestern.log.GenerationMetrics;
 import edu.southwestern.log.MMNEATLog;
 import edu.southwestern.networks.TWEANN;
 import edu.southwestern.parameters.CommonConstants;
@@ -23,6 +29,7 @@ import edu.southwestern.tasks.mspacman.CooperativeMsPacManTask;
 import edu.southwestern.util.file.FileUtilities;
 import edu.southwestern.util.graphics.DrawingPanel;
 import edu.southwestern.util.random.RandomNumbers;
+import edu.southwestern.util.random.RandomStreams;
 
 /**
  * Task involving multiple individuals taken from separate populations.
@@ -34,6 +41,45 @@ import edu.southwestern.util.random.RandomNumbers;
  */
 public abstract class GroupTask implements MultiplePopulationTask {
 
+	/**
+	 * Evaluates one team. Teams are independent of each other, so with
+	 * parallelEvaluations several of these run at once. Each team then has
+	 * its own random stream (see EvaluationPool.evaluationSeed). Score
+	 * bookkeeping stays in the calling thread.
+	 */
+	@SuppressWarnings("rawtypes") // because each population can have a different genotype
+	public class TeamEvaluationThread implements Callable<ArrayList<Score>> {
+
+		private final Genotype[] team;
+		private final Random generator;
+
+		/**
+		 * @param team Genotype from each population
+		 * @param generator Random generator for this team, or null to use the shared one
+		 */
+		public TeamEvaluationThread(Genotype[] team, Random generator) {
+			this.team = team;
+			this.generator = generator;
+		}
+
+		/**
+		 * Visualize (conditional) and evaluate the team
+		 *
+		 * @return score of each team member
+		 */
+		@Override
+		public ArrayList<Score> call() {
+			return RandomStreams.withGenerator(generator, () -> {
+				DrawingPanel[] panels = drawNetworks(team);
+				long start = GenerationMetrics.start();
+				ArrayList<Score> scores = evaluate(team);
+				GenerationMetrics.recordEvaluation(start);
+				disposePanels(panels);
+				return scores;
+			});
+		}
+	}
+
 	/**
 	 * Used by blueprint evolution 
 	 */
@@ -55,6 +101,7 @@ public abstract class GroupTask implements MultiplePopulationTask {
         // Logging team data
 	public MMNEATLog teamLog;
 	private final boolean bestTeamScore;
+	private final boolean parallel;
 
 	public GroupTask() {
 		this.teams = Parameters.parameters.integerParameter("teams");
@@ -63,6 +110,19 @@ public abstract class GroupTask implements MultiplePopulationTask {
 		}
 		TWEANN.NETWORK_VIEW_DIM = 800 / 5; // Why these magic numbers? Why not 160?
 		this.bestTeamScore = Parameters.parameters.booleanParameter("bestTeamScore");
+		this.parallel = Parameters.parameters.booleanParameter("parallelEvaluations");
+	}
+
+	/**
+	 * Whether evaluate can be called for several teams at once. Tasks
+	 * that keep the state of the current evaluation in instance variables
+	 * should override this to return false, in which case teams are
+	 * evaluated one at a time even with parallelEvaluations.
+	 *
+	 * @return true if evaluate is thread-safe
+	 */
+	public boolean teamsCanBeEvaluatedInParallel() {
+		return true;
 	}
 
 	/**
@@ -99,7 +159,7 @@ public abstract class GroupTask implements MultiplePopulationTask {
 
 		// Shuffling happens whether the order is new or not
 		for (int i = 0; i < pops; i++) {
-			Collections.shuffle(joinOrder.get(i), RandomNumbers.randomGenerator);
+			Collections.shuffle(joinOrder.get(i), RandomNumbers.generator());
 		}
 
 		return evaluateAllPopulations(populations, joinOrder);
@@ -153,13 +213,33 @@ public abstract class GroupTask implements MultiplePopulationTask {
 			bestScores[j] = new Score[bestObjectives[j].length]; 
 		}
 
+		ArrayList<Future<ArrayList<Score>>> futures = null;
+		ArrayList<Genotype[]> teamList = new ArrayList<Genotype[]>(totalEvals);
 		for (int i = 0; i < totalEvals; i++) {
 			// Create team
-			Genotype[] team = getTeam(populations, teamOrder, i);
-			// Visualize (conditional)
-			DrawingPanel[] panels = drawNetworks(team);
-			// Evaluate
-			ArrayList<Score> scores = evaluate(team);
+			teamList.add(getTeam(populations, teamOrder, i));
+		}
+		if (parallel && teamsCanBeEvaluatedInParallel()) {
+			ExecutorService poolExecutor = EvaluationPool.pool();
+			futures = new ArrayList<Future<ArrayList<Score>>>(totalEvals);
+			for (int i = 0; i < totalEvals; i++) {
+				// The team number distinguishes teams that happen to have the same members
+				Random generator = new Random(RandomStreams.split(EvaluationPool.evaluationSeed(teamList.get(i)), i));
+				futures.add(poolExecutor.submit(new TeamEvaluationThread(teamList.get(i), generator)));
+			}
+		}
+
+		// Results are processed in team order whether or not evaluation is parallel
+		for (int i = 0; i < totalEvals; i++) {
+			Genotype[] team = teamList.get(i);
+			ArrayList<Score> scores = null;
+			try {
+				// Evaluate
+				scores = futures != null ? futures.get(i).get() : new TeamEvaluationThread(team, null).call();
+			} catch (InterruptedException | ExecutionException ex) {
+				ex.printStackTrace();
+				System.exit(1);
+			}
 			// Track the best ms pacman team in each generation
 			if (trackBestPacManScore) {
 				Score firstScoreSet = scores.get(0);
@@ -173,7 +253,6 @@ public abstract class GroupTask implements MultiplePopulationTask {
 			}
 			// Show/track performance (conditional)
 			trackingAndLogging(team, scores);
-			disposePanels(panels);
 			// Distribute scores appropriately
 			addScores(rawScores, teamOrder, i, scores);
 
@@ -213,7 +292,7 @@ public abstract class GroupTask implements MultiplePopulationTask {
 				}
 				// save all of the best objectives for this population
 				for (int j = 0; j < bestObjectives[i].length; j++) {
-					Easy.save(bestGenotypes[i][j], bestDir + "/" + filePrefix + "bestIn" + j + ".xml");
+					Serialization.save(bestGenotypes[i][j], bestDir + "/" + filePrefix + "bestIn" + j + ".xml");
 					FileUtilities.simpleFileWrite(bestDir + "/" + filePrefix + "score" + j + ".txt", bestScores[i][j].toString());
 				}
 			}
@@ -231,7 +310,7 @@ public abstract class GroupTask implements MultiplePopulationTask {
 				bestDir.mkdir();
 			}
 			for (int i = 0; i < bestPacManTeam.length; i++) {
-				Easy.save(bestPacManTeam[i], teamDir + "/teamMember" + i + ".xml");
+				Serialization.save(bestPacManTeam[i], teamDir + "/teamMember" + i + ".xml");
 			}
 			System.out.println("Saved best team with score of " + maxPacManScore);
 			FileUtilities.simpleFileWrite(teamDir + "/score.txt", bestScoreSet.toString());
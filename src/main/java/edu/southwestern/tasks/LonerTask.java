@@ -9,10 +9,10 @@ import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Random;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 import edu.southwestern.MMNEAT.MMNEAT;
@@ -23,15 +23,18 @@ import edu.southwestern.evolution.metaheuristics.Metaheuristic;
 import edu.southwestern.evolution.mulambda.MuLambda;
 import edu.southwestern.evolution.ucb.UCB1Comparator;
 import edu.southwestern.log.EvalLog;
+import edu.southwestern.log.GenerationMetrics;
 import edu.southwestern.parameters.CommonConstants;
 import edu.southwestern.parameters.Parameters;
 import edu.southwestern.scores.Score;
+import edu.southwestern.tasks.farm.EvaluationFarm;
 import edu.southwestern.tasks.mspacman.MsPacManTask;
 import edu.southwestern.util.PopulationUtil;
 import edu.southwestern.util.datastructures.Pair;
 import edu.southwestern.util.file.FileUtilities;
 import edu.southwestern.util.graphics.DrawingPanel;
-import wox.serial.Easy;
+import edu.southwestern.util.random.RandomStreams;
+import edu.southwestern.util.file.Serialization;
 
 /**
  * A task for which an individual's fitness depends only on itself. In other
@@ -47,7 +50,10 @@ public abstract class LonerTask<T> implements SinglePopulationTask<T> {
 	/**
 	 * Since agents are evaluated in isolation, it is possible to parallelize
 	 * their evaluation. This thread class enables parallel evaluation, and
-	 * returns the results of evaluation.
+	 * returns the results of evaluation. With parallelEvaluations, each
+	 * evaluation draws its random numbers from its own stream (see
+	 * EvaluationPool.evaluationSeed), so the results do not depend on the
+	 * number of threads.
 	 *
 	 */
 	public class EvaluationThread implements Callable<Score<T>> {
@@ -73,9 +79,13 @@ public abstract class LonerTask<T> implements SinglePopulationTask<T> {
 		 * @return score the fitness score of the agent of this task based on
 		 *         evaluation
 		 */
-		@SuppressWarnings("unchecked")
 		@Override
 		public Score<T> call() {
+			return RandomStreams.withGenerator(parallel ? new Random(EvaluationPool.evaluationSeed(genotype)) : null, this::evaluateGenotype);
+		}
+
+		@SuppressWarnings("unchecked")
+		private Score<T> evaluateGenotype() {
 			// Before any evaluation happens
 			preEval();
 			//System.out.println("preEval done on gen " + MMNEAT.ea.currentGeneration());
@@ -89,8 +99,10 @@ public abstract class LonerTask<T> implements SinglePopulationTask<T> {
 				MMNEAT.evalReport = new EvalLog("Eval-Net" + genotype.getId());
 			}
 			long before = System.currentTimeMillis();
+			long metricsStart = GenerationMetrics.start();
 			// finds the score based on evaluation of the task's genotype
 			Score<T> score = task.evaluate(genotype);
+			GenerationMetrics.recordEvaluation(metricsStart);
 			long after = System.currentTimeMillis();
 			// if there is an evalReport, save it
 			if (MMNEAT.evalReport != null) {
@@ -128,8 +140,9 @@ public abstract class LonerTask<T> implements SinglePopulationTask<T> {
 		}
 	}
 
-	private final boolean parallel;
-	private final int threads;
+	protected final boolean parallel;
+	// Whether populations are evaluated in the worker processes of the EvaluationFarm
+	protected final boolean distributed;
 
 	/**
 	 * constructor for a LonerTask based upon command line specified evaluation
@@ -137,7 +150,7 @@ public abstract class LonerTask<T> implements SinglePopulationTask<T> {
 	 */
 	public LonerTask() {
 		this.parallel = Parameters.parameters.booleanParameter("parallelEvaluations");
-		this.threads = Parameters.parameters.integerParameter("threads");
+		this.distributed = Parameters.parameters.booleanParameter("evaluationFarm");
 	}
 
 	/**
@@ -171,8 +184,8 @@ public abstract class LonerTask<T> implements SinglePopulationTask<T> {
 		// a list of the fitness scores of the population
 		ArrayList<Score<T>> scores = new ArrayList<Score<T>>(population.size());
 
-		ExecutorService poolExecutor = null;
 		ArrayList<Future<Score<T>>> futures = null;
+		ArrayList<Score<T>> farmScores = null;
 		ArrayList<EvaluationThread> calls = new ArrayList<EvaluationThread>(population.size());
 
 		// get each genotype for the population and add an EvaluationThread for
@@ -183,8 +196,15 @@ public abstract class LonerTask<T> implements SinglePopulationTask<T> {
 			calls.add(callable);
 		}
 
-		if (parallel) {
-			poolExecutor = Executors.newFixedThreadPool(threads);
+		if (distributed) {
+			try {
+				farmScores = EvaluationFarm.farm().evaluateAll(population);
+			} catch (InterruptedException | ExecutionException ex) {
+				ex.printStackTrace();
+				System.exit(1);
+			}
+		} else if (parallel) {
+			ExecutorService poolExecutor = EvaluationPool.pool();
 			futures = new ArrayList<Future<Score<T>>>(population.size());
 			for (int i = 0; i < population.size(); i++) {
 				Future<Score<T>> future = poolExecutor.submit(calls.get(i));
@@ -206,7 +226,7 @@ public abstract class LonerTask<T> implements SinglePopulationTask<T> {
 				&& MMNEAT.ea instanceof MuLambda && ((MuLambda<T>) MMNEAT.ea).evaluatingParents;
 		for (int i = 0; i < population.size(); i++) {
 			try {
-				Score<T> s = parallel ? futures.get(i).get() : calls.get(i).call();
+				Score<T> s = distributed ? farmScores.get(i) : parallel ? futures.get(i).get() : calls.get(i).call();
 				// Specific to Ms Pac-Man
 				if (trackBestPacManScore) {
 					int gameScore = (int) s.otherStats[0]; // Game Score is always first
@@ -244,7 +264,7 @@ public abstract class LonerTask<T> implements SinglePopulationTask<T> {
 			} else {
 				bestDir.mkdir();
 			}
-			Easy.save(bestPacMan, bestPacManDir + "/bestPacMan.xml");
+			Serialization.save(bestPacMan, bestPacManDir + "/bestPacMan.xml");
 			// System.out.println("Saved best Ms. Pac-Man agent with score of "+maxPacManScore);
 			FileUtilities.simpleFileWrite(bestPacManDir + "/score.txt", bestScoreSet.toString());
 		}
@@ -253,10 +273,6 @@ public abstract class LonerTask<T> implements SinglePopulationTask<T> {
 			PopulationUtil.saveBestOfCurrentGen(bestObjectives, bestGenotypes, bestScores);
 		}
 
-		if (parallel) {
-			poolExecutor.shutdown();
-		}
-
 		/**
 		 * If using UCB to decide who to give extra evals to, then by this point
 		 * every member of the population will have been evaluated (preferably
@@ -14,8 +14,13 @@ import edu.southwestern.util.datastructures.ArrayUtil;
 import edu.southwestern.util.datastructures.Pair;
 import edu.southwestern.util.stats.Average;
 import edu.southwestern.util.stats.Statistic;
+import edu.southwestern.util.random.RandomStreams;
 import edu.southwestern.util.stats.StatisticsUtilities;
+
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.Callable;
 
 /**
  * Any task in which multiple trials are needed because evaluations are noisy.
@@ -26,8 +31,47 @@ import java.util.Arrays;
  */
 public abstract class NoisyLonerTask<T> extends LonerTask<T> {
 
+	/**
+	 * One trial of an individual. With parallelTrials, the trials of an
+	 * individual run concurrently in the EvaluationPool. With parallelTrials
+	 * or parallelEvaluations, each trial has its own random stream (see
+	 * RandomStreams) split from the stream of the individual by the trial
+	 * number, so results do not depend on thread scheduling, and are the same
+	 * whether trials run in parallel or not. Each trial also gets its own
+	 * phenotype, since oneEval builds it with getPhenotype.
+	 */
+	public class TrialThread implements Callable<Pair<double[], double[]>> {
+
+		private final Genotype<T> individual;
+		private final int num;
+		private final Random generator;
+		private long evalTime;
+
+		/**
+		 * @param individual Genotype to evaluate
+		 * @param num Trial number
+		 * @param generator Random generator for this trial, or null to use the shared one
+		 */
+		public TrialThread(Genotype<T> individual, int num, Random generator) {
+			this.individual = individual;
+			this.num = num;
+			this.generator = generator;
+		}
+
+		@Override
+		public Pair<double[], double[]> call() {
+			long before = System.currentTimeMillis();
+			try {
+				return RandomStreams.withGenerator(generator, () -> oneEval(individual, num));
+			} finally {
+				evalTime = System.currentTimeMillis() - before;
+			}
+		}
+	}
+
 	public Statistic stat;
 	public final boolean printFitness;
+	private final boolean parallelTrials;
 
 	/**
 	 * constructor for a noisy loner task. Assigns fitness according to
@@ -35,6 +79,7 @@ public abstract class NoisyLonerTask<T> extends LonerTask<T> {
 	 */
 	public NoisyLonerTask() {
 		this.printFitness = Parameters.parameters.booleanParameter("printFitness");
+		this.parallelTrials = Parameters.parameters.booleanParameter("parallelTrials");
 		try {
 			stat = (Statistic) ClassCreation.createObject("noisyTaskStat");
 		} catch (NoSuchMethodException ex) {
@@ -95,13 +140,25 @@ public abstract class NoisyLonerTask<T> extends LonerTask<T> {
 		double[][] otherScores = new double[numTrials][this.numOtherScores()];
 		double evalTimeSum = 0;
 		
+		// Eval reports and watched evaluations only make sense one trial at a time
+		boolean concurrentTrials = parallelTrials && numTrials > 1 && MMNEAT.evalReport == null && !CommonConstants.watch;
+		ArrayList<TrialThread> trials = new ArrayList<TrialThread>(numTrials);
+		for (int i = 0; i < numTrials; i++) {
+			trials.add(new TrialThread(individual, i, parallelTrials || parallel ? new Random(trialSeed(individual, i)) : null));
+		}
+		ArrayList<Pair<double[], double[]>> parallelResults = concurrentTrials ? EvaluationPool.invokeAll(trials) : null;
+		
 		// Carry out all trials and save all scores
 		for (int i = 0; i < numTrials; i++) {
-			long before = System.currentTimeMillis();
-			if (MMNEAT.evalReport != null) {
-				MMNEAT.evalReport.log("Eval " + i + ":");
+			Pair<double[], double[]> result;
+			if (concurrentTrials) {
+				result = parallelResults.get(i);
+			} else {
+				if (MMNEAT.evalReport != null) {
+					MMNEAT.evalReport.log("Eval " + i + ":");
+				}
+				result = trials.get(i).call();
 			}
-			Pair<double[], double[]> result = oneEval(individual, i);
 			if (printFitness) {
 				System.out.println(Arrays.toString(result.t1) + Arrays.toString(result.t2));
 				if (individual instanceof TWEANNGenotype) {
@@ -109,8 +166,7 @@ public abstract class NoisyLonerTask<T> extends LonerTask<T> {
 							"Module Usage: " + Arrays.toString(((TWEANNGenotype) individual).getModuleUsage()));
 				}
 			}
-			long after = System.currentTimeMillis();
-			evalTimeSum += (after - before);
+			evalTimeSum += trials.get(i).evalTime;
 			objectiveScores[i] = result.t1; // fitness scores
 			// ScoreHistory.add(individual.getId(), result.t1);
 			otherScores[i] = result.t2; // other scores
@@ -190,6 +246,18 @@ public abstract class NoisyLonerTask<T> extends LonerTask<T> {
 		return s;
 	}
 
+	/**
+	 * Seed for the random generator of one trial, split from the evaluation
+	 * seed of the individual (see EvaluationPool.evaluationSeed) by the trial number.
+	 *
+	 * @param individual Genotype being evaluated
+	 * @param num Trial number
+	 * @return Seed for this trial
+	 */
+	public static long trialSeed(Genotype<?> individual, int num) {
+		return RandomStreams.split(EvaluationPool.evaluationSeed(individual), num);
+	}
+
 	/**
 	 * Aggregates objective/fitness scores and other scores by averaging them.
 	 * @param objectiveScores fitness scores: affect selection. 
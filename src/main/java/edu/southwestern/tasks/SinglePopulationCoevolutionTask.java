@@ -4,10 +4,16 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import edu.southwestern.MMNEAT.MMNEAT;
 import edu.southwestern.evolution.GenerationalEA;
 import edu.southwestern.evolution.genotypes.Genotype;
+import edu.southwestern.log.GenerationMetrics;
 import edu.southwestern.parameters.CommonConstants;
 import edu.southwestern.parameters.Parameters;
 import edu.southwestern.scores.MultiObjectiveScore;
@@ -16,6 +22,8 @@ import edu.southwestern.util.ClassCreation;
 import edu.southwestern.util.PopulationUtil;
 import edu.southwestern.util.datastructures.Pair;
 import edu.southwestern.util.graphics.DrawingPanel;
+import edu.southwestern.util.random.RandomNumbers;
+import edu.southwestern.util.random.RandomStreams;
 import edu.southwestern.util.stats.Statistic;
 
 /**
@@ -24,14 +32,84 @@ import edu.southwestern.util.stats.Statistic;
  */
 public abstract class SinglePopulationCoevolutionTask<T> implements SinglePopulationTask<T>{
 
+	/**
+	 * Evaluates one group of individuals. Groups are independent of each
+	 * other, so with parallelEvaluations several of these run at once.
+	 * Each group then has its own random stream (see
+	 * EvaluationPool.evaluationSeed). Scores are stored by the calling thread.
+	 */
+	public class GroupEvaluationThread implements Callable<ArrayList<Pair<double[], double[]>>> {
+
+		private final ArrayList<Genotype<T>> group;
+		private final Random generator;
+
+		/**
+		 * @param group Individuals that are evaluated together
+		 * @param generator Random generator for this group, or null to use the shared one
+		 */
+		public GroupEvaluationThread(ArrayList<Genotype<T>> group, Random generator) {
+			this.group = group;
+			this.generator = generator;
+		}
+
+		/**
+		 * Visualize (conditional) and evaluate the group
+		 *
+		 * @return fitness and other scores of each group member
+		 */
+		@Override
+		public ArrayList<Pair<double[], double[]>> call() {
+			return RandomStreams.withGenerator(generator, this::visualizeAndEvaluate);
+		}
+
+		private ArrayList<Pair<double[], double[]>> visualizeAndEvaluate() {
+			preEval();
+			
+			// Call getDrawingPanels here; every Genotype displays its control Network and CPPN panel
+			List<Pair<DrawingPanel, DrawingPanel>> drawPanels = new ArrayList<>(); // Stores the DrawingPanels to be drawn
+			
+			if(CommonConstants.watch){
+				for(Genotype<T> gene : group){ // Creates the DrawingPanels for each Genotype being evaluated
+					Pair<DrawingPanel, DrawingPanel> panels = CommonTaskUtil.getDrawingPanels(gene);
+					drawPanels.add(panels);
+				}
+				
+				// Draw Panels here
+				for(Pair<DrawingPanel, DrawingPanel> panelSet : drawPanels){
+					if(panelSet.t1 != null)
+						panelSet.t1.setVisibility(true);
+					if(panelSet.t2 != null)
+						panelSet.t2.setVisibility(true);
+				}
+			}
+			
+			// Get scores
+			long start = GenerationMetrics.start();
+			ArrayList<Pair<double[], double[]>> result = evaluateGroup(group);
+			GenerationMetrics.recordEvaluation(start);
+			
+			// Clean up all Panels here
+			for(Pair<DrawingPanel, DrawingPanel> panelSet : drawPanels){
+				if(panelSet.t1 != null)
+					panelSet.t1.dispose();
+				if(panelSet.t2 != null)
+					panelSet.t2.dispose();
+			}
+			drawPanels.clear();
+			return result;
+		}
+	}
+
 	private Statistic stat;
 	public final boolean printFitness;
+	private final boolean parallel;
 
 	/**
 	 * sets up the initial parameters and prints the fitness
 	 */
 	public SinglePopulationCoevolutionTask() {
 		this.printFitness = Parameters.parameters.booleanParameter("printFitness");
+		this.parallel = Parameters.parameters.booleanParameter("parallelEvaluations");
 		try {
 			stat = (Statistic) ClassCreation.createObject("noisyTaskStat");
 		} catch (NoSuchMethodException ex) {
@@ -58,6 +136,18 @@ public abstract class SinglePopulationCoevolutionTask<T> implements SinglePopula
 	}
 
 	public abstract int groupSize();
+
+	/**
+	 * Whether evaluateGroup can be called for several groups at once. Tasks
+	 * that keep the state of the current game in instance variables should
+	 * override this to return false, in which case groups are evaluated one
+	 * at a time even with parallelEvaluations.
+	 *
+	 * @return true if evaluateGroup is thread-safe
+	 */
+	public boolean groupsCanBeEvaluatedInParallel() {
+		return true;
+	}
 	
 	@SuppressWarnings("unchecked")
 	@Override
@@ -82,61 +172,61 @@ public abstract class SinglePopulationCoevolutionTask<T> implements SinglePopula
 		Genotype<T>[] bestGenotypes = new Genotype[bestObjectives.length];
 		Score<T>[] bestScores = new Score[bestObjectives.length];
 		
+		// Groups for every trial are formed before any evaluation
+		boolean parallelGroups = parallel && groupsCanBeEvaluatedInParallel();
+		ArrayList<GroupEvaluationThread> calls = new ArrayList<GroupEvaluationThread>();
+		ArrayList<ArrayList<Integer>> members = new ArrayList<ArrayList<Integer>>();
 		for(int i = 0; i < CommonConstants.trials; i++){
-			Collections.shuffle(groupOrder); // Randomize who individuals are grouped with
+			Collections.shuffle(groupOrder, RandomNumbers.generator()); // Randomize who individuals are grouped with
 			for(int j = 0; j < population.size(); j+= groupSize){ // for each group
 				// Assign individuals to the group to be evaluated
 				ArrayList<Genotype<T>> group = new ArrayList<Genotype<T>>(groupSize);
+				ArrayList<Integer> indices = new ArrayList<Integer>(groupSize);
 				for(int k = 0; k < groupSize; k++) {
+					assert j+k < groupOrder.size() : "Should have "+j+"+"+k+" < " + groupOrder.size();
+					indices.add(groupOrder.get(j+k));
 					group.add(population.get(groupOrder.get(j+k)));
 				}
-				preEval();
-				
-				// Call getDrawingPanels here; every Genotype displays its control Network and CPPN panel
-				List<Pair<DrawingPanel, DrawingPanel>> drawPanels = new ArrayList<>(); // Stores the DrawingPanels to be drawn
-				
-				if(CommonConstants.watch){
-					for(Genotype<T> gene : group){ // Creates the DrawingPanels for each Genotype being evaluated
-						Pair<DrawingPanel, DrawingPanel> panels = CommonTaskUtil.getDrawingPanels(gene);
-						drawPanels.add(panels);
-					}
-					
-					// Draw Panels here
-					for(Pair<DrawingPanel, DrawingPanel> panelSet : drawPanels){
-						if(panelSet.t1 != null)
-							panelSet.t1.setVisibility(true);
-						if(panelSet.t2 != null)
-							panelSet.t2.setVisibility(true);
-					}
-				}
-				
-				// Get scores
-				ArrayList<Pair<double[], double[]>> result = evaluateGroup(group);
-				
-				if(printFitness) {
-					for(int q = 0; q < result.size(); q++) {
-						Pair<double[], double[]> pair = result.get(q);
-						System.out.println(group.get(q).getId()+": "+Arrays.toString(pair.t1)+Arrays.toString(pair.t2));
-					}
-					System.out.println("--------------------------");
-				}
-				
-				// Clean up all Panels here
-				for(Pair<DrawingPanel, DrawingPanel> panelSet : drawPanels){
-					if(panelSet.t1 != null)
-						panelSet.t1.dispose();
-					if(panelSet.t2 != null)
-						panelSet.t2.dispose();
-				}
-				drawPanels.clear();
-				
-				// Save scores in the right place
-				for(int k = 0; k < groupSize; k++) {
-					assert j+k < groupOrder.size() : "Should have "+j+"+"+k+" < " + groupOrder.size();
-					assert groupOrder.get(j+k) < allScores.size() : "Should have "+groupOrder.get(j+k)+" < "+allScores.size();
-					assert k < result.size() : "Should have "+k+" < "+result.size();
-					allScores.get(groupOrder.get(j+k)).add(result.get(k));
+				// The group number distinguishes groups that happen to have the same members
+				Random generator = parallelGroups ? new Random(RandomStreams.split(EvaluationPool.evaluationSeed(group.toArray(new Genotype<?>[groupSize])), calls.size())) : null;
+				calls.add(new GroupEvaluationThread(group, generator));
+				members.add(indices);
+			}
+		}
+		
+		ArrayList<Future<ArrayList<Pair<double[], double[]>>>> futures = null;
+		if(parallelGroups) {
+			ExecutorService poolExecutor = EvaluationPool.pool();
+			futures = new ArrayList<Future<ArrayList<Pair<double[], double[]>>>>(calls.size());
+			for(GroupEvaluationThread call : calls) {
+				futures.add(poolExecutor.submit(call));
+			}
+		}
+		
+		// Results are stored in group order whether or not evaluation is parallel
+		for(int g = 0; g < calls.size(); g++) {
+			ArrayList<Pair<double[], double[]>> result = null;
+			try {
+				result = futures != null ? futures.get(g).get() : calls.get(g).call();
+			} catch (InterruptedException | ExecutionException ex) {
+				ex.printStackTrace();
+				System.exit(1);
+			}
+			ArrayList<Integer> indices = members.get(g);
+			
+			if(printFitness) {
+				for(int q = 0; q < result.size(); q++) {
+					Pair<double[], double[]> pair = result.get(q);
+					System.out.println(population.get(indices.get(q)).getId()+": "+Arrays.toString(pair.t1)+Arrays.toString(pair.t2));
 				}
+				System.out.println("--------------------------");
+			}
+			
+			// Save scores in the right place
+			for(int k = 0; k < groupSize; k++) {
+				assert indices.get(k) < allScores.size() : "Should have "+indices.get(k)+" < "+allScores.size();
+				assert k < result.size() : "Should have "+k+" < "+result.size();
+				allScores.get(indices.get(k)).add(result.get(k));
 			}
 		}
 		
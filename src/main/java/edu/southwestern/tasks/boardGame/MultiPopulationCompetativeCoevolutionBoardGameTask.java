@@ -104,6 +104,15 @@ public class MultiPopulationCompetativeCoevolutionBoardGameTask<S extends BoardG
 		// Default to empty
 	}
 
+	/**
+	 * All games are played on the shared board game with the shared players
+	 * and fitness functions, so only one team can be evaluated at a time.
+	 */
+	@Override
+	public boolean teamsCanBeEvaluatedInParallel() {
+		return false;
+	}
+
 	@SuppressWarnings({ "rawtypes", "unchecked" })
 	@Override
 	public ArrayList<Score> evaluate(Genotype[] team) {
@@ -115,6 +115,15 @@ public class SinglePopulationCompetativeCoevolutionBoardGameTask<T extends Netwo
 		return MMNEAT.boardGame.getNumPlayers();
 	}
 
+	/**
+	 * All games are played on the shared MMNEAT.boardGame with the shared players
+	 * and fitness functions, so only one group can be evaluated at a time.
+	 */
+	@Override
+	public boolean groupsCanBeEvaluatedInParallel() {
+		return false;
+	}
+
 	// Used for Hyper-NEAT
 	@Override
 	public int numCPPNInputs() {
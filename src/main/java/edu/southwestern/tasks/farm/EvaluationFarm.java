@@ -0,0 +1,443 @@
+package edu.southwestern.tasks.farm;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.southwestern.MMNEAT.MMNEAT;
+import edu.southwestern.evolution.GenerationalEA;
+import edu.southwestern.evolution.genotypes.Genotype;
+import edu.southwestern.evolution.genotypes.NetworkGenotype;
+import edu.southwestern.evolution.metaheuristics.Metaheuristic;
+import edu.southwestern.log.GenerationMetrics;
+import edu.southwestern.parameters.Parameters;
+import edu.southwestern.scores.MultiObjectiveScore;
+import edu.southwestern.scores.Score;
+import edu.southwestern.tasks.EvaluationPool;
+import edu.southwestern.util.file.Serialization;
+import edu.southwestern.util.random.RandomNumbers;
+
+/**
+ * Evaluates genotypes of a LonerTask in separate worker processes, each with
+ * its own JVM, as an alternative to evaluating them in the threads of the
+ * EvaluationPool. Evaluations that are not thread safe, or that need more
+ * memory than one JVM can give them, can still run in parallel this way.
+ *
+ * The farm listens on localhost for EvaluationWorkers, and launches
+ * farmLocalWorkers of them itself. Each worker receives the parameters of the
+ * run and sets up the same task. Genotypes are sent in compact binary form
+ * where possible (see Serialization.toBytes), along with the seed of the
+ * random stream of their evaluation (see EvaluationPool.evaluationSeed) and
+ * the master seed that other streams, such as those of the trials of a
+ * NoisyLonerTask, are derived from. So the scores do not depend on which
+ * worker evaluates which genotype.
+ *
+ * Work is pulled rather than assigned: whenever a worker finishes a job, it
+ * takes the next one from a shared queue, so fast workers do more of the
+ * work. Once the queue is empty, an idle worker can also take a backup copy
+ * of the job that has been running longest, and whichever copy finishes first
+ * is used (farmBackupTasks). A worker that stops sending heartbeats during an
+ * evaluation, or whose connection fails, is dropped and its job is queued
+ * again, up to farmMaxRetries times.
+ *
+ * Score history (inheritFitness, averageScoreHistory) and metaheuristics are
+ * applied by the farm, which has the state they depend on.
+ */
+public class EvaluationFarm {
+
+	// A worker that sends nothing for this many heartbeat intervals is presumed dead
+	private static final int MISSED_HEARTBEATS = 5;
+	// Time that workers get to exit on their own after being told to shut down
+	private static final long SHUTDOWN_MILLIS = 5000;
+
+	private static EvaluationFarm farm = null;
+
+	/**
+	 * The farm of this run, created and started on first use
+	 *
+	 * @return farm configured by the farm parameters
+	 */
+	public static synchronized EvaluationFarm farm() {
+		if (farm == null) {
+			try {
+				farm = new EvaluationFarm(Parameters.parameters.integerParameter("farmPort"),
+						Parameters.parameters.integerParameter("farmLocalWorkers"),
+						Parameters.parameters.stringParameter("farmWorkerJVMOptions"));
+			} catch (IOException e) {
+				throw new IllegalStateException("Could not start evaluation farm", e);
+			}
+		}
+		return farm;
+	}
+
+	/**
+	 * Shut down the farm and its workers, if the farm was started
+	 */
+	public static synchronized void shutdown() {
+		if (farm != null) {
+			farm.close();
+			farm = null;
+		}
+	}
+
+	/**
+	 * One genotype to evaluate, and the state of its evaluation
+	 */
+	private class Job {
+		final long id;
+		final int generation;
+		final long masterSeed;
+		final long seed;
+		final byte[] genotype;
+		final CompletableFuture<FarmProtocol.Result> result = new CompletableFuture<FarmProtocol.Result>();
+		// Workers currently evaluating the job (more than one with a backup)
+		int runners = 0;
+		int failures = 0;
+		long started;
+
+		Job(long id, int generation, long masterSeed, long seed, byte[] genotype) {
+			this.id = id;
+			this.generation = generation;
+			this.masterSeed = masterSeed;
+			this.seed = seed;
+			this.genotype = genotype;
+		}
+
+		/**
+		 * Record that a worker is taking the job
+		 *
+		 * @return false if the job is already done
+		 */
+		synchronized boolean dispatch() {
+			if (result.isDone()) {
+				return false;
+			}
+			if (runners++ == 0) {
+				started = System.nanoTime();
+			}
+			return true;
+		}
+
+		/**
+		 * Record that a worker has stopped evaluating the job
+		 *
+		 * @param lost Whether the worker stopped without a result
+		 */
+		synchronized void release(boolean lost) {
+			runners--;
+			if (lost && runners == 0 && !result.isDone()) {
+				if (++failures > maxRetries) {
+					result.completeExceptionally(new IOException("Evaluation of job " + id + " failed on " + failures + " workers"));
+				} else {
+					// The front of the queue, so that it is not the last job to finish
+					queue.addFirst(this);
+				}
+			}
+		}
+
+		/**
+		 * @return Time since the first current worker took the job, or -1 if
+		 *         the job should not get a backup copy
+		 */
+		synchronized long backupPriority() {
+			return runners == 1 && !result.isDone() ? System.nanoTime() - started : -1;
+		}
+	}
+
+	/**
+	 * Thread that feeds jobs to one worker and receives the results
+	 */
+	private class WorkerConnection extends Thread {
+		private final Socket socket;
+		private final DataInputStream in;
+		private final DataOutputStream out;
+
+		WorkerConnection(Socket socket) throws IOException {
+			super("Worker " + socket.getRemoteSocketAddress());
+			setDaemon(true);
+			this.socket = socket;
+			socket.setTcpNoDelay(true);
+			in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+			out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+		}
+
+		@Override
+		public void run() {
+			try {
+				if (in.readByte() != FarmProtocol.HELLO || in.readInt() != FarmProtocol.VERSION) {
+					System.out.println(getName() + " does not speak version " + FarmProtocol.VERSION + " of the farm protocol");
+					return;
+				}
+				synchronized (out) {
+					out.writeByte(FarmProtocol.PARAMETERS);
+					FarmProtocol.writeStrings(out, Parameters.parameters.toArgs());
+					out.flush();
+				}
+				// Setting up the task can take a while, so there is no time limit yet
+				if (in.readByte() != FarmProtocol.READY) {
+					throw new IOException("Expected worker to be ready");
+				}
+				socket.setSoTimeout(MISSED_HEARTBEATS * heartbeatMillis);
+				connections.add(this);
+				while (!closed) {
+					Job job = nextJob();
+					if (job != null) {
+						evaluate(job);
+					}
+				}
+			} catch (IOException e) {
+				if (!closed) {
+					System.out.println("Lost evaluation farm worker " + getName() + ": " + e);
+				}
+			} catch (InterruptedException e) {
+				// Farm is closing
+			} finally {
+				connections.remove(this);
+				try {
+					socket.close();
+				} catch (IOException e) {
+					// Already closed
+				}
+			}
+		}
+
+		/**
+		 * Send a job to the worker and wait for its result
+		 *
+		 * @param job Job that was dispatched to this worker
+		 * @throws IOException if the worker is lost
+		 */
+		private void evaluate(Job job) throws IOException {
+			boolean lost = true;
+			try {
+				synchronized (out) {
+					out.writeByte(FarmProtocol.JOB);
+					out.writeLong(job.id);
+					out.writeInt(job.generation);
+					out.writeLong(job.masterSeed);
+					out.writeLong(job.seed);
+					FarmProtocol.writeBytes(out, job.genotype);
+					out.flush();
+				}
+				byte type;
+				while ((type = in.readByte()) == FarmProtocol.HEARTBEAT) {
+					// Still working
+				}
+				if (in.readLong() != job.id) {
+					throw new IOException("Worker returned result for wrong job");
+				}
+				if (type == FarmProtocol.RESULT) {
+					// A backup copy may already have finished, in which case this result is ignored
+					job.result.complete(FarmProtocol.readResult(in));
+				} else if (type == FarmProtocol.FAILURE) {
+					// Evaluation is deterministic, so trying again would fail again
+					job.result.completeExceptionally(new IllegalStateException("Evaluation failed on " + getName() + ":\n" + in.readUTF()));
+				} else {
+					throw new IOException("Unexpected message " + type + " from worker");
+				}
+				lost = false;
+			} catch (SocketTimeoutException e) {
+				throw new IOException("No heartbeat for " + (MISSED_HEARTBEATS * heartbeatMillis) + "ms", e);
+			} finally {
+				job.release(lost);
+			}
+		}
+
+		/**
+		 * Tell the worker to exit and close the connection
+		 */
+		void shutdown() {
+			try {
+				synchronized (out) {
+					out.writeByte(FarmProtocol.SHUTDOWN);
+					out.flush();
+				}
+				socket.close();
+			} catch (IOException e) {
+				// Worker is gone already
+			}
+		}
+	}
+
+	private final ServerSocket server;
+	private final LocalWorkerLauncher launcher;
+	private final int heartbeatMillis;
+	private final int maxRetries;
+	private final boolean backupTasks;
+	// Jobs not yet taken by any worker
+	private final LinkedBlockingDeque<Job> queue = new LinkedBlockingDeque<Job>();
+	// Jobs without a result, whether queued or running
+	private final Set<Job> pending = ConcurrentHashMap.newKeySet();
+	private final Set<WorkerConnection> connections = ConcurrentHashMap.newKeySet();
+	private final AtomicLong nextJobId = new AtomicLong();
+	private volatile boolean closed = false;
+
+	/**
+	 * Start listening for workers and launch the local ones
+	 *
+	 * @param port Port to listen on, or 0 for any free port
+	 * @param localWorkers Number of worker processes to launch
+	 * @param jvmOptions Options for the JVMs of the launched workers
+	 * @throws IOException if the port cannot be opened or the workers cannot be launched
+	 */
+	EvaluationFarm(int port, int localWorkers, String jvmOptions) throws IOException {
+		heartbeatMillis = Parameters.parameters.integerParameter("farmHeartbeatMillis");
+		maxRetries = Parameters.parameters.integerParameter("farmMaxRetries");
+		backupTasks = Parameters.parameters.booleanParameter("farmBackupTasks");
+		server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+		System.out.println("Evaluation farm listening on port " + server.getLocalPort());
+		Thread acceptor = new Thread(this::accept, "Evaluation farm");
+		acceptor.setDaemon(true);
+		acceptor.start();
+		launcher = new LocalWorkerLauncher(localWorkers, server.getLocalPort(), jvmOptions);
+	}
+
+	/**
+	 * @return Port that the farm listens on for workers
+	 */
+	int port() {
+		return server.getLocalPort();
+	}
+
+	/**
+	 * Start a connection thread for each worker that connects, until the farm closes
+	 */
+	private void accept() {
+		while (!closed) {
+			try {
+				new WorkerConnection(server.accept()).start();
+			} catch (IOException e) {
+				if (!closed) {
+					System.out.println("Evaluation farm could not accept worker: " + e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Take the next job for an idle worker: the next queued job, or else a
+	 * backup copy of the job that has been running longest.
+	 *
+	 * @return Job that was dispatched, or null if there is nothing to do right now
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	private Job nextJob() throws InterruptedException {
+		Job job = queue.poll(heartbeatMillis, TimeUnit.MILLISECONDS);
+		if (job == null && backupTasks) {
+			// Only one backup is chosen at a time, so that two idle workers do not copy the same job
+			synchronized (this) {
+				long longest = -1;
+				for (Job candidate : pending) {
+					long priority = candidate.backupPriority();
+					if (priority > longest) {
+						longest = priority;
+						job = candidate;
+					}
+				}
+				return job != null && job.dispatch() ? job : null;
+			}
+		}
+		return job != null && job.dispatch() ? job : null;
+	}
+
+	/**
+	 * Evaluate a population in the workers of the farm. Scores are returned as
+	 * LonerTask would have produced them, after metaheuristics have been applied.
+	 *
+	 * @param <T> Phenotype of the genotypes
+	 * @param population Genotypes to evaluate
+	 * @return Scores in the order of the population
+	 * @throws ExecutionException if an evaluation failed or all workers are gone
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public <T> ArrayList<Score<T>> evaluateAll(List<Genotype<T>> population) throws ExecutionException, InterruptedException {
+		int generation = MMNEAT.ea instanceof GenerationalEA ? ((GenerationalEA) MMNEAT.ea).currentGeneration() : 0;
+		ArrayList<Job> jobs = new ArrayList<Job>(population.size());
+		for (Genotype<T> genotype : population) {
+			Job job = new Job(nextJobId.incrementAndGet(), generation, RandomNumbers.masterSeed(), EvaluationPool.evaluationSeed(genotype), Serialization.toBytes(genotype));
+			job.result.whenComplete((result, failure) -> pending.remove(job));
+			pending.add(job);
+			jobs.add(job);
+		}
+		queue.addAll(jobs);
+
+		ArrayList<Score<T>> scores = new ArrayList<Score<T>>(population.size());
+		for (int i = 0; i < jobs.size(); i++) {
+			scores.add(score(population.get(i), await(jobs.get(i))));
+		}
+		return scores;
+	}
+
+	/**
+	 * Wait for the result of a job, failing if no worker is left to produce it.
+	 * Workers started by hand may connect at any time, so the farm only gives
+	 * up if it launched workers and all of them have exited.
+	 */
+	private FarmProtocol.Result await(Job job) throws ExecutionException, InterruptedException {
+		while (true) {
+			try {
+				return job.result.get(heartbeatMillis, TimeUnit.MILLISECONDS);
+			} catch (TimeoutException e) {
+				if (launcher.size() > 0 && connections.isEmpty() && !launcher.isAlive()) {
+					throw new ExecutionException(new IOException("All evaluation farm workers have exited. Their output is in " + launcher.logFile(0).getParent()));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reconstruct the Score of an evaluation performed by a worker
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private <T> Score<T> score(Genotype<T> genotype, FarmProtocol.Result result) {
+		// Evaluation may record module usage in the genotype, which the worker only changed in its copy
+		if (result.moduleUsage != null && genotype instanceof NetworkGenotype) {
+			((NetworkGenotype) genotype).setModuleUsage(result.moduleUsage);
+		}
+		Score<T> score = new MultiObjectiveScore<T>(genotype, result.scores, result.behaviorVector, result.otherStats);
+		score.evals = result.evals;
+		score.totalEvalTime = result.totalEvalTime;
+		score.averageEvalTime = result.averageEvalTime;
+		GenerationMetrics.recordEvaluationTime((long) (result.totalEvalTime * 1000000));
+		// As in LonerTask after each evaluation
+		for (Metaheuristic<T> m : MMNEAT.metaheuristics) {
+			m.augmentScore(score);
+		}
+		return score;
+	}
+
+	/**
+	 * Tell all workers to shut down, stop listening, and fail any jobs still waiting
+	 */
+	void close() {
+		closed = true;
+		for (WorkerConnection connection : connections) {
+			connection.shutdown();
+		}
+		try {
+			server.close();
+		} catch (IOException e) {
+			// Already closed
+		}
+		launcher.destroy(SHUTDOWN_MILLIS);
+		for (Job job : pending) {
+			job.result.completeExceptionally(new IOException("Evaluation farm was shut down"));
+		}
+	}
+}
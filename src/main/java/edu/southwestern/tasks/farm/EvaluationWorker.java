@@ -0,0 +1,206 @@
+package edu.southwestern.tasks.farm;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import edu.southwestern.MMNEAT.MMNEAT;
+import edu.southwestern.evolution.genotypes.Genotype;
+import edu.southwestern.evolution.genotypes.NetworkGenotype;
+import edu.southwestern.evolution.mulambda.MuLambda;
+import edu.southwestern.parameters.Parameters;
+import edu.southwestern.scores.Score;
+import edu.southwestern.tasks.LonerTask;
+import edu.southwestern.util.file.Serialization;
+import edu.southwestern.util.random.RandomNumbers;
+import edu.southwestern.util.random.RandomStreams;
+
+/**
+ * Process that evaluates genotypes for an EvaluationFarm. The worker connects
+ * to the farm, receives the parameters of the run, sets up the same task, and
+ * then evaluates one genotype at a time until told to shut down or until the
+ * connection is lost. While evaluating, it sends heartbeats so that the farm
+ * can tell a slow evaluation from a dead worker.
+ *
+ * Workers are normally launched by the farm, but can also be started by hand:
+ * java -cp (classpath) edu.southwestern.tasks.farm.EvaluationWorker host port
+ */
+public class EvaluationWorker {
+
+	/**
+	 * Settings that always apply in a worker, whatever the farm uses. Workers
+	 * write no files, evaluate one genotype at a time, show nothing, and leave
+	 * score history to the farm, which has the scores of previous generations.
+	 */
+	static final String[] WORKER_OVERRIDES = new String[] { "io:false", "netio:false", "parallelEvaluations:false", "evaluationFarm:false", "logPhaseTiming:false", "watch:false", "showNetworks:false", "evalReport:false", "inheritFitness:false", "averageScoreHistory:false" };
+
+	// Characters of a failure's stack trace to send, which keeps its encoding within the limit of writeUTF
+	private static final int MAX_FAILURE_LENGTH = 20000;
+
+	private final DataInputStream in;
+	private final DataOutputStream out;
+	// Whether a job is being evaluated, so that heartbeats should be sent
+	private volatile boolean busy = false;
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			System.out.println("Usage: EvaluationWorker host port");
+			System.exit(1);
+		}
+		try (Socket socket = new Socket(args[0], Integer.parseInt(args[1]))) {
+			socket.setTcpNoDelay(true);
+			DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+			new EvaluationWorker(in, out).run();
+		} catch (EOFException e) {
+			System.out.println("Evaluation farm closed the connection");
+		}
+		// Some tasks leave non-daemon threads running
+		System.exit(0);
+	}
+
+	EvaluationWorker(DataInputStream in, DataOutputStream out) {
+		this.in = in;
+		this.out = out;
+	}
+
+	/**
+	 * Set up the task from the farm's parameters, then evaluate jobs until shut down
+	 *
+	 * @throws IOException if the connection fails
+	 */
+	@SuppressWarnings("rawtypes")
+	void run() throws IOException {
+		synchronized (out) {
+			out.writeByte(FarmProtocol.HELLO);
+			out.writeInt(FarmProtocol.VERSION);
+			out.flush();
+		}
+		if (in.readByte() != FarmProtocol.PARAMETERS) {
+			throw new IOException("Expected parameters from evaluation farm");
+		}
+		LonerTask task = setUpTask(FarmProtocol.readStrings(in));
+
+		int heartbeatMillis = Parameters.parameters.integerParameter("farmHeartbeatMillis");
+		ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "Heartbeat");
+			t.setDaemon(true);
+			return t;
+		});
+		heartbeats.scheduleAtFixedRate(this::heartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+		synchronized (out) {
+			out.writeByte(FarmProtocol.READY);
+			out.flush();
+		}
+		try {
+			while (true) {
+				byte type = in.readByte();
+				if (type == FarmProtocol.SHUTDOWN) {
+					return;
+				} else if (type != FarmProtocol.JOB) {
+					throw new IOException("Unexpected message " + type + " from evaluation farm");
+				}
+				long id = in.readLong();
+				int generation = in.readInt();
+				long masterSeed = in.readLong();
+				long seed = in.readLong();
+				byte[] encoded = FarmProtocol.readBytes(in);
+				busy = true;
+				FarmProtocol.Result result = null;
+				String failure = null;
+				try {
+					// Tasks that change with the generation need to see the generation of the farm
+					if (MMNEAT.ea instanceof MuLambda) {
+						((MuLambda) MMNEAT.ea).generation = generation;
+					}
+					// Streams derived inside the evaluation, such as the trial streams of
+					// a NoisyLonerTask, must come from the master seed of the farm
+					RandomNumbers.setMasterSeed(masterSeed);
+					result = evaluate(task, (Genotype) Serialization.fromBytes(encoded), seed);
+				} catch (IOException | RuntimeException | AssertionError e) {
+					StringWriter trace = new StringWriter();
+					e.printStackTrace(new PrintWriter(trace));
+					System.out.println(trace);
+					failure = trace.toString();
+				}
+				synchronized (out) {
+					busy = false;
+					if (result != null) {
+						out.writeByte(FarmProtocol.RESULT);
+						out.writeLong(id);
+						FarmProtocol.writeResult(out, result);
+					} else {
+						out.writeByte(FarmProtocol.FAILURE);
+						out.writeLong(id);
+						out.writeUTF(failure.length() > MAX_FAILURE_LENGTH ? failure.substring(0, MAX_FAILURE_LENGTH) : failure);
+					}
+					out.flush();
+				}
+			}
+		} finally {
+			heartbeats.shutdownNow();
+		}
+	}
+
+	/**
+	 * Set up the task of the farm, with the settings that always apply in a worker
+	 *
+	 * @param farmArgs Command line arguments of the farm
+	 * @return Task to evaluate jobs with
+	 */
+	@SuppressWarnings("rawtypes")
+	LonerTask setUpTask(String[] farmArgs) {
+		String[] args = Arrays.copyOf(farmArgs, farmArgs.length + WORKER_OVERRIDES.length);
+		System.arraycopy(WORKER_OVERRIDES, 0, args, farmArgs.length, WORKER_OVERRIDES.length);
+		Parameters.initializeParameterCollections(args);
+		MMNEAT.loadClasses();
+		if (!(MMNEAT.task instanceof LonerTask)) {
+			throw new IllegalStateException("Evaluation farm workers only support LonerTasks, not " + MMNEAT.task);
+		}
+		return (LonerTask) MMNEAT.task;
+	}
+
+	/**
+	 * Evaluate a genotype as LonerTask does, drawing random numbers from the
+	 * stream of the given seed. The metaheuristics that LonerTask applies after
+	 * evaluation are applied by the farm instead.
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private static FarmProtocol.Result evaluate(LonerTask task, Genotype genotype, long seed) {
+		return RandomStreams.withGenerator(new Random(seed), () -> {
+			task.preEval();
+			long before = System.currentTimeMillis();
+			Score score = task.evaluate(genotype);
+			long after = System.currentTimeMillis();
+			int[] moduleUsage = genotype instanceof NetworkGenotype ? ((NetworkGenotype) genotype).getModuleUsage() : null;
+			return new FarmProtocol.Result(score.scores, score.otherStats, score.behaviorVector, score.evals, after - before, score.averageEvalTime, moduleUsage);
+		});
+	}
+
+	/**
+	 * Tell the farm that the current evaluation is still in progress
+	 */
+	private void heartbeat() {
+		synchronized (out) {
+			if (busy) {
+				try {
+					out.writeByte(FarmProtocol.HEARTBEAT);
+					out.flush();
+				} catch (IOException e) {
+					// The main thread finds out when it sends its result
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,158 @@
+package edu.southwestern.tasks.farm;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * Messages exchanged between the EvaluationFarm and its EvaluationWorkers.
+ * Each message is a type byte followed by its contents:
+ *
+ * Worker to farm: HELLO (protocol version), READY once the worker has
+ * initialized its task, HEARTBEAT periodically while evaluating, and RESULT
+ * or FAILURE for each job.
+ *
+ * Farm to worker: PARAMETERS (command line arguments), JOB (id, generation,
+ * master seed, seed and encoded genotype) and SHUTDOWN.
+ */
+final class FarmProtocol {
+
+	// Must match between farm and worker, so increase on any change to the messages
+	static final int VERSION = 2;
+
+	static final byte HELLO = 1;
+	static final byte PARAMETERS = 2;
+	static final byte READY = 3;
+	static final byte JOB = 4;
+	static final byte HEARTBEAT = 5;
+	static final byte RESULT = 6;
+	static final byte FAILURE = 7;
+	static final byte SHUTDOWN = 8;
+
+	/**
+	 * Everything about a Score that is produced by evaluation, along with the
+	 * module usage that evaluation may record in the genotype.
+	 */
+	static final class Result {
+		final double[] scores;
+		final double[] otherStats;
+		final ArrayList<Double> behaviorVector;
+		final int evals;
+		final double totalEvalTime;
+		final double averageEvalTime;
+		final int[] moduleUsage;
+
+		Result(double[] scores, double[] otherStats, ArrayList<Double> behaviorVector, int evals, double totalEvalTime, double averageEvalTime, int[] moduleUsage) {
+			this.scores = scores;
+			this.otherStats = otherStats;
+			this.behaviorVector = behaviorVector;
+			this.evals = evals;
+			this.totalEvalTime = totalEvalTime;
+			this.averageEvalTime = averageEvalTime;
+			this.moduleUsage = moduleUsage;
+		}
+	}
+
+	static void writeStrings(DataOutputStream out, String[] strings) throws IOException {
+		out.writeInt(strings.length);
+		for (String s : strings) {
+			out.writeUTF(s);
+		}
+	}
+
+	static String[] readStrings(DataInputStream in) throws IOException {
+		String[] strings = new String[in.readInt()];
+		for (int i = 0; i < strings.length; i++) {
+			strings[i] = in.readUTF();
+		}
+		return strings;
+	}
+
+	static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	static byte[] readBytes(DataInputStream in) throws IOException {
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return bytes;
+	}
+
+	static void writeResult(DataOutputStream out, Result result) throws IOException {
+		writeDoubles(out, result.scores);
+		writeDoubles(out, result.otherStats);
+		if (result.behaviorVector == null) {
+			out.writeInt(-1);
+		} else {
+			out.writeInt(result.behaviorVector.size());
+			for (Double d : result.behaviorVector) {
+				out.writeDouble(d);
+			}
+		}
+		out.writeInt(result.evals);
+		out.writeDouble(result.totalEvalTime);
+		out.writeDouble(result.averageEvalTime);
+		if (result.moduleUsage == null) {
+			out.writeInt(-1);
+		} else {
+			out.writeInt(result.moduleUsage.length);
+			for (int usage : result.moduleUsage) {
+				out.writeInt(usage);
+			}
+		}
+	}
+
+	static Result readResult(DataInputStream in) throws IOException {
+		double[] scores = readDoubles(in);
+		double[] otherStats = readDoubles(in);
+		ArrayList<Double> behaviorVector = null;
+		int behaviors = in.readInt();
+		if (behaviors >= 0) {
+			behaviorVector = new ArrayList<Double>(behaviors);
+			for (int i = 0; i < behaviors; i++) {
+				behaviorVector.add(in.readDouble());
+			}
+		}
+		int evals = in.readInt();
+		double totalEvalTime = in.readDouble();
+		double averageEvalTime = in.readDouble();
+		int[] moduleUsage = null;
+		int modules = in.readInt();
+		if (modules >= 0) {
+			moduleUsage = new int[modules];
+			for (int i = 0; i < modules; i++) {
+				moduleUsage[i] = in.readInt();
+			}
+		}
+		return new Result(scores, otherStats, behaviorVector, evals, totalEvalTime, averageEvalTime, moduleUsage);
+	}
+
+	private static void writeDoubles(DataOutputStream out, double[] values) throws IOException {
+		if (values == null) {
+			out.writeInt(-1);
+			return;
+		}
+		out.writeInt(values.length);
+		for (double d : values) {
+			out.writeDouble(d);
+		}
+	}
+
+	private static double[] readDoubles(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0) {
+			return null;
+		}
+		double[] values = new double[length];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = in.readDouble();
+		}
+		return values;
+	}
+
+	private FarmProtocol() {
+		// Only static members
+	}
+}
@@ -0,0 +1,93 @@
+package edu.southwestern.tasks.farm;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ProcessBuilder.Redirect;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts EvaluationWorker processes on this machine, each in its own JVM
+ * with the same classpath as the current one. The output of each worker
+ * goes to its own log file in the temporary directory.
+ */
+class LocalWorkerLauncher {
+
+	private final ArrayList<Process> processes = new ArrayList<Process>();
+	private final int port;
+
+	/**
+	 * Launch the workers, which connect to the farm on their own.
+	 *
+	 * @param workers Number of processes to start
+	 * @param port Port of the farm on localhost
+	 * @param jvmOptions Space separated options for each JVM, such as -Xmx4g
+	 * @throws IOException if a process could not be started
+	 */
+	LocalWorkerLauncher(int workers, int port, String jvmOptions) throws IOException {
+		this.port = port;
+		ArrayList<String> command = new ArrayList<String>();
+		command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+		if (!jvmOptions.trim().isEmpty()) {
+			for (String option : jvmOptions.trim().split("\\s+")) {
+				command.add(option);
+			}
+		}
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add(EvaluationWorker.class.getName());
+		command.add("localhost");
+		command.add(Integer.toString(port));
+		for (int i = 0; i < workers; i++) {
+			ProcessBuilder builder = new ProcessBuilder(command);
+			builder.redirectErrorStream(true);
+			builder.redirectOutput(Redirect.to(logFile(i)));
+			processes.add(builder.start());
+		}
+		System.out.println("Launched " + workers + " evaluation farm workers, logging to " + logFile(0).getParent());
+	}
+
+	/**
+	 * @param worker Index of a launched worker
+	 * @return File that the worker's output is written to
+	 */
+	File logFile(int worker) {
+		return new File(System.getProperty("java.io.tmpdir"), "mmneat-worker-" + port + "-" + worker + ".log");
+	}
+
+	/**
+	 * @return Number of processes launched
+	 */
+	int size() {
+		return processes.size();
+	}
+
+	/**
+	 * @return Whether any of the launched processes is still running
+	 */
+	boolean isAlive() {
+		for (Process p : processes) {
+			if (p.isAlive()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Give the processes some time to exit on their own, then kill any that remain
+	 *
+	 * @param millis Time to wait for each process
+	 */
+	void destroy(long millis) {
+		for (Process p : processes) {
+			try {
+				if (!p.waitFor(millis, TimeUnit.MILLISECONDS)) {
+					p.destroyForcibly();
+				}
+			} catch (InterruptedException e) {
+				p.destroyForcibly();
+			}
+		}
+	}
+}
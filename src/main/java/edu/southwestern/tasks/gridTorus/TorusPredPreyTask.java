@@ -106,7 +106,8 @@ public abstract class TorusPredPreyTask<T extends Network> extends NoisyLonerTas
 	// list of other scores, which don't effect evolution
 	public ArrayList<ArrayList<GridTorusObjective<T>>> otherScores = new ArrayList<ArrayList<GridTorusObjective<T>>>();
 
-	private TorusWorldExec exec;
+	// Each evaluating thread runs its own game, which controllers query during evaluation
+	private final ThreadLocal<TorusWorldExec> exec = new ThreadLocal<TorusWorldExec>();
 
 	/**
 	 * ONLY FOR COMPETITIVE COEVOLUTION
@@ -218,7 +219,8 @@ public abstract class TorusPredPreyTask<T extends Network> extends NoisyLonerTas
 	}
 
 	public TorusPredPreyGame runEval(TorusPredPreyController[] predAgents, TorusPredPreyController[] preyAgents) {
-		exec = new TorusWorldExec();
+		TorusWorldExec exec = new TorusWorldExec();
+		this.exec.set(exec);
 		TorusPredPreyGame game;
 		if (CommonConstants.watch) {
 			game = exec.runGameTimed(predAgents, preyAgents, true);
@@ -229,14 +231,27 @@ public abstract class TorusPredPreyTask<T extends Network> extends NoisyLonerTas
 		// dispose of all panels inside of agents/controllers
 		if (CommonConstants.monitorInputs) {
 			// Dispose of existing panels
-			for (int i = 0; i < evolved.length; i++) {
-				((NNTorusPredPreyController) (evolved)[i]).networkInputs.dispose();
-			}
+			disposeInputPanels(predAgents);
+			disposeInputPanels(preyAgents);
 		}
 
 		return game;
 	}
 
+	/**
+	 * Dispose of the input monitoring panels of the evolved controllers
+	 * among the given agents
+	 *
+	 * @param agents controllers that just finished a game
+	 */
+	private static void disposeInputPanels(TorusPredPreyController[] agents) {
+		for (TorusPredPreyController agent : agents) {
+			if (agent instanceof NNTorusPredPreyController && ((NNTorusPredPreyController) agent).networkInputs != null) {
+				((NNTorusPredPreyController) agent).networkInputs.dispose();
+			}
+		}
+	}
+
 	/**
 	 * @return the number of fitness scores for this genotype
 	 */
@@ -314,7 +329,7 @@ public abstract class TorusPredPreyTask<T extends Network> extends NoisyLonerTas
 	 */
 	@Override
 	public double getTimeStamp() {
-		return exec.game.getTime();
+		return exec.get().game.getTime();
 	}
 
 	/**
@@ -836,7 +851,8 @@ public abstract class TorusPredPreyTask<T extends Network> extends NoisyLonerTas
 	 *         gridworld
 	 */
 	public double[] getSubstrateInputs(List<Substrate> subs) {
-		int torusWidth = this.exec.game.getWorld().width();
+		TorusWorldExec exec = this.exec.get();
+		int torusWidth = exec.game.getWorld().width();
 		double[] inputs = new double[numSubstrateInputs]; // defaults to 0.0
 
 		if (substrateForPredators) {
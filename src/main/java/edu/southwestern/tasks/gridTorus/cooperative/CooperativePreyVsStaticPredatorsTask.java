@@ -42,9 +42,10 @@ public class CooperativePreyVsStaticPredatorsTask<T extends Network> extends Gro
 	 * @return prey agents
 	 */
 	public TorusPredPreyController[] getPreyAgents(Genotype<T>[] team) {
-		task.evolved = new TorusPredPreyController[Parameters.parameters.integerParameter("torusPreys")];
-		TorusPredPreyTask.getEvolvedControllers(task.evolved, team, false);
-		return task.evolved; 
+		// A new array for each team, since teams can be evaluated in parallel
+		TorusPredPreyController[] evolved = new TorusPredPreyController[Parameters.parameters.integerParameter("torusPreys")];
+		TorusPredPreyTask.getEvolvedControllers(evolved, team, false);
+		return evolved;
 	}
 
 	@Override
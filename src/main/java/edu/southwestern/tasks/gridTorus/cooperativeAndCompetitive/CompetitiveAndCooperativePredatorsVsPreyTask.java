@@ -27,7 +27,6 @@ public class CompetitiveAndCooperativePredatorsVsPreyTask<T extends Network> ext
 	 */
 	public CompetitiveAndCooperativePredatorsVsPreyTask() {
 		super();
-		task.evolved = new TorusPredPreyController[Parameters.parameters.integerParameter("torusPredators") + Parameters.parameters.integerParameter("torusPreys")];
 	}
 
 	/**
@@ -47,10 +46,12 @@ public class CompetitiveAndCooperativePredatorsVsPreyTask<T extends Network> ext
 		Genotype<T>[] predTeam = new Genotype[numPreds];
 		//NOTE: Assumes that predators were stored first in the "team" list
 		System.arraycopy(team, 0, predTeam, 0, numPreds);
-		TorusPredPreyTask.getEvolvedControllers(task.evolved, predTeam, true, 0);
+		// Filled separately for each team so that teams can be evaluated in parallel
+		TorusPredPreyController[] evolved = newEvolvedArray();
+		TorusPredPreyTask.getEvolvedControllers(evolved, predTeam, true, 0);
 		// Make smaller array to return just the preds
 		TorusPredPreyController[] predOnly = new TorusPredPreyController[numPreds];
-		System.arraycopy(task.evolved, 0, predOnly, 0, numPreds);
+		System.arraycopy(evolved, 0, predOnly, 0, numPreds);
 		return predOnly;
 	}
 
@@ -72,13 +73,25 @@ public class CompetitiveAndCooperativePredatorsVsPreyTask<T extends Network> ext
 		Genotype<T>[] preyTeam = new Genotype[numPreys];
 		//NOTE: Assumes that predators were stored first in the "team" list, then prey
 		System.arraycopy(team, numPreds, preyTeam, 0, numPreys);
-		TorusPredPreyTask.getEvolvedControllers(task.evolved, preyTeam, false, numPreds);
+		// Filled separately for each team so that teams can be evaluated in parallel
+		TorusPredPreyController[] evolved = newEvolvedArray();
+		TorusPredPreyTask.getEvolvedControllers(evolved, preyTeam, false, numPreds);
 		// Make smaller array to return just the preys
 		TorusPredPreyController[] preyOnly = new TorusPredPreyController[numPreys];
-		System.arraycopy(task.evolved, numPreds, preyOnly, 0, numPreys);
+		System.arraycopy(evolved, numPreds, preyOnly, 0, numPreys);
 		return preyOnly; 
 	}
 
+	/**
+	 * Room for all predators followed by all prey, so that each agent's
+	 * input panel gets a distinct position
+	 *
+	 * @return empty controller array
+	 */
+	private static TorusPredPreyController[] newEvolvedArray() {
+		return new TorusPredPreyController[Parameters.parameters.integerParameter("torusPredators") + Parameters.parameters.integerParameter("torusPreys")];
+	}
+
 	@Override
 	/**
 	 * gets and returns the task instance for competitive and cooperative coevolution
@@ -1,7 +1,6 @@
 package edu.southwestern.tasks.gridTorus.objectives;
 
 import edu.southwestern.evolution.Organism;
-import edu.southwestern.evolution.fitness.FitnessFunction;
 import edu.southwestern.gridTorus.TorusPredPreyGame;
 import edu.southwestern.networks.Network;
 
@@ -12,12 +11,7 @@ import edu.southwestern.networks.Network;
  * @author rollinsa
  *
  */
-public abstract class GridTorusObjective<T extends Network> implements FitnessFunction<T> {
-
-	/**
-	 * the torus game
-	 */
-	protected TorusPredPreyGame game;
+public abstract class GridTorusObjective<T extends Network> {
 
 	/**
 	 * 
@@ -28,10 +22,21 @@ public abstract class GridTorusObjective<T extends Network> implements FitnessFu
 	 * @return the score/fitness of the individual
 	 */
 	public double score(TorusPredPreyGame game, Organism<T> individual) {
-		this.game = game;
-		return fitness(individual);
+		return fitness(individual, game);
 	}
 
+	/**
+	 * The game is passed in rather than kept in a field, since the same
+	 * objective instances score teams that are evaluated in parallel.
+	 * 
+	 * @param individual
+	 *            organism to provide a fitness function for
+	 * @param game
+	 *            TorusPredPrey grid world game that was just played
+	 * @return the score/fitness of the individual
+	 */
+	public abstract double fitness(Organism<T> individual, TorusPredPreyGame game);
+
 	/**
 	 * Default minimum value for a score is 0, though this could be overridden.
 	 * 
@@ -2,6 +2,7 @@ package edu.southwestern.tasks.gridTorus.objectives;
 
 import edu.southwestern.evolution.Organism;
 import edu.southwestern.gridTorus.TorusAgent;
+import edu.southwestern.gridTorus.TorusPredPreyGame;
 import edu.southwestern.networks.Network;
 import edu.southwestern.parameters.Parameters;
 import edu.southwestern.util.stats.StatisticsUtilities;
@@ -26,7 +27,7 @@ public class PredatorCatchCloseObjective<T extends Network> extends GridTorusObj
 	 *         as many prey are caught as possible, and with minimized distance to
 	 *         any remaining prey
 	 */
-	public double fitness(Organism<T> individual) {
+	public double fitness(Organism<T> individual, TorusPredPreyGame game) {
 
 		TorusAgent[] prey = game.getPrey();
 		TorusAgent[] preds = game.getPredators();
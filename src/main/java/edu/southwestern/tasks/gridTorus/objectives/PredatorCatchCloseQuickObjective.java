@@ -2,6 +2,7 @@ package edu.southwestern.tasks.gridTorus.objectives;
 
 import edu.southwestern.evolution.Organism;
 import edu.southwestern.gridTorus.TorusAgent;
+import edu.southwestern.gridTorus.TorusPredPreyGame;
 import edu.southwestern.networks.Network;
 import edu.southwestern.parameters.Parameters;
 
@@ -23,7 +24,7 @@ public class PredatorCatchCloseQuickObjective<T extends Network> extends GridTor
 	/**
 	 * Find the score of the predator based on if all prey died or not
 	 */
-	public double fitness(Organism<T> individual) {
+	public double fitness(Organism<T> individual, TorusPredPreyGame game) {
 
 		TorusAgent[] prey = game.getPrey();
 		TorusAgent[] preds = game.getPredators();
@@ -2,6 +2,7 @@ package edu.southwestern.tasks.gridTorus.objectives;
 
 import edu.southwestern.evolution.Organism;
 import edu.southwestern.gridTorus.TorusAgent;
+import edu.southwestern.gridTorus.TorusPredPreyGame;
 import edu.southwestern.networks.Network;
 
 /**
@@ -16,7 +17,7 @@ public class PredatorCatchObjective<T extends Network> extends GridTorusObjectiv
 	/**
 	 * Find the score of the predators based on how many prey died
 	 */
-	public double fitness(Organism<T> individual) {
+	public double fitness(Organism<T> individual, TorusPredPreyGame game) {
 
 		TorusAgent[] prey = game.getPrey();
 		double numCaught = 0;
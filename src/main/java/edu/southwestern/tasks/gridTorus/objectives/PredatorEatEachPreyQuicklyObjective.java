@@ -1,6 +1,7 @@
 package edu.southwestern.tasks.gridTorus.objectives;
 
 import edu.southwestern.evolution.Organism;
+import edu.southwestern.gridTorus.TorusPredPreyGame;
 import edu.southwestern.networks.Network;
 import edu.southwestern.parameters.Parameters;
 
@@ -16,7 +17,7 @@ public class PredatorEatEachPreyQuicklyObjective<T extends Network> extends Grid
 	 * reward the predators for each prey that gets eaten heavily encourages
 	 * that the prey are eaten as quickly as possible
 	 */
-	public double fitness(Organism<T> individual) {
+	public double fitness(Organism<T> individual, TorusPredPreyGame game) {
 		int numPrey = Parameters.parameters.integerParameter("torusPreys");
 		double score = 0;
 		// get the death time of each prey and subtract that from the score so
@@ -2,6 +2,7 @@ package edu.southwestern.tasks.gridTorus.objectives;
 
 import edu.southwestern.evolution.Organism;
 import edu.southwestern.gridTorus.TorusAgent;
+import edu.southwestern.gridTorus.TorusPredPreyGame;
 import edu.southwestern.networks.Network;
 import edu.southwestern.parameters.Parameters;
 import edu.southwestern.util.stats.StatisticsUtilities;
@@ -38,7 +39,7 @@ public class PredatorMinimizeDistanceFromIndividualPreyObjective<T extends Netwo
 	 *         the specific prey given (which will be minimized distance to all predators
 	 *         for each prey individually rather than as a whole)
 	 */
-	public double fitness(Organism<T> individual) {
+	public double fitness(Organism<T> individual, TorusPredPreyGame game) {
 		TorusAgent prey = game.getPrey()[preyIndex];
 		//if the prey is null, it was eaten, give max score of 0
 		if(prey == null)
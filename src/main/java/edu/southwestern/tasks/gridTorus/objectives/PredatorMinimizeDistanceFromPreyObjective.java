@@ -2,6 +2,7 @@ package edu.southwestern.tasks.gridTorus.objectives;
 
 import edu.southwestern.evolution.Organism;
 import edu.southwestern.gridTorus.TorusAgent;
+import edu.southwestern.gridTorus.TorusPredPreyGame;
 import edu.southwestern.networks.Network;
 import edu.southwestern.parameters.Parameters;
 import edu.southwestern.util.stats.StatisticsUtilities;
@@ -52,7 +53,7 @@ public class PredatorMinimizeDistanceFromPreyObjective<T extends Network> extend
 	 * (meaning that the predators are also inherently encouraged to eat the
 	 * prey)
 	 */
-	public double fitness(Organism<T> individual) {
+	public double fitness(Organism<T> individual, TorusPredPreyGame game) {
 		TorusAgent[] preds = game.getPredators();
 		TorusAgent[] prey = game.getPrey();
 		// want this to be as low as possible to minimize distance to prey for
@@ -1,6 +1,7 @@
 package edu.southwestern.tasks.gridTorus.objectives;
 
 import edu.southwestern.evolution.Organism;
+import edu.southwestern.gridTorus.TorusPredPreyGame;
 import edu.southwestern.networks.Network;
 import edu.southwestern.parameters.Parameters;
 
@@ -16,7 +17,7 @@ public class PredatorMinimizeGameTimeObjective<T extends Network> extends GridTo
 	/**
 	 * minimize the total game time
 	 */
-	public double fitness(Organism<T> individual) {
+	public double fitness(Organism<T> individual, TorusPredPreyGame game) {
 		return -game.getTime();
 	}
 
@@ -1,6 +1,7 @@
 package edu.southwestern.tasks.gridTorus.objectives;
 
 import edu.southwestern.evolution.Organism;
+import edu.southwestern.gridTorus.TorusPredPreyGame;
 import edu.southwestern.networks.Network;
 import edu.southwestern.parameters.Parameters;
 
@@ -19,7 +20,7 @@ public class PreyLongSurvivalTimeObjective<T extends Network> extends GridTorusO
 	 * for having later death times if the prey does die (largest score given
 	 * per prey automatically if it survives)
 	 */
-	public double fitness(Organism<T> individual) {
+	public double fitness(Organism<T> individual, TorusPredPreyGame game) {
 		int numPrey = Parameters.parameters.integerParameter("torusPreys");
 		double score = 0;
 		// get the death time of each prey and add that from the score so that
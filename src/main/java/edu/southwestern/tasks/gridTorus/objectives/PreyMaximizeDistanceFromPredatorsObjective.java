@@ -1,6 +1,7 @@
 package edu.southwestern.tasks.gridTorus.objectives;
 
 import edu.southwestern.evolution.Organism;
+import edu.southwestern.gridTorus.TorusPredPreyGame;
 import edu.southwestern.networks.Network;
 
 /**
@@ -21,7 +22,7 @@ public class PreyMaximizeDistanceFromPredatorsObjective<T extends Network> exten
 	 * (meaning that the prey are also inherently encouraged to survive because
 	 * it is trying to maximize distance)
 	 */
-	public double fitness(Organism<T> individual) {
+	public double fitness(Organism<T> individual, TorusPredPreyGame game) {
 		// want this to be as high as possible to maximize distance from prey to
 		// each pred
 		return PredatorMinimizeDistanceFromPreyObjective.sumOfPredToPreyDistances(game.getPredators(), game.getPrey());
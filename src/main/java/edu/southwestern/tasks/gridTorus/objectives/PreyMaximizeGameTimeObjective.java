@@ -1,6 +1,7 @@
 package edu.southwestern.tasks.gridTorus.objectives;
 
 import edu.southwestern.evolution.Organism;
+import edu.southwestern.gridTorus.TorusPredPreyGame;
 import edu.southwestern.networks.Network;
 
 /**
@@ -15,7 +16,7 @@ public class PreyMaximizeGameTimeObjective<T extends Network> extends GridTorusO
 	/**
 	 * maximize the total game time
 	 */
-	public double fitness(Organism<T> individual) {
+	public double fitness(Organism<T> individual, TorusPredPreyGame game) {
 		return game.getTime();
 	}
 
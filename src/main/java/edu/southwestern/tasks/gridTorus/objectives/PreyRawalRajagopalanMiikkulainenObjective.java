@@ -2,6 +2,7 @@ package edu.southwestern.tasks.gridTorus.objectives;
 
 import edu.southwestern.evolution.Organism;
 import edu.southwestern.gridTorus.TorusAgent;
+import edu.southwestern.gridTorus.TorusPredPreyGame;
 import edu.southwestern.networks.Network;
 
 /**
@@ -29,7 +30,7 @@ public class PreyRawalRajagopalanMiikkulainenObjective<T extends Network> extend
 	 * Find the score of the prey based on if all prey died, if no prey died, or
 	 * if some prey died (generalized for variable number of prey/preds)
 	 */
-	public double fitness(Organism<T> individual) {
+	public double fitness(Organism<T> individual, TorusPredPreyGame game) {
 		TorusAgent[] prey = game.getPrey();
 		double numCaught = 0;
 		for (TorusAgent p : prey) {
@@ -1,6 +1,7 @@
 package edu.southwestern.tasks.gridTorus.objectives.cooperative;
 
 import edu.southwestern.evolution.Organism;
+import edu.southwestern.gridTorus.TorusPredPreyGame;
 import edu.southwestern.networks.Network;
 import edu.southwestern.tasks.gridTorus.objectives.GridTorusObjective;
 
@@ -28,7 +29,7 @@ public class IndividualPredatorCatchObjective<T extends Network> extends GridTor
 	/**
 	 * Find the score of the predator based on how many prey it killed
 	 */
-	public double fitness(Organism<T> individual) {
+	public double fitness(Organism<T> individual, TorusPredPreyGame game) {
 		// return a score based on number of caught prey by this predator
 		return game.getPreyCatchesForThisPred(predIndex);
 	}
@@ -2,6 +2,7 @@ package edu.southwestern.tasks.gridTorus.objectives.cooperative;
 
 import edu.southwestern.evolution.Organism;
 import edu.southwestern.gridTorus.TorusAgent;
+import edu.southwestern.gridTorus.TorusPredPreyGame;
 import edu.southwestern.networks.Network;
 import edu.southwestern.parameters.Parameters;
 import edu.southwestern.tasks.gridTorus.objectives.GridTorusObjective;
@@ -37,7 +38,7 @@ public class IndividualPredatorMinimizeDistanceFromIndividualPreyObjective<T ext
 	 *         is counted as zero (meaning that the predator is also inherently
 	 *         encouraged to eat the prey)
 	 */
-	public double fitness(Organism<T> individual) {
+	public double fitness(Organism<T> individual, TorusPredPreyGame game) {
 		TorusAgent pred = game.getPredators()[predIndex];
 		TorusAgent prey = game.getPrey()[preyIndex];
 
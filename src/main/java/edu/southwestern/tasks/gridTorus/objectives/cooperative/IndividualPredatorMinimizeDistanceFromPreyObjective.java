@@ -2,6 +2,7 @@ package edu.southwestern.tasks.gridTorus.objectives.cooperative;
 
 import edu.southwestern.evolution.Organism;
 import edu.southwestern.gridTorus.TorusAgent;
+import edu.southwestern.gridTorus.TorusPredPreyGame;
 import edu.southwestern.networks.Network;
 import edu.southwestern.parameters.Parameters;
 import edu.southwestern.tasks.gridTorus.objectives.GridTorusObjective;
@@ -34,7 +35,7 @@ public class IndividualPredatorMinimizeDistanceFromPreyObjective<T extends Netwo
 	 * (meaning that the predator is also inherently encouraged to eat the
 	 * prey)
 	 */
-	public double fitness(Organism<T> individual) {
+	public double fitness(Organism<T> individual, TorusPredPreyGame game) {
 		TorusAgent pred = game.getPredators()[predIndex];
 		TorusAgent[] prey = game.getPrey();
 		double score = 0;
@@ -2,6 +2,7 @@ package edu.southwestern.tasks.gridTorus.objectives.cooperative;
 
 import edu.southwestern.evolution.Organism;
 import edu.southwestern.gridTorus.TorusAgent;
+import edu.southwestern.gridTorus.TorusPredPreyGame;
 import edu.southwestern.networks.Network;
 import edu.southwestern.tasks.gridTorus.objectives.GridTorusObjective;
 import edu.southwestern.util.stats.StatisticsUtilities;
@@ -32,7 +33,7 @@ public class IndividualPreyMaximizeDistanceFromPredatorsObjective<T extends Netw
 	 *         the end of the game. If the prey is dead then it receives the lowest 
 	 *         possible score (zero)
 	 */
-	public double fitness(Organism<T> individual) {
+	public double fitness(Organism<T> individual, TorusPredPreyGame game) {
 		TorusAgent prey = game.getPrey()[preyIndex];
 		//if the prey is null, it was eaten, give min score of 0
 		if(prey == null)
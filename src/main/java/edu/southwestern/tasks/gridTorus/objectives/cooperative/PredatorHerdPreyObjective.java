@@ -2,6 +2,7 @@ package edu.southwestern.tasks.gridTorus.objectives.cooperative;
 
 import edu.southwestern.evolution.Organism;
 import edu.southwestern.gridTorus.TorusAgent;
+import edu.southwestern.gridTorus.TorusPredPreyGame;
 import edu.southwestern.networks.Network;
 import edu.southwestern.parameters.Parameters;
 import edu.southwestern.tasks.gridTorus.objectives.GridTorusObjective;
@@ -26,7 +27,7 @@ public class PredatorHerdPreyObjective<T extends Network> extends GridTorusObjec
 	 *         If a prey is dead, the predator is rewarded the maximum scores for that prey
 	 *         (which would be zero since zero is the max score)
 	 */
-	public double fitness(Organism<T> individual) {
+	public double fitness(Organism<T> individual, TorusPredPreyGame game) {
 		TorusAgent[] prey = game.getPrey();
 		TorusAgent[] filteredPrey = ArrayUtil.filterNull(prey);
 		double score = 0;
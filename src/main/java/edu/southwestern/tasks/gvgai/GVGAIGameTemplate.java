@@ -0,0 +1,73 @@
+package edu.southwestern.tasks.gvgai;
+
+import java.util.HashMap;
+
+import gvgai.core.game.Game;
+import gvgai.core.vgdl.VGDLFactory;
+import gvgai.core.vgdl.VGDLParser;
+import gvgai.core.vgdl.VGDLRegistry;
+import gvgai.tools.IO;
+
+/**
+ * The VGDL description of a GVG-AI game, read once per game file, which
+ * creates a fresh Game instance for every play. Games do not share sprites,
+ * effects or terminations, so games from the same template can be played by
+ * different threads at once.
+ *
+ * The sprite ids of the VGDLRegistry are global, so only one game file is
+ * loaded at a time: asking for the template of another game file
+ * re-initializes the registry, and games of the previous file must no longer
+ * be played.
+ */
+public class GVGAIGameTemplate {
+
+	private static final HashMap<String, GVGAIGameTemplate> templates = new HashMap<String, GVGAIGameTemplate>();
+	// Game file whose sprites are in the registry
+	private static String loadedGameFile = null;
+
+	private final String gameFile;
+	private final String[] description;
+
+	/**
+	 * Template for a game file, which is read and registered on the first request.
+	 *
+	 * @param gameFile Path to the VGDL game description
+	 * @return Template that creates games of that file
+	 */
+	public static synchronized GVGAIGameTemplate get(String gameFile) {
+		if (!gameFile.equals(loadedGameFile)) {
+			// Sprite ids of the previous game are no longer valid
+			templates.clear();
+			VGDLFactory.GetInstance().init();
+			VGDLRegistry.GetInstance().init();
+			loadedGameFile = gameFile;
+		}
+		GVGAIGameTemplate template = templates.get(gameFile);
+		if (template == null) {
+			template = new GVGAIGameTemplate(gameFile);
+			templates.put(gameFile, template);
+		}
+		return template;
+	}
+
+	private GVGAIGameTemplate(String gameFile) {
+		this.gameFile = gameFile;
+		this.description = new IO().readFile(gameFile);
+		// Parsing once registers every sprite, so the registry is only read by later games
+		newGame();
+	}
+
+	/**
+	 * Parsing modifies the content of the parsed description tree, so each game
+	 * is parsed from the description lines kept in memory.
+	 *
+	 * @return New game with rules loaded, but no level
+	 */
+	public Game newGame() {
+		return new VGDLParser().parseGame(description);
+	}
+
+	public String getGameFile() {
+		return gameFile;
+	}
+}
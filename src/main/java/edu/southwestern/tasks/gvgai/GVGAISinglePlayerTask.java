@@ -20,10 +20,6 @@ import edu.southwestern.util.ClassCreation;
 import edu.southwestern.util.datastructures.Pair;
 import edu.southwestern.util.datastructures.Triple;
 import edu.southwestern.util.random.RandomNumbers;
-import gvgai.core.game.Game;
-import gvgai.core.vgdl.VGDLFactory;
-import gvgai.core.vgdl.VGDLParser;
-import gvgai.core.vgdl.VGDLRegistry;
 import gvgai.tools.IO;
 
 public class GVGAISinglePlayerTask<T extends Network> extends NoisyLonerTask<T> implements NetworkTask, HyperNEATTask{
@@ -31,34 +27,23 @@ public class GVGAISinglePlayerTask<T extends Network> extends NoisyLonerTask<T>
 	public static final String GAMES_PATH = "data/gvgai/examples/gridphysics/"; // Comes from gvgai.tracks.singlePlayer.Test
 	String game;
 	int level;
-	private Game toPlay;
-	private GVGAINNPlayer<T> agent;
+	private GVGAIGameTemplate template;
+	private String[] levelLines;
 
-	@SuppressWarnings("unchecked")
 	public GVGAISinglePlayerTask(){
-		VGDLFactory.GetInstance().init();
-		VGDLRegistry.GetInstance().init();
-
 		game = Parameters.parameters.stringParameter("gvgaiGame");
 		System.out.println("GVG-AI game is " + game);
 		level = Parameters.parameters.integerParameter("gvgaiLevel");
 		System.out.println("GVG-AI level is " + level);
 
 		String game_file = GAMES_PATH + game + ".txt";
-		toPlay = new VGDLParser().parseGame(game_file); // Initialize the game
+		template = GVGAIGameTemplate.get(game_file); // Initialize the game
 
-		try {
-			agent = (GVGAINNPlayer<T>) ClassCreation.createObject("gvgaiPlayer");
-			// null = do not save file of actions
-			// random generator produces random seed : TODO: If deterministic, then always use same seed
-			// false = not human
-			agent.setup(null, RandomNumbers.randomGenerator.nextInt(), false); 
-		} catch (NoSuchMethodException e) {
-			e.printStackTrace();
-			System.out.println("Could not create GVG AI player: " + Parameters.parameters.classParameter("gvgaiPlayer"));
-			System.exit(1);
-		}
+		String level_file = GAMES_PATH + game + "_lvl" + level + ".txt";
+		levelLines = new IO().readFile(level_file);
 
+		// Fail early if the player cannot be created
+		createAgent();
 
 		// Registers the three possible scores;
 		// Each Score can be individually selected as a Selection Function or not
@@ -97,21 +82,40 @@ public class GVGAISinglePlayerTask<T extends Network> extends NoisyLonerTask<T>
 		return 0;
 	}
 
+	/**
+	 * Each evaluation plays with its own agent, so evaluations can run in parallel
+	 * @return initialized GVG-AI player specified by gvgaiPlayer
+	 */
+	@SuppressWarnings("unchecked")
+	private GVGAINNPlayer<T> createAgent() {
+		GVGAINNPlayer<T> agent = null;
+		try {
+			agent = (GVGAINNPlayer<T>) ClassCreation.createObject("gvgaiPlayer");
+			// null = do not save file of actions
+			// random generator produces random seed : TODO: If deterministic, then always use same seed
+			// false = not human
+			agent.setup(null, RandomNumbers.generator().nextInt(), false); 
+		} catch (NoSuchMethodException e) {
+			e.printStackTrace();
+			System.out.println("Could not create GVG AI player: " + Parameters.parameters.classParameter("gvgaiPlayer"));
+			System.exit(1);
+		}
+		return agent;
+	}
+
 	@Override
 	public Pair<double[], double[]> oneEval(Genotype<T> individual, int num) {
 
+		GVGAINNPlayer<T> agent = createAgent();
 		agent.assignNetwork(individual.getPhenotype());
 		
 		boolean visuals = CommonConstants.watch;
 		int playerID = 0;
 
-		String level_file = GAMES_PATH + game + "_lvl" + level + ".txt";
-		String[] level = new IO().readFile(level_file);
-		int randomSeed = RandomNumbers.randomGenerator.nextInt(); // TODO: Allow to be deterministic
+		int randomSeed = RandomNumbers.generator().nextInt(); // TODO: Allow to be deterministic
 
 		// Will have 3 Indexes: {victory, score, timestep}; Stores these for every Player, in triplets: [w0,s0,t0,w1,s1,t1,...]
-		double[] gvgaiScores = GVGAIUtil.runOneGame(toPlay, level, visuals, agent, randomSeed, playerID);
-		toPlay.reset();
+		double[] gvgaiScores = GVGAIUtil.runOneGame(template.newGame(), levelLines, visuals, agent, randomSeed, playerID);
 		
 		// Process the scores
 		double[] fitness = new double[numObjectives()];
@@ -215,7 +215,7 @@ public class GVGAIUtil {
 						// Last CPPN output
 						if(outputs[fixed.length+unique.length] > RANDOM_ITEM_THRESHOLD) {
 							// Select one of the random item options
-							level[y][x] = random[RandomNumbers.randomGenerator.nextInt(random.length)];
+							level[y][x] = random[RandomNumbers.generator().nextInt(random.length)];
 							randomItems--; // allow one fewer random item
 						}
 					}
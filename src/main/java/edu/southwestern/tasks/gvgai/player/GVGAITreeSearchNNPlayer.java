@@ -24,7 +24,9 @@ public class GVGAITreeSearchNNPlayer<T extends Network> extends GVGAINNPlayer<T>
 	protected static final double BETA = Double.POSITIVE_INFINITY; // Holds the Starting Value for Beta
 	protected boolean prune;
 	
-	Random random = RandomNumbers.randomGenerator;
+	// Only set by setRandomSeed. Otherwise moves are drawn from RandomNumbers.generator() when they are made,
+	// which is the generator of the evaluation the player is in.
+	private Random random = null;
 	
 	public GVGAITreeSearchNNPlayer(){
 		depth = Parameters.parameters.integerParameter("minimaxSearchDepth");
@@ -37,9 +39,9 @@ public class GVGAITreeSearchNNPlayer<T extends Network> extends GVGAINNPlayer<T>
 		List<ACTIONS> poss = stateObs.getAvailableActions(); // Stores all currently possible ACTIONS
 		
 		// If occasional random moves are allowed, then minimax calculation can be skipped
-		double rand = random.nextDouble();
+		double rand = random().nextDouble();
 		if(rand < Parameters.parameters.doubleParameter("minimaxRandomRate")){
-			return RandomNumbers.randomElement(poss);
+			return poss.get(random().nextInt(poss.size()));
 		}
 
 		double[] utilities = new double[poss.size()]; // Stores the network's outputs
@@ -108,8 +110,20 @@ public class GVGAITreeSearchNNPlayer<T extends Network> extends GVGAINNPlayer<T>
 		return bestValue;
 	}
 	
+	/**
+	 * @return generator to draw random moves from
+	 */
+	private Random random() {
+		return random == null ? RandomNumbers.generator() : random;
+	}
+	
+	/**
+	 * Make this player draw its random moves from its own generator with the given seed
+	 * 
+	 * @param seed seed of the generator
+	 */
 	public void setRandomSeed(long seed){
-		random.setSeed(seed);
+		random = new Random(seed);
 	}
 	
 	
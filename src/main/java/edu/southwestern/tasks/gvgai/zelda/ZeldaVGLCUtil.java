@@ -173,7 +173,7 @@ public class ZeldaVGLCUtil {
 		case 'W':
 			return 'w';
 		case 'M':
-			return (char)('1' + RandomNumbers.randomGenerator.nextInt(3)); // 1, 2, or 3
+			return (char)('1' + RandomNumbers.generator().nextInt(3)); // 1, 2, or 3
 		case 'D':
 		case 'S':
 			return 'g';
@@ -192,7 +192,7 @@ public class ZeldaVGLCUtil {
 		switch(code) {
 		case 0: return '.';
 		case 1: return 'w';
-		case 2: return (char)('1' + RandomNumbers.randomGenerator.nextInt(3)); // 1, 2, or 3 : Random Monster
+		case 2: return (char)('1' + RandomNumbers.generator().nextInt(3)); // 1, 2, or 3 : Random Monster
 		case 3: return 'g';
 		default:
 			throw new IllegalArgumentException("Invalid GAN code for Zelda: code = " + code);
@@ -122,7 +122,7 @@ public abstract class InteractiveEvolutionTask<T> implements SinglePopulationTas
 
 	protected T currentCPPN;
 
-	private HashMap<Long,BufferedImage> cachedButtonImages = new HashMap<Long,BufferedImage>();
+	protected HashMap<Long,BufferedImage> cachedButtonImages = new HashMap<Long,BufferedImage>();
 
 	private JPanel topper;
 	protected JPanel top;
@@ -10,7 +10,9 @@ import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 import javax.swing.JButton;
 import javax.swing.JComboBox;
@@ -23,14 +25,14 @@ import edu.southwestern.evolution.genotypes.TWEANNGenotype;
 import edu.southwestern.networks.Network;
 import edu.southwestern.networks.TWEANN;
 import edu.southwestern.parameters.Parameters;
+import edu.southwestern.scores.Score;
+import edu.southwestern.tasks.EvaluationPool;
+import edu.southwestern.tasks.gvgai.GVGAIGameTemplate;
 import edu.southwestern.tasks.gvgai.GVGAIUtil;
 import edu.southwestern.tasks.gvgai.GVGAIUtil.GameBundle;
 import edu.southwestern.tasks.interactive.InteractiveEvolutionTask;
 import gvgai.core.game.BasicGame;
 import gvgai.core.game.Game;
-import gvgai.core.vgdl.VGDLFactory;
-import gvgai.core.vgdl.VGDLParser;
-import gvgai.core.vgdl.VGDLRegistry;
 import gvgai.tracks.singlePlayer.tools.human.Agent;
 
 public class LevelBreederTask extends InteractiveEvolutionTask<TWEANN> {
@@ -729,12 +731,13 @@ public class LevelBreederTask extends InteractiveEvolutionTask<TWEANN> {
 	private char[][] gameCharData;
 	
 	protected JComboBox<String> gameChoice;
+	// Render the levels of the population concurrently
+	private final boolean parallel;
 	
 	public LevelBreederTask() throws IllegalAccessException {
 		super();
 
-		VGDLFactory.GetInstance().init();
-		VGDLRegistry.GetInstance().init();
+		parallel = Parameters.parameters.booleanParameter("parallelEvaluations");
 		
 		gameFile = Parameters.parameters.stringParameter("gvgaiGame");
 		fullGameFile = GAMES_PATH + gameFile + ".txt";
@@ -776,9 +779,6 @@ public class LevelBreederTask extends InteractiveEvolutionTask<TWEANN> {
 				gameCharData = SPECIFIC_GAME_LEVEL_CHARS.get(gameFile);
 				System.out.println("gameCharData");
 				
-				VGDLFactory.GetInstance().init();
-				VGDLRegistry.GetInstance().init();
-				
 				// New to reset all network population configurations because different games require different numbers of outputs
 				MMNEAT.setNNInputParameters(numCPPNInputs(), numCPPNOutputs());
 				// Make new TWEANNGenotype for archetype index 0
@@ -857,7 +857,7 @@ public class LevelBreederTask extends InteractiveEvolutionTask<TWEANN> {
 		int seed = 0; // TODO: Use parameter?
 		Agent agent = new Agent();
 		agent.setup(null, seed, true); // null = no log, true = human 
-		Game game = new VGDLParser().parseGame(fullGameFile); // Initialize the game	
+		Game game = GVGAIGameTemplate.get(fullGameFile).newGame(); // Initialize the game	
 
 		return new GameBundle(game, level, agent, seed, 0);
 	}
@@ -868,6 +868,55 @@ public class LevelBreederTask extends InteractiveEvolutionTask<TWEANN> {
 		BufferedImage levelImage = GVGAIUtil.getLevelImage(((BasicGame) bundle.game), bundle.level, (Agent) bundle.agent, width, height, bundle.randomSeed);
 		return levelImage;
 	}
+
+	/**
+	 * Generate and render the levels of several CPPNs at once in the evaluation pool.
+	 * Each level is built in its own game, so nothing is shared between threads.
+	 * 
+	 * @param phenotypes CPPNs
+	 * @return Button image of each CPPN, in the same order
+	 */
+	private ArrayList<BufferedImage> getButtonImages(List<TWEANN> phenotypes) {
+		final double[] multipliers = inputMultipliers;
+		ArrayList<Callable<BufferedImage>> renders = new ArrayList<Callable<BufferedImage>>(phenotypes.size());
+		for(TWEANN phenotype : phenotypes) {
+			renders.add(() -> getButtonImage(phenotype, picSize, picSize, multipliers));
+		}
+		return EvaluationPool.invokeAll(renders);
+	}
+
+	@Override
+	public ArrayList<Score<TWEANN>> evaluateAll(ArrayList<Genotype<TWEANN>> population) {
+		if(parallel && !showNetwork) {
+			// Render all levels first, so the buttons are filled from the cache
+			ArrayList<TWEANN> phenotypes = new ArrayList<TWEANN>(population.size());
+			for(Genotype<TWEANN> individual : population) {
+				phenotypes.add(individual.getPhenotype());
+			}
+			ArrayList<BufferedImage> images = getButtonImages(phenotypes);
+			for(int i = 0; i < phenotypes.size(); i++) {
+				cachedButtonImages.put(phenotypes.get(i).getId(), images.get(i));
+			}
+		}
+		return super.evaluateAll(population);
+	}
+
+	@Override
+	public void resetButtons(boolean hardReset) {
+		if(!parallel || !hardReset) {
+			// Without a hard reset, most images come from the cache
+			super.resetButtons(hardReset);
+			return;
+		}
+		ArrayList<TWEANN> phenotypes = new ArrayList<TWEANN>(scores.size());
+		for(Score<TWEANN> s : scores) {
+			phenotypes.add(s.individual.getPhenotype());
+		}
+		ArrayList<BufferedImage> images = getButtonImages(phenotypes);
+		for(int i = 0; i < images.size(); i++) {
+			setButtonImage(images.get(i), i);
+		}
+	}
 		
 	/**
 	 * Responds to a button to actually play a selected level
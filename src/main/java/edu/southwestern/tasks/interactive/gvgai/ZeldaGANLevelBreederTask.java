@@ -8,6 +8,7 @@ import java.util.ArrayList;
 
 import edu.southwestern.MMNEAT.MMNEAT;
 import edu.southwestern.parameters.Parameters;
+import edu.southwestern.tasks.gvgai.GVGAIGameTemplate;
 import edu.southwestern.tasks.gvgai.GVGAIUtil;
 import edu.southwestern.tasks.gvgai.GVGAIUtil.GameBundle;
 import edu.southwestern.tasks.gvgai.zelda.ZeldaGANUtil;
@@ -17,9 +18,6 @@ import edu.southwestern.util.datastructures.ArrayUtil;
 import edu.southwestern.util.datastructures.Pair;
 import gvgai.core.game.BasicGame;
 import gvgai.core.game.Game;
-import gvgai.core.vgdl.VGDLFactory;
-import gvgai.core.vgdl.VGDLParser;
-import gvgai.core.vgdl.VGDLRegistry;
 import gvgai.tracks.singlePlayer.tools.human.Agent;
 
 /**
@@ -34,8 +32,6 @@ public class ZeldaGANLevelBreederTask extends InteractiveGANLevelEvolutionTask {
 
 	public ZeldaGANLevelBreederTask() throws IllegalAccessException {
 		super();
-		VGDLFactory.GetInstance().init();
-		VGDLRegistry.GetInstance().init();
 	}
 
 	@Override
@@ -55,7 +51,7 @@ public class ZeldaGANLevelBreederTask extends InteractiveGANLevelEvolutionTask {
 		int seed = 0; // TODO: Use parameter?
 		Agent agent = new Agent();
 		agent.setup(null, seed, true); // null = no log, true = human 
-		Game game = new VGDLParser().parseGame(FULL_GAME_FILE); // Initialize the game	
+		Game game = GVGAIGameTemplate.get(FULL_GAME_FILE).newGame(); // Initialize the game	
 
 		return new GameBundle(game, level, agent, seed, 0);
 	}
@@ -9,6 +9,7 @@ import edu.southwestern.networks.Network;
 import edu.southwestern.parameters.Parameters;
 import edu.southwestern.tasks.interactive.InteractiveEvolutionTask;
 import edu.southwestern.util.graphics.GraphicsUtil;
+import edu.southwestern.util.graphics.ParallelRenderer;
 
 /**
  * Implementation of picbreeder that extends InteractiveEvolutionTask
@@ -65,11 +66,11 @@ public class PicbreederTask<T extends Network> extends InteractiveEvolutionTask<
 	}
 
 	/**
-	 * Create BufferedImage from CPPN
+	 * Create BufferedImage from CPPN, rendering tiles of the image in parallel
 	 */
 	@Override
 	protected BufferedImage getButtonImage(T phenotype, int width, int height, double[] inputMultipliers) {
-		return GraphicsUtil.imageFromCPPN(phenotype, width, height, inputMultipliers);
+		return ParallelRenderer.imageFromCPPN(phenotype, width, height, inputMultipliers, -1);
 	}
 
 	/**
@@ -86,7 +87,7 @@ public class PicbreederTask<T extends Network> extends InteractiveEvolutionTask<
 	@Override
 	protected void save(String filename, int i) {
 		// Use of imageHeight and imageWidth allows saving a higher quality image than is on the button
-		BufferedImage toSave = GraphicsUtil.imageFromCPPN((Network)scores.get(i).individual.getPhenotype(), Parameters.parameters.integerParameter("imageWidth"), Parameters.parameters.integerParameter("imageHeight"), inputMultipliers);
+		BufferedImage toSave = ParallelRenderer.imageFromCPPN((Network)scores.get(i).individual.getPhenotype(), Parameters.parameters.integerParameter("imageWidth"), Parameters.parameters.integerParameter("imageHeight"), inputMultipliers, -1);
 		filename += ".bmp";
 		GraphicsUtil.saveImage(toSave, filename);
 		System.out.println("image " + filename + " was saved successfully");
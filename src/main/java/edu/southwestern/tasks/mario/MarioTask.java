@@ -106,7 +106,7 @@ public class MarioTask<T extends Network> extends NoisyLonerTask<T> implements N
 		if(Parameters.parameters.booleanParameter("deterministic"))
 			options.setLevelRandSeed(num); //generates from the same seeds for every individual.
 		else
-			options.setLevelRandSeed(RandomNumbers.randomGenerator.nextInt(Integer.MAX_VALUE));
+			options.setLevelRandSeed(RandomNumbers.generator().nextInt(Integer.MAX_VALUE));
 		Evaluator evaluator = new Evaluator(options);
 		List<EvaluationInfo> results = evaluator.evaluate();
 		
@@ -201,19 +201,11 @@ public class MicroRTSTask<T extends Network> extends NoisyLonerTask<T> implement
 	}
 
 	private boolean unitsExist(int player, PhysicalGameState pgs){
-		for(int i = 0; i < pgs.getWidth(); i++){
-			for(int j = 0; j < pgs.getHeight(); j++){
-
-				Unit currentUnit = pgs.getUnitAt(i, j);
-				if(currentUnit!=null){
-					//							System.out.println(i + "," + j + " has " + currentUnit);
-
-					if(currentUnit.getPlayer() == player){
-						return true;
-					}
-				} //end if (there is a unit on this space)
-			}//end j
-		}//end i
+		for(Unit currentUnit : pgs.getUnits()){
+			if(currentUnit.getPlayer() == player){
+				return true;
+			}
+		}
 		return false;
 	}
 
@@ -62,7 +62,6 @@ public class MicroRTSUtility {
 		int maxCycles = 1000 * (int) Math.ceil(Math.sqrt(pgs.getHeight()));
 		ff.setMaxCycles(maxCycles);
 
-		Unit currentUnit; 
 		boolean[] baseDeathRecorded = new boolean[ais.length];
 
 		int currentCycle = 0;
@@ -84,38 +83,30 @@ public class MicroRTSUtility {
 			
 			pgs = gs.getPhysicalGameState(); //update after actions
 			if(prog){ //if our FitnessFunction needs us to record information throughout the game
-				currentUnit = null;	
 				unitDifferenceNow = 0;
 				for(int i = 0; i < baseAlive.length; i++) {
 					baseAlive[i] = false;
 				}
-				for(int i = 0; i < pgs.getWidth(); i++){
-					for(int j = 0; j < pgs.getHeight(); j++){
-
-						currentUnit = pgs.getUnitAt(i, j);
-						if(currentUnit!=null){
-							//							System.out.println(i + "," + j + " has " + currentUnit);
-
-							if(currentUnit.getPlayer() == 0){
-								createdUnitIDs1.add(currentUnit.getID());
-							}
-							else if(currentUnit.getPlayer() == 1){
-								createdUnitIDs2.add(currentUnit.getID());
-							}
+				// One pass over the units rather than looking up every tile
+				for(Unit currentUnit : pgs.getUnits()){
+					if(currentUnit.getPlayer() == 0){
+						createdUnitIDs1.add(currentUnit.getID());
+					}
+					else if(currentUnit.getPlayer() == 1){
+						createdUnitIDs2.add(currentUnit.getID());
+					}
 
-							unitDifferenceNow = updateUnitDifference(currentUnit, unitDifferenceNow);
-							if(currentUnit.getType().name.equals("Worker")) {
-								updateHarvestingEfficiency(workerWithResourceID, currentUnit, coevolution, task);
-							}
-							if(currentUnit.getType().name.equals("Base")){
-								for(int k = 0; k < baseAlive.length; k++) {
-									// updateBaseIsAlive expects player values 1 and 2 rather than 0 and 1
-									baseAlive[k] = baseAlive[k] || updateBaseIsAlive(currentUnit, k+1);
-								}
-							}
-						} //end if (there is a unit on this space)
-					}//end j
-				}//end i
+					unitDifferenceNow = updateUnitDifference(currentUnit, unitDifferenceNow);
+					if(currentUnit.getType().name.equals("Worker")) {
+						updateHarvestingEfficiency(workerWithResourceID, currentUnit, coevolution, task);
+					}
+					if(currentUnit.getType().name.equals("Base")){
+						for(int k = 0; k < baseAlive.length; k++) {
+							// updateBaseIsAlive expects player values 1 and 2 rather than 0 and 1
+							baseAlive[k] = baseAlive[k] || updateBaseIsAlive(currentUnit, k+1);
+						}
+					}
+				}
 				
 				assert previousCreatedUnitsIDSize <= createdUnitIDs2.size() : "createdUnitIDs2 decreased in size!!! "
 						+previousCreatedUnitsIDSize + " ==> " + createdUnitIDs2.size() + " T: " + currentCycle;
@@ -143,16 +134,11 @@ public class MicroRTSUtility {
 				if(!baseDeathRecorded[k] && (k == 0 || coevolution))
 					task.setBaseUpTime(gs.getTime(), k+1);
 			}			
-			for(int i = 0; i < pgs.getWidth(); i++){
-				for(int j = 0; j < pgs.getHeight(); j++){
-					currentUnit = pgs.getUnitAt(i, j);
-					if(currentUnit!=null){
-						if(currentUnit.getPlayer() == 0)
-							terminalUnits1++;
-						else if(currentUnit.getPlayer() == 1)
-							terminalUnits2++;
-					}
-				}
+			for(Unit currentUnit : pgs.getUnits()){
+				if(currentUnit.getPlayer() == 0)
+					terminalUnits1++;
+				else if(currentUnit.getPlayer() == 1)
+					terminalUnits2++;
 			}
 			try{
 				//createdIds' size should never = 0 because all players start with a base
@@ -217,6 +217,15 @@ public class SinglePopulationCompetativeCoevolutionMicroRTSTask<T extends Networ
 		return 2;
 	}
 
+	/**
+	 * The game state, AIs and evaluation functions are instance variables
+	 * reused by every evaluation, so only one group can be evaluated at a time.
+	 */
+	@Override
+	public boolean groupsCanBeEvaluatedInParallel() {
+		return false;
+	}
+
 	@Override
 	public void preEval() {
 		if(Parameters.parameters.classParameter("microRTSMapSequence") != null){
@@ -59,17 +59,11 @@ public class NN2DEvaluationFunction<T extends Network> extends NNEvaluationFunct
 	protected double[] gameStateToArray(GameState gs, int playerToEvaluate) {
 		pgs = gs.getPhysicalGameState();
 		double[] board = new double[pgs.getHeight()*pgs.getWidth()];
-		int boardIndex;
-		Unit currentUnit;
-		for(int j = 0; j < pgs.getHeight(); j++){
-			for(int i = 0; i < pgs.getWidth(); i++){
-				boardIndex = i + j * pgs.getHeight();
-				currentUnit = pgs.getUnitAt(i, j);
-				if(currentUnit != null){
-					board[boardIndex] = getWeightedValue(currentUnit, playerToEvaluate);
-				}
-			}//end inner loop
-		}//end outer loop
+		// Empty tiles stay 0, so only the tiles occupied by units need to be visited
+		for(Unit currentUnit : pgs.getUnits()){
+			int boardIndex = currentUnit.getX() + currentUnit.getY() * pgs.getHeight();
+			board[boardIndex] = getWeightedValue(currentUnit, playerToEvaluate);
+		}
 		return board;
 	}
 
@@ -52,81 +52,82 @@ public class NNSimpleEvaluationFunction<T extends Network> extends NNEvaluationF
 		int mobileDeltaUpdates = 0;
 		int enemyBaseLocation = -1; //not recorded yet.
 		int friendlyBaseLocation = -1;
-		Unit currentUnit;
 		int playerAdjustment;
-		for(int i = 0; i < pgs.getWidth(); i++){
-			for(int j = 0; j < pgs.getHeight(); j++){
-				currentUnit = pgs.getUnitAt(i, j);
-				if(currentUnit != null && currentUnit.getPlayer() != RESOURCE_PLAYER && currentUnit.getType().name.equals("Base")){
-					playerAdjustment = (currentUnit.getPlayer() == playerToEvaluate) ? 0 : ENEMY_ADJUSTMENT;
-					inputs[BASES + playerAdjustment]++;
-					inputs[HARVESTED_RESOURCES + playerAdjustment] += currentUnit.getResources();
+		// Grid position of the building whose HP is recorded for each player. The HP is that of the
+		// last base, or the last barracks if there is one, in column by column order of the map.
+		int[] lastBase = new int[] {-1, -1};
+		int[] lastBarracks = new int[] {-1, -1};
+		for(Unit currentUnit : pgs.getUnits()){
+			if(currentUnit.getPlayer() != RESOURCE_PLAYER && currentUnit.getType().name.equals("Base")){
+				playerAdjustment = (currentUnit.getPlayer() == playerToEvaluate) ? 0 : ENEMY_ADJUSTMENT;
+				inputs[BASES + playerAdjustment]++;
+				inputs[HARVESTED_RESOURCES + playerAdjustment] += currentUnit.getResources();
+				if(gridPosition(pgs, currentUnit) > lastBase[playerAdjustment / ENEMY_ADJUSTMENT]){
+					lastBase[playerAdjustment / ENEMY_ADJUSTMENT] = gridPosition(pgs, currentUnit);
 					inputs[BUILDINGS_HP + playerAdjustment] = currentUnit.getHitPoints();
-					if(currentUnit.getPlayer() != playerToEvaluate){
-						//record location so it can be used later
-						// TODO: Why is this calculated in this way?
-						enemyBaseLocation = Math.max(enemyBaseLocation,(currentUnit.getY() * pgs.getWidth()) + currentUnit.getX());
-					} if(currentUnit.getPlayer() == playerToEvaluate){
-						// TODO: Why is this calculated in this way?
-						friendlyBaseLocation = Math.min(friendlyBaseLocation,(currentUnit.getY() * pgs.getWidth()) + currentUnit.getX());
-					}
+				}
+				if(currentUnit.getPlayer() != playerToEvaluate){
+					//record location so it can be used later
+					// TODO: Why is this calculated in this way?
+					enemyBaseLocation = Math.max(enemyBaseLocation,(currentUnit.getY() * pgs.getWidth()) + currentUnit.getX());
+				} if(currentUnit.getPlayer() == playerToEvaluate){
+					// TODO: Why is this calculated in this way?
+					friendlyBaseLocation = Math.min(friendlyBaseLocation,(currentUnit.getY() * pgs.getWidth()) + currentUnit.getX());
 				}
 			}
 		}
-		for(int i = 0; i < pgs.getWidth(); i++){
-			for(int j = 0; j < pgs.getHeight(); j++){
-				currentUnit = pgs.getUnitAt(i, j);
-				if(currentUnit != null){
-					playerAdjustment = (currentUnit.getPlayer() == playerToEvaluate) ? 0 : ENEMY_ADJUSTMENT;
-					double currentDistance;
-					switch(currentUnit.getType().name){
-					case "Worker":
-						inputs[WORKER + playerAdjustment] ++; //0, 8
-						inputs[HARVESTED_RESOURCES + playerAdjustment] += currentUnit.getResources(); //6, 14
-						if(currentUnit.getPlayer() == playerToEvaluate){
-							if(enemyBaseLocation != -1){
-								currentDistance = distance(currentUnit, enemyBaseLocation);
-								//incremental calculation of the avg.
-								inputs[MOBILE_DELTA] += (currentDistance - inputs[MOBILE_DELTA]) / (++mobileDeltaUpdates);
-							}
-							if(friendlyBaseLocation != -1){
-								currentDistance = distance(currentUnit, enemyBaseLocation);
-								//incremental calculation of the avg.
-								inputs[WORKER_DELTA] += (currentDistance - inputs[WORKER_DELTA]) / (++workerDeltaUpdates);
-							}
-						}
-						break;
-					case "Light": 
-						inputs[LIGHT + playerAdjustment]++; 
-						if(currentUnit.getPlayer() == playerToEvaluate && enemyBaseLocation != -1){
-							currentDistance = distance(currentUnit, enemyBaseLocation);
-							//incremental calculation of the avg.
-							inputs[MOBILE_DELTA] += (currentDistance - inputs[MOBILE_DELTA]) / (++mobileDeltaUpdates); //+1 because game state time starts at 0.
-						}
-						break;
-					case "Heavy": 
-						inputs[HEAVY + playerAdjustment]++; 
-						if(currentUnit.getPlayer() == playerToEvaluate && enemyBaseLocation != -1){
-							currentDistance = distance(currentUnit, enemyBaseLocation);
-							//incremental calculation of the avg.
-							inputs[MOBILE_DELTA] += (currentDistance - inputs[MOBILE_DELTA]) / (++mobileDeltaUpdates); //+1 because game state time starts at 0.
-						}
-						break;
-					case "Ranged": 
-						inputs[RANGED + playerAdjustment]++; 
-						if(currentUnit.getPlayer() == playerToEvaluate && enemyBaseLocation != -1){
-							currentDistance = distance(currentUnit, enemyBaseLocation);
-							//incremental calculation of the avg.
-							inputs[MOBILE_DELTA] += (currentDistance - inputs[MOBILE_DELTA]) / (++mobileDeltaUpdates); //+1 because game state time starts at 0.
-						}
-						break;
-					case "Barracks": 
-						inputs[BARRACKS + playerAdjustment]++; 
-						inputs[BUILDINGS_HP + playerAdjustment] = currentUnit.getHitPoints();
-						break;
-					default: break;
+		for(Unit currentUnit : pgs.getUnits()){
+			playerAdjustment = (currentUnit.getPlayer() == playerToEvaluate) ? 0 : ENEMY_ADJUSTMENT;
+			double currentDistance;
+			switch(currentUnit.getType().name){
+			case "Worker":
+				inputs[WORKER + playerAdjustment] ++; //0, 8
+				inputs[HARVESTED_RESOURCES + playerAdjustment] += currentUnit.getResources(); //6, 14
+				if(currentUnit.getPlayer() == playerToEvaluate){
+					if(enemyBaseLocation != -1){
+						currentDistance = distance(currentUnit, enemyBaseLocation);
+						//incremental calculation of the avg.
+						inputs[MOBILE_DELTA] += (currentDistance - inputs[MOBILE_DELTA]) / (++mobileDeltaUpdates);
+					}
+					if(friendlyBaseLocation != -1){
+						currentDistance = distance(currentUnit, enemyBaseLocation);
+						//incremental calculation of the avg.
+						inputs[WORKER_DELTA] += (currentDistance - inputs[WORKER_DELTA]) / (++workerDeltaUpdates);
 					}
 				}
+				break;
+			case "Light": 
+				inputs[LIGHT + playerAdjustment]++; 
+				if(currentUnit.getPlayer() == playerToEvaluate && enemyBaseLocation != -1){
+					currentDistance = distance(currentUnit, enemyBaseLocation);
+					//incremental calculation of the avg.
+					inputs[MOBILE_DELTA] += (currentDistance - inputs[MOBILE_DELTA]) / (++mobileDeltaUpdates); //+1 because game state time starts at 0.
+				}
+				break;
+			case "Heavy": 
+				inputs[HEAVY + playerAdjustment]++; 
+				if(currentUnit.getPlayer() == playerToEvaluate && enemyBaseLocation != -1){
+					currentDistance = distance(currentUnit, enemyBaseLocation);
+					//incremental calculation of the avg.
+					inputs[MOBILE_DELTA] += (currentDistance - inputs[MOBILE_DELTA]) / (++mobileDeltaUpdates); //+1 because game state time starts at 0.
+				}
+				break;
+			case "Ranged": 
+				inputs[RANGED + playerAdjustment]++; 
+				if(currentUnit.getPlayer() == playerToEvaluate && enemyBaseLocation != -1){
+					currentDistance = distance(currentUnit, enemyBaseLocation);
+					//incremental calculation of the avg.
+					inputs[MOBILE_DELTA] += (currentDistance - inputs[MOBILE_DELTA]) / (++mobileDeltaUpdates); //+1 because game state time starts at 0.
+				}
+				break;
+			case "Barracks": 
+				inputs[BARRACKS + playerAdjustment]++; 
+				if(gridPosition(pgs, currentUnit) > lastBarracks[playerAdjustment / ENEMY_ADJUSTMENT]){
+					lastBarracks[playerAdjustment / ENEMY_ADJUSTMENT] = gridPosition(pgs, currentUnit);
+					inputs[BUILDINGS_HP + playerAdjustment] = currentUnit.getHitPoints();
+				}
+				break;
+			default: break;
 			}
 		}
 		//normalize values
@@ -148,6 +149,15 @@ public class NNSimpleEvaluationFunction<T extends Network> extends NNEvaluationF
 		return inputs;
 	}
 
+	/**
+	 * @param pgs map the unit is on
+	 * @param u a unit on the map
+	 * @return index of the unit's cell when the map is traversed column by column
+	 */
+	private static int gridPosition(PhysicalGameState pgs, Unit u){
+		return u.getX() * pgs.getHeight() + u.getY();
+	}
+
 	private double distance(Unit currentUnit, int enemyBaseLocation){
 		int baseY = enemyBaseLocation % pgs.getWidth();
 		int baseX = enemyBaseLocation / pgs.getWidth();
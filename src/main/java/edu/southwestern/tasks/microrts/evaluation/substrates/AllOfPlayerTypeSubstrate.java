@@ -35,16 +35,19 @@ public class AllOfPlayerTypeSubstrate extends MicroRTSSubstrateInputs{
 		PhysicalGameState pgs = gs.getPhysicalGameState();
 		double[][] inputs = new double[pgs.getHeight()][pgs.getWidth()];
 
-		for(int i = 0; i < pgs.getHeight(); i++){
-			for(int j = 0; j < pgs.getWidth(); j++){
-				Unit u = pgs.getUnitAt(j, i);
-				if(u != null){
-					inputs[j][i] = valueInSub(u, evaluatedPlayer);
-				} else if(terrain && pgs.getTerrain(j, i) == PhysicalGameState.TERRAIN_WALL){
-					inputs[j][i] = 1;
+		if(terrain) {
+			for(int i = 0; i < pgs.getHeight(); i++){
+				for(int j = 0; j < pgs.getWidth(); j++){
+					if(pgs.getTerrain(j, i) == PhysicalGameState.TERRAIN_WALL){
+						inputs[j][i] = 1;
+					}
 				}
 			}
 		}
+		// Units are never on walls, so they can simply overwrite the terrain
+		for(Unit u : pgs.getUnits()){
+			inputs[u.getX()][u.getY()] = valueInSub(u, evaluatedPlayer);
+		}
 		return inputs;
 	}
 	
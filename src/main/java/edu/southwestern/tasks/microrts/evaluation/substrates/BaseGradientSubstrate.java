@@ -28,21 +28,16 @@ public class BaseGradientSubstrate extends MicroRTSSubstrateInputs{
 		baseGradientDiscountRate = Math.pow(10, (Math.log10(LOWEST_ALLOWED_BRIGHTNESS)/(pgs.getWidth()+pgs.getHeight())));
 		int previousNumBuildings = numBuildings[playerToEvaluate];
 		numBuildings[playerToEvaluate] = 0;
-		for(int i = 0; i < pgs.getHeight(); i++){
-			for(int j = 0; j < pgs.getWidth(); j++){
-				Unit u = pgs.getUnitAt(j, i);
-				if(trackBuilding(u,playerToEvaluate))
-					numBuildings[playerToEvaluate]++;
-			}
+		for(Unit u : pgs.getUnits()){
+			if(trackBuilding(u,playerToEvaluate))
+				numBuildings[playerToEvaluate]++;
 		}
 		if(previousNumBuildings != numBuildings[playerToEvaluate]){ //new building created, update inputs
 			inputs[playerToEvaluate] = new double[pgs.getHeight()][pgs.getWidth()];
-			for(int i = 0; i < pgs.getHeight(); i++){
-				for(int j = 0; j < pgs.getWidth(); j++){
-					Unit u = pgs.getUnitAt(j, i);
-					if(trackBuilding(u,playerToEvaluate)){
-						activate(j,i,1,inputs[playerToEvaluate],gs);
-					}
+			// The gradient keeps the brightest trail reaching each tile, so the order of the buildings does not matter
+			for(Unit u : pgs.getUnits()){
+				if(trackBuilding(u,playerToEvaluate)){
+					activate(u.getX(),u.getY(),1,inputs[playerToEvaluate],gs);
 				}
 			}
 		}
@@ -24,8 +24,8 @@ public class CompetitiveEnemySequence extends EnemySequence{
 		enemies = new AI[]{
 				new WorkerRush(),
 				new LightRush(),
-				new NaiveMCTS(),
-				new UCT(),
+				search(new NaiveMCTS()),
+				search(new UCT()),
 				new MLPSMCTS(),
 				new PuppetSearchMCTS(),
 				new PortfolioAI(),
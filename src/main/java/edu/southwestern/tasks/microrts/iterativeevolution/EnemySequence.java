@@ -6,6 +6,8 @@ import edu.southwestern.parameters.CommonConstants;
 import edu.southwestern.parameters.Parameters;
 import edu.southwestern.tasks.microrts.fitness.RTSFitnessFunction;
 import micro.ai.core.AI;
+import micro.ai.core.AIWithComputationBudget;
+import micro.ai.mcts.RootParallelMCTS;
 
 /**
  * @author alicequint
@@ -55,5 +57,17 @@ public abstract class EnemySequence {
 		return appropriateEnemies;
 	}
 	
-	
+	/**
+	 * Monte Carlo tree search opponents are root parallelized
+	 * when microRTSSearchTrees is more than one
+	 * 
+	 * @param serial
+	 * 				MCTS AI that has root statistics
+	 * @return
+	 * 			serial, or a RootParallelMCTS searching that many copies of it
+	 */
+	protected static AI search(AIWithComputationBudget serial) {
+		int trees = Parameters.parameters.integerParameter("microRTSSearchTrees");
+		return trees > 1 ? new RootParallelMCTS(serial, trees) : serial;
+	}
 }
\ No newline at end of file
@@ -26,8 +26,8 @@ public class FastEnemySequence extends EnemySequence{
 				new RandomBiasedAI(),
 				new POWorkerRush(),
 				new POLightRush(),
-				new NaiveMCTS(),
-				new UCT(),
+				search(new NaiveMCTS()),
+				search(new UCT()),
 				new MLPSMCTS(),
 				new PuppetSearchMCTS(),
 				new PortfolioAI(),
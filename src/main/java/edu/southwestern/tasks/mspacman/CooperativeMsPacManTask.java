@@ -67,4 +67,13 @@ public abstract class CooperativeMsPacManTask<T extends Network> extends GroupTa
         @Override
 	public void finalCleanup() {
 	}
+
+	/**
+	 * MsPacManTask keeps the current game and controllers in instance
+	 * variables, so only one team can be evaluated at a time.
+	 */
+        @Override
+	public boolean teamsCanBeEvaluatedInParallel() {
+		return false;
+	}
 }
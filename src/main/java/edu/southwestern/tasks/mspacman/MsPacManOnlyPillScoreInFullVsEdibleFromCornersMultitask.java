@@ -29,7 +29,7 @@ public class MsPacManOnlyPillScoreInFullVsEdibleFromCornersMultitask<T extends N
 	public static int NUM_GHOST_LOCATION_OPTIONS = 100;
 
 	public static int newGhostLocation(int mazeIndex, Ghost ghost) {
-		int randomChoice = RandomNumbers.randomGenerator.nextInt(NUM_GHOST_LOCATION_OPTIONS);
+		int randomChoice = RandomNumbers.generator().nextInt(NUM_GHOST_LOCATION_OPTIONS);
 		// System.out.println("mazeIndex:"+mazeIndex+",pacmanStartingPowerPillIndex:"+CommonConstants.pacmanStartingPowerPillIndex+",randomChoice:"+randomChoice+",ghostIndex:"+GameFacade.ghostToIndex(ghost.type));
 		return mazePowerPillGhostMap[mazeIndex][CommonConstants.pacmanStartingPowerPillIndex][randomChoice][GameFacade
 				.ghostToIndex(ghost.type)];
@@ -59,6 +59,7 @@ import edu.southwestern.tasks.mspacman.objectives.SurvivalAndSpeedTimeScore;
 import edu.southwestern.tasks.mspacman.objectives.TimeFramesGhostScore;
 import edu.southwestern.tasks.mspacman.objectives.TimeFramesPillScore;
 import edu.southwestern.tasks.mspacman.objectives.TimeToEatAllGhostsScore;
+import edu.southwestern.tasks.mspacman.sensors.SensorCache;
 import edu.southwestern.tasks.popacman.controllers.OldToNewPacManIntermediaryController;
 import edu.southwestern.tasks.popacman.ghosts.controllers.OldToNewGhostIntermediaryController;
 import edu.southwestern.util.ClassCreation;
@@ -590,8 +591,8 @@ public class MsPacManTask<T extends Network> extends NoisyLonerTask<T>implements
 	public GameFacade agentEval(PacManControllerFacade mspacman, GhostControllerFacade ghosts, int num) {
 		tcManager.preEval();
 		game = Parameters.parameters.booleanParameter("partiallyObservablePacman") ? 
-				new GameFacade(new pacman.game.Game(deterministic ? num : RandomNumbers.randomGenerator.nextLong())) : 
-				new GameFacade(new Game(deterministic ? num : RandomNumbers.randomGenerator.nextLong()));
+				new GameFacade(new pacman.game.Game(deterministic ? num : RandomNumbers.generator().nextLong())) : 
+				new GameFacade(new Game(deterministic ? num : RandomNumbers.generator().nextLong()));
 
 		// Collection of options that are not currently possible to set in PO PacMan
 		if(!Parameters.parameters.booleanParameter("partiallyObservablePacman")) {
@@ -816,4 +817,14 @@ public class MsPacManTask<T extends Network> extends NoisyLonerTask<T>implements
 	public void flushSubstrateMemory() {
 		// Does nothing: This task does not cache substrate information
 	}	
+
+	/**
+	 * Report how often sensor readings were retrieved from the sensor caches
+	 */
+	@Override
+	public void finalCleanup() {
+		if (CommonConstants.pacManSensorCaching) {
+			System.out.println(SensorCache.summary());
+		}
+	}
 }
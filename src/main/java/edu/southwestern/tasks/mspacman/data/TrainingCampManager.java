@@ -118,7 +118,7 @@ public class TrainingCampManager {
 		}
 		if (limit > 0) {
 			List<File> camps = Arrays.asList(genDir.listFiles(new PrefixFilter(prefix)));
-			Collections.shuffle(camps, RandomNumbers.randomGenerator);
+			Collections.shuffle(camps, RandomNumbers.generator());
 			int added = 0;
 			for (File c : camps) {
 				if (mainCamps && added >= limit) {
@@ -213,7 +213,7 @@ public class TrainingCampManager {
 		if (remainingLives == 0) {
 			NNPacManController.timesDied++;
 			if (recentStates != null && recentStates.memoryFull()
-					&& RandomNumbers.randomGenerator.nextDouble() < CommonConstants.percentDeathCampsToSave) {
+					&& RandomNumbers.generator().nextDouble() < CommonConstants.percentDeathCampsToSave) {
 
 				Game shortlyBeforeDeath = recentStates.beginningOfMemory();
 				FileUtilities.simpleFileWrite(genPath + "/PreDeathState-" + gen + "-" + (saveNumber++) + ".txt",
@@ -232,7 +232,7 @@ public class TrainingCampManager {
 	public static void ghostEatingCamp(int time) {
 		// Make training camp out of this situation
 		if (TrainingCampManager.recentStates != null && TrainingCampManager.recentStates.memoryFull()
-				&& RandomNumbers.randomGenerator.nextDouble() < CommonConstants.percentPowerPillCampsToSave) {
+				&& RandomNumbers.generator().nextDouble() < CommonConstants.percentPowerPillCampsToSave) {
 			Game shortlyBeforeEatingPowerPill = TrainingCampManager.recentStates.beginningOfMemory();
 			int gen = ((GenerationalEA) MMNEAT.ea).currentGeneration();
 			String genPath = FileUtilities.getSaveDirectory() + "/camps/" + gen;
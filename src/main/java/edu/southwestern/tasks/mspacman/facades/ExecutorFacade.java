@@ -132,7 +132,7 @@ public class ExecutorFacade {
 	public void forceGame(GameFacade game, PacManControllerFacade mspacman, GhostControllerFacade ghosts, MOVE move) {
 		assert poE != null : "This method is only for the CustomExecutor class";
 		if(poE != null) {
-			forceGame(mspacman, ghosts, game, move, Parameters.parameters.booleanParameter("watch"));
+			forceGame(mspacman, ghosts, game, move, Parameters.parameters.snapshot().watch);
 		} else {
 			throw new UnsupportedOperationException("This method is only for the CustomExecutor class");
 		}
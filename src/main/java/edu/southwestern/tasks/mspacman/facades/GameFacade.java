@@ -16,6 +16,7 @@ import org.apache.commons.lang3.ArrayUtils;
 import edu.southwestern.parameters.CommonConstants;
 import edu.southwestern.parameters.Parameters;
 import edu.southwestern.tasks.mspacman.ghosts.GhostComparator;
+import edu.southwestern.tasks.mspacman.sensors.SensorCache;
 import edu.southwestern.util.datastructures.ArrayUtil;
 import edu.southwestern.util.datastructures.Pair;
 import edu.southwestern.util.datastructures.Quad;
@@ -46,6 +47,7 @@ public class GameFacade {
 	public boolean useGhostModel = Parameters.parameters.booleanParameter("useGhostModel");
 	public int timeOfLastEatenPill;
 	public int timeOfLastEatenPowerPill;
+	private SensorCache sensorCache = null; // Created when first needed
 
 	/**
 	 * Has a popacman version.
@@ -386,6 +388,30 @@ public class GameFacade {
 		poG = g;
 	}
 
+	/**
+	 * Memoized sensor readings and shared sensor sub-results for this game.
+	 * Belongs to this facade alone, so it is safe under parallel evaluation.
+	 * @return the sensor cache of this facade
+	 */
+	public SensorCache sensorCache() {
+		if(sensorCache == null) {
+			sensorCache = new SensorCache();
+		}
+		return sensorCache;
+	}
+
+	/**
+	 * Same as getGhostPath, but the path is shared by all sensors
+	 * in the current time step, and must not be modified.
+	 *
+	 * @param ghostIndex ghost id
+	 * @param target target ghost is approaching
+	 * @return shortest path ghost can take as array of int
+	 */
+	public int[] getSharedGhostPath(int ghostIndex, int target) {
+		return sensorCache().ghostPath(this, ghostIndex, target);
+	}
+
 	/**
 	 * gets times taken to eat each pill.
 	 * @return list of times
@@ -0,0 +1,178 @@
+package edu.southwestern.tasks.mspacman.sensors;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import edu.southwestern.tasks.mspacman.facades.GameFacade;
+import edu.southwestern.tasks.mspacman.sensors.blocks.MsPacManSensorBlock;
+
+/**
+ * Memoization of sensor values within a single time step of one game.
+ * Each GameFacade has its own cache, so evaluations running in parallel
+ * never share entries. Besides the complete output of each sensor block,
+ * the cache holds sub-results that several blocks need, such as ghost paths
+ * to Ms. Pac-Man and distance lists to each type of target.
+ *
+ * Entries are only valid for the time step they were computed in, which is
+ * identified by the total game time. Hit and miss counts are collected across
+ * all caches so that the benefit of caching can be reported.
+ */
+public class SensorCache {
+
+	private static final LongAdder hits = new LongAdder();
+	private static final LongAdder misses = new LongAdder();
+
+	/**
+	 * Value computed at a particular time step. The value array of a sensor
+	 * block is reused on later time steps.
+	 */
+	private static class Entry<T> {
+		int time;
+		T value;
+
+		Entry(int time, T value) {
+			this.time = time;
+			this.value = value;
+		}
+	}
+
+	// Keyed by identity: each block instance in a mediator has its own readings
+	private final IdentityHashMap<MsPacManSensorBlock, Entry<double[]>> sensors = new IdentityHashMap<MsPacManSensorBlock, Entry<double[]>>();
+	private final HashMap<Object, Entry<Object>> shared = new HashMap<Object, Entry<Object>>();
+	private Entry<int[]>[] ghostPaths = null;
+	private int[] ghostPathTargets = null;
+
+	/**
+	 * Fill in the readings of a sensor block, either from the cache or by
+	 * calling incorporateSensors on the block and remembering the result.
+	 *
+	 * @param block sensor block to read
+	 * @param inputs sensor readings under construction
+	 * @param in starting index in inputs
+	 * @param gf game the readings come from
+	 * @param lastDirection the actual last direction pacman was moving in
+	 * @return position of next index in inputs
+	 */
+	public int sensors(MsPacManSensorBlock block, double[] inputs, int in, GameFacade gf, int lastDirection) {
+		int time = gf.getTotalTime();
+		int toAdd = block.numberAdded();
+		Entry<double[]> entry = sensors.get(block);
+		if (entry != null && entry.time == time) {
+			hits.increment();
+			System.arraycopy(entry.value, 0, inputs, in, toAdd);
+			return in + toAdd;
+		}
+		misses.increment();
+		int result = block.incorporateSensors(inputs, in, gf, lastDirection);
+		if (entry == null) {
+			entry = new Entry<double[]>(time, new double[toAdd]);
+			sensors.put(block, entry);
+		}
+		entry.time = time;
+		System.arraycopy(inputs, in, entry.value, 0, toAdd);
+		return result;
+	}
+
+	/**
+	 * Sub-result shared by several sensor blocks in the current time step.
+	 * The key must identify everything the result depends on, other than the
+	 * game state itself. Callers must not modify the returned value.
+	 *
+	 * @param key identifies the result
+	 * @param gf game the result comes from
+	 * @param compute computes the result if it is not cached
+	 * @return the shared result
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T shared(Object key, GameFacade gf, Supplier<T> compute) {
+		int time = gf.getTotalTime();
+		Entry<Object> entry = shared.get(key);
+		if (entry != null && entry.time == time) {
+			hits.increment();
+			return (T) entry.value;
+		}
+		misses.increment();
+		T value = compute.get();
+		if (entry == null) {
+			shared.put(key, new Entry<Object>(time, value));
+		} else {
+			entry.time = time;
+			entry.value = value;
+		}
+		return value;
+	}
+
+	/**
+	 * Path of a ghost to a target node, shared by all blocks in the current
+	 * time step. Callers must not modify the returned path.
+	 *
+	 * @param gf game the path comes from
+	 * @param ghostIndex index of the ghost
+	 * @param target node the ghost path leads to
+	 * @return path from the ghost to the target, as from GameFacade.getGhostPath
+	 */
+	@SuppressWarnings("unchecked")
+	public int[] ghostPath(GameFacade gf, int ghostIndex, int target) {
+		if (ghostPaths == null || ghostIndex >= ghostPaths.length) {
+			int size = Math.max(ghostIndex + 1, gf.getNumActiveGhosts());
+			Entry<int[]>[] paths = new Entry[size];
+			int[] targets = new int[size];
+			if (ghostPaths != null) {
+				System.arraycopy(ghostPaths, 0, paths, 0, ghostPaths.length);
+				System.arraycopy(ghostPathTargets, 0, targets, 0, ghostPathTargets.length);
+			}
+			ghostPaths = paths;
+			ghostPathTargets = targets;
+		}
+		int time = gf.getTotalTime();
+		Entry<int[]> entry = ghostPaths[ghostIndex];
+		if (entry != null && entry.time == time && ghostPathTargets[ghostIndex] == target) {
+			hits.increment();
+			return entry.value;
+		}
+		misses.increment();
+		int[] path = gf.getGhostPath(ghostIndex, target);
+		if (entry == null) {
+			ghostPaths[ghostIndex] = new Entry<int[]>(time, path);
+		} else {
+			entry.time = time;
+			entry.value = path;
+		}
+		ghostPathTargets[ghostIndex] = target;
+		return path;
+	}
+
+	/**
+	 * @return cache hits across all games since the counts were last reset
+	 */
+	public static long hits() {
+		return hits.sum();
+	}
+
+	/**
+	 * @return cache misses across all games since the counts were last reset
+	 */
+	public static long misses() {
+		return misses.sum();
+	}
+
+	/**
+	 * Reset hit and miss counts
+	 */
+	public static void resetCounts() {
+		hits.reset();
+		misses.reset();
+	}
+
+	/**
+	 * @return summary of hits and misses
+	 */
+	public static String summary() {
+		long h = hits();
+		long m = misses();
+		long total = h + m;
+		return "Sensor cache: " + h + " hits, " + m + " misses" + (total == 0 ? "" : String.format(" (%.1f%% hit rate)", (100.0 * h) / total));
+	}
+}
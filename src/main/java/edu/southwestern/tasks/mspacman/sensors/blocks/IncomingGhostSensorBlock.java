@@ -31,7 +31,7 @@ public class IncomingGhostSensorBlock extends MsPacManSensorBlock {
 		boolean[] approachingFromDirection = new boolean[GameFacade.NUM_DIRS];
 		for (int i = 0; i < CommonConstants.numActiveGhosts; i++) {
 			if (threats ? gf.isGhostThreat(i) : gf.isGhostEdible(i)) {
-				int[] ghostPathToPacMan = gf.getGhostPath(i, current);
+				int[] ghostPathToPacMan = gf.getSharedGhostPath(i, current);
 				assert gf.getGhostCurrentNodeIndex(i) == current
 						|| ghostPathToPacMan.length > 0 : "Ghost Path too short: ghost index: " + i + ":ghost loc:"
 								+ gf.getGhostCurrentNodeIndex(i) + ":pacman loc:" + current + ":threats:" + threats;
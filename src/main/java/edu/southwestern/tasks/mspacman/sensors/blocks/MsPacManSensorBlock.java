@@ -1,8 +1,6 @@
 package edu.southwestern.tasks.mspacman.sensors.blocks;
 
 import edu.southwestern.tasks.mspacman.facades.GameFacade;
-import edu.southwestern.util.datastructures.Pair;
-import java.util.HashMap;
 
 /**
  *
@@ -10,9 +8,6 @@ import java.util.HashMap;
  */
 public abstract class MsPacManSensorBlock {
 
-	// Key is Block hash code, pair of level time and sensor values
-	private static HashMap<MsPacManSensorBlock, Pair<Integer, double[]>> sensorRecord = new HashMap<MsPacManSensorBlock, Pair<Integer, double[]>>();
-
 	/**
 	 * Takes a set of input values under construction, and from the index of
 	 * startPoint, starts adding sensor values. Then the index after the last
@@ -32,31 +27,21 @@ public abstract class MsPacManSensorBlock {
 
 	/**
 	 * Performs the same action as incorporateSensors, but stores the result
-	 * statically, so that it can be retrieved by other calls that want to
-	 * access it on the same
+	 * in the sensor cache of the game facade, so that it can be retrieved by
+	 * other calls that want to access it in the same time step of the same game.
 	 * 
 	 * @param inputs
+	 *            = sensor readings under construction, modified by side effects
 	 * @param in
+	 *            = starting index in inputs
 	 * @param gf
+	 *            = Game Facade to get sensor readings from
 	 * @param lastDirection
-	 * @return
+	 *            = the actual last direction pacman was moving in
+	 * @return position of next index in inputs to add a sensor reading
 	 */
 	public int retrieveSensors(double[] inputs, int in, GameFacade gf, int lastDirection) {
-		Pair<Integer, double[]> previousCalculation = sensorRecord.get(this);
-		int currentTime = gf.getCurrentLevelTime();
-		int toAdd = numberAdded();
-		if (previousCalculation == null || previousCalculation.t1 != currentTime) {
-			int result = incorporateSensors(inputs, in, gf, lastDirection);
-			double[] store = new double[toAdd];
-			System.arraycopy(inputs, in, store, 0, toAdd);
-			sensorRecord.put(this, new Pair<Integer, double[]>(currentTime, store));
-			return result;
-		} else {
-			// System.out.println("Retrieved cached sensor result: " +
-			// this.getClass().getSimpleName());
-			System.arraycopy(previousCalculation.t2, 0, inputs, in, toAdd);
-			return in + toAdd;
-		}
+		return gf.sensorCache().sensors(this, inputs, in, gf, lastDirection);
 	}
 
 	public abstract int incorporateLabels(String[] labels, int in);
@@ -24,7 +24,7 @@ public class EscapeRoutePortionRemainingBlock extends TargetPortionRemainingBloc
 		final int current = gf.getPacmanCurrentNodeIndex();
 		int[] neighbors = gf.neighbors(current);
 		for (int j = 0; j < gf.getNumActiveGhosts(); j++) {
-			int[] ghostPath = gf.getGhostPath(j, current);
+			int[] ghostPath = gf.getSharedGhostPath(j, current);
 			for (int i = 0; i < neighbors.length; i++) {
 				if (neighbors[i] != -1) {
 					boolean incoming = 0 < ArrayUtil.countOccurrences(neighbors[i], ghostPath);
@@ -0,0 +1,104 @@
+package edu.southwestern.tasks.mspacman.sensors.blocks.distance;
+
+import edu.southwestern.tasks.mspacman.facades.GameFacade;
+import edu.southwestern.util.datastructures.ArrayUtil;
+
+/**
+ * Types of targets that several distance blocks measure, such as the nearest
+ * and farthest pill. The distances from pacman to each type of target are
+ * computed once per time step and shared through the SensorCache of the game,
+ * keyed by the type of target.
+ */
+public enum DistanceTargets {
+	PILLS {
+		@Override
+		public int[] getTargets(GameFacade gf) {
+			return gf.getActivePillsIndices();
+		}
+	},
+	POWER_PILLS {
+		@Override
+		public int[] getTargets(GameFacade gf) {
+			return gf.getActivePowerPillsIndices();
+		}
+	},
+	JUNCTIONS {
+		@Override
+		public int[] getTargets(GameFacade gf) {
+			return gf.getJunctionIndices();
+		}
+	};
+
+	public abstract int[] getTargets(GameFacade gf);
+
+	/**
+	 * Shortest path distances from pacman to each target, shared by all
+	 * blocks in the current time step. Callers must not modify the array.
+	 *
+	 * @param gf game
+	 * @return distances as from distances(gf, targets)
+	 */
+	public double[] distances(GameFacade gf) {
+		return gf.sensorCache().shared(this, gf, () -> distances(gf, getTargets(gf)));
+	}
+
+	/**
+	 * @param gf game
+	 * @return distance to the nearest target, or MAX_DISTANCE if there is none
+	 */
+	public double nearest(GameFacade gf) {
+		double[] distances = distances(gf);
+		double nearest = GameFacade.MAX_DISTANCE;
+		if (distances != null) {
+			for (double d : distances) {
+				if (d < nearest) { // Never true for NaN
+					nearest = d;
+				}
+			}
+		}
+		return nearest;
+	}
+
+	/**
+	 * @param gf game
+	 * @return distance to the farthest target (at most MAX_DISTANCE), or
+	 *         MAX_DISTANCE if there is none
+	 */
+	public double farthest(GameFacade gf) {
+		double[] distances = distances(gf);
+		double farthest = -1;
+		if (distances != null) {
+			for (double d : distances) {
+				if (d > farthest) { // Never true for NaN
+					farthest = d;
+				}
+			}
+		}
+		return farthest < 0 ? GameFacade.MAX_DISTANCE : Math.min(farthest, GameFacade.MAX_DISTANCE);
+	}
+
+	/**
+	 * Shortest path distances from pacman to each target, with NaN for
+	 * targets in the lair.
+	 *
+	 * @param gf game
+	 * @param targets node indices of targets, where -1 is in the lair
+	 * @return distances, or null if there are no targets to measure
+	 */
+	public static double[] distances(GameFacade gf, int[] targets) {
+		int current = gf.getPacmanCurrentNodeIndex();
+		if (current == -1 || targets == null || targets.length == 0
+				|| ArrayUtil.countOccurrences(-1, targets) == targets.length) {
+			return null;
+		}
+		double[] distances = new double[targets.length];
+		for (int i = 0; i < targets.length; i++) {
+			if (targets[i] == -1 || gf.getNumNeighbours(targets[i]) == 0) { // In lair
+				distances[i] = Double.NaN;
+			} else {
+				distances[i] = gf.getShortestPathDistance(current, targets[i]);
+			}
+		}
+		return distances;
+	}
+}
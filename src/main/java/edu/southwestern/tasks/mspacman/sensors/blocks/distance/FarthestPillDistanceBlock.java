@@ -13,6 +13,11 @@ public class FarthestPillDistanceBlock extends FarthestDistanceBlock {
 		return gf.getActivePillsIndices();
 	}
 
+	@Override
+	public DistanceTargets getTargetSet() {
+		return DistanceTargets.PILLS;
+	}
+
 	@Override
 	public String getType() {
 		return "Pill";
@@ -13,6 +13,11 @@ public class FarthestPowerPillDistanceBlock extends FarthestDistanceBlock {
 		return gf.getActivePowerPillsIndices();
 	}
 
+	@Override
+	public DistanceTargets getTargetSet() {
+		return DistanceTargets.POWER_PILLS;
+	}
+
 	@Override
 	public String getType() {
 		return "Power Pill";
@@ -16,6 +16,11 @@ public abstract class NearestDistanceBlock extends MsPacManSensorBlock {
 
         @Override
 	public int incorporateSensors(double[] inputs, int in, GameFacade gf, int lastDirection) {
+		DistanceTargets targetSet = getTargetSet();
+		if (targetSet != null) {
+			inputs[in++] = targetSet.nearest(gf) / GameFacade.MAX_DISTANCE;
+			return in;
+		}
 		int current = gf.getPacmanCurrentNodeIndex();
 		int[] targets = getTargets(gf);
 		double distance;
@@ -32,6 +37,16 @@ public abstract class NearestDistanceBlock extends MsPacManSensorBlock {
 
 	public abstract int[] getTargets(GameFacade gf);
 
+	/**
+	 * Type of targets that other blocks also measure. The nearest distance
+	 * is then taken from the distances shared through the sensor cache.
+	 *
+	 * @return type of getTargets, or null to compute the distance here
+	 */
+	public DistanceTargets getTargetSet() {
+		return null;
+	}
+
         @Override
 	public int incorporateLabels(String[] labels, int in) {
 		labels[in++] = "Nearest " + getType() + " Distance";
@@ -13,6 +13,11 @@ public class NearestJunctionDistanceBlock extends NearestDistanceBlock {
 		return gf.getJunctionIndices();
 	}
 
+	@Override
+	public DistanceTargets getTargetSet() {
+		return DistanceTargets.JUNCTIONS;
+	}
+
 	@Override
 	public String getType() {
 		return "Junction";
@@ -13,6 +13,11 @@ public class NearestPillDistanceBlock extends NearestDistanceBlock {
 		return gf.getActivePillsIndices();
 	}
 
+	@Override
+	public DistanceTargets getTargetSet() {
+		return DistanceTargets.PILLS;
+	}
+
 	@Override
 	public String getType() {
 		return "Pill";
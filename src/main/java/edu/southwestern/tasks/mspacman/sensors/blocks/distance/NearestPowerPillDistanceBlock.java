@@ -17,6 +17,11 @@ public class NearestPowerPillDistanceBlock extends NearestDistanceBlock {
 		return gf.getActivePowerPillsIndices();
 	}
 
+	@Override
+	public DistanceTargets getTargetSet() {
+		return DistanceTargets.POWER_PILLS;
+	}
+
 	@Override
 	public String getType() {
 		return "Power Pill";
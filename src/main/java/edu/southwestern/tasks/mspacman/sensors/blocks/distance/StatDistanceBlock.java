@@ -2,7 +2,6 @@ package edu.southwestern.tasks.mspacman.sensors.blocks.distance;
 
 import edu.southwestern.tasks.mspacman.facades.GameFacade;
 import edu.southwestern.tasks.mspacman.sensors.blocks.MsPacManSensorBlock;
-import edu.southwestern.util.datastructures.ArrayUtil;
 import edu.southwestern.util.stats.Statistic;
 
 /**
@@ -39,22 +38,15 @@ public abstract class StatDistanceBlock extends MsPacManSensorBlock {
 
         @Override
 	public int incorporateSensors(double[] inputs, int in, GameFacade gf, int lastDirection) {
-		int current = gf.getPacmanCurrentNodeIndex();
-		int[] targets = getTargets(gf);
+		DistanceTargets targetSet = getTargetSet();
+		double[] targetDistances = targetSet == null ? DistanceTargets.distances(gf, getTargets(gf)) : targetSet.distances(gf);
 		double distance;
-		if (current == -1 || targets == null || targets.length == 0
-				|| ArrayUtil.countOccurrences(-1, targets) == targets.length) {
+		if (targetDistances == null) {
 			distance = zeroResult;
 		} else {
-			double[] distances = new double[targets.length];
-			for (int i = 0; i < targets.length; i++) {
-				if (targets[i] == -1 || gf.getNumNeighbours(targets[i]) == 0) { // In
-																				// lair
-					distances[i] = zeroResult;
-				} else {
-					distances[i] = gf.getShortestPathDistance(current, targets[i]);
-				}
-				distances[i] = Math.min(distances[i], GameFacade.MAX_DISTANCE);
+			double[] distances = new double[targetDistances.length];
+			for (int i = 0; i < targetDistances.length; i++) {
+				distances[i] = Math.min(Double.isNaN(targetDistances[i]) ? zeroResult : targetDistances[i], GameFacade.MAX_DISTANCE);
 			}
 			distance = stat.stat(distances);
 		}
@@ -64,6 +56,16 @@ public abstract class StatDistanceBlock extends MsPacManSensorBlock {
 
 	public abstract int[] getTargets(GameFacade gf);
 
+	/**
+	 * Type of targets whose distances other blocks also measure, so that
+	 * they are shared through the sensor cache
+	 *
+	 * @return type of getTargets, or null if other blocks do not share the targets
+	 */
+	public DistanceTargets getTargetSet() {
+		return null;
+	}
+
         @Override
 	public int incorporateLabels(String[] labels, int in) {
 		labels[in++] = stat.getClass().getSimpleName() + " " + getType() + " Distance";
@@ -32,7 +32,7 @@ public class SubstrateGhostSensorBlock  extends FullScreenSubstrateSensorBlock{
 	public int incorporateSensors(double[] inputs, int startPoint, GameFacade gf, int lastDirection) {
 		for(int i = 0; i < CommonConstants.numActiveGhosts; i++) {
 			if(Parameters.parameters.booleanParameter("senseHyperNEATGhostPath")) {
-				int[] trail = gf.getGhostPath(i, gf.getPacmanCurrentNodeIndex());
+				int[] trail = gf.getSharedGhostPath(i, gf.getPacmanCurrentNodeIndex());
 				for(int j = 0; j < trail.length; j++) {
 					int node2 = trail[j];
 					int x = gf.getNodeXCoord(node2);
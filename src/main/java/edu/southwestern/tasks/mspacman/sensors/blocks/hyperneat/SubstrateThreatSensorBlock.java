@@ -31,7 +31,7 @@ public class SubstrateThreatSensorBlock extends FullScreenSubstrateSensorBlock{
 				// index 0 gets the first ghost at that location. There could be a problem if there are two
 				// ghosts going in opposite directions, but this should be rare enough to not be worth
 				// worrying about.
-				int[] trail = gf.getGhostPath(gf.getGhostIndexOfGhostAt(node)[0], gf.getPacmanCurrentNodeIndex());
+				int[] trail = gf.getSharedGhostPath(gf.getGhostIndexOfGhostAt(node)[0], gf.getPacmanCurrentNodeIndex());
 				for(int j = 0; j < trail.length; j++) {
 					int node2 = trail[j];
 					int x = gf.getNodeXCoord(node2);
@@ -138,7 +138,7 @@ public class PinballTask<T extends Network> extends NoisyLonerTask<T>implements
 				} catch (InterruptedException e) {
 					e.printStackTrace();
 				}
-				if(Parameters.parameters.booleanParameter("stepByStep")){
+				if(Parameters.parameters.snapshot().stepByStep){
 					System.out.print("Press enter to continue");
 					MiscUtil.waitForReadStringAndEnterKeyPress();
 				}
@@ -18,7 +18,7 @@ import oldpacman.controllers.*;
 import popacman.prediction.GhostLocation;
 import popacman.prediction.PillModel;
 import popacman.prediction.fast.GhostPredictionsFast;
-import wox.serial.Easy;
+import edu.southwestern.util.file.Serialization;
 import pacman.game.Constants.GHOST;
 import pacman.game.Constants.MOVE;
 import pacman.game.internal.Maze;
@@ -49,9 +49,9 @@ public class MyPacMan extends PacmanController{
 	
 	private static final oldpacman.controllers.NewPacManController getController(String file) {
 		//Parameters.initializeParameterCollections("maxGens:200 mu:100 io:true netio:true mating:true highLevel:true infiniteEdibleTime:false imprisonedWhileEdible:false pacManLevelTimeLimit:8000 pacmanInputOutputMediator:edu.southwestern.tasks.mspacman.sensors.mediators.po.POCheckEachDirectionMediator trials:10 log:OneLifeSplit-TwoModuleMultitask saveTo:TwoModuleMultitask fs:false edibleTime:200 trapped:true specificGhostEdibleThreatSplit:true specificGhostProximityOrder:true specific:false multitaskModes:3 pacmanMultitaskScheme:edu.southwestern.tasks.mspacman.multitask.po.POProbableGhostStateModeSelector3Mod perLinkMutateRate:0.05 netLinkRate:0.4 netSpliceRate:0.2 crossoverRate:0.5 partiallyObservablePacman:true pacmanPO:true useGhostModel:true usePillModel:true probabilityThreshold:0.49 ghostPO:true rawScorePacMan:true logTWEANNData:true".split(" "));
-//		TWEANNGenotype wtf = (TWEANNGenotype) Easy.load(file);
+//		TWEANNGenotype wtf = (TWEANNGenotype) Serialization.load(file);
 		MMNEAT.loadClasses();
-		return (NewPacManController) (new NNMsPacMan<TWEANN>(((TWEANNGenotype) Easy.load(file))).controller);
+		return (NewPacManController) (new NNMsPacMan<TWEANN>(((TWEANNGenotype) Serialization.load(file))).controller);
 	}
 	
 	public MyPacMan() {
@@ -45,18 +45,19 @@ public class RawTetrisStateExtractor implements FeatureExtractor {
 		}
 		// o.intArray below contains the worldState in the first worldSize indices.
 		// No index after that point should be accessed.
+		boolean holesAsPositive = Parameters.parameters.snapshot().senseTetrisHolesAsPositive;
 		double[] result = new double[numFeatures()];
 		for (int i = 0; i < worldSize; i++) {
 			if(senseHoles && TetrisExtractorUtil.isHole(i, o.intArray)){
 				if(CommonConstants.splitRawTetrisInputs) {
 					result[i] = 0;
-					if(Parameters.parameters.booleanParameter("senseTetrisHolesAsPositive")) {
+					if(holesAsPositive) {
 						result[i + worldSize] = 1;
 					} else {						
 						result[i + worldSize] = -1;
 					}
 				} else {
-					if(Parameters.parameters.booleanParameter("senseTetrisHolesAsPositive")) {
+					if(holesAsPositive) {
 						result[i] = 1;
 					} else {
 						result[i] = -1;
@@ -1,7 +1,5 @@
 package edu.southwestern.tasks.rlglue.tetris;
 
-import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Vector;
@@ -14,12 +12,11 @@ import org.rlcommunity.rlglue.codec.types.Observation;
 import edu.southwestern.MMNEAT.MMNEAT;
 import edu.southwestern.evolution.nsga2.bd.characterizations.RemembersObservations;
 import edu.southwestern.networks.Network;
+import edu.southwestern.networks.NetworkUtil;
 import edu.southwestern.networks.dl4j.DL4JNetworkWrapper;
-import edu.southwestern.parameters.CommonConstants;
 import edu.southwestern.parameters.Parameters;
 import edu.southwestern.tasks.rlglue.RLGlueAgent;
 import edu.southwestern.util.MiscUtil;
-import edu.southwestern.util.datastructures.Pair;
 import edu.southwestern.util.random.RandomNumbers;
 import edu.southwestern.util.stats.StatisticsUtilities;
 
@@ -36,6 +33,8 @@ public class TetrisAfterStateAgent<T extends Network> extends RLGlueAgent<T> {
 	private int currentBatchPointer;
 	private boolean rlEpsilonGreedy;
 	private double rlEpsilon;
+	private boolean stepByStep;
+	private boolean rememberObservations;
 	
 	// Saved in order to replay actions to a desired afterstate. Gets refilled
 	// once the list of actions run out.
@@ -51,6 +50,8 @@ public class TetrisAfterStateAgent<T extends Network> extends RLGlueAgent<T> {
 		minibatchSize = Parameters.parameters.integerParameter("rlBatchSize");
 		rlEpsilonGreedy = Parameters.parameters.booleanParameter("rlEpsilonGreedy");
 		rlEpsilon = Parameters.parameters.doubleParameter("rlEpsilon");
+		stepByStep = Parameters.parameters.booleanParameter("stepByStep");
+		rememberObservations = Parameters.parameters.booleanParameter("rememberObservations");
 		batchInputs = new double[minibatchSize][];
 		batchOutputs = new double[minibatchSize][];
 		currentBatchPointer = 0;
@@ -105,46 +106,34 @@ public class TetrisAfterStateAgent<T extends Network> extends RLGlueAgent<T> {
 			// ArrayList<TetrisStateActionPair> forDebugging = new
 			// ArrayList<TetrisStateActionPair>();
 
-			boolean currentWatch = CommonConstants.watch;
-			CommonConstants.watch = false;
+			List<TetrisPlacement> placements = TetrisAfterStateGenerator.generatePlacements(tempState);
 
-			HashSet<TetrisStateActionPair> tetrisStateHolder = TetrisAfterStateGenerator.generateAfterStates(tempState);
-			CommonConstants.watch = currentWatch;
-			
-			// arraylist to hold the actions and outputs for later
-			ArrayList<Pair<Double, List<Integer>>> outputPairs = new ArrayList<Pair<Double, List<Integer>>>(); 
+			// Features of every afterstate, evaluated by the policy in one batch
+			double[][] afterStateInputs = new double[placements.size()][];
+			Observation afterStateObservation = new Observation(TetrisState.TETRIS_STATE_NUMBER_OF_DISCRETE_FEATURES, 0);
+			for (int i = 0; i < afterStateInputs.length; i++) {
+				placements.get(i).writeObservation(afterStateObservation);
+				afterStateInputs[i] = scaledInputs(afterStateObservation);
+			}
+			double[] outputForArgmax = valuesOfStates(afterStateInputs);
 
-			double value;
-			// for(pairs in the set){
-			for (TetrisStateActionPair i : tetrisStateHolder) {
-				value = valueOfState(i.t1);
-				
-				if(Parameters.parameters.booleanParameter("stepByStep")){
+			if(stepByStep){
+				for (double value : outputForArgmax) {
 					System.out.println("Utility:" + value);
 					System.out.print("Press enter to continue");
 					MiscUtil.waitForReadStringAndEnterKeyPress();
 				}
-				// Associate the policy's score for the after state with the
-				// list of actions leading to it
-				Pair<Double, List<Integer>> tempPair = new Pair<Double, List<Integer>>(value, i.t2);
-				outputPairs.add(tempPair);
-				// forDebugging.add(i);
-			}
-
-			double[] outputForArgmax = new double[outputPairs.size()];
-			for (int i = 0; i < outputForArgmax.length; i++) {
-				outputForArgmax[i] = outputPairs.get(i).t1;
 			}
 
 			// Stores index of move to take
 			int index;
 			if(rlEpsilonGreedy && RandomNumbers.randomCoin(rlEpsilon)) { // Explore random action
-				index = RandomNumbers.randomGenerator.nextInt(outputForArgmax.length);
+				index = RandomNumbers.generator().nextInt(outputForArgmax.length);
 			} else { // Exploit best known action
 				index = StatisticsUtilities.argmax(outputForArgmax); // action = argmax(list)
 			}
 			
-			double valueOfSPrime = outputPairs.get(index).t1;
+			double valueOfSPrime = outputForArgmax[index];
 			
 			if(backprop) {
 				// TD learning target:
@@ -166,7 +155,7 @@ public class TetrisAfterStateAgent<T extends Network> extends RLGlueAgent<T> {
 				}
 			}
 			
-			List<Integer> moveSequence = outputPairs.get(index).t2;
+			List<Integer> moveSequence = placements.get(index).actions;
 			currentActionList.addAll(moveSequence);
 			// Let the block settle and a new one spawns
 			currentActionList.add(TetrisState.NONE); 
@@ -181,24 +170,36 @@ public class TetrisAfterStateAgent<T extends Network> extends RLGlueAgent<T> {
 	}
 
 	/**
-	 * Bundles up the steps for getting a state value for a particular TetrisState.
-	 * Also useful for TD learning
-	 * @param s A TetrisState
-	 * @return Estimated long-term value of state
+	 * Network inputs for a Tetris state observation
+	 * @param o Observation of a TetrisState, without the falling piece
+	 * @return Features scaled to range [0,1] for the neural network
 	 */
-	private double valueOfState(TetrisState s) {
+	private double[] scaledInputs(Observation o) {
 		// Basic features
-		double[] inputs = MMNEAT.rlGlueExtractor.extract(s.get_observation(false));
+		double[] inputs = MMNEAT.rlGlueExtractor.extract(o);
 		// Scaled to range [0,1] for the neural network
 		double[] inputsScaled = MMNEAT.rlGlueExtractor.scaleInputs(inputs);
-		if(Parameters.parameters.booleanParameter("rememberObservations")) {
+		if(rememberObservations) {
 			((RemembersObservations) MMNEAT.task).addObservation(inputsScaled);
 		}
-		policy.flush(); // remove recurrent activation
-		// outputs is an array of length 1
-		double[] outputs = this.consultPolicy(inputsScaled);
-		assert !Double.isNaN(outputs[0]) : "Tetris eval result is NaN";
-		return outputs[0];
+		return inputsScaled;
+	}
+
+	/**
+	 * Estimated long-term values of many states. Each state is evaluated from a
+	 * flushed network, so the values are the same as evaluating one state at a time.
+	 * @param inputs Scaled network inputs of each state
+	 * @return Estimated long-term value of each state
+	 */
+	private double[] valuesOfStates(double[][] inputs) {
+		double[][] outputs = NetworkUtil.processBatch(policy, inputs);
+		double[] values = new double[outputs.length];
+		for (int i = 0; i < outputs.length; i++) {
+			// outputs is an array of length 1
+			assert !Double.isNaN(outputs[i][0]) : "Tetris eval result is NaN";
+			values[i] = outputs[i][0];
+		}
+		return values;
 	}
 	
 	
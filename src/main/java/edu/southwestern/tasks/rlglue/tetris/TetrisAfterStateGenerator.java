@@ -5,14 +5,19 @@
  */
 package edu.southwestern.tasks.rlglue.tetris;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.LinkedList;
-import java.util.Queue;
+import java.util.List;
 
 import org.rlcommunity.environments.tetris.TetrisState;
 
 public class TetrisAfterStateGenerator {
 
+	private static final int[] ACT_ORDER = { TetrisState.FALL, TetrisState.NONE, TetrisState.LEFT, TetrisState.RIGHT, TetrisState.CW, TetrisState.CCW };
+	// Lowest possible x or y of a shape array whose filled part is on the board
+	private static final int MIN_POSITION = -4;
+
 	/**
 	 * Takes in the current Tetris state and finds each of the possible after
 	 * states, as well as the actions to get to that state. The after states
@@ -24,33 +29,103 @@ public class TetrisAfterStateGenerator {
 	 * @return set of pairs (evaluated after-states and list of actions)
 	 */
 	public static HashSet<TetrisStateActionPair> generateAfterStates(TetrisState ts) {
-		int[] actOrder = { TetrisState.FALL, TetrisState.NONE, TetrisState.LEFT, TetrisState.RIGHT, TetrisState.CW, TetrisState.CCW }; 
-		
 		// only ever as big as # of orientations times the width
-		HashSet<TetrisStateActionPair> evaluated = new HashSet<TetrisStateActionPair>(); 
-		HashSet<TetrisState> seen = new HashSet<TetrisState>();
-		Queue<TetrisStateActionPair> fringe = new LinkedList<TetrisStateActionPair>();
-		fringe.add(new TetrisStateActionPair(ts));
-		seen.add(new TetrisState(ts));
-
-		while (!fringe.isEmpty()) {
-			TetrisStateActionPair pair = fringe.poll();
-			for (int i = 0; i < actOrder.length; i++) {
-				int action = actOrder[i];
-				TetrisStateActionPair copy = new TetrisStateActionPair(pair);
-				if (copy.t1.take_action(action)) {
-					copy.t2.add(action); // add action to list
-					copy.t1.update(); // result of action in the given state
-					if (!copy.t1.blockMobile) {
-						evaluated.add(copy);
-					} else if (!seen.contains(copy.t1)) {
-						fringe.add(copy);
-						seen.add(copy.t1);
+		HashSet<TetrisStateActionPair> evaluated = new HashSet<TetrisStateActionPair>();
+		for (TetrisPlacement p : generatePlacements(ts)) {
+			evaluated.add(new TetrisStateActionPair(p.toTetrisState(ts), new LinkedList<Integer>(p.actions)));
+		}
+		return evaluated;
+	}
+
+	/**
+	 * Breadth first search over the positions (rotation, x, y) of the falling
+	 * piece, taking each action and then falling one row like TetrisState.update.
+	 * Positions are checked on a TetrisBitBoard and marked in a flat array, and
+	 * the action sequences are only built for the positions where the piece
+	 * settles. Placements that leave the same board are only returned once,
+	 * with the shortest action sequence.
+	 *
+	 * @param ts
+	 *            Start state, whose world does not include the falling piece
+	 * @return distinct afterstates in the order in which they are found
+	 */
+	public static List<TetrisPlacement> generatePlacements(TetrisState ts) {
+		TetrisBitBoard board = new TetrisBitBoard(ts);
+		TetrisBitBoard.Piece piece = new TetrisBitBoard.Piece(TetrisState.POSSIBLE_BLOCKS.get(ts.currentBlockId));
+		int columns = board.getWidth() - MIN_POSITION;
+		int rows = board.getHeight() - MIN_POSITION;
+		int positions = TetrisState.TETRIS_STATE_NUMBER_POSSIBLE_BLOCKS_ORIENTATIONS * columns * rows;
+		// For each visited position, the one it was reached from and the action taken
+		int[] parent = new int[positions];
+		int[] action = new int[positions];
+		boolean[] seen = new boolean[positions];
+		int[] fringe = new int[positions];
+		int head = 0;
+		int tail = 0;
+
+		List<TetrisPlacement> placements = new ArrayList<TetrisPlacement>();
+		HashSet<TetrisBitBoard> boards = new HashSet<TetrisBitBoard>();
+
+		int start = (ts.currentRotation * columns + ts.currentX - MIN_POSITION) * rows + ts.currentY - MIN_POSITION;
+		parent[start] = -1;
+		seen[start] = true;
+		fringe[tail++] = start;
+		while (head < tail) {
+			int current = fringe[head++];
+			int rotation = current / (columns * rows);
+			int x = (current / rows) % columns + MIN_POSITION;
+			int y = current % rows + MIN_POSITION;
+			for (int act : ACT_ORDER) {
+				int nextRotation = rotation;
+				int nextX = x;
+				int nextY = y;
+				switch (act) {
+				case TetrisState.CW:
+					nextRotation = (rotation + 1) % 4;
+					break;
+				case TetrisState.CCW:
+					nextRotation = rotation == 0 ? 3 : rotation - 1;
+					break;
+				case TetrisState.LEFT:
+					nextX--;
+					break;
+				case TetrisState.RIGHT:
+					nextX++;
+					break;
+				case TetrisState.FALL:
+					while (board.fits(piece, rotation, x, nextY + 1)) {
+						nextY++;
+					}
+					break;
+				default:
+					break;
+				}
+				if (!board.fits(piece, nextRotation, nextX, nextY)) {
+					continue; // Action could not be taken
+				}
+				if (board.fits(piece, nextRotation, nextX, nextY + 1)) {
+					// Still falling after the update
+					int next = (nextRotation * columns + nextX - MIN_POSITION) * rows + nextY + 1 - MIN_POSITION;
+					if (!seen[next]) {
+						seen[next] = true;
+						parent[next] = current;
+						action[next] = act;
+						fringe[tail++] = next;
+					}
+				} else {
+					// The piece settles here
+					TetrisBitBoard afterState = board.place(piece, nextRotation, nextX, nextY);
+					if (boards.add(afterState)) {
+						LinkedList<Integer> actions = new LinkedList<Integer>();
+						actions.add(act);
+						for (int p = current; parent[p] != -1; p = parent[p]) {
+							actions.addFirst(action[p]);
+						}
+						placements.add(new TetrisPlacement(ts.currentBlockId, nextRotation, nextX, nextY, afterState, new ArrayList<Integer>(actions)));
 					}
 				}
 			}
 		}
-
-		return evaluated;
+		return placements;
 	}
 }
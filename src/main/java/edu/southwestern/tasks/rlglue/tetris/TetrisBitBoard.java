@@ -0,0 +1,199 @@
+package edu.southwestern.tasks.rlglue.tetris;
+
+import java.util.Arrays;
+
+import org.rlcommunity.environments.tetris.TetrisPiece;
+import org.rlcommunity.environments.tetris.TetrisState;
+
+/**
+ * Tetris board stored as one int per row, where bit x of a row is set
+ * when column x is filled. Checking whether a piece fits or placing it
+ * takes one AND per row of the piece, instead of a scan over the 5x5
+ * shape and the int[] worldState of a TetrisState. Boards are immutable,
+ * so afterstates can share them freely.
+ */
+public class TetrisBitBoard {
+
+	/**
+	 * The filled cells of each rotation of a TetrisPiece, as row masks
+	 * relative to the left side of the 5x5 shape array.
+	 */
+	public static class Piece {
+		final int[][] rows;
+		final int[] minX;
+		final int[] maxX;
+
+		public Piece(TetrisPiece piece) {
+			rows = new int[TetrisState.TETRIS_STATE_NUMBER_POSSIBLE_BLOCKS_ORIENTATIONS][];
+			minX = new int[rows.length];
+			maxX = new int[rows.length];
+			for (int r = 0; r < rows.length; r++) {
+				int[][] shape = piece.getShape(r);
+				rows[r] = new int[shape[0].length];
+				minX[r] = Integer.MAX_VALUE;
+				maxX[r] = Integer.MIN_VALUE;
+				for (int x = 0; x < shape.length; x++) {
+					for (int y = 0; y < shape[x].length; y++) {
+						if (shape[x][y] != 0) {
+							rows[r][y] |= 1 << x;
+							minX[r] = Math.min(minX[r], x);
+							maxX[r] = Math.max(maxX[r], x);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	private final int width;
+	private final int[] rows;
+	private final int linesCleared;
+
+	/**
+	 * Board with the blocks of a TetrisState, not including the falling piece
+	 *
+	 * @param ts state to copy
+	 */
+	public TetrisBitBoard(TetrisState ts) {
+		this(TetrisState.worldWidth, new int[TetrisState.worldHeight], 0);
+		assert width < Integer.SIZE : "Board too wide for int rows: " + width;
+		for (int y = 0; y < rows.length; y++) {
+			for (int x = 0; x < width; x++) {
+				if (ts.worldState[y * width + x] != 0) {
+					rows[y] |= 1 << x;
+				}
+			}
+		}
+	}
+
+	private TetrisBitBoard(int width, int[] rows, int linesCleared) {
+		this.width = width;
+		this.rows = rows;
+		this.linesCleared = linesCleared;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return rows.length;
+	}
+
+	/**
+	 * @return number of rows cleared by the placement that produced this board
+	 */
+	public int getLinesCleared() {
+		return linesCleared;
+	}
+
+	public boolean filled(int x, int y) {
+		return (rows[y] & (1 << x)) != 0;
+	}
+
+	/**
+	 * Whether a piece with its shape array at (x,y) is in bounds and does
+	 * not overlap any block. Same as the inBounds and colliding checks of
+	 * TetrisState.
+	 *
+	 * @param piece falling piece
+	 * @param rotation orientation of the piece
+	 * @param x left side of the shape array
+	 * @param y top of the shape array
+	 * @return true if the piece can be at that position
+	 */
+	public boolean fits(Piece piece, int rotation, int x, int y) {
+		if (x + piece.minX[rotation] < 0 || x + piece.maxX[rotation] >= width) {
+			return false;
+		}
+		int[] shape = piece.rows[rotation];
+		for (int dy = 0; dy < shape.length; dy++) {
+			if (shape[dy] != 0) {
+				int row = y + dy;
+				if (row < 0 || row >= rows.length || (rows[row] & shift(shape[dy], x)) != 0) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Board after the piece settles at (x,y) and the full rows are removed.
+	 * Rows above a removed row fall down, as in TetrisState.removeRow.
+	 *
+	 * @param piece falling piece
+	 * @param rotation orientation of the piece
+	 * @param x left side of the shape array
+	 * @param y top of the shape array
+	 * @return new board
+	 */
+	public TetrisBitBoard place(Piece piece, int rotation, int x, int y) {
+		int[] result = rows.clone();
+		int[] shape = piece.rows[rotation];
+		for (int dy = 0; dy < shape.length; dy++) {
+			if (shape[dy] != 0) {
+				result[y + dy] |= shift(shape[dy], x);
+			}
+		}
+		int full = (1 << width) - 1;
+		int cleared = 0;
+		// Copy the remaining rows down, starting from the bottom
+		for (int from = result.length - 1, to = result.length - 1; to >= 0; from--, to--) {
+			while (from >= 0 && result[from] == full) {
+				from--;
+				cleared++;
+			}
+			result[to] = from >= 0 ? result[from] : 0;
+		}
+		return new TetrisBitBoard(width, result, cleared);
+	}
+
+	/**
+	 * Write the board as 0/1 values into the first width*height entries of
+	 * an array in the worldState layout of TetrisState
+	 *
+	 * @param world array to fill
+	 */
+	public void writeWorld(int[] world) {
+		for (int y = 0; y < rows.length; y++) {
+			for (int x = 0; x < width; x++) {
+				world[y * width + x] = (rows[y] >>> x) & 1;
+			}
+		}
+	}
+
+	private static int shift(int mask, int x) {
+		return x >= 0 ? mask << x : mask >>> -x;
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(rows);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null || getClass() != obj.getClass()) {
+			return false;
+		}
+		TetrisBitBoard other = (TetrisBitBoard) obj;
+		return width == other.width && Arrays.equals(rows, other.rows);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder result = new StringBuilder();
+		for (int y = 0; y < rows.length; y++) {
+			for (int x = 0; x < width; x++) {
+				result.append(filled(x, y) ? 1 : 0);
+			}
+			result.append("\n");
+		}
+		result.append("-------------");
+		return result.toString();
+	}
+}
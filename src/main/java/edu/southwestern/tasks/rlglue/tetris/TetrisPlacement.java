@@ -0,0 +1,76 @@
+package edu.southwestern.tasks.rlglue.tetris;
+
+import java.util.List;
+
+import org.rlcommunity.environments.tetris.TetrisState;
+import org.rlcommunity.rlglue.codec.types.Observation;
+
+/**
+ * One afterstate of the falling piece: where it settles (rotation, column
+ * and landing row of its 5x5 shape array), the board that results once full
+ * rows are removed, and the actions that bring the piece there.
+ */
+public class TetrisPlacement {
+
+	public final int blockId;
+	public final int rotation;
+	public final int x;
+	public final int y;
+	public final TetrisBitBoard board;
+	public final List<Integer> actions;
+
+	public TetrisPlacement(int blockId, int rotation, int x, int y, TetrisBitBoard board, List<Integer> actions) {
+		this.blockId = blockId;
+		this.rotation = rotation;
+		this.x = x;
+		this.y = y;
+		this.board = board;
+		this.actions = actions;
+	}
+
+	/**
+	 * Fill an observation with the afterstate, exactly as get_observation(false)
+	 * would for the TetrisState in which the piece has just settled. Existing
+	 * observations can be reused, since every feature is overwritten.
+	 *
+	 * @param o Observation with TETRIS_STATE_NUMBER_OF_DISCRETE_FEATURES ints
+	 */
+	public void writeObservation(Observation o) {
+		board.writeWorld(o.intArray);
+		int worldSize = board.getWidth() * board.getHeight();
+		for (int j = 0; j < TetrisState.TETRIS_STATE_NUMBER_POSSIBLE_BLOCKS; j++) {
+			o.intArray[worldSize + j] = 0;
+		}
+		o.intArray[worldSize + blockId] = 1;
+		o.intArray[TetrisState.TETRIS_STATE_CURRENT_X_INDEX] = x;
+		o.intArray[TetrisState.TETRIS_STATE_CURRENT_Y_INDEX] = y;
+		o.intArray[TetrisState.TETRIS_STATE_CURRENT_ROTATION_INDEX] = rotation;
+		o.intArray[TetrisState.TETRIS_STATE_CURRENT_HEIGHT_INDEX] = board.getHeight();
+		o.intArray[TetrisState.TETRIS_STATE_CURRENT_WIDTH_INDEX] = board.getWidth();
+	}
+
+	/**
+	 * @return new Observation of the afterstate
+	 */
+	public Observation getObservation() {
+		Observation o = new Observation(TetrisState.TETRIS_STATE_NUMBER_OF_DISCRETE_FEATURES, 0);
+		writeObservation(o);
+		return o;
+	}
+
+	/**
+	 * The full TetrisState of the afterstate, including score and line count
+	 *
+	 * @param start state before the piece moved, which contains the falling piece
+	 * @return copy of start in which the piece settled at this placement
+	 */
+	public TetrisState toTetrisState(TetrisState start) {
+		TetrisState result = new TetrisState(start);
+		result.currentRotation = rotation;
+		result.currentX = x;
+		result.currentY = y;
+		// The piece cannot fall any further, so it is written into the world
+		result.update();
+		return result;
+	}
+}
@@ -96,7 +96,7 @@ public class TetrisTask<T extends Network> extends RLGlueTask<T> implements TUGT
 	public Pair<double[], double[]> oneEval(Genotype<T> individual, int num) {
 		TetrisState.randomGenerator = Parameters.parameters.booleanParameter("deterministic") ?
 				new Random(Parameters.parameters.integerParameter("randomSeed")): // Same "random" blocks for each agent
-					RandomNumbers.randomGenerator; // Randomness
+					RandomNumbers.generator(); // Randomness
 				return super.oneEval(individual, num);
 	}
 
@@ -245,7 +245,7 @@ public class TetrisTask<T extends Network> extends RLGlueTask<T> implements TUGT
 			observations.add(inputs);
 		} else {
 			if (RandomNumbers.boundedRandom(0,1) <= Parameters.parameters.doubleParameter("syllabusChangeProbability")) {
-				observations.set(RandomNumbers.randomGenerator.nextInt(observations.size()), inputs);
+				observations.set(RandomNumbers.generator().nextInt(observations.size()), inputs);
 			}
 		}
 	}
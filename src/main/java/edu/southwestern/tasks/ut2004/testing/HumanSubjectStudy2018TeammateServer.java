@@ -18,7 +18,7 @@ import edu.southwestern.tasks.ut2004.fitness.UT2004FitnessFunction;
 import edu.southwestern.tasks.ut2004.sensors.OpponentAndTeammateRelativeSensorModel;
 import edu.southwestern.tasks.ut2004.sensors.UT2004SensorModel;
 import edu.southwestern.tasks.ut2004.weapons.SimpleWeaponManager;
-import wox.serial.Easy;
+import edu.southwestern.util.file.Serialization;
 
 public class HumanSubjectStudy2018TeammateServer {
 	public enum BOT_TYPE {Ethan, Jude, Native, None}; // Ethan = evolved, Jude = hard-coded, or native UT2004 bot, or none
@@ -44,7 +44,7 @@ public class HumanSubjectStudy2018TeammateServer {
 		String[] nativeNames = null;
 		int numNativeBotOpponents = Parameters.parameters.integerParameter("utNumNativeBots"); 
 		if(type.equals(BOT_TYPE.Ethan)) { // Ethan is the evolved bot
-			Genotype<TWEANN> ethan = (Genotype<TWEANN>) Easy.load("data" + File.separator + "unreal" + File.separator + "Study2018" + File.separator + "Ethan.xml");
+			Genotype<TWEANN> ethan = (Genotype<TWEANN>) Serialization.load("data" + File.separator + "unreal" + File.separator + "Study2018" + File.separator + "Ethan.xml");
 			sensorModel = new OpponentAndTeammateRelativeSensorModel();
 			outputModel = new OpponentAndTeammateRelativeMovementOutputModel();
 			
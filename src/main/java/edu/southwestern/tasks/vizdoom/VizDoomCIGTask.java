@@ -8,6 +8,7 @@ import edu.southwestern.evolution.genotypes.TWEANNGenotype;
 import edu.southwestern.networks.Network;
 import edu.southwestern.networks.TWEANN;
 import edu.southwestern.networks.hyperneat.Substrate;
+import edu.southwestern.parameters.ParameterSnapshot;
 import edu.southwestern.parameters.Parameters;
 import edu.southwestern.util.datastructures.Triple;
 import vizdoom.Button;
@@ -69,11 +70,12 @@ public class VizDoomCIGTask<T extends Network> extends VizDoomTask<T> {
 
 	@Override
 	public double[] getInputs(GameState s) {
-		return getInputs(s, Parameters.parameters.integerParameter("doomInputStartX"), 
-				Parameters.parameters.integerParameter("doomInputStartY"), 
-				Parameters.parameters.integerParameter("doomInputWidth"), 
-				Parameters.parameters.integerParameter("doomInputHeight"), 
-				Parameters.parameters.integerParameter("doomInputColorVal"));
+		ParameterSnapshot parameters = Parameters.parameters.snapshot();
+		return getInputs(s, parameters.doomInputStartX, 
+				parameters.doomInputStartY, 
+				parameters.doomInputWidth, 
+				parameters.doomInputHeight, 
+				parameters.doomInputColorVal);
 	}
 
 	@Override
@@ -8,6 +8,7 @@ import edu.southwestern.evolution.genotypes.TWEANNGenotype;
 import edu.southwestern.networks.Network;
 import edu.southwestern.networks.TWEANN;
 import edu.southwestern.networks.hyperneat.Substrate;
+import edu.southwestern.parameters.ParameterSnapshot;
 import edu.southwestern.parameters.Parameters;
 import edu.southwestern.util.datastructures.Triple;
 import vizdoom.Button;
@@ -66,16 +67,17 @@ public class VizDoomDeadlyCorridorTask<T extends Network> extends VizDoomTask<T>
 
 	@Override
 	public double[] getInputs(GameState s) {
-		double[] inputs = getInputs(s, Parameters.parameters.integerParameter("doomInputStartX"), 
-				Parameters.parameters.integerParameter("doomInputStartY"), 
-				Parameters.parameters.integerParameter("doomInputWidth"), 
-				Parameters.parameters.integerParameter("doomInputHeight"), 
-				Parameters.parameters.integerParameter("doomInputColorVal"));
-		if(Parameters.parameters.integerParameter("doomInputPixelSmudge") > 1){
-			return smudgeInputs(inputs, Parameters.parameters.integerParameter("doomInputWidth"), 
-					Parameters.parameters.integerParameter("doomInputHeight"), 
-					Parameters.parameters.integerParameter("doomInputColorVal"), 
-					Parameters.parameters.integerParameter("doomInputPixelSmudge"));
+		ParameterSnapshot parameters = Parameters.parameters.snapshot();
+		double[] inputs = getInputs(s, parameters.doomInputStartX, 
+				parameters.doomInputStartY, 
+				parameters.doomInputWidth, 
+				parameters.doomInputHeight, 
+				parameters.doomInputColorVal);
+		if(parameters.doomInputPixelSmudge > 1){
+			return smudgeInputs(inputs, parameters.doomInputWidth, 
+					parameters.doomInputHeight, 
+					parameters.doomInputColorVal, 
+					parameters.doomInputPixelSmudge);
 		}else{
 			return inputs;
 		}
@@ -5,6 +5,7 @@ import java.io.FileNotFoundException;
 import java.io.FilenameFilter;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Scanner;
@@ -29,6 +30,8 @@ import edu.southwestern.evolution.mutation.tweann.CauchyDeltaCodeMutation;
 import edu.southwestern.evolution.mutation.tweann.WeightRandomReplacement;
 import edu.southwestern.evolution.nsga2.NSGA2;
 import edu.southwestern.evolution.nsga2.NSGA2Score;
+import edu.southwestern.log.GenerationMetrics;
+import edu.southwestern.log.GenerationMetrics.Phase;
 import edu.southwestern.networks.TWEANN;
 import edu.southwestern.networks.hyperneat.HyperNEATTask;
 import edu.southwestern.parameters.CommonConstants;
@@ -40,7 +43,7 @@ import edu.southwestern.util.datastructures.Pair;
 import edu.southwestern.util.file.FileUtilities;
 import edu.southwestern.util.file.XMLFilter;
 import edu.southwestern.util.random.RandomNumbers;
-import wox.serial.Easy;
+import edu.southwestern.util.file.Serialization;
 
 /**
  * Several utility classes dealing with the creation
@@ -180,7 +183,7 @@ public class PopulationUtil {
 		}
 		// save all of the best objectives
 		for (int j = 0; j < bestScores.size(); j++) {
-			Easy.save(bestScores.get(j), bestDir + "/" + filePrefix + "keptGenotypesIn" + j + ".xml");
+			Serialization.save(bestScores.get(j), bestDir + "/" + filePrefix + "keptGenotypesIn" + j + ".xml");
 			FileUtilities.simpleFileWrite(bestDir + "/" + filePrefix + "genotypes" + j + ".txt", bestScores.get(j).individual.toString());
 		}
 	}
@@ -208,7 +211,7 @@ public class PopulationUtil {
 		}
 		// save all of the best objectives
 		for (int j = 0; j < bestObjectives.length; j++) {
-			Easy.save(bestGenotypes[j], bestDir + "/" + filePrefix + "bestIn" + j + ".xml");
+			Serialization.save(bestGenotypes[j], bestDir + "/" + filePrefix + "bestIn" + j + ".xml");
 			FileUtilities.simpleFileWrite(bestDir + "/" + filePrefix + "score" + j + ".txt", bestScores[j].toString());
 		}
 	}
@@ -328,17 +331,17 @@ public class PopulationUtil {
 		ArrayList<Genotype> offspring = new ArrayList<Genotype>(numChildren);
 
 		for (int i = 0; i < numChildren; i++) {
-			int e1 = RandomNumbers.randomGenerator.nextInt(parentScores.size());
-			int e2 = RandomNumbers.randomGenerator.nextInt(parentScores.size());
+			int e1 = RandomNumbers.generator().nextInt(parentScores.size());
+			int e2 = RandomNumbers.generator().nextInt(parentScores.size());
 
 			Genotype source = judge.better(parentScores.get(e1), parentScores.get(e2)).individual;
 			long parentId1 = source.getId();
 			long parentId2 = -1;
 			Genotype e = source.copy();
 
-			if (mating && RandomNumbers.randomGenerator.nextDouble() < crossoverRate) {
-				e1 = RandomNumbers.randomGenerator.nextInt(parentScores.size());
-				e2 = RandomNumbers.randomGenerator.nextInt(parentScores.size());
+			if (mating && RandomNumbers.generator().nextDouble() < crossoverRate) {
+				e1 = RandomNumbers.generator().nextInt(parentScores.size());
+				e2 = RandomNumbers.generator().nextInt(parentScores.size());
 
 				Genotype otherSource = judge.better(parentScores.get(e1), parentScores.get(e2)).individual;
 				parentId2 = otherSource.getId();
@@ -354,13 +357,17 @@ public class PopulationUtil {
 				 */
 				if (i < numChildren) {
 					// System.out.println(i + ":Mutate Child");
+					long mutationStart = GenerationMetrics.start();
 					otherOffspring.mutate();
+					GenerationMetrics.record(Phase.MUTATION, mutationStart);
 					offspring.add(otherOffspring);
 					EvolutionaryHistory.logLineageData(parentId1,parentId2,otherOffspring);
 				}
 			}
 
+			long mutationStart = GenerationMetrics.start();
 			e.mutate();
+			GenerationMetrics.record(Phase.MUTATION, mutationStart);
 			offspring.add(e);
 			if (parentId2 == -1) {
 				EvolutionaryHistory.logLineageData(parentId1,e);
@@ -398,25 +405,24 @@ public class PopulationUtil {
 	 *            How many layers to keep
 	 */
 	public static <T> void pruneDownToTopParetoLayers(ArrayList<Genotype<T>> population, NSGA2Score<T>[] scores, int layers) {
-		ArrayList<ArrayList<NSGA2Score<T>>> fronts = NSGA2.getParetoLayers(scores);		
+		ArrayList<ArrayList<NSGA2Score<T>>> fronts = NSGA2.getParetoLayers(scores);
+		// Scores in the kept layers, by genotype id. The earliest layer wins for repeated ids.
+		HashMap<Long, NSGA2Score<T>> kept = new HashMap<Long, NSGA2Score<T>>();
+		for (int i = Math.min(layers, fronts.size()) - 1; i >= 0; i--) {
+			for (NSGA2Score<T> s : fronts.get(i)) {
+				kept.put(s.individual.getId(), s);
+			}
+		}
 		// Reduce population to only contain top Pareto layers
 		Iterator<Genotype<T>> itr = population.iterator();
 		System.out.println("Reducing to top " + layers + " Pareto layers");
 		while (itr.hasNext()) {
 			Genotype<T> g = itr.next();
-			boolean found = false;
-			for (int i = 0; !found && i < layers; i++) {
-				ArrayList<NSGA2Score<T>> front = fronts.get(i);
-				for (NSGA2Score<T> s : front) {
-					if (s.individual.getId() == g.getId()) {
-						found = true;
-						System.out.println(s.individual.getId() + ":" + Arrays.toString(s.scores) + " in layer " + i);
-						break;
-					}
-				}
-			}
-			if (!found) {
+			NSGA2Score<T> s = kept.get(g.getId());
+			if (s == null) {
 				itr.remove();
+			} else {
+				System.out.println(s.individual.getId() + ":" + Arrays.toString(s.scores) + " in layer " + s.getRank());
 			}
 		}
 	}
@@ -455,7 +461,7 @@ public class PopulationUtil {
 	@SuppressWarnings("unchecked")
 	public static <T> Genotype<T> extractGenotype(String file) {
 		System.out.print("Load File: \"" + file + "\"");
-		Object loaded = Easy.load(file);
+		Object loaded = Serialization.load(file);
 		Genotype<T> individual = null;
 		if (loaded instanceof Genotype) {
 			individual = (Genotype<T>) loaded;
@@ -0,0 +1,169 @@
+package edu.southwestern.util.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * Hash map from primitive long keys to primitive int values, using open
+ * addressing with linear probing. Avoids the boxing and entry objects of
+ * HashMap&lt;Long,Integer&gt;, which matters when mapping hundreds of thousands
+ * of innovation numbers. Entries cannot be removed individually, only cleared.
+ */
+public class LongIntHashMap {
+
+	private static final double MAX_LOAD = 0.5;
+
+	private long[] keys;
+	private int[] values;
+	private boolean[] used;
+	private int size;
+	private int mask;
+
+	/**
+	 * Map with room for a few entries
+	 */
+	public LongIntHashMap() {
+		this(16);
+	}
+
+	/**
+	 * Map that can hold the expected number of entries without resizing
+	 *
+	 * @param expected expected number of entries
+	 */
+	public LongIntHashMap(int expected) {
+		allocate(capacityFor(expected));
+	}
+
+	private static int capacityFor(int expected) {
+		int capacity = 16;
+		while (capacity * MAX_LOAD < expected) {
+			capacity <<= 1;
+		}
+		return capacity;
+	}
+
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		values = new int[capacity];
+		used = new boolean[capacity];
+		mask = capacity - 1;
+		size = 0;
+	}
+
+	/**
+	 * Spread the bits of the key, since innovation numbers are sequential
+	 */
+	private static int hash(long key) {
+		key *= 0x9E3779B97F4A7C15L;
+		return (int) (key ^ (key >>> 32));
+	}
+
+	private int slot(long key) {
+		int i = hash(key) & mask;
+		while (used[i] && keys[i] != key) {
+			i = (i + 1) & mask;
+		}
+		return i;
+	}
+
+	/**
+	 * Associate a value with a key, replacing any previous value
+	 *
+	 * @param key key
+	 * @param value value
+	 */
+	public void put(long key, int value) {
+		int i = slot(key);
+		if (!used[i]) {
+			if (size + 1 > keys.length * MAX_LOAD) {
+				resize(keys.length << 1);
+				i = slot(key);
+			}
+			used[i] = true;
+			keys[i] = key;
+			size++;
+		}
+		values[i] = value;
+	}
+
+	/**
+	 * Associate a value with a key only if the key is not present yet
+	 *
+	 * @param key key
+	 * @param value value
+	 * @return true if the value was added
+	 */
+	public boolean putIfAbsent(long key, int value) {
+		if (containsKey(key)) {
+			return false;
+		}
+		put(key, value);
+		return true;
+	}
+
+	/**
+	 * Value associated with a key
+	 *
+	 * @param key key
+	 * @param missing value to return if the key is not present
+	 * @return value for key, or missing
+	 */
+	public int get(long key, int missing) {
+		int i = slot(key);
+		return used[i] ? values[i] : missing;
+	}
+
+	/**
+	 * @param key key
+	 * @return whether the key is present
+	 */
+	public boolean containsKey(long key) {
+		return used[slot(key)];
+	}
+
+	/**
+	 * @return number of entries
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Remove all entries, keeping the allocated space
+	 */
+	public void clear() {
+		Arrays.fill(used, false);
+		size = 0;
+	}
+
+	/**
+	 * Remove all entries and make sure that the expected number of entries
+	 * fits without resizing. Space is only reallocated if it must grow.
+	 *
+	 * @param expected expected number of entries
+	 */
+	public void clear(int expected) {
+		int capacity = capacityFor(expected);
+		if (capacity > keys.length) {
+			allocate(capacity);
+		} else {
+			clear();
+		}
+	}
+
+	private void resize(int capacity) {
+		long[] oldKeys = keys;
+		int[] oldValues = values;
+		boolean[] oldUsed = used;
+		allocate(capacity);
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldUsed[i]) {
+				int j = slot(oldKeys[i]);
+				used[j] = true;
+				keys[j] = oldKeys[i];
+				values[j] = oldValues[i];
+				size++;
+			}
+		}
+	}
+}
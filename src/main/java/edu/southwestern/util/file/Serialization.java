@@ -0,0 +1,194 @@
+package edu.southwestern.util.file;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+
+import org.jdom.Document;
+import org.jdom.Element;
+import org.jdom.JDOMException;
+import org.jdom.input.SAXBuilder;
+import org.jdom.output.XMLOutputter;
+
+import edu.southwestern.evolution.genotypes.BinaryGenotypeCodec;
+import edu.southwestern.parameters.Parameters;
+import wox.serial.Easy;
+import wox.serial.SimpleReader;
+import wox.serial.SimpleWriter;
+
+/**
+ * Saving and loading of genotypes, archetypes and other objects. Callers
+ * always refer to files by their .xml name. When binaryGenotypes is true and
+ * the object has a binary encoding (see BinaryGenotypeCodec), the file is
+ * instead written in the binary format with a .bin extension. Otherwise the
+ * object is saved as XML with wox.serial.Easy, as before.
+ *
+ * Loading accepts either format, so resumes and post-evaluation experiments
+ * work with runs saved either way.
+ */
+public class Serialization {
+
+	public static final String XML_EXTENSION = ".xml";
+	public static final String BINARY_EXTENSION = ".bin";
+
+	/**
+	 * Save an object to file, in binary form if possible and enabled.
+	 * Any file of the other format with the same name is deleted,
+	 * so that a later load cannot find stale contents.
+	 *
+	 * @param ob Object to save
+	 * @param filename Path to the file, normally ending in .xml
+	 */
+	public static void save(Object ob, String filename) {
+		boolean binary = Parameters.parameters != null && Parameters.parameters.booleanParameter("binaryGenotypes")
+				&& BinaryGenotypeCodec.canEncode(ob);
+		String target = binary ? binaryName(filename) : filename;
+		String other = binary ? filename : binaryName(filename);
+		if (binary) {
+			try {
+				BinaryGenotypeCodec.save(ob, target);
+			} catch (IOException e) {
+				System.out.println("Could not save " + target);
+				e.printStackTrace();
+				System.exit(1);
+			}
+		} else {
+			Easy.save(ob, target);
+		}
+		if (!other.equals(target)) {
+			new File(other).delete();
+		}
+	}
+
+	/**
+	 * Export an object as XML regardless of the binaryGenotypes setting.
+	 * Useful for inspecting or sharing individual genotypes.
+	 *
+	 * @param ob Object to save
+	 * @param filename Path to the xml file
+	 */
+	public static void exportXML(Object ob, String filename) {
+		Easy.save(ob, filename);
+	}
+
+	/**
+	 * Load an object saved by save (or by Easy.save). The format is detected
+	 * from the file contents. If the named file does not exist, the file
+	 * with the other extension is used instead.
+	 *
+	 * @param filename Path to the file, with either extension
+	 * @return Loaded object, or null on failure (like Easy.load)
+	 */
+	public static Object load(String filename) {
+		String file = existingFile(filename);
+		if (BinaryGenotypeCodec.isBinaryFile(file)) {
+			try {
+				return BinaryGenotypeCodec.load(file);
+			} catch (IOException e) {
+				e.printStackTrace();
+				return null;
+			}
+		} else {
+			return Easy.load(file);
+		}
+	}
+
+	/**
+	 * Encode an object in memory, for sending to another process. The binary
+	 * encoding is used whenever the object has one, regardless of
+	 * binaryGenotypes, since the bytes are never stored. Other objects are
+	 * encoded as wox XML.
+	 *
+	 * @param ob Object to encode
+	 * @return Encoded bytes, which fromBytes turns back into an equivalent object
+	 */
+	public static byte[] toBytes(Object ob) {
+		if (BinaryGenotypeCodec.canEncode(ob)) {
+			return BinaryGenotypeCodec.encode(ob);
+		}
+		try {
+			Element el = new SimpleWriter().write(ob);
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			new XMLOutputter().output(el, bytes);
+			return bytes.toByteArray();
+		} catch (IOException e) {
+			// Not possible when writing to memory
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Decode an object encoded by toBytes. The format is detected from the contents.
+	 *
+	 * @param bytes Encoded object
+	 * @return Decoded object
+	 * @throws IOException if the bytes cannot be decoded
+	 */
+	public static Object fromBytes(byte[] bytes) throws IOException {
+		if (BinaryGenotypeCodec.isBinary(bytes)) {
+			return BinaryGenotypeCodec.decode(bytes);
+		}
+		try {
+			Document doc = new SAXBuilder().build(new ByteArrayInputStream(bytes));
+			return new SimpleReader().read(doc.getRootElement());
+		} catch (JDOMException e) {
+			throw new IOException("Could not parse encoded object", e);
+		}
+	}
+
+	/**
+	 * Whether a file saved under this name exists in either format.
+	 *
+	 * @param filename Path to the file, with either extension
+	 * @return true if it exists
+	 */
+	public static boolean exists(String filename) {
+		return new File(existingFile(filename)).exists();
+	}
+
+	/**
+	 * Whether a file name refers to a saved object in either format.
+	 * Used to filter directory listings.
+	 *
+	 * @param name File name
+	 * @return true for .xml and .bin files
+	 */
+	public static boolean isSavedObjectName(String name) {
+		return name.endsWith(XML_EXTENSION) || name.endsWith(BINARY_EXTENSION);
+	}
+
+	/**
+	 * The file that actually holds the object saved under the given name:
+	 * the named file if it exists, otherwise the version with the other
+	 * extension if that exists. The given name is returned if neither exists.
+	 *
+	 * @param filename Path to the file, with either extension
+	 * @return Path of existing file
+	 */
+	public static String existingFile(String filename) {
+		if (new File(filename).exists()) {
+			return filename;
+		}
+		String alternative = filename.endsWith(BINARY_EXTENSION)
+				? filename.substring(0, filename.length() - BINARY_EXTENSION.length()) + XML_EXTENSION
+				: binaryName(filename);
+		return new File(alternative).exists() ? alternative : filename;
+	}
+
+	/**
+	 * Name of the binary file corresponding to a file name
+	 *
+	 * @param filename Name that usually ends in .xml
+	 * @return Name ending in .bin
+	 */
+	private static String binaryName(String filename) {
+		if (filename.endsWith(BINARY_EXTENSION)) {
+			return filename;
+		}
+		if (filename.endsWith(XML_EXTENSION)) {
+			filename = filename.substring(0, filename.length() - XML_EXTENSION.length());
+		}
+		return filename + BINARY_EXTENSION;
+	}
+}
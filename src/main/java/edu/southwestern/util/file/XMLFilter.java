@@ -4,7 +4,8 @@ import java.io.File;
 import java.io.FilenameFilter;
 
 /**
- * Filename filter that accepts files ending with the xml extension.
+ * Filename filter that accepts files ending with the xml extension,
+ * as well as binary genotype files (see Serialization).
  * 
  * @author Jacob
  */
@@ -12,6 +13,6 @@ public class XMLFilter implements FilenameFilter {
 
 	@Override
 	public boolean accept(File dir, String name) {
-		return !name.startsWith(".") && name.endsWith("xml");
+		return !name.startsWith(".") && (name.endsWith("xml") || name.endsWith(Serialization.BINARY_EXTENSION));
 	}
 }
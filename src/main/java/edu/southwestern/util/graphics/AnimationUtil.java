@@ -9,7 +9,6 @@ import javax.imageio.stream.FileImageOutputStream;
 import javax.imageio.stream.ImageOutputStream;
 
 import edu.southwestern.networks.Network;
-import edu.southwestern.tasks.interactive.objectbreeder.ThreeDimensionalObjectBreederTask;
 
 /**
  * Series of utility methods used to create and manipulate
@@ -25,6 +24,7 @@ public class AnimationUtil {
 
 	/**
 	 * Utility method that generates an array of images based on an input CPPN.
+	 * Frames are rendered in parallel unless parallelRendering is false.
 	 * 
 	 * @param n CPPN used to create image
 	 * @param imageWidth width of created image
@@ -35,11 +35,7 @@ public class AnimationUtil {
 	 * @return Array of images that can be animated in a JApplet
 	 */
 	public static BufferedImage[] imagesFromCPPN(Network n, int imageWidth, int imageHeight, int startTime, int endTime, double[] inputMultiples) {
-		BufferedImage[] images = new BufferedImage[endTime-startTime];
-		for(int i = startTime; i < endTime; i++) {
-			images[i-startTime] = GraphicsUtil.imageFromCPPN(n, imageWidth, imageHeight, inputMultiples, i/FRAMES_PER_SEC);
-		}
-		return images;
+		return ParallelRenderer.imagesFromCPPN(n, imageWidth, imageHeight, startTime, endTime, inputMultiples);
 	}		
 	
 	/**
@@ -58,11 +54,7 @@ public class AnimationUtil {
 	 * @return
 	 */
 	public static BufferedImage[] shapesFromCPPN(Network n, int imageWidth, int imageHeight, int startTime, int endTime, Color color, double heading, double pitch, double[] inputMultiples) {
-		BufferedImage[] images = new BufferedImage[endTime-startTime];
-		for(int i = startTime; i < endTime; i++) {
-			images[i-startTime] = ThreeDimensionalUtil.currentImageFromCPPN(n, imageWidth, imageHeight, ThreeDimensionalObjectBreederTask.CUBE_SIDE_LENGTH, ThreeDimensionalObjectBreederTask.SHAPE_HEIGHT,ThreeDimensionalObjectBreederTask.SHAPE_WIDTH, ThreeDimensionalObjectBreederTask.SHAPE_DEPTH, color, heading, pitch, inputMultiples, i/FRAMES_PER_SEC);
-		}
-		return images;
+		return ParallelRenderer.shapesFromCPPN(n, imageWidth, imageHeight, startTime, endTime, color, heading, pitch, inputMultiples);
 	}		
 	
 	/**
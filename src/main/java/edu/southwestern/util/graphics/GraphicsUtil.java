@@ -13,6 +13,7 @@ import javax.imageio.ImageIO;
 import org.nd4j.linalg.api.ndarray.INDArray;
 
 import edu.southwestern.networks.Network;
+import edu.southwestern.networks.NetworkUtil;
 import edu.southwestern.networks.activationfunctions.FullLinearPiecewiseFunction;
 import edu.southwestern.networks.activationfunctions.HalfLinearPiecewiseFunction;
 import edu.southwestern.tasks.interactive.picbreeder.PicbreederTask;
@@ -103,9 +104,11 @@ public class GraphicsUtil {
 	 */
 	public static BufferedImage imageFromCPPN(Network n, int imageWidth, int imageHeight, double[] inputMultiples, double time) {
 		BufferedImage image = new BufferedImage(imageWidth, imageHeight, BufferedImage.TYPE_INT_RGB);
+		// All pixels are processed by the CPPN as one batch
+		double[][] outputs = NetworkUtil.processBatch(n, get2DObjectCPPNInputs(imageWidth, imageHeight, inputMultiples, time));
 		for (int x = 0; x < imageWidth; x++) {// scans across whole image
 			for (int y = 0; y < imageHeight; y++) {
-				float[] hsb = getHSBFromCPPN(n, x, y, imageWidth, imageHeight, inputMultiples, time);
+				float[] hsb = rangeRestrictHSB(outputs[x * imageHeight + y]);
 				// network outputs computed on hsb, not rgb scale because
 				// creates better images
 				Color childColor = Color.getHSBColor(hsb[HUE_INDEX], hsb[SATURATION_INDEX], hsb[BRIGHTNESS_INDEX]);
@@ -116,6 +119,31 @@ public class GraphicsUtil {
 		return image;
 	}
 
+	/**
+	 * CPPN inputs for every pixel of an image, in the same order that
+	 * imageFromCPPN scans the image: pixel (x,y) is row x*imageHeight + y.
+	 * 
+	 * @param imageWidth width of image
+	 * @param imageHeight height of image
+	 * @param inputMultiples multiples indicating whether to turn inputs on or off
+	 * @param time current animation time, or -1 for a still image
+	 * @return one row of CPPN inputs per pixel
+	 */
+	public static double[][] get2DObjectCPPNInputs(int imageWidth, int imageHeight, double[] inputMultiples, double time) {
+		double[][] inputs = new double[imageWidth * imageHeight][];
+		for (int x = 0; x < imageWidth; x++) {
+			for (int y = 0; y < imageHeight; y++) {
+				double[] input = get2DObjectCPPNInputs(x, y, imageWidth, imageHeight, time);
+				// Multiplies the inputs of the pictures by the inputMultiples; used to turn on or off the effects in each picture
+				for(int i = 0; i < inputMultiples.length; i++) {
+					input[i] = input[i] * inputMultiples[i];
+				}
+				inputs[x * imageHeight + y] = input;
+			}
+		}
+		return inputs;
+	}
+
 	/**
 	 * Returns adjusted image based on manipulation of an input image with a CPPN. To add
 	 * more variation, each pixel is manipulated based on the average HSB of its surrounding pixels.
@@ -0,0 +1,266 @@
+package edu.southwestern.util.graphics;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import edu.southwestern.networks.Network;
+import edu.southwestern.networks.NetworkUtil;
+import edu.southwestern.networks.TWEANN;
+import edu.southwestern.parameters.Parameters;
+import edu.southwestern.tasks.interactive.objectbreeder.ThreeDimensionalObjectBreederTask;
+import edu.southwestern.util.datastructures.Triangle;
+
+/**
+ * Renders CPPN images and animation frames across a fork-join pool.
+ * Single images are split into square tiles, and animations are split
+ * into frames (whose tiles are split further). Each worker thread uses
+ * its own copy of the CPPN, and pixels are written directly into the
+ * int[] backing the BufferedImage raster.
+ *
+ * If the parallelRendering parameter is false, the same methods render
+ * serially on the calling thread, which allows the frames per second of
+ * both approaches to be compared (see logRenderingSpeed).
+ */
+public class ParallelRenderer {
+
+	public static final int TILE_SIZE = 64;
+
+	private static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+	// Totals across all renderings since launch
+	private static final AtomicLong framesRendered = new AtomicLong(0);
+	private static final AtomicLong renderingNanoseconds = new AtomicLong(0);
+
+	/**
+	 * Whether rendering is split across threads. Only TWEANNs can be copied
+	 * for each thread, so other networks are always rendered serially.
+	 *
+	 * @param n CPPN being rendered, or null if no CPPN is involved
+	 * @return true if the pool should be used
+	 */
+	private static boolean parallel(Network n) {
+		return Parameters.parameters.booleanParameter("parallelRendering") && (n == null || n instanceof TWEANN);
+	}
+
+	/**
+	 * Average number of frames rendered per second, across all images and
+	 * animations since launch.
+	 *
+	 * @return frames per second
+	 */
+	public static double framesPerSecond() {
+		long nanos = renderingNanoseconds.get();
+		return nanos == 0 ? 0 : framesRendered.get() / (nanos / 1000000000.0);
+	}
+
+	/**
+	 * Record the time taken to render some frames, and print the speed
+	 * if requested.
+	 *
+	 * @param frames Number of frames rendered
+	 * @param start System.nanoTime() when rendering started
+	 */
+	private static void recordFrames(int frames, long start) {
+		long nanos = System.nanoTime() - start;
+		framesRendered.addAndGet(frames);
+		renderingNanoseconds.addAndGet(nanos);
+		if(Parameters.parameters.booleanParameter("logRenderingSpeed")) {
+			double seconds = nanos / 1000000000.0;
+			System.out.println((parallel(null) ? "Parallel" : "Serial") + " rendering: " + frames + " frames in " + seconds + " seconds (" + (frames / seconds) + " fps, overall " + framesPerSecond() + " fps)");
+		}
+	}
+
+	/**
+	 * Copy of the CPPN belonging to the current thread, created the first
+	 * time the thread needs it.
+	 *
+	 * @param n original CPPN (must be a TWEANN)
+	 * @param copies map from threads to their copies for this rendering job
+	 * @return CPPN that only the current thread uses
+	 */
+	private static Network threadCopy(Network n, ConcurrentHashMap<Thread, Network> copies) {
+		return copies.computeIfAbsent(Thread.currentThread(), t -> ((TWEANN) n).copy());
+	}
+
+	/**
+	 * Image drawn by a CPPN. Same result as GraphicsUtil.imageFromCPPN.
+	 *
+	 * @param n CPPN
+	 * @param imageWidth width of image
+	 * @param imageHeight height of image
+	 * @param inputMultiples multiples indicating whether to turn inputs on or off
+	 * @param time animation time, or -1 for still image
+	 * @return image
+	 */
+	public static BufferedImage imageFromCPPN(Network n, int imageWidth, int imageHeight, double[] inputMultiples, double time) {
+		long start = System.nanoTime();
+		BufferedImage image;
+		if(parallel(n)) {
+			ConcurrentHashMap<Thread, Network> copies = new ConcurrentHashMap<>();
+			image = POOL.submit(() -> tiledImageFromCPPN(n, copies, imageWidth, imageHeight, inputMultiples, time)).join();
+		} else {
+			image = GraphicsUtil.imageFromCPPN(n, imageWidth, imageHeight, inputMultiples, time);
+		}
+		recordFrames(1, start);
+		return image;
+	}
+
+	/**
+	 * Animation frames drawn by a CPPN. Frame i has time input i/FRAMES_PER_SEC.
+	 *
+	 * @param n CPPN
+	 * @param imageWidth width of each frame
+	 * @param imageHeight height of each frame
+	 * @param startTime first frame
+	 * @param endTime frame after the last frame
+	 * @param inputMultiples multiples indicating whether to turn inputs on or off
+	 * @return frames of animation
+	 */
+	public static BufferedImage[] imagesFromCPPN(Network n, int imageWidth, int imageHeight, int startTime, int endTime, double[] inputMultiples) {
+		long start = System.nanoTime();
+		BufferedImage[] images = new BufferedImage[endTime-startTime];
+		if(parallel(n)) {
+			ConcurrentHashMap<Thread, Network> copies = new ConcurrentHashMap<>();
+			POOL.submit(() -> IntStream.range(startTime, endTime).parallel().forEach(i ->
+				images[i-startTime] = tiledImageFromCPPN(n, copies, imageWidth, imageHeight, inputMultiples, i/AnimationUtil.FRAMES_PER_SEC))).join();
+		} else {
+			for(int i = startTime; i < endTime; i++) {
+				images[i-startTime] = GraphicsUtil.imageFromCPPN(n, imageWidth, imageHeight, inputMultiples, i/AnimationUtil.FRAMES_PER_SEC);
+			}
+		}
+		recordFrames(images.length, start);
+		return images;
+	}
+
+	/**
+	 * Animation frames of a three-dimensional shape whose voxels depend on
+	 * the time input of the CPPN. Frames can only be rendered independently
+	 * when no recurrent activation carries over from one frame to the next.
+	 *
+	 * @param n CPPN
+	 * @param imageWidth width of each frame
+	 * @param imageHeight height of each frame
+	 * @param startTime first frame
+	 * @param endTime frame after the last frame
+	 * @param color color of shape, or null if evolved
+	 * @param heading horizontal tilt of object
+	 * @param pitch vertical tilt of object
+	 * @param inputMultiples multiples indicating whether to turn inputs on or off
+	 * @return frames of animation
+	 */
+	public static BufferedImage[] shapesFromCPPN(Network n, int imageWidth, int imageHeight, int startTime, int endTime, Color color, double heading, double pitch, double[] inputMultiples) {
+		long start = System.nanoTime();
+		BufferedImage[] images = new BufferedImage[endTime-startTime];
+		if(parallel(n) && NetworkUtil.canBatchSequentialInputs(n)) {
+			ConcurrentHashMap<Thread, Network> copies = new ConcurrentHashMap<>();
+			POOL.submit(() -> IntStream.range(startTime, endTime).parallel().forEach(i ->
+				images[i-startTime] = shapeFromCPPN(threadCopy(n, copies), imageWidth, imageHeight, color, heading, pitch, inputMultiples, i))).join();
+		} else {
+			for(int i = startTime; i < endTime; i++) {
+				images[i-startTime] = shapeFromCPPN(n, imageWidth, imageHeight, color, heading, pitch, inputMultiples, i);
+			}
+		}
+		recordFrames(images.length, start);
+		return images;
+	}
+
+	/**
+	 * One frame of an animated three-dimensional shape.
+	 */
+	private static BufferedImage shapeFromCPPN(Network n, int imageWidth, int imageHeight, Color color, double heading, double pitch, double[] inputMultiples, int frame) {
+		return ThreeDimensionalUtil.currentImageFromCPPN(n, imageWidth, imageHeight, ThreeDimensionalObjectBreederTask.CUBE_SIDE_LENGTH, ThreeDimensionalObjectBreederTask.SHAPE_HEIGHT, ThreeDimensionalObjectBreederTask.SHAPE_WIDTH, ThreeDimensionalObjectBreederTask.SHAPE_DEPTH, color, heading, pitch, inputMultiples, frame/AnimationUtil.FRAMES_PER_SEC);
+	}
+
+	/**
+	 * Frames of a rotating three-dimensional object. The triangles are
+	 * only read, so each frame can be rendered by a different thread.
+	 *
+	 * @param tris triangles of object
+	 * @param imageWidth width of each frame
+	 * @param imageHeight height of each frame
+	 * @param startTime first frame
+	 * @param endTime frame after the last frame
+	 * @param heading horizontal tilt of object
+	 * @param pitch vertical tilt of object
+	 * @param color background color, or null for none
+	 * @param vertical whether object rotates vertically instead of horizontally
+	 * @return frames of animation
+	 */
+	public static BufferedImage[] imagesFromTriangles(List<Triangle> tris, int imageWidth, int imageHeight, int startTime, int endTime, double heading, double pitch, Color color, boolean vertical) {
+		long start = System.nanoTime();
+		BufferedImage[] images = new BufferedImage[(endTime-startTime)];
+		if(parallel(null)) {
+			POOL.submit(() -> IntStream.range(startTime, endTime).parallel().forEach(i ->
+				images[i-startTime] = rotatedImageFromTriangles(tris, imageWidth, imageHeight, heading, pitch, color, vertical, i, images.length))).join();
+		} else {
+			for(int i = startTime; i < endTime; i++) {
+				images[i-startTime] = rotatedImageFromTriangles(tris, imageWidth, imageHeight, heading, pitch, color, vertical, i, images.length);
+			}
+		}
+		recordFrames(images.length, start);
+		return images;
+	}
+
+	/**
+	 * One frame of a rotating three-dimensional object.
+	 */
+	private static BufferedImage rotatedImageFromTriangles(List<Triangle> tris, int imageWidth, int imageHeight, double heading, double pitch, Color color, boolean vertical, int frame, int numFrames) {
+		// Causes slight twitch at end of each rotation sequence
+		if(vertical) {
+			double newPitch = pitch + (2*Math.PI*frame)/numFrames;
+			return ThreeDimensionalUtil.imageFromTriangles(tris, imageWidth, imageHeight, heading, newPitch, color);
+		} else {
+			double newHeading = heading + (2*Math.PI*frame)/numFrames;
+			return ThreeDimensionalUtil.imageFromTriangles(tris, imageWidth, imageHeight, newHeading, pitch, color);
+		}
+	}
+
+	/**
+	 * Renders each tile of the image on whichever pool thread picks it up.
+	 * Must be called from within the pool.
+	 */
+	private static BufferedImage tiledImageFromCPPN(Network n, ConcurrentHashMap<Thread, Network> copies, int imageWidth, int imageHeight, double[] inputMultiples, double time) {
+		BufferedImage image = new BufferedImage(imageWidth, imageHeight, BufferedImage.TYPE_INT_RGB);
+		int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+		int tilesAcross = (imageWidth + TILE_SIZE - 1) / TILE_SIZE;
+		int tilesDown = (imageHeight + TILE_SIZE - 1) / TILE_SIZE;
+		IntStream.range(0, tilesAcross * tilesDown).parallel().forEach(tile -> {
+			int startX = (tile % tilesAcross) * TILE_SIZE;
+			int startY = (tile / tilesAcross) * TILE_SIZE;
+			renderTile(threadCopy(n, copies), pixels, imageWidth, imageHeight, startX, startY, Math.min(startX + TILE_SIZE, imageWidth), Math.min(startY + TILE_SIZE, imageHeight), inputMultiples, time);
+		});
+		return image;
+	}
+
+	/**
+	 * Process all pixels of a tile in one batch and write the colors
+	 * into the pixel array of a TYPE_INT_RGB image.
+	 */
+	private static void renderTile(Network n, int[] pixels, int imageWidth, int imageHeight, int startX, int startY, int endX, int endY, double[] inputMultiples, double time) {
+		int tileHeight = endY - startY;
+		double[][] inputs = new double[(endX - startX) * tileHeight][];
+		for(int x = startX; x < endX; x++) {
+			for(int y = startY; y < endY; y++) {
+				double[] input = GraphicsUtil.get2DObjectCPPNInputs(x, y, imageWidth, imageHeight, time);
+				for(int i = 0; i < inputMultiples.length; i++) {
+					input[i] = input[i] * inputMultiples[i];
+				}
+				inputs[(x - startX) * tileHeight + (y - startY)] = input;
+			}
+		}
+		double[][] outputs = NetworkUtil.processBatch(n, inputs);
+		for(int x = startX; x < endX; x++) {
+			for(int y = startY; y < endY; y++) {
+				float[] hsb = GraphicsUtil.rangeRestrictHSB(outputs[(x - startX) * tileHeight + (y - startY)]);
+				// TYPE_INT_RGB stores no alpha
+				pixels[y * imageWidth + x] = Color.HSBtoRGB(hsb[GraphicsUtil.HUE_INDEX], hsb[GraphicsUtil.SATURATION_INDEX], hsb[GraphicsUtil.BRIGHTNESS_INDEX]) & 0xFFFFFF;
+			}
+		}
+	}
+}
@@ -2,10 +2,13 @@ package edu.southwestern.util.graphics;
 
 import java.awt.Color;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import edu.southwestern.networks.Network;
+import edu.southwestern.networks.NetworkUtil;
 import edu.southwestern.tasks.interactive.objectbreeder.ThreeDimensionalObjectBreederTask;
 import edu.southwestern.util.CartesianGeometricUtilities;
 import edu.southwestern.util.datastructures.Pair;
@@ -83,12 +86,10 @@ public class ThreeDimensionalUtil {
 	 */
 	private static BufferedImage imageFromTriangles(List<Triangle> tris, int width, int height, Matrix3 transform, Color bgColor) {
 		BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		// Write directly to the pixels of the raster rather than calling setRGB
+		int[] pixels = ((DataBufferInt) img.getRaster().getDataBuffer()).getData();
 		if(bgColor != null) {
-			for(int i = 0; i < width; i++) {
-				for(int j = 0; j < height; j++) {
-					img.setRGB(i, j, bgColor.getRGB());
-				}
-			}
+			Arrays.fill(pixels, bgColor.getRGB());
 		}
 
 		double[] zBuffer = new double[img.getWidth() * img.getHeight()];
@@ -127,7 +128,7 @@ public class ThreeDimensionalUtil {
 						double depth = b1 * v1.z + b2 * v2.z + b3 * v3.z;
 						int zIndex = y * img.getWidth() + x;
 						if (zBuffer[zIndex] < depth) {
-							img.setRGB(x, y, getShade(t.color, angleCos).getRGB());
+							pixels[zIndex] = getShade(t.color, angleCos).getRGB();
 							zBuffer[zIndex] = depth;
 						}
 					}
@@ -208,6 +209,8 @@ public class ThreeDimensionalUtil {
 		List<Vertex> centers = new ArrayList<>();
 		List<Color> colors = new ArrayList<>();
 		double halfCube = (cubeSize/2.0);
+		double[][] allInputs = new double[shapeWidth * shapeHeight * shapeDepth][];
+		int voxel = 0;
 		for(int x = 0; x < shapeWidth; x++) {
 			for(int y = 0; y < shapeHeight; y++) {
 				for(int z = 0; z < shapeDepth; z++) {
@@ -216,7 +219,24 @@ public class ThreeDimensionalUtil {
 					for(int i = 0; i < inputMultipliers.length; i++) {
 						inputs[i] = inputs[i] * inputMultipliers[i];
 					}	
-					double[] output = cppn.process(inputs);
+					allInputs[voxel++] = inputs;
+				}
+			}
+		}
+		double[][] allOutputs;
+		if(NetworkUtil.canBatchSequentialInputs(cppn)) {
+			allOutputs = NetworkUtil.processBatch(cppn, allInputs);
+		} else { // Recurrent activation carries over from one voxel to the next
+			allOutputs = new double[allInputs.length][];
+			for(int i = 0; i < allInputs.length; i++) {
+				allOutputs[i] = cppn.process(allInputs[i]);
+			}
+		}
+		voxel = 0;
+		for(int x = 0; x < shapeWidth; x++) {
+			for(int y = 0; y < shapeHeight; y++) {
+				for(int z = 0; z < shapeDepth; z++) {
+					double[] output = allOutputs[voxel++];
 					if(output[THREE_DIMENSIONAL_VOXEL_INDEX] > VOXEL_EXPRESSION_THRESHOLD) { // If cube is even present
 						double actualX = -(cubeSize*shapeWidth/2.0) + halfCube + x*cubeSize;
 						double actualY = -(cubeSize*shapeHeight/2.0) + halfCube + y*cubeSize;
@@ -346,18 +366,8 @@ public class ThreeDimensionalUtil {
 	 * @return Array of BufferedImages that can be played as an animation of a 3D object
 	 */
 	public static BufferedImage[] imagesFromTriangles(List<Triangle> tris, int imageWidth, int imageHeight, int startTime, int endTime, double heading, double pitch, Color color, boolean vertical) {
-		BufferedImage[] images = new BufferedImage[(endTime-startTime)];
-		for(int i = startTime; i < endTime; i++) {
-			// Causes slight twitch at end of each rotation sequence
-			if(vertical) {
-				double newPitch = pitch + (2*Math.PI*i)/images.length;
-				images[i-startTime] = imageFromTriangles(tris, imageWidth, imageHeight, heading, newPitch, color);
-			} else {
-				double newHeading = heading + (2*Math.PI*i)/images.length;
-				images[i-startTime] = imageFromTriangles(tris, imageWidth, imageHeight, newHeading, pitch, color);
-			}
-		}
-		return images;
+		// Frames are rendered in parallel unless parallelRendering is false
+		return ParallelRenderer.imagesFromTriangles(tris, imageWidth, imageHeight, startTime, endTime, heading, pitch, color, vertical);
 	}
 
 	/**
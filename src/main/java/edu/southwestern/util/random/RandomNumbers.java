@@ -16,6 +16,15 @@ import java.util.Random;
 public class RandomNumbers {
 
 	public static Random randomGenerator = new Random();
+	/**
+	 * Seed from which the independent streams of RandomStreams are derived
+	 */
+	private static long masterSeed = new Random().nextLong();
+	/**
+	 * Generator that replaces randomGenerator in the current thread, if any.
+	 * Used to give parallel evaluations their own reproducible random stream.
+	 */
+	private static final ThreadLocal<Random> threadGenerator = new ThreadLocal<Random>();
 
 	/*
 	 * Reset random generator based on seed from parameter file
@@ -26,6 +35,7 @@ public class RandomNumbers {
 			reset(seed);
 		} else {
 			randomGenerator = new Random();
+			masterSeed = randomGenerator.nextLong();
 		}
 	}
 
@@ -38,13 +48,62 @@ public class RandomNumbers {
 	public static void reset(int seed) {
 		System.out.println("Reset random seed to: " + seed);
 		randomGenerator = new Random(seed);
+		masterSeed = seed;
+	}
+
+	/**
+	 * @return randomSeed of the run, or a random seed if the run is not seeded
+	 */
+	public static long masterSeed() {
+		return masterSeed;
+	}
+
+	/**
+	 * Use the master seed of another process, such as the EvaluationFarm
+	 * that a worker evaluates for, so that RandomStreams derives the same
+	 * streams from it
+	 *
+	 * @param seed master seed to use
+	 */
+	public static void setMasterSeed(long seed) {
+		masterSeed = seed;
+	}
+
+	/**
+	 * The generator used by the methods of this class: the one assigned
+	 * to the current thread if there is one, and randomGenerator otherwise.
+	 *
+	 * @return random generator for the current thread
+	 */
+	public static Random generator() {
+		Random r = threadGenerator.get();
+		return r == null ? randomGenerator : r;
+	}
+
+	/**
+	 * Make the current thread use a specific generator in place of
+	 * randomGenerator. The previous setting is returned so that it can
+	 * be restored afterwards, since a thread waiting on other tasks may
+	 * run one of them in the meantime.
+	 *
+	 * @param r Generator for this thread, or null to use randomGenerator again
+	 * @return Generator that was previously assigned to this thread (possibly null)
+	 */
+	public static Random useThreadGenerator(Random r) {
+		Random previous = threadGenerator.get();
+		if (r == null) {
+			threadGenerator.remove();
+		} else {
+			threadGenerator.set(r);
+		}
+		return previous;
 	}
 
 	/**
 	 * Returns random number in range [-1,1]
 	 */
 	public static double fullSmallRand() {
-		return (randomGenerator.nextDouble() * 2.0) - 1.0;
+		return (generator().nextDouble() * 2.0) - 1.0;
 	}
 
 	/**
@@ -57,7 +116,7 @@ public class RandomNumbers {
 	 * @return random number in range
 	 */
 	public static double boundedRandom(double lower, double upper) {
-		double rand = randomGenerator.nextDouble();
+		double rand = generator().nextDouble();
 		rand *= (upper - lower);
 		rand += lower;
 		return rand;
@@ -107,7 +166,7 @@ public class RandomNumbers {
 	public static Integer[] randomIntArray(int[] ceilings) {
 		Integer[] result = new Integer[ceilings.length];
 		for (int i = 0; i < result.length; i++) {
-			result[i] = randomGenerator.nextInt(ceilings[i]);
+			result[i] = generator().nextInt(ceilings[i]);
 		}
 		return result;
 	}
@@ -121,7 +180,7 @@ public class RandomNumbers {
 	 * @return probabilistically selected index
 	 */
 	public static int probabilisticSelection(double[] probs) {
-		double randomValue = randomGenerator.nextDouble();
+		double randomValue = generator().nextDouble();
 		double sum = 0;
 		int selection = -1;
 		// Extra case needed because floating point arithmetic may add to
@@ -150,7 +209,7 @@ public class RandomNumbers {
 		for (int i = 0; i < ceiling; i++) {
 			all.add(i);
 		}
-		Collections.shuffle(all, randomGenerator);
+		Collections.shuffle(all, generator());
 		int[] result = new int[num];
 		for (int i = 0; i < num; i++) {
 			result[i] = all.get(i);
@@ -159,7 +218,7 @@ public class RandomNumbers {
 	}
 
 	public static double randomSign() {
-		return randomGenerator.nextBoolean() ? 1 : -1;
+		return generator().nextBoolean() ? 1 : -1;
 	}
 
 	/**
@@ -180,7 +239,7 @@ public class RandomNumbers {
 		for (int i = 0; i < y; i++) {
 			source.add(i);
 		}
-		Collections.shuffle(source, randomGenerator);
+		Collections.shuffle(source, generator());
 
 		int[] result = new int[x];
 		for (int i = 0; i < x; i++) {
@@ -217,7 +276,7 @@ public class RandomNumbers {
 		double u = 0.5, Cauchy_cut = 10.0;
 
 		while (u == 0.5) {
-			u = randomGenerator.nextDouble();
+			u = generator().nextDouble();
 		}
 		u = wtrange * Math.tan(u * Math.PI);
 		if (Math.abs(u) > Cauchy_cut) { // disallows extreme ends of tails
@@ -236,7 +295,7 @@ public class RandomNumbers {
 	 * @return random T of <T>
 	 */
 	public static <T> T randomElement(List<T> list) {
-		int index = randomGenerator.nextInt(list.size());
+		int index = generator().nextInt(list.size());
 		return list.get(index);
 	}
 
@@ -247,7 +306,7 @@ public class RandomNumbers {
 	 * @return random T of <T>
 	 */
 	public static <T> T randomElement(T[] list) {
-		int index = randomGenerator.nextInt(list.length);
+		int index = generator().nextInt(list.length);
 		return list[index];
 	}
 	
@@ -278,6 +337,6 @@ public class RandomNumbers {
 	 * @return true with chance probability, false otherwise
 	 */
 	public static boolean randomCoin(double chance) {
-		return randomGenerator.nextDouble() < chance;
+		return generator().nextDouble() < chance;
 	}
 }
@@ -0,0 +1,88 @@
+package edu.southwestern.util.random;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Independent random streams split off from the master seed. A stream is
+ * identified by a path of keys, such as (generation, genotype id, trial),
+ * and its seed only depends on the master seed and that path. Work that runs
+ * in parallel can therefore get its own generator that does not depend on
+ * which thread runs it, or when, and that never touches the shared
+ * RandomNumbers.randomGenerator.
+ *
+ * Seeds are derived with the mixing function of SplitMix64, so streams with
+ * nearby keys are unrelated.
+ */
+public class RandomStreams {
+
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+	/**
+	 * Finalizer of SplitMix64 (Steele, Lea and Flood 2014): a bijection on longs
+	 * in which every input bit affects every output bit.
+	 *
+	 * @param z value to mix
+	 * @return mixed value
+	 */
+	public static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * Seed of a child stream
+	 *
+	 * @param seed seed of the parent stream
+	 * @param key identifies the child among the children of the parent
+	 * @return seed of the child stream
+	 */
+	public static long split(long seed, long key) {
+		return mix(seed + GOLDEN_GAMMA * (mix(key) | 1));
+	}
+
+	/**
+	 * Seed of the stream at the end of a path of keys, starting from the master seed
+	 *
+	 * @param keys path of the stream, for example generation, genotype id and trial
+	 * @return seed of the stream
+	 */
+	public static long seed(long... keys) {
+		long seed = mix(RandomNumbers.masterSeed());
+		for (long key : keys) {
+			seed = split(seed, key);
+		}
+		return seed;
+	}
+
+	/**
+	 * @param keys path of the stream
+	 * @return new generator for the stream
+	 */
+	public static Random generator(long... keys) {
+		return new Random(seed(keys));
+	}
+
+	/**
+	 * Do some work with all of the RandomNumbers methods (and RandomNumbers.generator())
+	 * of the current thread drawing from a specific generator. The previous
+	 * generator of the thread is restored afterwards.
+	 *
+	 * @param <R> Result type
+	 * @param generator Generator to use, or null to just do the work
+	 * @param work Work to do
+	 * @return result of the work
+	 */
+	public static <R> R withGenerator(Random generator, Supplier<R> work) {
+		if (generator == null) {
+			return work.get();
+		}
+		Random previous = RandomNumbers.useThreadGenerator(generator);
+		try {
+			return work.get();
+		} finally {
+			RandomNumbers.useThreadGenerator(previous);
+		}
+	}
+}
@@ -6,6 +6,7 @@ import javax.sound.sampled.AudioFormat;
 
 import edu.southwestern.evolution.genotypes.HyperNEATCPPNGenotype;
 import edu.southwestern.networks.Network;
+import edu.southwestern.networks.NetworkUtil;
 
 /**
  * Utility methods associated with generating and saving a sound using an input
@@ -47,14 +48,25 @@ public class SoundFromCPPNUtil {
 	 */
 	public static double[] amplitudeGenerator(Network CPPN, int length, double frequency, double[] inputMultipliers) {
 		double[] result = new double[length];
+		double[][] allInputs = new double[length][];
 		for(double time = 0; time < length; time++) {
 			double[] inputs = new double[]{time/PlayDoubleArray.SAMPLE_RATE, Math.sin(2*Math.PI * frequency * time/PlayDoubleArray.SAMPLE_RATE), HyperNEATCPPNGenotype.BIAS};	
 			// Multiplies the inputs of the pictures by the inputMultiples; used to turn on or off the effects in each picture
 			for(int i = 0; i < inputs.length; i++) {
 				inputs[i] = inputs[i] * inputMultipliers[i];
 			}			
-			double[] outputs = CPPN.process(inputs);
-			result[(int) time] = outputs[0]; // amplitude
+			allInputs[(int) time] = inputs;
+		}
+		if(NetworkUtil.canBatchSequentialInputs(CPPN)) {
+			double[][] allOutputs = NetworkUtil.processBatch(CPPN, allInputs);
+			for(int i = 0; i < length; i++) {
+				result[i] = allOutputs[i][0]; // amplitude
+			}
+		} else { // Recurrent activation carries over from one sample to the next
+			for(int i = 0; i < length; i++) {
+				double[] outputs = CPPN.process(allInputs[i]);
+				result[i] = outputs[0]; // amplitude
+			}
 		}
 		return result;
 	}
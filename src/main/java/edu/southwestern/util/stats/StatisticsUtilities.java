@@ -95,7 +95,7 @@ public class StatisticsUtilities {
 //		System.out.println(equalMaxIndexes);
 //		System.out.println(equalMaxIndexes.size());
 		return equalMaxIndexes.get(CommonConstants.randomArgMaxTieBreak
-				? RandomNumbers.randomGenerator.nextInt(equalMaxIndexes.size()) : 0); // Returns an Index containing the maxumim value
+				? RandomNumbers.generator().nextInt(equalMaxIndexes.size()) : 0); // Returns an Index containing the maxumim value
 	}
 	
 	/**
@@ -125,7 +125,7 @@ public class StatisticsUtilities {
 //		System.out.println(equalMaxIndexes);
 //		System.out.println(equalMaxIndexes.size());
 		return equalMaxIndexes.get(CommonConstants.randomArgMaxTieBreak
-				? RandomNumbers.randomGenerator.nextInt(equalMaxIndexes.size()) : 0); // Returns an Index containing the maxumim value
+				? RandomNumbers.generator().nextInt(equalMaxIndexes.size()) : 0); // Returns an Index containing the maxumim value
 	}
 
 	/**
@@ -150,7 +150,7 @@ public class StatisticsUtilities {
 			}
 		}
 		return equalMaxIndexes.get(CommonConstants.randomArgMaxTieBreak
-				? RandomNumbers.randomGenerator.nextInt(equalMaxIndexes.size()) : 0);
+				? RandomNumbers.generator().nextInt(equalMaxIndexes.size()) : 0);
 	}
 
 	/**
@@ -207,7 +207,7 @@ public class StatisticsUtilities {
 			}
 		}
 		return equalMinIndexes.get(CommonConstants.randomArgMaxTieBreak
-				? RandomNumbers.randomGenerator.nextInt(equalMinIndexes.size()) : 0); // Returns an Index that contains the minimum value
+				? RandomNumbers.generator().nextInt(equalMinIndexes.size()) : 0); // Returns an Index that contains the minimum value
 	}
 
 	/**
@@ -229,7 +229,7 @@ public class StatisticsUtilities {
 			}
 		}
 		return equalMinIndexes.get(CommonConstants.randomArgMaxTieBreak
-				? RandomNumbers.randomGenerator.nextInt(equalMinIndexes.size()) : 0); // Returns an Index that contains the minimum value
+				? RandomNumbers.generator().nextInt(equalMinIndexes.size()) : 0); // Returns an Index that contains the minimum value
 	}
 
 	/**
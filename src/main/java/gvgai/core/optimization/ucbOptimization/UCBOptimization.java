@@ -116,7 +116,7 @@ public class UCBOptimization implements OptimizationObjective {
 		double[] gameResults = null;
 		do {
 		    gameResults = ArcadeMachine.runOneGame(this.gamePaths[i], this.levelPaths[i], false,
-			    "gvgai.tracks.singlePlayer.tools.ucbOptimizerAgent.Agent", null, RandomNumbers.randomGenerator.nextInt(), 0);
+			    "gvgai.tracks.singlePlayer.tools.ucbOptimizerAgent.Agent", null, RandomNumbers.generator().nextInt(), 0);
 		} while (gameResults[0] < -10);
 
 		totalWins += Math.max(gameResults[0], 0);
@@ -124,22 +124,22 @@ public class VGDLFactory
     /**
      * Cache for registered games.
      */
-    public static HashMap<String, Class> registeredGames;
+    public static volatile HashMap<String, Class> registeredGames;
 
     /**
      * Cache for registered sprites.
      */
-    public static HashMap<String, Class> registeredSprites;
+    public static volatile HashMap<String, Class> registeredSprites;
 
     /**
      * Cache for registered effects.
      */
-    public static HashMap<String, Class> registeredEffects;
+    public static volatile HashMap<String, Class> registeredEffects;
 
     /**
      * Cache for registered effects.
      */
-    public static HashMap<String, Class> registeredTerminations;
+    public static volatile HashMap<String, Class> registeredTerminations;
 
     /**
      * Default private constructor of this singleton.
@@ -147,38 +147,49 @@ public class VGDLFactory
     private VGDLFactory(){}
 
     /**
-     * Initializes the maps for caching classes.
+     * Initializes the maps for caching classes. The maps never change afterwards,
+     * so calling this again does nothing, and games can be created from several
+     * threads at once.
      */
-    public void init()
+    public synchronized void init()
     {
-        registeredGames = new HashMap<String, Class>();
+        if(registeredTerminations != null)
+            return;
+
+        HashMap<String, Class> registeredGames = new HashMap<String, Class>();
         registeredGames.put("BasicGame", BasicGame.class);
         registeredGames.put("GameSpace", GameSpace.class);
 
-        registeredSprites = new HashMap<String, Class>();
+        HashMap<String, Class> registeredSprites = new HashMap<String, Class>();
         for(int i = 0;  i < spriteStrings.length; ++i)
         {
             registeredSprites.put(spriteStrings[i], spriteClasses[i]);
         }
 
-        registeredEffects  = new HashMap<String, Class>();
+        HashMap<String, Class> registeredEffects  = new HashMap<String, Class>();
         for(int i = 0;  i < effectStrings.length; ++i)
         {
             registeredEffects.put(effectStrings[i], effectClasses[i]);
         }
 
-        registeredTerminations = new HashMap<String, Class>();
+        HashMap<String, Class> registeredTerminations = new HashMap<String, Class>();
         for(int i = 0;  i < terminationStrings.length; ++i)
         {
             registeredTerminations.put(terminationStrings[i], terminationClasses[i]);
         }
+
+        // Published only once filled, with registeredTerminations (checked above) last
+        VGDLFactory.registeredGames = registeredGames;
+        VGDLFactory.registeredSprites = registeredSprites;
+        VGDLFactory.registeredEffects = registeredEffects;
+        VGDLFactory.registeredTerminations = registeredTerminations;
     }
 
     /**
      * Returns the unique instance of this class.
      * @return the factory that creates the game and the sprite objects.
      */
-    public static VGDLFactory GetInstance()
+    public static synchronized VGDLFactory GetInstance()
     {
         if(factory == null)
             factory = new VGDLFactory();
@@ -22,7 +22,7 @@ public class VGDLRegistry
      * Maps strings to int. Strings are VGDL identifiers for SPRITE TYPES,
      * while integers are their unique int identifier counterparts.
      */
-    private TreeMap<String, Integer> sprite_mapping;
+    private volatile TreeMap<String, Integer> sprite_mapping;
 
     /**
      * Private constructor.
@@ -32,7 +32,7 @@ public class VGDLRegistry
     /**
      * Initializes the registry of sprites for games.
      */
-    public void init()
+    public synchronized void init()
     {
         sprite_mapping = new TreeMap<String, Integer>();
     }
@@ -41,7 +41,7 @@ public class VGDLRegistry
      * Returns the unique instance of this class.
      * @return the unique instance of this class.
      */
-    public static VGDLRegistry GetInstance()
+    public static synchronized VGDLRegistry GetInstance()
     {
         if(registry == null)
         {
@@ -52,11 +52,14 @@ public class VGDLRegistry
     }
 
     /**
-     * Register a new sprite string.
+     * Register a new sprite string. Parsing a game description again only finds
+     * sprites that are already registered, so the registry does not change once
+     * a description has been parsed, and the games parsed from it can be played
+     * by several threads at once.
      * @param key key in the hashmap.
      * @return Returns its new index, or a new one if it was already registered.
      */
-    public int registerSprite(String key)
+    public synchronized int registerSprite(String key)
     {
         int index = getRegisteredSpriteValue(key);
         if(index != -1)
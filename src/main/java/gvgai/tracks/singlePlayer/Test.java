@@ -63,7 +63,7 @@ public class Test {
 
 		// Other settings
 		boolean visuals = true;
-		int seed = RandomNumbers.randomGenerator.nextInt();
+		int seed = RandomNumbers.generator().nextInt();
 
 		// Game and level to play
 		int gameIdx = 88; //90; // 19 is chipschallenge
@@ -8,10 +8,8 @@ import micro.ai.core.AI;
 import micro.ai.core.ParameterSpecification;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 
 import edu.southwestern.MMNEAT.MMNEAT;
-import edu.southwestern.util.random.RandomNumbers;
 import micro.rts.*;
 import micro.rts.units.Unit;
 import micro.rts.units.UnitTypeTable;
@@ -27,16 +25,26 @@ import edu.southwestern.tasks.microrts.MicroRTSInformation;
  * attack available, it simply lowers the probability of a move.
  * 
  */
-public class RandomBiasedAI extends AI {
+public class RandomBiasedAI extends AI implements CompactGameState.PlayoutPolicy {
     static final double REGULAR_ACTION_WEIGHT = 1;
     static final double BIASED_ACTION_WEIGHT = 5;
-    Random r = RandomNumbers.randomGenerator;
+
+    // Reused by issueActions
+    int[] actions = new int[0];
+    double[] distribution = new double[0];
+    int[] chosenUnits = new int[0];
+    int[] chosenActions = new int[0];
+    int[] reservedCells = new int[0];
+    int reservation = 0;
+    int[] reservedResources = new int[2];
+    UnitTypeTable utt;
 
     public RandomBiasedAI() {
     	this(((MicroRTSInformation) MMNEAT.task).getUnitTypeTable());
     }
     
-    public RandomBiasedAI(UnitTypeTable utt) {
+    public RandomBiasedAI(UnitTypeTable a_utt) {
+        utt = a_utt;
     }
     
     @Override
@@ -46,7 +54,7 @@ public class RandomBiasedAI extends AI {
     
     @Override
     public AI clone() {
-        return new RandomBiasedAI();
+        return new RandomBiasedAI(utt);
     }
     
     
@@ -110,6 +118,87 @@ public class RandomBiasedAI extends AI {
     }
     
     
+    /**
+     * Same choices as getAction, made with the same random numbers, but
+     * on a CompactGameState and issued directly
+     */
+    @Override
+    public void issueActions(int player, CompactGameState gs) throws Exception {
+        if (!gs.canExecuteAnyAction(player)) return;
+
+        // Generate the reserved resources:
+        int cells = gs.getWidth()*gs.getHeight();
+        if (reservedCells.length<cells) {
+            reservedCells = new int[cells];
+            reservation = 0;
+        }
+        reservation++;
+        reservedResources[0] = reservedResources[1] = 0;
+        int n = gs.getNumUnits();
+        for(int u = 0;u<n;u++) {
+            int a = gs.getAction(u);
+            if (a!=CompactGameState.NO_ACTION) {
+                int position = gs.usedPosition(u, a);
+                if (position>=0) reservedCells[position] = reservation;
+                reservedResources[gs.getPlayer(u)] += gs.usedResources(a);
+            }
+        }
+
+        if (chosenUnits.length<n) {
+            chosenUnits = new int[n];
+            chosenActions = new int[n];
+        }
+        int numChosen = 0;
+        for(int u = 0;u<n;u++) {
+            if (gs.getPlayer(u)==player && gs.getAction(u)==CompactGameState.NO_ACTION) {
+                int max = gs.maxUnitActions(u);
+                if (actions.length<max) {
+                    actions = new int[max];
+                    distribution = new double[max];
+                }
+                int nActions = gs.unitActions(u, 10, actions);
+                int none = CompactGameState.NO_ACTION;
+
+                // Implement "bias":
+                for(int i = 0;i<nActions;i++) {
+                    int type = CompactGameState.actionType(actions[i]);
+                    if (type==UnitAction.TYPE_NONE) none = actions[i];
+                    if (type==UnitAction.TYPE_ATTACK_LOCATION ||
+                        type==UnitAction.TYPE_HARVEST ||
+                        type==UnitAction.TYPE_RETURN) {
+                        distribution[i]=BIASED_ACTION_WEIGHT;
+                    } else {
+                        distribution[i]=REGULAR_ACTION_WEIGHT;
+                    }
+                }
+
+                int chosen = none;
+                try {
+                    int a = actions[Sampler.weighted(distribution, nActions)];
+                    int position = gs.usedPosition(u, a);
+                    int cost = gs.usedResources(a);
+                    boolean consistent = position<0 || reservedCells[position]!=reservation;
+                    for(int p = 0;p<reservedResources.length && consistent;p++) {
+                        int used = reservedResources[p] + (p==player ? cost : 0);
+                        if (used>0 && used>gs.getPlayerResources(p)) consistent = false;
+                    }
+                    if (consistent) {
+                        if (position>=0) reservedCells[position] = reservation;
+                        reservedResources[player] += cost;
+                        chosen = a;
+                    }
+                } catch (Exception ex) {
+                    ex.printStackTrace();
+                }
+                chosenUnits[numChosen] = u;
+                chosenActions[numChosen++] = chosen;
+            }
+        }
+
+        for(int i = 0;i<numChosen;i++) gs.issue(chosenUnits[i], chosenActions[i]);
+    }
+
+
     @Override
     public List<ParameterSpecification> getParameters()
     {
@@ -11,11 +11,9 @@ import micro.ai.core.ParameterSpecification;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Random;
 
 import edu.southwestern.MMNEAT.MMNEAT;
 import edu.southwestern.tasks.microrts.MicroRTSInformation;
-import edu.southwestern.util.random.RandomNumbers;
 import micro.rts.GameState;
 import micro.rts.PhysicalGameState;
 import micro.rts.Player;
@@ -27,7 +25,6 @@ import micro.rts.units.*;
  * @author santi
  */
 public class WorkerRush extends AbstractionLayerAI {
-    Random r = RandomNumbers.randomGenerator;
     protected UnitTypeTable utt;
     UnitType workerType;
     UnitType baseType;
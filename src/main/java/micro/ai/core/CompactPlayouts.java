@@ -0,0 +1,35 @@
+package micro.ai.core;
+
+import micro.rts.CompactGameState;
+import micro.rts.GameState;
+
+/**
+ * Adapter that lets the Monte Carlo AIs run their playouts on a
+ * CompactGameState. When the playout policy can act on compact states
+ * (e.g., RandomBiasedAI), the game state is converted once, played out
+ * without creating Unit, UnitAction or PlayerAction objects, and the result
+ * is written back into the same GameState, so the evaluation function and
+ * the rest of the search do not change.
+ */
+public class CompactPlayouts {
+
+    /**
+     * Plays out a game state in place, like the simulate methods of the Monte Carlo AIs
+     *
+     * @param gs state to play out. Its units are modified, so it must not share them
+     *           with other states (a fresh clone is fine)
+     * @param policy playout policy for both players
+     * @param time time at which to stop
+     * @return false if the policy or state cannot use compact playouts, in which
+     *         case the caller must simulate gs itself
+     */
+    public static boolean simulate(GameState gs, AI policy, int time) throws Exception {
+        if (!(policy instanceof CompactGameState.PlayoutPolicy)) return false;
+        // Partially observable states share their units with the full state
+        if (gs.getClass()!=GameState.class) return false;
+        CompactGameState cgs = new CompactGameState(gs);
+        cgs.simulate((CompactGameState.PlayoutPolicy) policy, time);
+        cgs.writeTo(gs);
+        return true;
+    }
+}
@@ -0,0 +1,29 @@
+package micro.ai.mcts;
+
+import java.util.List;
+
+import micro.rts.PlayerAction;
+
+/**
+ * A Monte Carlo tree search AI that exposes the statistics of the root of
+ * its last search, so that the trees of several copies searching the same
+ * state can be merged (see RootParallelMCTS).
+ */
+public interface HasRootStatistics {
+	/**
+	 * @return actions of the expanded children of the root, or null if the root was not expanded
+	 */
+	public List<PlayerAction> getRootActions();
+
+	/**
+	 * @param idx index in getRootActions()
+	 * @return number of playouts through that child
+	 */
+	public int getRootVisitCount(int idx);
+
+	/**
+	 * @param idx index in getRootActions()
+	 * @return sum of the evaluations of the playouts through that child
+	 */
+	public double getRootAccumEvaluation(int idx);
+}
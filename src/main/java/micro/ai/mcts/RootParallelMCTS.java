@@ -0,0 +1,167 @@
+package micro.ai.mcts;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import edu.southwestern.tasks.EvaluationPool;
+import micro.ai.core.AI;
+import micro.ai.core.AIWithComputationBudget;
+import micro.ai.core.InterruptibleAI;
+import micro.ai.core.ParameterSpecification;
+import micro.rts.GameState;
+import micro.rts.PlayerAction;
+
+/**
+ * Root parallelization of a Monte Carlo tree search AI (e.g., NaiveMCTS or UCT):
+ * several copies of the AI search independent trees from the same state in the
+ * shared evaluation pool, and the statistics of the children of their roots are
+ * added up to choose the most visited action. Trees are never shared between
+ * threads, so the serial AIs are used as they are.
+ *
+ * With an iterations budget, the playouts are split among the trees, so each
+ * decision uses as many playouts as the serial AI. With a time budget, every
+ * tree searches for the whole time, so more threads give more playouts.
+ */
+public class RootParallelMCTS extends AIWithComputationBudget {
+    AIWithComputationBudget prototype;
+    AIWithComputationBudget[] trees;
+
+    // statistics:
+    public long total_actions_issued = 0;
+    public long total_root_visits = 0;
+
+    /**
+     * @param serial AI to copy for each tree. Must be an InterruptibleAI with root statistics
+     * @param numTrees number of trees searched in parallel
+     */
+    public RootParallelMCTS(AIWithComputationBudget serial, int numTrees) {
+        super(serial.getTimeBudget(), serial.getIterationsBudget());
+        if (!(serial instanceof InterruptibleAI) || !(serial instanceof HasRootStatistics)) {
+            throw new IllegalArgumentException(serial.getClass().getSimpleName() + " cannot be root parallelized");
+        }
+        if (numTrees<1) throw new IllegalArgumentException("Need at least one tree: " + numTrees);
+        prototype = serial;
+        trees = new AIWithComputationBudget[numTrees];
+        for(int i = 0;i<numTrees;i++) {
+            // clones do not share playout policies, which keep their own buffers
+            trees[i] = (AIWithComputationBudget) serial.clone();
+        }
+    }
+
+
+    public void reset() {
+        for(AIWithComputationBudget tree:trees) tree.reset();
+        total_actions_issued = 0;
+        total_root_visits = 0;
+    }
+
+
+    public AI clone() {
+        AIWithComputationBudget serial = (AIWithComputationBudget) prototype.clone();
+        serial.setTimeBudget(TIME_BUDGET);
+        serial.setIterationsBudget(ITERATIONS_BUDGET);
+        return new RootParallelMCTS(serial, trees.length);
+    }
+
+
+    /**
+     * Share of the iterations budget searched by one tree
+     *
+     * @param i index of the tree
+     * @return iterations budget of that tree, or the full budget if it is not bounded
+     */
+    int iterationsBudget(int i) {
+        if (ITERATIONS_BUDGET<=0) return ITERATIONS_BUDGET;
+        int share = ITERATIONS_BUDGET/trees.length + (i<ITERATIONS_BUDGET%trees.length ? 1 : 0);
+        // 0 means unbounded for some of the AIs
+        return Math.max(1, share);
+    }
+
+
+    public PlayerAction getAction(final int player, GameState gs) throws Exception {
+        if (!gs.canExecuteAnyAction(player)) return new PlayerAction();
+        List<Callable<Void>> searches = new ArrayList<>(trees.length);
+        for(int i = 0;i<trees.length;i++) {
+            final AIWithComputationBudget tree = trees[i];
+            final GameState start = gs.clone();
+            tree.setTimeBudget(TIME_BUDGET);
+            tree.setIterationsBudget(iterationsBudget(i));
+            searches.add(() -> {
+                ((InterruptibleAI) tree).startNewComputation(player, start);
+                ((InterruptibleAI) tree).computeDuringOneGameFrame();
+                return null;
+            });
+        }
+        EvaluationPool.invokeAll(searches);
+        return getBestActionSoFar();
+    }
+
+
+    /**
+     * Merges the roots of all trees, matching children by their player actions
+     *
+     * @return the action with the most playouts across all trees (ties broken
+     *         by the total evaluation), or an empty action if no root was expanded
+     */
+    public PlayerAction getBestActionSoFar() {
+        total_actions_issued++;
+        List<PlayerAction> actions = new ArrayList<>();
+        List<Integer> visits = new ArrayList<>();
+        List<Double> evaluations = new ArrayList<>();
+        for(AIWithComputationBudget tree:trees) {
+            HasRootStatistics root = (HasRootStatistics) tree;
+            List<PlayerAction> rootActions = root.getRootActions();
+            if (rootActions==null) continue;
+            for(int i = 0;i<rootActions.size();i++) {
+                int idx = actions.indexOf(rootActions.get(i));
+                if (idx==-1) {
+                    actions.add(rootActions.get(i));
+                    visits.add(0);
+                    evaluations.add(0.0);
+                    idx = actions.size()-1;
+                }
+                visits.set(idx, visits.get(idx) + root.getRootVisitCount(i));
+                evaluations.set(idx, evaluations.get(idx) + root.getRootAccumEvaluation(i));
+                total_root_visits += root.getRootVisitCount(i);
+            }
+        }
+
+        int best = -1;
+        for(int i = 0;i<actions.size();i++) {
+            if (best==-1 || visits.get(i)>visits.get(best) ||
+                (visits.get(i).equals(visits.get(best)) && evaluations.get(i)>evaluations.get(best))) {
+                best = i;
+            }
+        }
+        if (best==-1) return new PlayerAction();
+        return actions.get(best);
+    }
+
+
+    public int getNumTrees() {
+        return trees.length;
+    }
+
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(" + trees.length + ", " + TIME_BUDGET + ", " + ITERATIONS_BUDGET + ", " + prototype + ")";
+    }
+
+
+    @Override
+    public String statisticsString() {
+        return "Trees: " + trees.length +
+               ", root playouts per action: " + (total_root_visits/(float)total_actions_issued);
+    }
+
+
+    @Override
+    public List<ParameterSpecification> getParameters() {
+        List<ParameterSpecification> parameters = new ArrayList<>();
+        parameters.add(new ParameterSpecification("Trees",int.class,trees.length));
+        parameters.addAll(prototype.getParameters());
+        return parameters;
+    }
+}
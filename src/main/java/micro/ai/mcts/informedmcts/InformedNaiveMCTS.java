@@ -6,10 +6,12 @@ package micro.ai.mcts.informedmcts;
 
 import micro.ai.*;
 import micro.ai.core.AI;
+import micro.ai.core.CompactPlayouts;
 import micro.ai.core.AIWithComputationBudget;
 import micro.ai.core.ParameterSpecification;
 import micro.ai.evaluation.EvaluationFunction;
 import micro.ai.evaluation.SimpleSqrtEvaluationFunction3;
+import micro.ai.mcts.HasRootStatistics;
 import micro.ai.machinelearning.bayes.ActionInterdependenceModel;
 import micro.ai.machinelearning.bayes.BayesianModelByUnitTypeWithDefaultModel;
 import micro.ai.machinelearning.bayes.featuregeneration.FeatureGeneratorSimple;
@@ -36,7 +38,7 @@ import micro.ai.core.InterruptibleAI;
  * @author santi
  * 
  */
-public class InformedNaiveMCTS extends AIWithComputationBudget implements InterruptibleAI, HasEvaluationFunction {
+public class InformedNaiveMCTS extends AIWithComputationBudget implements InterruptibleAI, HasEvaluationFunction, HasRootStatistics {
     public static int DEBUG = 0;
     public EvaluationFunction ef = null;
     UnitTypeTable utt = null;
@@ -184,7 +186,7 @@ public class InformedNaiveMCTS extends AIWithComputationBudget implements Interr
         
     
     public AI clone() {
-        return new InformedNaiveMCTS(TIME_BUDGET, ITERATIONS_BUDGET, MAXSIMULATIONTIME, MAX_TREE_DEPTH, epsilon_l, discount_l, epsilon_g, discount_g, epsilon_0, discount_0, playoutPolicy, bias, ef, utt);
+        return new InformedNaiveMCTS(TIME_BUDGET, ITERATIONS_BUDGET, MAXSIMULATIONTIME, MAX_TREE_DEPTH, epsilon_l, discount_l, epsilon_g, discount_g, epsilon_0, discount_0, playoutPolicy.clone(), bias, ef, utt);
     }    
     
     
@@ -338,6 +340,7 @@ public class InformedNaiveMCTS extends AIWithComputationBudget implements Interr
     
         
     public void simulate(GameState gs, int time) throws Exception {
+        if (CompactPlayouts.simulate(gs, playoutPolicy, time)) return;
         boolean gameover = false;
 
         do{
@@ -354,6 +357,22 @@ public class InformedNaiveMCTS extends AIWithComputationBudget implements Interr
         return tree;
     }
     
+    
+    public List<PlayerAction> getRootActions() {
+        if (tree==null || tree.children==null) return null;
+        return tree.actions;
+    }
+
+
+    public int getRootVisitCount(int idx) {
+        return tree.children.get(idx).visit_count;
+    }
+
+
+    public double getRootAccumEvaluation(int idx) {
+        return tree.children.get(idx).accum_evaluation;
+    }
+    
     public GameState getGameStateToStartFrom() {
         return gs_to_start_from;
     }
@@ -6,17 +6,16 @@ package micro.ai.mcts.mlps;
 
 import micro.ai.*;
 import micro.ai.core.AI;
+import micro.ai.core.CompactPlayouts;
 import micro.ai.core.AIWithComputationBudget;
 import micro.ai.core.ParameterSpecification;
 import micro.ai.evaluation.EvaluationFunction;
 import micro.ai.evaluation.SimpleSqrtEvaluationFunction3;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 
 import edu.southwestern.MMNEAT.MMNEAT;
 import edu.southwestern.tasks.microrts.MicroRTSInformation;
-import edu.southwestern.util.random.RandomNumbers;
 import micro.rts.GameState;
 import micro.rts.PlayerAction;
 import micro.rts.units.UnitTypeTable;
@@ -30,7 +29,6 @@ public class MLPSMCTS extends AIWithComputationBudget implements InterruptibleAI
     public static int DEBUG = 0;
     public EvaluationFunction ef = null;
        
-    Random r = RandomNumbers.randomGenerator;
     public AI randomAI = new RandomBiasedAI();
     long max_actions_so_far = 0;
     
@@ -235,6 +233,7 @@ public class MLPSMCTS extends AIWithComputationBudget implements InterruptibleAI
     
         
     public void simulate(GameState gs, int time) throws Exception {
+        if (CompactPlayouts.simulate(gs, randomAI, time)) return;
         boolean gameover = false;
 
         do{
@@ -6,17 +6,17 @@ package micro.ai.mcts.naivemcts;
 
 import micro.ai.*;
 import micro.ai.core.AI;
+import micro.ai.core.CompactPlayouts;
 import micro.ai.core.AIWithComputationBudget;
 import micro.ai.core.ParameterSpecification;
 import micro.ai.evaluation.EvaluationFunction;
 import micro.ai.evaluation.SimpleSqrtEvaluationFunction3;
+import micro.ai.mcts.HasRootStatistics;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 
 import edu.southwestern.MMNEAT.MMNEAT;
 import edu.southwestern.tasks.microrts.MicroRTSInformation;
-import edu.southwestern.util.random.RandomNumbers;
 import micro.rts.GameState;
 import micro.rts.PlayerAction;
 import micro.rts.units.UnitTypeTable;
@@ -26,11 +26,10 @@ import micro.ai.core.InterruptibleAI;
  *
  * @author santi
  */
-public class NaiveMCTS extends AIWithComputationBudget implements InterruptibleAI {
+public class NaiveMCTS extends AIWithComputationBudget implements InterruptibleAI, HasRootStatistics {
     public static int DEBUG = 0;
     public EvaluationFunction ef = null;
        
-    Random r = RandomNumbers.randomGenerator;
     public AI playoutPolicy = new RandomBiasedAI();
     long max_actions_so_far = 0;
     
@@ -142,7 +141,7 @@ public class NaiveMCTS extends AIWithComputationBudget implements InterruptibleA
         
     
     public AI clone() {
-        return new NaiveMCTS(TIME_BUDGET, ITERATIONS_BUDGET, MAXSIMULATIONTIME, MAX_TREE_DEPTH, epsilon_l, discount_l, epsilon_g, discount_g, epsilon_0, discount_0, playoutPolicy, ef, forceExplorationOfNonSampledActions);
+        return new NaiveMCTS(TIME_BUDGET, ITERATIONS_BUDGET, MAXSIMULATIONTIME, MAX_TREE_DEPTH, epsilon_l, discount_l, epsilon_g, discount_g, epsilon_0, discount_0, playoutPolicy.clone(), ef, forceExplorationOfNonSampledActions);
     }    
     
     
@@ -303,6 +302,7 @@ public class NaiveMCTS extends AIWithComputationBudget implements InterruptibleA
     
         
     public void simulate(GameState gs, int time) throws Exception {
+        if (CompactPlayouts.simulate(gs, playoutPolicy, time)) return;
         boolean gameover = false;
 
         do{
@@ -319,6 +319,22 @@ public class NaiveMCTS extends AIWithComputationBudget implements InterruptibleA
         return tree;
     }
     
+    
+    public List<PlayerAction> getRootActions() {
+        if (tree==null || tree.children==null) return null;
+        return tree.actions;
+    }
+
+
+    public int getRootVisitCount(int idx) {
+        return tree.children.get(idx).visit_count;
+    }
+
+
+    public double getRootAccumEvaluation(int idx) {
+        return tree.children.get(idx).accum_evaluation;
+    }
+    
     public GameState getGameStateToStartFrom() {
         return gs_to_start_from;
     }
@@ -6,6 +6,7 @@ package micro.ai.mcts.naivemcts;
 
 import micro.ai.*;
 import micro.ai.core.AI;
+import micro.ai.core.CompactPlayouts;
 import micro.ai.core.AIWithComputationBudget;
 import micro.ai.core.ParameterSpecification;
 import micro.ai.evaluation.EvaluationFunction;
@@ -282,6 +283,7 @@ public class TwoPhaseNaiveMCTSPerNode extends AIWithComputationBudget implements
     
         
     public void simulate(GameState gs, int time) throws Exception {
+        if (CompactPlayouts.simulate(gs, randomAI, time)) return;
         boolean gameover = false;
 
         do{
@@ -5,6 +5,7 @@
 package micro.ai.mcts.uct;
 
 import micro.ai.core.AI;
+import micro.ai.core.CompactPlayouts;
 import micro.ai.RandomBiasedAI;
 import micro.ai.core.AIWithComputationBudget;
 import micro.ai.core.ParameterSpecification;
@@ -169,6 +170,7 @@ public class DownsamplingUCT extends AIWithComputationBudget implements Interrup
     
     
     public void simulate(GameState gs, int time) throws Exception {
+        if (CompactPlayouts.simulate(gs, randomAI, time)) return;
         boolean gameover = false;
 
         do{
@@ -5,17 +5,17 @@
 package micro.ai.mcts.uct;
 
 import micro.ai.core.AI;
+import micro.ai.core.CompactPlayouts;
 import micro.ai.HasEvaluationFunction;
 import micro.ai.RandomBiasedAI;
 import micro.ai.core.AIWithComputationBudget;
 import micro.ai.core.ParameterSpecification;
 import micro.ai.evaluation.EvaluationFunction;
 import micro.ai.evaluation.SimpleSqrtEvaluationFunction3;
+import micro.ai.mcts.HasRootStatistics;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 
-import edu.southwestern.util.random.RandomNumbers;
 import micro.rts.GameState;
 import micro.rts.PlayerAction;
 import micro.rts.units.UnitTypeTable;
@@ -25,11 +25,10 @@ import micro.ai.core.InterruptibleAI;
  *
  * @author santi
  */
-public class UCT extends AIWithComputationBudget implements InterruptibleAI, HasEvaluationFunction{
+public class UCT extends AIWithComputationBudget implements InterruptibleAI, HasEvaluationFunction, HasRootStatistics {
 	public static int DEBUG = 0;
 	EvaluationFunction ef = null;
 
-	Random r = RandomNumbers.randomGenerator;
 	AI randomAI = new RandomBiasedAI();
 	long max_actions_so_far = 0;
 
@@ -93,7 +92,7 @@ public class UCT extends AIWithComputationBudget implements InterruptibleAI, Has
 
 
 		public AI clone() {
-			return new UCT(TIME_BUDGET, ITERATIONS_BUDGET, MAXSIMULATIONTIME, MAX_TREE_DEPTH, randomAI, ef);
+			return new UCT(TIME_BUDGET, ITERATIONS_BUDGET, MAXSIMULATIONTIME, MAX_TREE_DEPTH, randomAI.clone(), ef);
 		}  
 
 
@@ -208,6 +207,22 @@ public class UCT extends AIWithComputationBudget implements InterruptibleAI, Has
 		}
 
 
+		public List<PlayerAction> getRootActions() {
+			if (tree==null || tree.children==null) return null;
+			return tree.actions;
+		}
+
+
+		public int getRootVisitCount(int idx) {
+			return tree.children.get(idx).visit_count;
+		}
+
+
+		public double getRootAccumEvaluation(int idx) {
+			return tree.children.get(idx).accum_evaluation;
+		}
+
+
 		// gets the best action, evaluates it for 'N' times using a simulation, and returns the average obtained value:
 		public float getBestActionEvaluation(GameState gs, int player, int N) throws Exception {
 			PlayerAction pa = getBestActionSoFar();
@@ -230,6 +245,7 @@ public class UCT extends AIWithComputationBudget implements InterruptibleAI, Has
 
 
 		public void simulate(GameState gs, int time) throws Exception {
+			if (CompactPlayouts.simulate(gs, randomAI, time)) return;
 			boolean gameover = false;
 
 			do{
@@ -5,6 +5,7 @@
 package micro.ai.mcts.uct;
 
 import micro.ai.core.AI;
+import micro.ai.core.CompactPlayouts;
 import micro.ai.RandomBiasedAI;
 import micro.ai.core.AIWithComputationBudget;
 import micro.ai.core.ParameterSpecification;
@@ -224,6 +225,7 @@ public class UCTFirstPlayUrgency extends AIWithComputationBudget implements Inte
     
     
     public void simulate(GameState gs, int time) throws Exception {
+        if (CompactPlayouts.simulate(gs, randomAI, time)) return;
         boolean gameover = false;
 
         do{
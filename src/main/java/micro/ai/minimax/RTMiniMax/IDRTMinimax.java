@@ -14,9 +14,7 @@ import micro.ai.evaluation.SimpleSqrtEvaluationFunction3;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Random;
 
-import edu.southwestern.util.random.RandomNumbers;
 import micro.rts.GameState;
 import micro.rts.PlayerAction;
 import micro.rts.PlayerActionGenerator;
@@ -57,7 +55,6 @@ public class IDRTMinimax extends AIWithComputationBudget implements Interruptibl
     Pair<PlayerAction,Float> lastResult = null;
     PlayerAction bestMove = null;
     
-    Random r = RandomNumbers.randomGenerator;
     int playerForThisComputation;
 
     //for ClassCreation
@@ -223,7 +220,7 @@ public class IDRTMinimax extends AIWithComputationBudget implements Interruptibl
                             current.actions = new PlayerActionGenerator(current.gs,maxplayer);
                             long l = current.actions.getSize();
                             if (l>max_potential_branching_so_far) max_potential_branching_so_far = l;
-//                            while(current.actions.size()>MAX_BRANCHING_FACTOR) current.actions.remove(r.nextInt(current.actions.size()));
+//                            while(current.actions.size()>MAX_BRANCHING_FACTOR) current.actions.remove(RandomNumbers.generator().nextInt(current.actions.size()));
                             current.best = null;
                             PlayerAction next = current.actions.getNextAction(cutOffTime);                            
                             if (next!=null) {
@@ -255,7 +252,7 @@ public class IDRTMinimax extends AIWithComputationBudget implements Interruptibl
                             current.actions = new PlayerActionGenerator(current.gs,minplayer);
                             long l = current.actions.getSize();
                             if (l>max_potential_branching_so_far) max_potential_branching_so_far = l;
-//                            while(current.actions.size()>MAX_BRANCHING_FACTOR) current.actions.remove(r.nextInt(current.actions.size()));
+//                            while(current.actions.size()>MAX_BRANCHING_FACTOR) current.actions.remove(RandomNumbers.generator().nextInt(current.actions.size()));
                             current.best = null;
                             PlayerAction next = current.actions.getNextAction(cutOffTime);                            
                             if (next!=null) {
@@ -5,6 +5,7 @@
 package micro.ai.montecarlo;
 
 import micro.ai.core.AI;
+import micro.ai.core.CompactPlayouts;
 import micro.ai.HasEvaluationFunction;
 import micro.ai.RandomBiasedAI;
 import micro.ai.core.AIWithComputationBudget;
@@ -13,7 +14,6 @@ import micro.ai.evaluation.EvaluationFunction;
 import micro.ai.evaluation.SimpleSqrtEvaluationFunction3;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 
 import edu.southwestern.MMNEAT.MMNEAT;
 import edu.southwestern.tasks.microrts.MicroRTSInformation;
@@ -40,7 +40,6 @@ public class MonteCarlo extends AIWithComputationBudget implements Interruptible
     }
     
     
-    Random r = RandomNumbers.randomGenerator;
     AI randomAI = new RandomBiasedAI();
     long max_actions_so_far = 0;
     
@@ -173,7 +172,7 @@ public class MonteCarlo extends AIWithComputationBudget implements Interruptible
                 }while(pa!=null);
                 max_actions_so_far = Math.max(actions.size(),max_actions_so_far);
                 if (DEBUG>=1) System.out.println("MontCarloAI (complete generation plus random reduction) for player " + playerForThisComputation + " chooses between " + actions.size() + " actions [maximum so far " + max_actions_so_far + "] (cycle " + gs_to_start_from.getTime() + ")");
-                while(MAXACTIONS>0 && actions.size()>MAXACTIONS) actions.remove(r.nextInt(actions.size()));
+                while(MAXACTIONS>0 && actions.size()>MAXACTIONS) actions.remove(RandomNumbers.generator().nextInt(actions.size()));
             }      
         }
         
@@ -227,6 +226,7 @@ public class MonteCarlo extends AIWithComputationBudget implements Interruptible
     
     
     public void simulate(GameState gs, int time) throws Exception {
+        if (CompactPlayouts.simulate(gs, randomAI, time)) return;
         boolean gameover = false;
 
         do{
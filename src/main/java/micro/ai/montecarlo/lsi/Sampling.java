@@ -6,6 +6,7 @@ package micro.ai.montecarlo.lsi;
 
 import micro.util.CartesianProduct;
 import micro.ai.core.AI;
+import micro.ai.core.CompactPlayouts;
 import micro.ai.evaluation.EvaluationFunction;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -58,6 +59,7 @@ public class Sampling {
 
     private void simulate(GameState gs, int lookaheadTime) throws Exception {
         simulationCount++;
+        if (CompactPlayouts.simulate(gs, simulationAi, lookaheadTime)) return;
 
         boolean gameover = false;
 
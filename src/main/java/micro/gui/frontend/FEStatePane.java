@@ -232,6 +232,7 @@ public class FEStatePane extends JPanel {
                             }
                         }
                         pgs.getUnits().clear();
+                        pgs.invalidateUnitIndex();
                         statePanel.repaint();
                     }
                 });
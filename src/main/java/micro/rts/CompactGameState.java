@@ -0,0 +1,776 @@
+package micro.rts;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+
+import micro.rts.units.Unit;
+import micro.rts.units.UnitType;
+import micro.rts.units.UnitTypeTable;
+
+/**
+ * Game state for forward simulation that keeps the units in parallel
+ * primitive arrays (ID, type, owner, position, HP, resources and pending
+ * action) instead of Unit, UnitAction and UnitActionAssignment objects.
+ * Cloning copies a few arrays, and unit actions are encoded as ints, so
+ * enumerating, issuing and executing them does not allocate.
+ *
+ * The rules are exactly those of GameState: issue resolves conflicts in
+ * the same order and with the same random numbers, and cycle executes the
+ * ready actions in the order they were issued. Starting from the same
+ * state, and given the same actions, both representations stay identical.
+ * Units are kept in the same order as the unit list of PhysicalGameState,
+ * and are referred to by their index in that order (their slot), which
+ * changes when earlier units are removed.
+ *
+ * Search code can convert a GameState with the constructor, simulate on
+ * this class, and copy the result back with writeTo or toGameState.
+ */
+public class CompactGameState {
+    public static final int NO_ACTION = -1;
+
+    // Encoded actions: bits 0-2 hold the type, bits 3-5 the direction, and the
+    // remaining bits the duration (none), target cell (attack) or unit type ID (produce)
+    private static final int TYPE_BITS = 3;
+    private static final int TYPE_MASK = (1<<TYPE_BITS)-1;
+    private static final int PARAMETER_SHIFT = 8;
+    private static final int HARVEST_TIME = 20; // hard-coded in UnitAction.ETA
+
+    final UnitTypeTable utt;
+    final UnitType[] types;
+    final int width, height;
+    final int[] terrain; // never changes, so it is shared amongst all instances
+
+    int time;
+    int unitCancelationCounter;
+    int[] playerResources;
+
+    int n;               // number of units
+    long[] ids;
+    int[] unitType;      // index in types
+    int[] owner;         // -1 for resources
+    int[] x, y;
+    int[] hp;
+    int[] resources;
+    int[] action;        // encoded pending action, or NO_ACTION
+    int[] actionTime;    // cycle in which the pending action was issued
+    boolean[] removed;   // only true for units that died during the current cycle
+
+    // Slots with pending actions, in the order the actions were issued
+    int[] pending;
+    int numPending;
+
+    // cellUnit[x+y*width] is the slot of the unit on that cell, or -1
+    int[] cellUnit;
+
+    // Unit objects the state was created from, so that writeTo can reuse them.
+    // Not copied by clone, so that only one state can modify them.
+    Unit[] source;
+
+    // Reused by cycle
+    int[] ready, readyActions;
+
+    /**
+     * Copies the state of a GameState. Partially observable states are
+     * copied as seen by their observer.
+     *
+     * @param gs game state to copy
+     */
+    public CompactGameState(GameState gs) {
+        PhysicalGameState pgs = gs.getPhysicalGameState();
+        utt = gs.getUnitTypeTable();
+        List<UnitType> typeList = utt.getUnitTypes();
+        types = typeList.toArray(new UnitType[typeList.size()]);
+        width = pgs.getWidth();
+        height = pgs.getHeight();
+        terrain = pgs.terrain;
+        time = gs.time;
+        unitCancelationCounter = gs.unitCancelationCounter;
+        playerResources = new int[pgs.getPlayers().size()];
+        for(int i = 0;i<playerResources.length;i++) playerResources[i] = pgs.getPlayer(i).getResources();
+
+        int capacity = Math.max(8, pgs.units.size()*2);
+        allocate(capacity);
+        cellUnit = new int[width*height];
+        Arrays.fill(cellUnit, -1);
+        HashMap<Unit,Integer> slots = new HashMap<Unit,Integer>();
+        for(Unit u:pgs.units) {
+            int s = n++;
+            ids[s] = u.getID();
+            unitType[s] = typeIndex(u.getType());
+            owner[s] = u.getPlayer();
+            x[s] = u.getX();
+            y[s] = u.getY();
+            hp[s] = u.getHitPoints();
+            resources[s] = u.getResources();
+            action[s] = NO_ACTION;
+            source[s] = u;
+            if (cellUnit[x[s]+y[s]*width]==-1) cellUnit[x[s]+y[s]*width] = s;
+            slots.put(u, s);
+        }
+        for(UnitActionAssignment uaa:gs.unitActions.values()) {
+            Integer s = slots.get(uaa.unit);
+            if (s==null) continue;
+            action[s] = encode(uaa.action);
+            actionTime[s] = uaa.time;
+            pending[numPending++] = s;
+        }
+    }
+
+    /**
+     * Copy constructor: copies only the arrays of primitives
+     *
+     * @param other state to copy
+     */
+    public CompactGameState(CompactGameState other) {
+        utt = other.utt;
+        types = other.types;
+        width = other.width;
+        height = other.height;
+        terrain = other.terrain;
+        time = other.time;
+        unitCancelationCounter = other.unitCancelationCounter;
+        playerResources = other.playerResources.clone();
+        n = other.n;
+        allocate(other.ids.length);
+        System.arraycopy(other.ids, 0, ids, 0, n);
+        System.arraycopy(other.unitType, 0, unitType, 0, n);
+        System.arraycopy(other.owner, 0, owner, 0, n);
+        System.arraycopy(other.x, 0, x, 0, n);
+        System.arraycopy(other.y, 0, y, 0, n);
+        System.arraycopy(other.hp, 0, hp, 0, n);
+        System.arraycopy(other.resources, 0, resources, 0, n);
+        System.arraycopy(other.action, 0, action, 0, n);
+        System.arraycopy(other.actionTime, 0, actionTime, 0, n);
+        numPending = other.numPending;
+        System.arraycopy(other.pending, 0, pending, 0, numPending);
+        cellUnit = other.cellUnit.clone();
+    }
+
+    public CompactGameState clone() {
+        return new CompactGameState(this);
+    }
+
+    private void allocate(int capacity) {
+        ids = new long[capacity];
+        unitType = new int[capacity];
+        owner = new int[capacity];
+        x = new int[capacity];
+        y = new int[capacity];
+        hp = new int[capacity];
+        resources = new int[capacity];
+        action = new int[capacity];
+        actionTime = new int[capacity];
+        removed = new boolean[capacity];
+        pending = new int[capacity];
+        source = new Unit[capacity];
+    }
+
+    private void grow() {
+        int capacity = ids.length*2;
+        ids = Arrays.copyOf(ids, capacity);
+        unitType = Arrays.copyOf(unitType, capacity);
+        owner = Arrays.copyOf(owner, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        hp = Arrays.copyOf(hp, capacity);
+        resources = Arrays.copyOf(resources, capacity);
+        action = Arrays.copyOf(action, capacity);
+        actionTime = Arrays.copyOf(actionTime, capacity);
+        removed = Arrays.copyOf(removed, capacity);
+        pending = Arrays.copyOf(pending, capacity);
+        source = Arrays.copyOf(source, capacity);
+    }
+
+    private int typeIndex(UnitType ut) {
+        if (ut.ID>=0 && ut.ID<types.length && types[ut.ID]==ut) return ut.ID;
+        for(int i = 0;i<types.length;i++) if (types[i].equals(ut)) return i;
+        throw new IllegalArgumentException("Unit type " + ut.name + " is not in the unit type table");
+    }
+
+    /**
+     * Encodes an action as an int
+     *
+     * @param type one of the UnitAction.TYPE_ constants
+     * @param direction one of the UnitAction.DIRECTION_ constants, ignored for none and attack
+     * @param parameter duration (none), target cell x+y*width (attack), or unit type index (produce)
+     * @return encoded action
+     */
+    public static int encode(int type, int direction, int parameter) {
+        return type | ((direction & 7)<<TYPE_BITS) | (parameter<<PARAMETER_SHIFT);
+    }
+
+    public static int actionType(int a) {
+        return a & TYPE_MASK;
+    }
+
+    public static int actionDirection(int a) {
+        return (a>>TYPE_BITS) & 7;
+    }
+
+    public static int actionParameter(int a) {
+        return a>>PARAMETER_SHIFT;
+    }
+
+    /**
+     * Encodes a UnitAction of this state
+     */
+    public int encode(UnitAction ua) {
+        switch(ua.type) {
+            case UnitAction.TYPE_NONE: return encode(UnitAction.TYPE_NONE, 0, ua.parameter);
+            case UnitAction.TYPE_ATTACK_LOCATION: return encode(UnitAction.TYPE_ATTACK_LOCATION, 0, ua.x+ua.y*width);
+            case UnitAction.TYPE_PRODUCE: return encode(UnitAction.TYPE_PRODUCE, ua.parameter, typeIndex(ua.unitType));
+            default: return encode(ua.type, ua.parameter, 0);
+        }
+    }
+
+    /**
+     * Decodes an action into a new UnitAction
+     */
+    public UnitAction decode(int a) {
+        int type = actionType(a);
+        switch(type) {
+            case UnitAction.TYPE_NONE: return new UnitAction(UnitAction.TYPE_NONE, actionParameter(a));
+            case UnitAction.TYPE_ATTACK_LOCATION: return new UnitAction(UnitAction.TYPE_ATTACK_LOCATION, actionParameter(a)%width, actionParameter(a)/width);
+            case UnitAction.TYPE_PRODUCE: return new UnitAction(UnitAction.TYPE_PRODUCE, actionDirection(a), types[actionParameter(a)]);
+            default: return new UnitAction(type, actionDirection(a));
+        }
+    }
+
+    public int getTime() {
+        return time;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getNumUnits() {
+        return n;
+    }
+
+    public long getID(int slot) {
+        return ids[slot];
+    }
+
+    public UnitType getType(int slot) {
+        return types[unitType[slot]];
+    }
+
+    public int getPlayer(int slot) {
+        return owner[slot];
+    }
+
+    public int getX(int slot) {
+        return x[slot];
+    }
+
+    public int getY(int slot) {
+        return y[slot];
+    }
+
+    public int getHitPoints(int slot) {
+        return hp[slot];
+    }
+
+    public int getResources(int slot) {
+        return resources[slot];
+    }
+
+    public int getPlayerResources(int player) {
+        return playerResources[player];
+    }
+
+    /**
+     * @return encoded pending action of the unit, or NO_ACTION
+     */
+    public int getAction(int slot) {
+        return action[slot];
+    }
+
+    /**
+     * @return slot of the unit at a position, or -1 (also outside of the map)
+     */
+    public int getUnitAt(int ux, int uy) {
+        if (ux<0 || uy<0 || ux>=width || uy>=height) return -1;
+        return cellUnit[ux+uy*width];
+    }
+
+    private int terrainAt(int tx, int ty) {
+        if (tx<0 || ty<0 || tx>=width || ty>=height) return PhysicalGameState.TERRAIN_WALL;
+        return terrain[tx+ty*width];
+    }
+
+    /**
+     * Duration of an action when executed by a unit, as in UnitAction.ETA
+     */
+    public int eta(int slot, int a) {
+        UnitType ut = types[unitType[slot]];
+        switch(actionType(a)) {
+            case UnitAction.TYPE_NONE: return actionParameter(a);
+            case UnitAction.TYPE_MOVE: return ut.moveTime;
+            case UnitAction.TYPE_ATTACK_LOCATION: return ut.attackTime;
+            case UnitAction.TYPE_HARVEST: return HARVEST_TIME;
+            case UnitAction.TYPE_RETURN: return ut.moveTime;
+            case UnitAction.TYPE_PRODUCE: return types[actionParameter(a)].produceTime;
+        }
+        return 0;
+    }
+
+    /**
+     * Cell an action reserves when executed by the unit in a slot, as in UnitAction.resourceUsage
+     *
+     * @return x+y*width of the target of moves and productions, -1 for other actions
+     */
+    public int usedPosition(int slot, int a) {
+        int type = actionType(a);
+        if (type!=UnitAction.TYPE_MOVE && type!=UnitAction.TYPE_PRODUCE) return -1;
+        int d = actionDirection(a);
+        return x[slot] + UnitAction.DIRECTION_OFFSET_X[d] + (y[slot] + UnitAction.DIRECTION_OFFSET_Y[d])*width;
+    }
+
+    /**
+     * Resources an action uses, as in UnitAction.resourceUsage
+     */
+    public int usedResources(int a) {
+        return actionType(a)==UnitAction.TYPE_PRODUCE ? types[actionParameter(a)].cost : 0;
+    }
+
+    /**
+     * Fills an array with all actions a unit can execute, in the same
+     * order as Unit.getUnitActions
+     *
+     * @param slot unit
+     * @param duration duration of the none action, which is always the last one
+     * @param actions array to fill, which must be large enough
+     * @return number of actions
+     */
+    public int unitActions(int slot, int duration, int[] actions) {
+        int count = 0;
+        UnitType ut = types[unitType[slot]];
+        int player = owner[slot];
+        int ux = x[slot], uy = y[slot];
+        int up = getUnitAt(ux, uy-1), right = getUnitAt(ux+1, uy), down = getUnitAt(ux, uy+1), left = getUnitAt(ux-1, uy);
+        if (ut.canAttack) {
+            if (ut.attackRange==1) {
+                if (isEnemy(up, player)) actions[count++] = encode(UnitAction.TYPE_ATTACK_LOCATION, 0, ux+(uy-1)*width);
+                if (isEnemy(right, player)) actions[count++] = encode(UnitAction.TYPE_ATTACK_LOCATION, 0, ux+1+uy*width);
+                if (isEnemy(down, player)) actions[count++] = encode(UnitAction.TYPE_ATTACK_LOCATION, 0, ux+(uy+1)*width);
+                if (isEnemy(left, player)) actions[count++] = encode(UnitAction.TYPE_ATTACK_LOCATION, 0, ux-1+uy*width);
+            } else {
+                int sqrange = ut.attackRange*ut.attackRange;
+                for(int i = 0;i<n;i++) {
+                    if (owner[i]<0 || owner[i]==player) continue;
+                    int dx = x[i]-ux, dy = y[i]-uy;
+                    if (dx*dx+dy*dy<=sqrange) actions[count++] = encode(UnitAction.TYPE_ATTACK_LOCATION, 0, x[i]+y[i]*width);
+                }
+            }
+        }
+        if (ut.canHarvest) {
+            if (resources[slot]==0) {
+                for(int d = 0;d<4;d++) {
+                    int neighbor = getUnitAt(ux+UnitAction.DIRECTION_OFFSET_X[d], uy+UnitAction.DIRECTION_OFFSET_Y[d]);
+                    if (neighbor!=-1 && types[unitType[neighbor]].isResource) actions[count++] = encode(UnitAction.TYPE_HARVEST, d, 0);
+                }
+            }
+            if (resources[slot]>0) {
+                for(int d = 0;d<4;d++) {
+                    int neighbor = getUnitAt(ux+UnitAction.DIRECTION_OFFSET_X[d], uy+UnitAction.DIRECTION_OFFSET_Y[d]);
+                    if (neighbor!=-1 && types[unitType[neighbor]].isStockpile && owner[neighbor]==player) actions[count++] = encode(UnitAction.TYPE_RETURN, d, 0);
+                }
+            }
+        }
+        for(UnitType produced:ut.produces) {
+            if (playerResources[player]>=produced.cost) {
+                int typeIndex = typeIndex(produced);
+                for(int d = 0;d<4;d++) {
+                    int px = ux+UnitAction.DIRECTION_OFFSET_X[d], py = uy+UnitAction.DIRECTION_OFFSET_Y[d];
+                    if (terrainAt(px, py)==PhysicalGameState.TERRAIN_NONE && getUnitAt(px, py)==-1) actions[count++] = encode(UnitAction.TYPE_PRODUCE, d, typeIndex);
+                }
+            }
+        }
+        if (ut.canMove) {
+            if (terrainAt(ux, uy-1)==PhysicalGameState.TERRAIN_NONE && up==-1) actions[count++] = encode(UnitAction.TYPE_MOVE, UnitAction.DIRECTION_UP, 0);
+            if (terrainAt(ux+1, uy)==PhysicalGameState.TERRAIN_NONE && right==-1) actions[count++] = encode(UnitAction.TYPE_MOVE, UnitAction.DIRECTION_RIGHT, 0);
+            if (terrainAt(ux, uy+1)==PhysicalGameState.TERRAIN_NONE && down==-1) actions[count++] = encode(UnitAction.TYPE_MOVE, UnitAction.DIRECTION_DOWN, 0);
+            if (terrainAt(ux-1, uy)==PhysicalGameState.TERRAIN_NONE && left==-1) actions[count++] = encode(UnitAction.TYPE_MOVE, UnitAction.DIRECTION_LEFT, 0);
+        }
+        actions[count++] = encode(UnitAction.TYPE_NONE, 0, duration);
+        return count;
+    }
+
+    /**
+     * Upper bound on the number of actions unitActions can return for a unit
+     */
+    public int maxUnitActions(int slot) {
+        UnitType ut = types[unitType[slot]];
+        return (ut.attackRange==1 ? 4 : n) + 8 + 4*ut.produces.size() + 4 + 1;
+    }
+
+    private boolean isEnemy(int slot, int player) {
+        return slot!=-1 && owner[slot]!=player && owner[slot]>=0;
+    }
+
+    /**
+     * Whether the actions of two units use the same cell or more resources than
+     * their owners have, as in ResourceUsage.consistentWith
+     */
+    private boolean consistent(int position1, int player1, int resources1, int position2, int player2, int resources2) {
+        if (position1!=-1 && position1==position2) return false;
+        for(int p = 0;p<playerResources.length;p++) {
+            int used = (player1==p ? resources1 : 0) + (player2==p ? resources2 : 0);
+            if (used>0 && used>playerResources[p]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Assigns an action to a unit, resolving conflicts with pending actions
+     * exactly like GameState.issue does for one unit action pair
+     *
+     * @param slot unit
+     * @param a encoded action
+     * @return true if the action that was assigned is not none
+     */
+    public boolean issue(int slot, int a) {
+        int position = usedPosition(slot, a);
+        int player = owner[slot];
+        int cost = usedResources(a);
+        for(int k = 0;k<numPending;k++) {
+            int other = pending[k];
+            int otherAction = action[other];
+            if (!consistent(usedPosition(other, otherAction), owner[other], usedResources(otherAction), position, player, cost)) {
+                if (actionTime[other]==time) {
+                    boolean cancelOld = false;
+                    boolean cancelNew = false;
+                    switch(utt.getMoveConflictResolutionStrategy()) {
+                        default:
+                        case UnitTypeTable.MOVE_CONFLICT_RESOLUTION_CANCEL_BOTH:
+                            cancelOld = cancelNew = true;
+                            break;
+                        case UnitTypeTable.MOVE_CONFLICT_RESOLUTION_CANCEL_RANDOM:
+                            if (GameState.r.nextInt(2)==0) cancelNew = true;
+                                                      else cancelOld = true;
+                            break;
+                        case UnitTypeTable.MOVE_CONFLICT_RESOLUTION_CANCEL_ALTERNATING:
+                            if ((unitCancelationCounter%2)==0) cancelNew = true;
+                                                          else cancelOld = true;
+                            unitCancelationCounter++;
+                            break;
+                    }
+                    int duration = Math.min(eta(other, otherAction), eta(slot, a));
+                    if (cancelOld) action[other] = encode(UnitAction.TYPE_NONE, 0, duration);
+                    if (cancelNew) a = encode(UnitAction.TYPE_NONE, 0, duration);
+                } else {
+                    // Inconsistent with an action from a previous cycle: only happens when an AI has a bug
+                    System.err.println("Inconsistent actions were executed!");
+                    a = encode(UnitAction.TYPE_NONE, 0, UnitAction.DIRECTION_NONE);
+                }
+            }
+        }
+        // As with the LinkedHashMap of GameState, replacing an action keeps its place in the order
+        if (action[slot]==NO_ACTION) pending[numPending++] = slot;
+        action[slot] = a;
+        actionTime[slot] = time;
+        return actionType(a)!=UnitAction.TYPE_NONE;
+    }
+
+    private void removePending(int slot) {
+        for(int k = 0;k<numPending;k++) {
+            if (pending[k]==slot) {
+                System.arraycopy(pending, k+1, pending, k, numPending-k-1);
+                numPending--;
+                break;
+            }
+        }
+        action[slot] = NO_ACTION;
+    }
+
+    /**
+     * Like GameState.cycle: advances time and executes the actions that are done,
+     * in the order in which they were issued
+     *
+     * @return true if the game is over
+     */
+    public boolean cycle() {
+        time++;
+        if (ready==null || ready.length<numPending) {
+            ready = new int[pending.length];
+            readyActions = new int[pending.length];
+        }
+        int numReady = 0;
+        for(int k = 0;k<numPending;k++) {
+            int s = pending[k];
+            if (eta(s, action[s])+actionTime[s]<=time) {
+                ready[numReady] = s;
+                readyActions[numReady++] = action[s];
+            }
+        }
+        if (numReady>0) {
+            for(int k = 0;k<numReady;k++) removePending(ready[k]);
+            for(int k = 0;k<numReady;k++) execute(ready[k], readyActions[k]);
+            compact();
+        }
+        return gameover();
+    }
+
+    /**
+     * Executes all pending actions immediately, as GameState.forceExecuteAllActions
+     */
+    public void forceExecuteAllActions() {
+        int ready[] = Arrays.copyOf(pending, numPending);
+        int readyActions[] = new int[ready.length];
+        for(int k = 0;k<ready.length;k++) readyActions[k] = action[ready[k]];
+        for(int k = 0;k<ready.length;k++) removePending(ready[k]);
+        for(int k = 0;k<ready.length;k++) execute(ready[k], readyActions[k]);
+        compact();
+    }
+
+    // Same effects as UnitAction.execute
+    private void execute(int s, int a) {
+        int d = actionDirection(a);
+        switch(actionType(a)) {
+            case UnitAction.TYPE_NONE:
+                break;
+            case UnitAction.TYPE_MOVE:
+                {
+                    if (!removed[s]) cellUnit[x[s]+y[s]*width] = -1;
+                    x[s] += UnitAction.DIRECTION_OFFSET_X[d];
+                    y[s] += UnitAction.DIRECTION_OFFSET_Y[d];
+                    if (!removed[s]) cellUnit[x[s]+y[s]*width] = s;
+                }
+                break;
+            case UnitAction.TYPE_ATTACK_LOCATION:
+                {
+                    int target = cellUnit[actionParameter(a)];
+                    if (target!=-1) {
+                        UnitType ut = types[unitType[s]];
+                        int damage;
+                        if (ut.minDamage==ut.maxDamage) {
+                            damage = ut.minDamage;
+                        } else {
+                            damage = ut.minDamage + UnitAction.r.nextInt(1 + (ut.maxDamage - ut.minDamage));
+                        }
+                        hp[target] -= damage;
+                        if (hp[target]<=0) remove(target);
+                    }
+                }
+                break;
+            case UnitAction.TYPE_HARVEST:
+                {
+                    int target = getUnitAt(x[s]+UnitAction.DIRECTION_OFFSET_X[d], y[s]+UnitAction.DIRECTION_OFFSET_Y[d]);
+                    UnitType ut = types[unitType[s]];
+                    if (target!=-1 && ut.canHarvest && resources[s]==0) {
+                        resources[target] -= ut.harvestAmount;
+                        if (resources[target]<=0) remove(target);
+                        resources[s] = ut.harvestAmount;
+                    }
+                }
+                break;
+            case UnitAction.TYPE_RETURN:
+                {
+                    int base = getUnitAt(x[s]+UnitAction.DIRECTION_OFFSET_X[d], y[s]+UnitAction.DIRECTION_OFFSET_Y[d]);
+                    if (base!=-1 && types[unitType[base]].isStockpile && resources[s]>0) {
+                        playerResources[owner[s]] += resources[s];
+                        resources[s] = 0;
+                    }
+                }
+                break;
+            case UnitAction.TYPE_PRODUCE:
+                {
+                    int tx = x[s]+UnitAction.DIRECTION_OFFSET_X[d];
+                    int ty = y[s]+UnitAction.DIRECTION_OFFSET_Y[d];
+                    if (getUnitAt(tx, ty)!=-1) {
+                        throw new IllegalArgumentException("PhysicalGameState.addUnit: added two units in position: (" + tx + ", " + ty + ")");
+                    }
+                    UnitType produced = types[actionParameter(a)];
+                    if (n==ids.length) grow();
+                    int u = n++;
+                    ids[u] = Unit.next_ID++;
+                    unitType[u] = actionParameter(a);
+                    owner[u] = owner[s];
+                    x[u] = tx;
+                    y[u] = ty;
+                    hp[u] = produced.hp;
+                    resources[u] = 0;
+                    action[u] = NO_ACTION;
+                    removed[u] = false;
+                    source[u] = null;
+                    cellUnit[tx+ty*width] = u;
+                    playerResources[owner[s]] -= produced.cost;
+                    if (playerResources[owner[s]]<0) {
+                        System.err.print("Illegal action executed! resources of player " + owner[s] + " are now " + playerResources[owner[s]] + "\n");
+                    }
+                }
+                break;
+        }
+    }
+
+    // Removal is delayed until the end of the cycle, since actions of the unit can still execute
+    private void remove(int s) {
+        if (removed[s]) return;
+        removed[s] = true;
+        if (cellUnit[x[s]+y[s]*width]==s) cellUnit[x[s]+y[s]*width] = -1;
+        if (action[s]!=NO_ACTION) removePending(s);
+    }
+
+    // Drops removed units, keeping the order of the others
+    private void compact() {
+        int[] newSlot = null;
+        int m = 0;
+        for(int s = 0;s<n;s++) {
+            if (removed[s]) {
+                if (newSlot==null) {
+                    newSlot = new int[n];
+                    for(int i = 0;i<s;i++) newSlot[i] = i;
+                }
+                newSlot[s] = -1;
+                removed[s] = false;
+                continue;
+            }
+            if (newSlot!=null) {
+                newSlot[s] = m;
+                if (m!=s) {
+                    ids[m] = ids[s];
+                    unitType[m] = unitType[s];
+                    owner[m] = owner[s];
+                    x[m] = x[s];
+                    y[m] = y[s];
+                    hp[m] = hp[s];
+                    resources[m] = resources[s];
+                    action[m] = action[s];
+                    actionTime[m] = actionTime[s];
+                    source[m] = source[s];
+                    cellUnit[x[m]+y[m]*width] = m;
+                }
+            }
+            m++;
+        }
+        if (newSlot==null) return;
+        for(int s = m;s<n;s++) source[s] = null;
+        n = m;
+        for(int k = 0;k<numPending;k++) pending[k] = newSlot[pending[k]];
+    }
+
+    public boolean isComplete() {
+        for(int s = 0;s<n;s++) {
+            if (owner[s]!=-1 && action[s]==NO_ACTION) return false;
+        }
+        return true;
+    }
+
+    public boolean canExecuteAnyAction(int player) {
+        for(int s = 0;s<n;s++) {
+            if (owner[s]==player && action[s]==NO_ACTION) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return the only player with units left, or -1
+     */
+    public int winner() {
+        int winner = -1;
+        for(int s = 0;s<n;s++) {
+            if (owner[s]<0) continue;
+            if (winner==-1) winner = owner[s];
+            else if (winner!=owner[s]) return -1;
+        }
+        return winner;
+    }
+
+    /**
+     * @return true if no units are left, or all belong to the same player
+     */
+    public boolean gameover() {
+        int winner = -1;
+        for(int s = 0;s<n;s++) {
+            if (owner[s]<0) continue;
+            if (winner==-1) winner = owner[s];
+            else if (winner!=owner[s]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Interface for policies that choose the actions of a player in playouts
+     */
+    public interface PlayoutPolicy {
+        /**
+         * Issue actions to the units of a player that do not have one
+         */
+        public void issueActions(int player, CompactGameState gs) throws Exception;
+    }
+
+    /**
+     * Plays until the game ends or the given time, with the same loop as the
+     * simulate methods of the Monte Carlo AIs
+     *
+     * @param policy chooses the actions of both players
+     * @param endTime time at which to stop
+     */
+    public void simulate(PlayoutPolicy policy, int endTime) throws Exception {
+        boolean gameover = false;
+        do {
+            if (isComplete()) {
+                gameover = cycle();
+            } else {
+                policy.issueActions(0, this);
+                policy.issueActions(1, this);
+            }
+        } while(!gameover && time<endTime);
+    }
+
+    /**
+     * Copies this state into a GameState, reusing the Unit objects it was created
+     * from for the units that are still alive. Used to play out a GameState in place.
+     *
+     * @param gs state to overwrite, normally the one this state was created from
+     */
+    public void writeTo(GameState gs) {
+        PhysicalGameState pgs = gs.getPhysicalGameState();
+        List<Unit> units = new LinkedList<Unit>();
+        Unit[] objects = new Unit[n];
+        for(int s = 0;s<n;s++) {
+            Unit u = source[s];
+            if (u==null) {
+                u = new Unit(owner[s], types[unitType[s]], x[s], y[s], resources[s]);
+                u.setID(ids[s]);
+                source[s] = u;
+            } else {
+                u.setX(x[s]);
+                u.setY(y[s]);
+                u.setResources(resources[s]);
+            }
+            u.setHitPoints(hp[s]);
+            units.add(u);
+            objects[s] = u;
+        }
+        pgs.units = units;
+        pgs.invalidateUnitIndex();
+        for(int p = 0;p<playerResources.length;p++) pgs.getPlayer(p).setResources(playerResources[p]);
+        gs.time = time;
+        gs.unitCancelationCounter = unitCancelationCounter;
+        gs.unitActions.clear();
+        for(int k = 0;k<numPending;k++) {
+            int s = pending[k];
+            gs.unitActions.put(objects[s], new UnitActionAssignment(objects[s], decode(action[s]), actionTime[s]));
+        }
+    }
+
+    /**
+     * Builds a new GameState with the same units, players and pending actions
+     */
+    public GameState toGameState() {
+        PhysicalGameState pgs = new PhysicalGameState(width, height, terrain);
+        for(int p = 0;p<playerResources.length;p++) pgs.players.add(new Player(p, playerResources[p]));
+        GameState gs = new GameState(pgs, utt);
+        clone().writeTo(gs); // The clone has no Unit objects, so it creates new ones
+        return gs;
+    }
+}
@@ -97,18 +97,16 @@ public class GameState implements Serializable{
     // Returns true if there is no unit in the specified position and no unit is executing an action that will use that position
     public boolean free(int x,int y) {
         if (pgs.getTerrain(x, y)!=PhysicalGameState.TERRAIN_NONE) return false;
-        for(Unit u:pgs.units) {
-            if (u.getX()==x && u.getY()==y) return false;
-        }
-        for(UnitActionAssignment ua:unitActions.values()) {
-            if (ua.action.type==UnitAction.TYPE_MOVE ||
-                ua.action.type==UnitAction.TYPE_PRODUCE) {
-                Unit u = ua.unit;
-                if (ua.action.getDirection()==UnitAction.DIRECTION_UP && u.getX()==x && u.getY()==y+1) return false;
-                if (ua.action.getDirection()==UnitAction.DIRECTION_RIGHT && u.getX()==x-1 && u.getY()==y) return false;
-                if (ua.action.getDirection()==UnitAction.DIRECTION_DOWN && u.getX()==x && u.getY()==y-1) return false;
-                if (ua.action.getDirection()==UnitAction.DIRECTION_LEFT && u.getX()==x+1 && u.getY()==y) return false;
-            }
+        if (pgs.getUnitAt(x, y)!=null) return false;
+        // Only a unit on one of the four neighboring cells can be moving or producing into this one
+        for(int direction = 0;direction<UnitAction.DIRECTION_OFFSET_X.length;direction++) {
+            Unit u = pgs.getUnitAt(x-UnitAction.DIRECTION_OFFSET_X[direction], y-UnitAction.DIRECTION_OFFSET_Y[direction]);
+            if (u==null) continue;
+            UnitActionAssignment ua = unitActions.get(u);
+            if (ua!=null &&
+                (ua.action.type==UnitAction.TYPE_MOVE ||
+                 ua.action.type==UnitAction.TYPE_PRODUCE) &&
+                ua.action.getDirection()==direction) return false;
         }
         return true;
     }
@@ -31,6 +31,12 @@ public class PhysicalGameState implements Serializable {
     int terrain[] = null;
     List<Player> players = new ArrayList<Player>();
     List<Unit> units = new LinkedList<Unit>();
+    // unitIndex[x+y*width] is the unit at (x,y). Built lazily from the unit list, and then
+    // kept in sync by addUnit, removeUnit and moveUnit. null means it must be rebuilt.
+    transient Unit unitIndex[] = null;
+    // Whether the units are shared with another state (see cloneKeepingUnits). Units moved through
+    // the other state leave this index stale, both at the cell they left and at the one they reached.
+    transient boolean sharesUnits = false;
     
     
     public static PhysicalGameState load(String fileName, UnitTypeTable utt) throws JDOMException, IOException {
@@ -65,12 +71,14 @@ public class PhysicalGameState implements Serializable {
     //       you change the map width or height
     public void setWidth(int w) {
         width = w;
+        unitIndex = null;
     }
     
     // note: these functions do not change the terrain array, remember to change that when
     //       you change the map width or height
     public void setHeight(int h) {
         height = h;
+        unitIndex = null;
     }      
     
     public int getTerrain(int x,int y) {
@@ -91,17 +99,58 @@ public class PhysicalGameState implements Serializable {
     }
     
     public void addUnit(Unit u) {
-    	for(Unit u2:units){
-    		if(u.getX()==u2.getX() && u.getY()==u2.getY() ){
-    			throw new IllegalArgumentException("PhysicalGameState.addUnit: added two units in position: ("
-    					+u.getX()+", "+u.getY()+")");
-    		}
+    	if(getUnitAt(u.getX(), u.getY())!=null){
+    		throw new IllegalArgumentException("PhysicalGameState.addUnit: added two units in position: ("
+    				+u.getX()+", "+u.getY()+")");
     	}
         units.add(u);
+        if (unitIndex!=null && inside(u.getX(), u.getY())) unitIndex[u.getX()+u.getY()*width] = u;
     }
     
     public void removeUnit(Unit u) {
         units.remove(u);
+        if (unitIndex!=null && inside(u.getX(), u.getY()) && unitIndex[u.getX()+u.getY()*width]==u) {
+            unitIndex[u.getX()+u.getY()*width] = null;
+        }
+    }
+    
+    // Changes the position of a unit of this state, keeping the unit index up to date.
+    // Units should always be moved with this method rather than with Unit.setX/setY.
+    public void moveUnit(Unit u, int x, int y) {
+        if (unitIndex!=null) {
+            if (inside(u.getX(), u.getY()) && unitIndex[u.getX()+u.getY()*width]==u) {
+                unitIndex[u.getX()+u.getY()*width] = null;
+                if (inside(x, y)) unitIndex[x+y*width] = u;
+            } else {
+                // Not indexed: either the unit was already removed (an action can still execute in the
+                // cycle in which its unit dies), or the index is stale. Rebuilding handles both cases.
+                unitIndex = null;
+            }
+        }
+        u.setX(x);
+        u.setY(y);
+    }
+    
+    // Must be called after the unit list is modified directly (e.g., getUnits().clear()),
+    // or units are moved without moveUnit
+    public void invalidateUnitIndex() {
+        unitIndex = null;
+    }
+    
+    boolean inside(int x, int y) {
+        return x>=0 && y>=0 && x<width && y<height;
+    }
+    
+    Unit[] unitIndex() {
+        if (unitIndex==null) {
+            Unit index[] = new Unit[width*height];
+            for(Unit u:units) {
+                // Keep the first unit in the list, which is the one the linear search used to return
+                if (inside(u.getX(), u.getY()) && index[u.getX()+u.getY()*width]==null) index[u.getX()+u.getY()*width] = u;
+            }
+            unitIndex = index;
+        }
+        return unitIndex;
     }
     
     public List<Unit> getUnits() {
@@ -122,19 +171,43 @@ public class PhysicalGameState implements Serializable {
     }
     
     public Unit getUnitAt(int x, int y) {
-        for(Unit u:units) {
-            if (u.getX()==x && u.getY()==y) return u;
+        if (!inside(x, y)) return null;
+        Unit u = unitIndex()[x+y*width];
+        if (u!=null && (u.getX()!=x || u.getY()!=y)) {
+            // The unit has left the cell without moveUnit (e.g., through a state sharing units with this one)
+            unitIndex = null;
+            u = unitIndex()[x+y*width];
+        } else if (u==null && sharesUnits) {
+            // A unit moved through a state sharing units with this one is not indexed at its new cell
+            for(Unit u2:units) {
+                if (u2.getX()==x && u2.getY()==y) {
+                    unitIndex = null;
+                    return unitIndex()[x+y*width];
+                }
+            }
         }
-        return null;
+        return u;
     }
     
     public Collection<Unit> getUnitsAround(int x, int y, int squareRange) {
     	List<Unit> closeUnits = new LinkedList<Unit>();
-        for(Unit u:units) {
-        	if((Math.abs(u.getX() - x)<=squareRange &&  Math.abs(u.getY() - y)<=squareRange)){
-        		closeUnits.add(u);
-        	}
-        }
+    	int minX = Math.max(0, x-squareRange), maxX = Math.min(width-1, x+squareRange);
+    	int minY = Math.max(0, y-squareRange), maxY = Math.min(height-1, y+squareRange);
+    	if (sharesUnits || (long)(maxX-minX+1)*(maxY-minY+1) >= units.size()) {
+    		// The range covers more cells than there are units, or empty cells would each need a scan
+    		for(Unit u:units) {
+    			if((Math.abs(u.getX() - x)<=squareRange &&  Math.abs(u.getY() - y)<=squareRange)){
+    				closeUnits.add(u);
+    			}
+    		}
+    	} else {
+    		for(int y2 = minY;y2<=maxY;y2++) {
+    			for(int x2 = minX;x2<=maxX;x2++) {
+    				Unit u = getUnitAt(x2, y2);
+    				if (u!=null) closeUnits.add(u);
+    			}
+    		}
+    	}
         return closeUnits;
     }
     
@@ -206,6 +279,8 @@ public class PhysicalGameState implements Serializable {
         for(Unit u:units) {
             pgs.units.add(u);
         }
+        sharesUnits = true;
+        pgs.sharesUnits = true;
         return pgs;
     }
 
@@ -78,16 +78,24 @@ public class Sampler {
      * Returns an element in the distribution, using the weights as their relative probabilities
      */
     public static int weighted(double[] distribution) throws Exception {
+        return weighted(distribution, distribution.length);
+    }
+
+    /*
+     * Same as weighted(double[]), but only uses the first "length" weights, so that
+     * callers can reuse one array for distributions of different sizes
+     */
+    public static int weighted(double[] distribution, int length) throws Exception {
         double total = 0, accum = 0, tmp;
 
-        for (double f : distribution) {
-            total += f;
+        for (int i = 0; i < length; i++) {
+            total += distribution[i];
         }
         
-        if (total==0) return random(distribution);
+        if (total==0) return generator.nextInt(length);
 
         tmp = generator.nextDouble() * total;
-        for (int i = 0; i < distribution.length; i++) {
+        for (int i = 0; i < length; i++) {
             accum += distribution[i];
             if (accum >= tmp) {
                 return i;
@@ -18,7 +18,7 @@ public final class PansyGhosts extends Controller<EnumMap<GHOST, MOVE>> {
 
 	private final static float CONSISTENCY = 1.0f; // carry out intended move
 													// with this probability
-	private Random rnd = new Random(RandomNumbers.randomGenerator.nextInt());
+	private Random rnd = new Random(RandomNumbers.generator().nextInt());
 	private EnumMap<GHOST, MOVE> myMoves = new EnumMap<GHOST, MOVE>(GHOST.class);
 	private MOVE[] moves = MOVE.values();
 
@@ -916,7 +916,7 @@ public final class Game {
 			_newLevelReset();
 		} else {
 			if (randomLairExit) {
-				ghost.currentNodeIndex = currentMaze.junctionIndices[RandomNumbers.randomGenerator
+				ghost.currentNodeIndex = currentMaze.junctionIndices[RandomNumbers.generator()
 						.nextInt(currentMaze.junctionIndices.length)];
 			} else if (lairExitDatabase) {
 				// System.out.println("currentMaze.junctionIndices.length =
@@ -1375,7 +1375,7 @@ public final class Game {
 					} else {
 						ghostRegret++;
 						TrainingCampManager.ghostEatingCamp(this.getTotalTime());
-						if (RandomNumbers.randomGenerator.nextDouble() < Parameters.parameters
+						if (RandomNumbers.generator().nextDouble() < Parameters.parameters
 								.doubleParameter("powerPillPunishmentRate")) {
 							// Harsh punishment for failing to eat all ghosts
 							if (MMNEAT.evalReport != null) {
@@ -2020,9 +2020,9 @@ public final class Game {
 		if (fromNodeIndex == toNodeIndex) {
 			return 0;
 		} else if (fromNodeIndex < toNodeIndex) {
-			return currentMaze.shortestPathDistances[((toNodeIndex * (toNodeIndex + 1)) / 2) + fromNodeIndex];
+			return currentMaze.shortestPathDistances.get(((toNodeIndex * (toNodeIndex + 1)) / 2) + fromNodeIndex);
 		} else {
-			return currentMaze.shortestPathDistances[((fromNodeIndex * (fromNodeIndex + 1)) / 2) + toNodeIndex];
+			return currentMaze.shortestPathDistances.get(((fromNodeIndex * (fromNodeIndex + 1)) / 2) + toNodeIndex);
 		}
 	}
 
@@ -0,0 +1,289 @@
+package oldpacman.game.internal;
+
+import static oldpacman.game.Constants.*;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.EnumMap;
+import java.util.Map.Entry;
+
+import edu.southwestern.parameters.Parameters;
+import oldpacman.game.Game;
+import oldpacman.game.Constants.MOVE;
+
+/*
+ * Binary versions of the pre-computed maze data, which are much faster to load than the original
+ * text files and the A* searches done by PathsCache.
+ *
+ * Shortest path distances are stored as 16 bit values (-1 for unreachable nodes) and memory-mapped
+ * read-only, so they take no heap space and all threads (and all JVMs on the same machine) share the
+ * same pages. The junction paths of PathsCache are stored next to them and read back into the usual
+ * structures.
+ *
+ * Binary files are created automatically the first time a maze is loaded from the text files, and
+ * recreated if the text file is newer. Running main converts all mazes at once.
+ */
+public final class BinaryMazeData {
+
+	public static final String DISTANCES_EXTENSION = ".bin";
+	public static final String PATHS_EXTENSION = ".paths.bin";
+
+	private static final int DISTANCES_MAGIC = 0x50414444; // "PADD"
+	private static final int PATHS_MAGIC = 0x50414450; // "PADP"
+	private static final int VERSION = 1;
+	private static final int HEADER_BYTES = 3 * 4; // magic, version, count
+
+	private BinaryMazeData() {
+	}
+
+	/**
+	 * Shortest path distances for a maze, in the order of the text file.
+	 * The binary file is used when it is up to date, and is created from
+	 * the text file otherwise.
+	 *
+	 * @param fileName name of the distance file in the distances directory
+	 * @param expected number of distances for the maze
+	 * @return read-only distances
+	 */
+	public static ShortBuffer loadDistances(String fileName, int expected) {
+		File text = new File(pathDistances + System.getProperty("file.separator") + fileName);
+		File binary = new File(text.getPath() + DISTANCES_EXTENSION);
+		if (upToDate(binary, text)) {
+			ShortBuffer mapped = mapDistances(binary, expected);
+			if (mapped != null) {
+				return mapped;
+			}
+		}
+		short[] distances = readTextDistances(text, expected);
+		if (writeDistances(distances, binary)) {
+			ShortBuffer mapped = mapDistances(binary, expected);
+			if (mapped != null) {
+				return mapped;
+			}
+		}
+		// Could not write the binary file, so keep the distances on the heap
+		return ShortBuffer.wrap(distances).asReadOnlyBuffer();
+	}
+
+	private static boolean upToDate(File binary, File text) {
+		return binary.exists() && (!text.exists() || binary.lastModified() >= text.lastModified());
+	}
+
+	private static ShortBuffer mapDistances(File binary, int expected) {
+		try (FileChannel channel = FileChannel.open(binary.toPath())) {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != DISTANCES_MAGIC || buffer.getInt(4) != VERSION
+					|| buffer.getInt(8) != expected || buffer.capacity() != HEADER_BYTES + 2L * expected) {
+				return null;
+			}
+			buffer.position(HEADER_BYTES);
+			// The mapping stays valid after the channel is closed
+			return buffer.slice().asShortBuffer();
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	private static short[] readTextDistances(File text, int expected) {
+		short[] distances = new short[expected];
+		try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(text)))) {
+			String input = br.readLine();
+			int index = 0;
+			while (input != null) {
+				int distance = Integer.parseInt(input);
+				assert distance >= Short.MIN_VALUE && distance <= Short.MAX_VALUE : "Distance does not fit in 16 bits: " + distance;
+				distances[index++] = (short) distance;
+				input = br.readLine();
+			}
+		} catch (IOException ioe) {
+			ioe.printStackTrace();
+		}
+		return distances;
+	}
+
+	private static boolean writeDistances(short[] distances, File binary) {
+		ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + 2 * distances.length);
+		buffer.putInt(DISTANCES_MAGIC).putInt(VERSION).putInt(distances.length);
+		buffer.asShortBuffer().put(distances);
+		return write(buffer.array(), binary);
+	}
+
+	/**
+	 * Write through a temporary file that is then moved into place, so that
+	 * other processes never map a partially written file.
+	 */
+	private static boolean write(byte[] bytes, File target) {
+		File temp = null;
+		try {
+			temp = File.createTempFile(target.getName(), ".tmp", target.getAbsoluteFile().getParentFile());
+			Files.write(temp.toPath(), bytes);
+			try {
+				Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+			return true;
+		} catch (IOException e) {
+			if (temp != null) {
+				temp.delete();
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * File with the junction paths of a maze
+	 *
+	 * @param mazeIndex index of the maze
+	 * @return binary path cache file
+	 */
+	private static File pathsFile(int mazeIndex) {
+		return new File(pathDistances + System.getProperty("file.separator") + distNames[mazeIndex] + PATHS_EXTENSION);
+	}
+
+	/**
+	 * Fill in the nodes and junctions of a PathsCache from its binary file.
+	 * The junctionIndexConverter and game must already be set.
+	 *
+	 * @param cache cache to fill in
+	 * @param mazeIndex index of the maze
+	 * @return whether a valid, up to date file was read
+	 */
+	static boolean readPaths(PathsCache cache, int mazeIndex) {
+		File binary = pathsFile(mazeIndex);
+		File maze = new File(pathMazes + System.getProperty("file.separator") + nodeNames[mazeIndex] + ".txt");
+		if (!upToDate(binary, maze)) {
+			return false;
+		}
+		Maze m = cache.game.getCurrentMaze();
+		MOVE[] moves = MOVE.values();
+		try (FileChannel channel = FileChannel.open(binary.toPath())) {
+			IntBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).asIntBuffer();
+			if (in.get() != PATHS_MAGIC || in.get() != VERSION || in.get() != m.graph.length
+					|| in.get() != m.junctionIndices.length) {
+				return false;
+			}
+			DNode[] nodes = new DNode[m.graph.length];
+			for (int i = 0; i < nodes.length; i++) {
+				nodes[i] = new DNode(i, cache.game.isJunction(i));
+				int count = in.get();
+				for (int j = 0; j < count; j++) {
+					int junctionID = in.get();
+					MOVE firstMove = moves[in.get()];
+					int nodeStartedFrom = in.get();
+					MOVE lastMove = moves[in.get()];
+					nodes[i].addPath(junctionID, firstMove, nodeStartedFrom, readPath(in), lastMove);
+				}
+			}
+			Junction[] junctions = new Junction[m.junctionIndices.length];
+			for (int q = 0; q < junctions.length; q++) {
+				junctions[q] = new Junction(q, m.junctionIndices[q], junctions.length);
+				for (int z = 0; z < junctions.length; z++) {
+					int count = in.get();
+					for (int k = 0; k < count; k++) {
+						junctions[q].addPath(z, moves[in.get()], readPath(in));
+					}
+				}
+			}
+			cache.nodes = nodes;
+			cache.junctions = junctions;
+			return true;
+		} catch (IOException | RuntimeException e) {
+			// Missing, truncated or corrupt file: paths are computed instead
+			return false;
+		}
+	}
+
+	private static int[] readPath(IntBuffer in) {
+		int length = in.get();
+		if (length < 0) {
+			return null;
+		}
+		int[] path = new int[length];
+		in.get(path);
+		return path;
+	}
+
+	/**
+	 * Save the computed nodes and junctions of a PathsCache
+	 *
+	 * @param cache fully computed cache
+	 * @param mazeIndex index of the maze
+	 */
+	static void writePaths(PathsCache cache, int mazeIndex) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(bytes))) {
+			out.writeInt(PATHS_MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(cache.nodes.length);
+			out.writeInt(cache.junctions.length);
+			for (DNode node : cache.nodes) {
+				// A junction's path to itself is added by the DNode constructor
+				int start = node.isJunction ? 1 : 0;
+				out.writeInt(node.closestJunctions.size() - start);
+				for (int j = start; j < node.closestJunctions.size(); j++) {
+					JunctionData data = node.closestJunctions.get(j);
+					out.writeInt(data.nodeID);
+					out.writeInt(data.firstMove.ordinal());
+					out.writeInt(data.nodeStartedFrom);
+					out.writeInt(data.lastMove.ordinal());
+					writePath(out, data.path);
+				}
+			}
+			for (Junction junction : cache.junctions) {
+				for (EnumMap<MOVE, int[]> paths : junction.paths) {
+					out.writeInt(paths.size());
+					for (Entry<MOVE, int[]> entry : paths.entrySet()) {
+						out.writeInt(entry.getKey().ordinal());
+						writePath(out, entry.getValue());
+					}
+				}
+			}
+		} catch (IOException e) {
+			return;
+		}
+		write(bytes.toByteArray(), pathsFile(mazeIndex));
+	}
+
+	private static void writePath(DataOutputStream out, int[] path) throws IOException {
+		if (path == null) {
+			out.writeInt(-1);
+		} else {
+			out.writeInt(path.length);
+			for (int node : path) {
+				out.writeInt(node);
+			}
+		}
+	}
+
+	/**
+	 * One-time conversion of all mazes: creates the binary distance files
+	 * and the binary path caches from the text files.
+	 *
+	 * @param args parameters, which the game needs in order to be created
+	 */
+	public static void main(String[] args) {
+		Parameters.initializeParameterCollections(args);
+		for (int i = 0; i < NUM_MAZES; i++) {
+			new File(pathDistances + System.getProperty("file.separator") + distNames[i] + DISTANCES_EXTENSION).delete();
+			pathsFile(i).delete();
+		}
+		// Loading the mazes and path caches recreates every file
+		System.out.println("Loaded " + Game.amountCachedPathData() + " junctions");
+		System.out.println("Converted maze data in " + pathDistances);
+	}
+}
@@ -6,6 +6,7 @@ import java.io.BufferedReader;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.nio.ShortBuffer;
 //import java.util.EnumMap;
 //import pacman.game.Constants.MOVE;
 
@@ -19,7 +20,9 @@ public final class Maze {
 
 	public AStar astar;
 	// Information for the controllers
-	public int[] shortestPathDistances, pillIndices, powerPillIndices, junctionIndices; 
+	public int[] pillIndices, powerPillIndices, junctionIndices;
+	// Read-only, usually memory-mapped from the binary distance file (see BinaryMazeData)
+	public ShortBuffer shortestPathDistances;
 	public int initialPacManNodeIndex, lairNodeIndex, initialGhostNodeIndex; // Maze-specific
 																				// information
 	public Node[] graph; // The actual maze, stored as a graph (set of nodes)
@@ -102,25 +105,11 @@ public final class Maze {
 	 * contains the shortest distance from any node in the maze to any other
 	 * node. Since the graph is symmetric, the symmetries have been removed to
 	 * preserve memory and all distances are stored in a 1D array; they are
-	 * looked-up using getDistance(-).
+	 * looked-up using getDistance(-). The distances are memory-mapped from a
+	 * binary copy of the text file, which is created if needed.
 	 */
 	private void loadDistances(String fileName) {
-		this.shortestPathDistances = new int[((graph.length * (graph.length - 1)) / 2) + graph.length];
-
-		try {
-			BufferedReader br = new BufferedReader(new InputStreamReader(
-					new FileInputStream(pathDistances + System.getProperty("file.separator") + fileName)));
-			String input = br.readLine();
-
-			int index = 0;
-
-			while (input != null) {
-				shortestPathDistances[index++] = Integer.parseInt(input);
-				input = br.readLine();
-			}
-			br.close();
-		} catch (IOException ioe) {
-			ioe.printStackTrace();
-		}
+		this.shortestPathDistances = BinaryMazeData.loadDistances(fileName,
+				((graph.length * (graph.length - 1)) / 2) + graph.length);
 	}
 }
\ No newline at end of file
@@ -42,11 +42,15 @@ public class PathsCache {
 			junctionIndexConverter.put(jctIndices[i], i);
 		}
 
-		nodes = assignJunctionsToNodes(game);
-		junctions = junctionDistances(game);
+		// Reading the paths saved by an earlier run avoids all of the A* searches
+		if (!BinaryMazeData.readPaths(this, mazeIndex)) {
+			nodes = assignJunctionsToNodes(game);
+			junctions = junctionDistances(game);
 
-		for (int i = 0; i < junctions.length; i++) {
-			junctions[i].computeShortestPaths();
+			for (int i = 0; i < junctions.length; i++) {
+				junctions[i].computeShortestPaths();
+			}
+			BinaryMazeData.writePaths(this, mazeIndex);
 		}
 	}
 
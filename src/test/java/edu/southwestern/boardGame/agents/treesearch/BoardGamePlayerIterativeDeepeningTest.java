@@ -0,0 +1,74 @@
+package edu.southwestern.boardGame.agents.treesearch;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Test;
+
+import edu.southwestern.MMNEAT.MMNEAT;
+import edu.southwestern.boardGame.heuristics.BoardGameHeuristic;
+import edu.southwestern.boardGame.heuristics.StaticOthelloWPCHeuristic;
+import edu.southwestern.boardGame.othello.OthelloState;
+import edu.southwestern.parameters.Parameters;
+
+public class BoardGamePlayerIterativeDeepeningTest {
+
+	private static final int DEPTH = 2;
+	private static final int GAMES = 3;
+
+	@After
+	public void tearDown() throws Exception {
+		MMNEAT.clearClasses();
+	}
+
+	private static void setUp(boolean parallel) {
+		Parameters.initializeParameterCollections(new String[]{"io:false", "netio:false", "task:edu.southwestern.tasks.boardGame.StaticOpponentBoardGameTask",
+				"boardGame:edu.southwestern.boardGame.othello.Othello", "minimaxSearchDepth:" + DEPTH,
+				"randomArgMaxTieBreak:false", "parallelBoardGameSearch:" + parallel});
+		MMNEAT.loadClasses();
+	}
+
+	/**
+	 * Plays random games, and checks at every move that the searching player
+	 * finds the same best value as plain minimax at the same depth
+	 */
+	private static void assertSameValuesAsMinimax() {
+		BoardGameHeuristic<OthelloState> bgh = new StaticOthelloWPCHeuristic();
+		BoardGamePlayerMinimax<OthelloState> mini = new BoardGamePlayerMinimax<OthelloState>(bgh);
+		BoardGamePlayerIterativeDeepening<OthelloState> search = new BoardGamePlayerIterativeDeepening<OthelloState>(bgh);
+		Random random = new Random(0);
+		for(int g = 0; g < GAMES; g++) {
+			OthelloState state = new OthelloState();
+			while(!state.endState()) {
+				boolean maximize = state.getCurrentPlayer() == 0;
+				List<OthelloState> poss = new ArrayList<OthelloState>(state.possibleBoardGameStates(state));
+				double best = maximize ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+				for(OthelloState child : poss) {
+					double v = mini.minimax(child, DEPTH, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, !maximize);
+					best = maximize ? Math.max(best, v) : Math.min(best, v);
+				}
+				OthelloState chosen = search.takeAction(state);
+				assertEquals(best, search.getLastValue(), 0.0);
+				assertEquals(best, mini.minimax(chosen, DEPTH, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, !maximize), 0.0);
+				assertEquals(DEPTH, search.getLastDepth());
+				state = poss.get(random.nextInt(poss.size()));
+			}
+		}
+	}
+
+	@Test
+	public void testSequential() {
+		setUp(false);
+		assertSameValuesAsMinimax();
+	}
+
+	@Test
+	public void testParallel() {
+		setUp(true);
+		assertSameValuesAsMinimax();
+	}
+}
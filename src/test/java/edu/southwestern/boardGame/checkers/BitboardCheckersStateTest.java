@@ -0,0 +1,216 @@
+package edu.southwestern.boardGame.checkers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import edu.southwestern.boardGame.TwoDimensionalBoardGameState;
+
+public class BitboardCheckersStateTest {
+
+	private static final int GAMES = 20;
+
+	private final int B = CheckersState.BLACK_CHECK;
+	private final int R = CheckersState.RED_CHECK;
+	private final int E = CheckersState.EMPTY;
+
+	/**
+	 * Same board in the int[][] representation
+	 */
+	private static CheckersState toCheckersState(BitboardCheckersState state) {
+		int[][] board = new int[state.getBoardWidth()][state.getBoardHeight()];
+		for (int x = 0; x < board.length; x++) {
+			for (int y = 0; y < board[x].length; y++) {
+				board[x][y] = state.getSpace(x, y);
+			}
+		}
+		return new CheckersState(board, state.getCurrentPlayer(), new ArrayList<Integer>());
+	}
+
+	/**
+	 * Bitboard state with the same board, and black to move
+	 */
+	private static BitboardCheckersState toBitboardState(int[][] board) {
+		BitboardCheckersState state = new BitboardCheckersState();
+		for (int x = 0; x < board.length; x++) {
+			for (int y = 0; y < board[x].length; y++) {
+				state.setSpace(x, y, board[x][y]);
+			}
+		}
+		return state;
+	}
+
+	/**
+	 * Boards and players of all successor states, in a form comparable across representations
+	 */
+	private static Set<String> successors(TwoDimensionalBoardGameState state) {
+		Set<String> result = new HashSet<String>();
+		for (TwoDimensionalBoardGameState next : state.possibleBoardGameStates(state)) {
+			result.add(Arrays.toString(next.getDescriptor()) + next.getCurrentPlayer());
+		}
+		return result;
+	}
+
+	/**
+	 * CheckersState only applies the jump rules as intended in some
+	 * positions, so moves are compared in positions without jumps
+	 */
+	@Test
+	public void testSameSimpleMovesAsCheckersState() {
+		Random random = new Random(0);
+		int[] moves = new int[BitboardCheckersState.MAX_MOVES];
+		int compared = 0;
+		for (int g = 0; g < GAMES; g++) {
+			BitboardCheckersState state = new BitboardCheckersState();
+			assertEquals(toCheckersState(state).toString(), state.toString());
+			while (!state.endState()) {
+				int count = state.legalMoves(moves);
+				if (!BitboardCheckersState.isJump(moves[0])) {
+					CheckersState plain = toCheckersState(state);
+					assertEquals(successors(plain), successors(state));
+					assertArrayEquals(plain.getDescriptor(), state.getDescriptor());
+					compared++;
+				}
+				state.makeMove(moves[random.nextInt(count)]);
+			}
+		}
+		assertTrue(compared > GAMES);
+	}
+
+	private static void assertArrayEquals(double[] expected, double[] actual) {
+		org.junit.Assert.assertArrayEquals(expected, actual, 0.0);
+	}
+
+	@Test
+	public void testSameForcedJumpsAsCheckersState() {
+		int[][] board = new int[][] { { E, E, E, E, E, E, E, E }, // 0
+									  { E, E, E, E, E, E, E, E }, // 1
+									  { E, B, E, E, E, B, E, E }, // 2
+									  { E, E, R, E, E, E, E, E }, // 3
+									  { E, E, E, E, E, E, E, E }, // 4
+									  { E, E, E, E, E, E, E, E }, // 5
+									  { E, E, E, E, E, E, E, E }, // 6
+									  { E, E, E, E, E, E, E, E } };// 7
+		BitboardCheckersState state = toBitboardState(board);
+		// The check at (2,5) could move, but the jump is forced
+		Set<String> expected = successors(toCheckersState(state));
+		assertEquals(1, expected.size());
+		assertEquals(expected, successors(state));
+	}
+
+	@Test
+	public void testSameFirstJumpChoiceAsCheckersState() {
+		int[][] board = new int[][] { { E, E, E, E, E, E, E, E }, // 0
+									  { E, E, E, E, E, E, E, E }, // 1
+									  { E, B, E, E, E, B, E, E }, // 2
+									  { E, E, R, E, E, E, R, E }, // 3
+									  { E, E, E, E, E, E, E, E }, // 4
+									  { E, E, E, E, E, E, E, E }, // 5
+									  { B, E, E, E, E, E, E, E }, // 6
+									  { E, E, E, E, E, E, E, E } };// 7
+		BitboardCheckersState state = toBitboardState(board);
+		// Either check may jump
+		Set<String> expected = successors(toCheckersState(state));
+		assertEquals(2, expected.size());
+		assertEquals(expected, successors(state));
+		// Without the check at (6,0), the check at (2,5) is the last one in
+		// row-major order and CheckersState only lets it jump
+		state.setSpace(6, 0, E);
+		assertEquals(1, successors(toCheckersState(state)).size());
+		assertEquals(2, successors(state).size());
+	}
+
+	@Test
+	public void testSameMultiJumpContinuationAsCheckersState() {
+		int[][] board = new int[][] { { E, E, E, E, E, E, E, E }, // 0
+									  { E, E, E, E, E, E, E, E }, // 1
+									  { E, B, E, E, E, B, E, E }, // 2
+									  { E, E, R, E, E, E, R, E }, // 3
+									  { E, E, E, E, E, E, E, E }, // 4
+									  { E, E, E, E, R, E, E, E }, // 5
+									  { B, E, E, E, E, E, E, E }, // 6
+									  { E, E, E, E, E, E, E, E } };// 7
+		BitboardCheckersState state = toBitboardState(board);
+		CheckersState plain = toCheckersState(state);
+		assertTrue(plain.moveDoublePoint(new Point(2, 1), new Point(3, 2)));
+		assertTrue(state.moveDoublePoint(new Point(2, 1), new Point(3, 2)));
+		// Not compared with toString, which calls endState: once CheckersState has
+		// generated its moves, it forgets which check has to continue jumping
+		assertArrayEquals(plain.getDescriptor(), state.getDescriptor());
+		assertEquals(B, plain.getCurrentPlayer());
+		assertEquals(B, state.getCurrentPlayer());
+		// The check at (2,5) could also jump, but only the check that jumped continues
+		Set<String> expected = successors(plain);
+		assertEquals(1, expected.size());
+		assertEquals(expected, successors(state));
+	}
+
+	@Test
+	public void testForcedDoubleJump() {
+		int[][] board = new int[][] { { E, E, E, E, E, E, E, E }, // 0
+									  { E, E, E, E, E, E, E, E }, // 1
+									  { E, B, E, E, E, E, E, B }, // 2
+									  { E, E, R, E, E, E, E, E }, // 3
+									  { E, E, E, E, E, E, E, E }, // 4
+									  { E, E, E, E, R, E, E, E }, // 5
+									  { E, E, E, E, E, E, E, E }, // 6
+									  { E, E, E, E, E, E, E, E } };// 7
+		BitboardCheckersState state = new BitboardCheckersState();
+		for (int x = 0; x < board.length; x++) {
+			for (int y = 0; y < board[x].length; y++) {
+				state.setSpace(x, y, board[x][y]);
+			}
+		}
+		int[] moves = new int[BitboardCheckersState.MAX_MOVES];
+		// Only the jump is allowed, even though the other check could move
+		assertEquals(1, state.legalMoves(moves));
+		assertEquals(BitboardCheckersState.move(BitboardCheckersState.square(2, 1), BitboardCheckersState.square(4, 3), true), moves[0]);
+		BitboardCheckersState beforeJumps = state.copy();
+		int firstJump = moves[0];
+		long firstUndo = state.makeMove(firstJump);
+		// Black must keep jumping with the same check
+		assertEquals(B, state.getCurrentPlayer());
+		assertEquals(BitboardCheckersState.square(4, 3), state.getDoubleJumpSquare());
+		assertEquals(1, state.legalMoves(moves));
+		int secondJump = moves[0];
+		long secondUndo = state.makeMove(secondJump);
+		assertEquals(E, state.getSpace(5, 4));
+		assertEquals(B, state.getSpace(6, 5));
+		assertTrue(state.endState());
+		assertEquals(Arrays.asList(B), state.getWinners());
+		state.unmakeMove(secondJump, secondUndo);
+		state.unmakeMove(firstJump, firstUndo);
+		assertEquals(beforeJumps, state);
+		assertEquals(R, state.getSpace(3, 2));
+	}
+
+	@Test
+	public void testMakeUnmake() {
+		Random random = new Random(1);
+		int[] moves = new int[BitboardCheckersState.MAX_MOVES];
+		for (int g = 0; g < GAMES; g++) {
+			BitboardCheckersState state = new BitboardCheckersState();
+			BitboardCheckersState start = state.copy();
+			ArrayList<long[]> history = new ArrayList<long[]>();
+			while (!state.endState()) {
+				int move = moves[random.nextInt(state.legalMoves(moves))];
+				history.add(new long[] { move, state.makeMove(move) });
+			}
+			assertFalse(state.getWinners().isEmpty());
+			for (int i = history.size() - 1; i >= 0; i--) {
+				state.unmakeMove((int) history.get(i)[0], history.get(i)[1]);
+			}
+			assertEquals(start, state);
+			assertEquals(B, state.getCurrentPlayer());
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package edu.southwestern.boardGame.othello;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import edu.southwestern.boardGame.TwoDimensionalBoardGameState;
+
+public class BitboardOthelloStateTest {
+
+	private static final int GAMES = 20;
+
+	/**
+	 * Same board in the int[][] representation
+	 */
+	private static OthelloState toOthelloState(BitboardOthelloState state) {
+		int[][] board = new int[state.getBoardWidth()][state.getBoardHeight()];
+		for (int x = 0; x < board.length; x++) {
+			for (int y = 0; y < board[x].length; y++) {
+				board[x][y] = state.getSpace(x, y);
+			}
+		}
+		return new OthelloState(board, state.getCurrentPlayer(), new ArrayList<Integer>());
+	}
+
+	/**
+	 * Boards and players of all successor states, in a form comparable across representations
+	 */
+	private static Set<String> successors(TwoDimensionalBoardGameState state) {
+		Set<String> result = new HashSet<String>();
+		for (TwoDimensionalBoardGameState next : state.possibleBoardGameStates(state)) {
+			result.add(Arrays.toString(next.getDescriptor()) + next.getCurrentPlayer());
+		}
+		return result;
+	}
+
+	@Test
+	public void testSameMovesAsOthelloState() {
+		Random random = new Random(0);
+		for (int g = 0; g < GAMES; g++) {
+			BitboardOthelloState state = new BitboardOthelloState();
+			while (!state.endState()) {
+				OthelloState plain = toOthelloState(state);
+				assertEquals(plain.toString(), state.toString());
+				assertEquals(successors(plain), successors(state));
+				assertEquals(plain.numberOfPieces(OthelloState.BLACK_CHIP), state.numberOfPieces(OthelloState.BLACK_CHIP));
+				ArrayList<BitboardOthelloState> next = new ArrayList<BitboardOthelloState>(state.<BitboardOthelloState>possibleBoardGameStates(state));
+				state = next.get(random.nextInt(next.size()));
+			}
+			assertFalse(state.getWinners().isEmpty());
+		}
+	}
+
+	@Test
+	public void testMakeUnmake() {
+		Random random = new Random(1);
+		int[] moves = new int[BitboardOthelloState.MAX_MOVES];
+		for (int g = 0; g < GAMES; g++) {
+			BitboardOthelloState state = new BitboardOthelloState();
+			BitboardOthelloState start = state.copy();
+			ArrayList<long[]> history = new ArrayList<long[]>();
+			while (!state.endState()) {
+				int count = state.legalMoves(moves);
+				if (count == 0) {
+					state.makePass();
+					history.add(new long[] { -1, 0, 0 });
+				} else {
+					int square = moves[random.nextInt(count)];
+					int passes = state.getNumPasses();
+					BitboardOthelloState expected = state.copy();
+					assertTrue(expected.moveSinglePoint(new Point(square / 8, square % 8)));
+					history.add(new long[] { square, state.makeMove(square), passes });
+					assertEquals(expected, state);
+				}
+			}
+			for (int i = history.size() - 1; i >= 0; i--) {
+				long[] undo = history.get(i);
+				if (undo[0] < 0) state.unmakePass();
+				else state.unmakeMove((int) undo[0], undo[1], (int) undo[2]);
+			}
+			assertEquals(start, state);
+			assertEquals(0, state.getNumPasses());
+		}
+	}
+}
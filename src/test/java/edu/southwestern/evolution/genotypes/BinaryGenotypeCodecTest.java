@@ -0,0 +1,129 @@
+package edu.southwestern.evolution.genotypes;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.southwestern.MMNEAT.MMNEAT;
+import edu.southwestern.evolution.EvolutionaryHistory;
+import edu.southwestern.evolution.genotypes.TWEANNGenotype.NodeGene;
+import edu.southwestern.parameters.Parameters;
+import edu.southwestern.util.file.Serialization;
+import edu.southwestern.util.random.RandomNumbers;
+
+public class BinaryGenotypeCodecTest {
+
+	final static int MUTATIONS = 30;
+
+	private File dir;
+
+	@Before
+	public void setup() throws IOException {
+		Parameters.initializeParameterCollections(
+				new String[] { "io:false", "netio:false", "allowMultipleFunctions:true", "recurrency:true", "mmpRate:0.1" });
+		MMNEAT.loadClasses();
+		EvolutionaryHistory.setInnovation(0);
+		EvolutionaryHistory.setHighestGenotypeId(0);
+		dir = File.createTempFile("codec", "");
+		dir.delete();
+		dir.mkdir();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		MMNEAT.clearClasses();
+		for (File f : dir.listFiles()) {
+			f.delete();
+		}
+		dir.delete();
+	}
+
+	@Test
+	public void test_TWEANNRoundTrip() throws IOException {
+		TWEANNGenotype tg = new TWEANNGenotype(5, 3, 0);
+		MMNEAT.genotype = tg.copy();
+		EvolutionaryHistory.initArchetype(0);
+		for (int i = 0; i < MUTATIONS; i++) {
+			tg.mutate();
+		}
+		String file = dir + "/net.bin";
+		BinaryGenotypeCodec.save(tg, file);
+		assertTrue(BinaryGenotypeCodec.isBinaryFile(file));
+
+		long nextId = EvolutionaryHistory.largestUnusedGenotypeId;
+		TWEANNGenotype loaded = (TWEANNGenotype) BinaryGenotypeCodec.load(file);
+		assertEquals(nextId, EvolutionaryHistory.largestUnusedGenotypeId); // No id consumed
+		assertEquals(tg.getId(), loaded.getId());
+		assertEquals(tg.toString(), loaded.toString());
+		assertEquals(tg.numIn, loaded.numIn);
+		assertEquals(tg.numOut, loaded.numOut);
+		assertArrayEquals(tg.moduleAssociations, loaded.moduleAssociations);
+		assertArrayEquals(tg.getModuleUsage(), loaded.getModuleUsage());
+		for (int i = 0; i < tg.links.size(); i++) {
+			assertEquals(tg.links.get(i).isActive(), loaded.links.get(i).isActive());
+			assertEquals(tg.links.get(i).getModuleSource(), loaded.links.get(i).getModuleSource());
+		}
+
+		double[] inputs = RandomNumbers.randomArray(5);
+		assertArrayEquals(tg.getPhenotype().process(inputs), loaded.getPhenotype().process(inputs), 0.0);
+	}
+
+	@Test
+	public void test_archetypeRoundTrip() throws IOException {
+		TWEANNGenotype tg = new TWEANNGenotype(4, 2, 0);
+		MMNEAT.genotype = tg.copy();
+		EvolutionaryHistory.initArchetype(0);
+		for (int i = 0; i < MUTATIONS; i++) {
+			tg.mutate();
+		}
+		String file = dir + "/archetype0.bin";
+		BinaryGenotypeCodec.save(EvolutionaryHistory.archetypes[0], file);
+		@SuppressWarnings("unchecked")
+		ArrayList<NodeGene> loaded = (ArrayList<NodeGene>) BinaryGenotypeCodec.load(file);
+		assertEquals(EvolutionaryHistory.archetypes[0].toString(), loaded.toString());
+	}
+
+	@Test
+	public void test_bytesRoundTrip() throws IOException {
+		TWEANNGenotype tg = new TWEANNGenotype(5, 3, 0);
+		MMNEAT.genotype = tg.copy();
+		EvolutionaryHistory.initArchetype(0);
+		for (int i = 0; i < MUTATIONS; i++) {
+			tg.mutate();
+		}
+		byte[] bytes = Serialization.toBytes(tg);
+		assertTrue(BinaryGenotypeCodec.isBinary(bytes));
+		TWEANNGenotype decoded = (TWEANNGenotype) Serialization.fromBytes(bytes);
+		assertEquals(tg.getId(), decoded.getId());
+		assertEquals(tg.toString(), decoded.toString());
+	}
+
+	@Test
+	public void test_eitherFormatLoads() {
+		RealValuedGenotype real = new RealValuedGenotype(new double[] { 0.5, -1.25, 3.0 });
+		String file = dir + "/real.xml";
+
+		Parameters.parameters.setBoolean("binaryGenotypes", true);
+		Serialization.save(real, file);
+		assertFalse(new File(file).exists());
+		assertTrue(Serialization.exists(file));
+		RealValuedGenotype fromBinary = (RealValuedGenotype) Serialization.load(file);
+		assertEquals(real.toString(), fromBinary.toString());
+
+		Parameters.parameters.setBoolean("binaryGenotypes", false);
+		Serialization.save(real, file);
+		assertTrue(new File(file).exists());
+		assertFalse(new File(dir + "/real" + Serialization.BINARY_EXTENSION).exists()); // Stale binary removed
+		RealValuedGenotype fromXML = (RealValuedGenotype) Serialization.load(file);
+		assertEquals(real.toString(), fromXML.toString());
+	}
+}
@@ -17,6 +17,7 @@ import edu.southwestern.evolution.genotypes.TWEANNGenotype.NodeGene;
 import edu.southwestern.networks.NetworkUtil;
 import edu.southwestern.networks.TWEANN;
 import edu.southwestern.networks.TWEANN.Node;
+import edu.southwestern.networks.hyperneat.HyperNEATSpeedTask;
 import edu.southwestern.networks.hyperneat.HyperNEATTask;
 import edu.southwestern.networks.hyperneat.Substrate;
 import edu.southwestern.parameters.CommonConstants;
@@ -381,4 +382,62 @@ public class HyperNEATCPPNGenotypeTest {
 			assertEquals(biases[y++], node.bias, 0.0);
 		}
 	}
+
+	/**
+	 * Batched and parallel CPPN queries must produce the same links, with the
+	 * same innovation numbers, as querying one pair at a time
+	 */
+	@Test
+	public void testBatchedSubstrateQueries() {
+		// Enough neuron pairs to be split into several tasks
+		MMNEAT.task = new HyperNEATSpeedTask(20, 10);
+		boolean original = CommonConstants.parallelSubstrateQueries;
+		CommonConstants.parallelSubstrateQueries = false;
+		TWEANNGenotype serial = hcppn.getSubstrateGenotype((HyperNEATTask) MMNEAT.task);
+		CommonConstants.parallelSubstrateQueries = true;
+		TWEANNGenotype batched = hcppn.getSubstrateGenotype((HyperNEATTask) MMNEAT.task);
+		CommonConstants.parallelSubstrateQueries = original;
+		assertSameLinks(serial, batched);
+	}
+
+	/**
+	 * Same as above for convolutional connections, which are queried once
+	 * per receptive field position
+	 */
+	@Test
+	public void testBatchedConvolutionalSubstrateQueries() {
+		HyperNEATTetrisTask.hardSubstrateReset();
+		Parameters.initializeParameterCollections(new String[] { "io:false", "netio:false", "recurrency:false", "hyperNEAT:true", 
+				"task:edu.southwestern.tasks.rlglue.tetris.HyperNEATTetrisTask",
+				"rlGlueEnvironment:org.rlcommunity.environments.tetris.Tetris",
+				"rlGlueExtractor:edu.southwestern.tasks.rlglue.featureextractors.tetris.RawTetrisStateExtractor",
+				"rlGlueAgent:edu.southwestern.tasks.rlglue.tetris.TetrisAfterStateAgent",
+				"splitRawTetrisInputs:true","senseHolesDifferently:true",
+				"genotype:edu.southwestern.evolution.genotypes.HyperNEATCPPNGenotype",
+				"linkExpressionThreshold:-1", "convolution:true", "convolutionWeightSharing:false",
+				"HNProcessWidth:3", "zeroPadding:true"});
+		MMNEAT.loadClasses();
+		hcppn = new HyperNEATCPPNGenotype();
+		// Otherwise both passes query one pair at a time
+		assertTrue(NetworkUtil.canBatchSequentialInputs(hcppn.getCPPN()));
+		boolean original = CommonConstants.parallelSubstrateQueries;
+		CommonConstants.parallelSubstrateQueries = false;
+		TWEANNGenotype serial = hcppn.getSubstrateGenotype((HyperNEATTask) MMNEAT.task);
+		CommonConstants.parallelSubstrateQueries = true;
+		TWEANNGenotype batched = hcppn.getSubstrateGenotype((HyperNEATTask) MMNEAT.task);
+		CommonConstants.parallelSubstrateQueries = original;
+		assertSameLinks(serial, batched);
+	}
+
+	private static void assertSameLinks(TWEANNGenotype serial, TWEANNGenotype batched) {
+		assertEquals(serial.links.size(), batched.links.size());
+		for(int i = 0; i < serial.links.size(); i++) {
+			LinkGene expected = serial.links.get(i);
+			LinkGene actual = batched.links.get(i);
+			assertEquals(expected.innovation, actual.innovation);
+			assertEquals(expected.sourceInnovation, actual.sourceInnovation);
+			assertEquals(expected.targetInnovation, actual.targetInnovation);
+			assertEquals(expected.weight, actual.weight, 0.0);
+		}
+	}
 }
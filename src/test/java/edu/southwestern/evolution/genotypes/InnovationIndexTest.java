@@ -0,0 +1,82 @@
+package edu.southwestern.evolution.genotypes;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import edu.southwestern.evolution.genotypes.TWEANNGenotype.LinkGene;
+import edu.southwestern.evolution.genotypes.TWEANNGenotype.NodeGene;
+import edu.southwestern.networks.ActivationFunctions;
+import edu.southwestern.networks.TWEANN;
+
+public class InnovationIndexTest {
+
+	private static int linearIndexOf(ArrayList<NodeGene> nodes, long innovation) {
+		for (int i = 0; i < nodes.size(); i++) {
+			if (nodes.get(i).innovation == innovation) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static NodeGene node(long innovation) {
+		return TWEANNGenotype.newNodeGene(ActivationFunctions.FTYPE_TANH, TWEANN.Node.NTYPE_HIDDEN, innovation);
+	}
+
+	@Test
+	public void test_indexFollowsChanges() {
+		ArrayList<NodeGene> nodes = new ArrayList<NodeGene>();
+		for (long i = 0; i < 100; i++) {
+			nodes.add(node(-i));
+		}
+		InnovationIndex index = new InnovationIndex();
+		for (long i = -110; i < 10; i++) {
+			assertEquals(linearIndexOf(nodes, i), index.indexOf(nodes, i));
+		}
+		// Insertion shifts positions and adds an innovation
+		nodes.add(10, node(500));
+		// Replacement keeps the size but changes contents
+		nodes.set(50, node(600));
+		// Innovation changed in place
+		nodes.get(70).innovation = 700;
+		for (long i = -110; i < 10; i++) {
+			assertEquals(linearIndexOf(nodes, i), index.indexOf(nodes, i));
+		}
+		assertEquals(10, index.indexOf(nodes, 500));
+		assertEquals(50, index.indexOf(nodes, 600));
+		assertEquals(70, index.indexOf(nodes, 700));
+		// A different list
+		ArrayList<NodeGene> other = new ArrayList<NodeGene>(nodes.subList(20, 40));
+		assertEquals(0, index.indexOf(other, nodes.get(20).innovation));
+		assertEquals(-1, index.indexOf(other, nodes.get(0).innovation));
+	}
+
+	@Test
+	public void test_linksByEndpoints() {
+		ArrayList<LinkGene> links = new ArrayList<LinkGene>();
+		long innovation = 1000;
+		for (long s = 0; s < 30; s++) {
+			for (long t = 30; t < 40; t++) {
+				links.add(TWEANNGenotype.newLinkGene(s, t, 0.5, innovation++, false));
+			}
+		}
+		// A duplicate connection: the first one is found
+		links.add(TWEANNGenotype.newLinkGene(3, 35, 0.5, innovation++, false));
+		InnovationIndex index = new InnovationIndex(true);
+		for (long s = 0; s < 30; s++) {
+			for (long t = 30; t < 40; t++) {
+				int i = index.indexOfLink(links, s, t);
+				assertEquals(s, links.get(i).sourceInnovation);
+				assertEquals(t, links.get(i).targetInnovation);
+				assertEquals(1000 + s * 10 + (t - 30), links.get(i).innovation);
+			}
+		}
+		assertEquals(-1, index.indexOfLink(links, 35, 3));
+		links.remove(0);
+		assertEquals(-1, index.indexOfLink(links, 0, 30));
+		assertEquals(0, index.indexOfLink(links, 0, 31));
+	}
+}
@@ -0,0 +1,81 @@
+package edu.southwestern.evolution.nsga2.sorting;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class EfficientNonDominatedSortingTest {
+
+	final static int TRIALS = 20;
+
+	/**
+	 * Random objective matrix with few distinct values, so that ties and
+	 * duplicate points are common.
+	 */
+	private static double[][] randomObjectives(Random rand, int n, int m) {
+		double[][] objectives = new double[n][m];
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < m; j++) {
+				objectives[i][j] = rand.nextInt(6);
+			}
+		}
+		return objectives;
+	}
+
+	/**
+	 * Front ranks straight from the definition of Pareto dominance
+	 */
+	private static int[] bruteForceRanks(double[][] objectives) {
+		int n = objectives.length;
+		int[] ranks = new int[n];
+		boolean[] assigned = new boolean[n];
+		int remaining = n;
+		for (int rank = 0; remaining > 0; rank++) {
+			boolean[] inFront = new boolean[n];
+			for (int i = 0; i < n; i++) {
+				if (assigned[i]) continue;
+				inFront[i] = true;
+				for (int j = 0; j < n; j++) {
+					if (!assigned[j] && NonDominatedSorting.dominates(objectives[j], objectives[i])) {
+						inFront[i] = false;
+						break;
+					}
+				}
+			}
+			for (int i = 0; i < n; i++) {
+				if (inFront[i]) {
+					ranks[i] = rank;
+					assigned[i] = true;
+					remaining--;
+				}
+			}
+		}
+		return ranks;
+	}
+
+	@Test
+	public void test_sameRanksAsDefinition() {
+		Random rand = new Random(42);
+		NonDominatedSorting efficient = new EfficientNonDominatedSorting();
+		NonDominatedSorting counting = new DominanceCountSorting();
+		for (int m = 1; m <= 4; m++) {
+			for (int t = 0; t < TRIALS; t++) {
+				// Includes a population above the parallel threshold
+				int n = t == 0 ? DominanceCountSorting.PARALLEL_THRESHOLD + 44 : 1 + rand.nextInt(60);
+				double[][] objectives = randomObjectives(rand, n, m);
+				int[] expected = bruteForceRanks(objectives);
+				assertArrayEquals(expected, efficient.frontRanks(objectives));
+				assertArrayEquals(expected, counting.frontRanks(objectives));
+			}
+		}
+	}
+
+	@Test
+	public void test_nanHandledLikeDominanceCount() {
+		double[][] objectives = new double[][] { { 1, Double.NaN }, { 2, 2 }, { 0, 0 }, { Double.NaN, 3 } };
+		assertArrayEquals(new DominanceCountSorting().frontRanks(objectives),
+				new EfficientNonDominatedSorting().frontRanks(objectives));
+	}
+}
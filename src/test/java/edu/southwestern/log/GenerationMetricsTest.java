@@ -0,0 +1,126 @@
+package edu.southwestern.log;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.southwestern.MMNEAT.MMNEAT;
+import edu.southwestern.log.GenerationMetrics.Phase;
+import edu.southwestern.parameters.Parameters;
+import edu.southwestern.util.file.FileUtilities;
+
+public class GenerationMetricsTest {
+
+	private static final double ERROR = .0001;
+	private static final long SLEEP_MILLIS = 20;
+	private static final long EVALUATION_NANOS = 10000000; // 10 ms
+	private static final int EVALUATIONS = 3;
+
+	@Before
+	public void setUp() throws Exception {
+		MMNEAT.clearClasses();
+		Parameters.initializeParameterCollections(new String[] { "io:false", "netio:false", "logPhaseTiming:true",
+				"parallelEvaluations:false", "evaluationFarm:false", "base:GenerationMetricsTest",
+				"saveTo:Test", "log:Test", "runNumber:0" });
+		GenerationMetrics.initialize(false);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		GenerationMetrics.close();
+		File saveDirectory = new File(FileUtilities.getSaveDirectory());
+		if (saveDirectory.exists()) {
+			FileUtilities.deleteDirectoryContents(saveDirectory);
+			saveDirectory.delete();
+		}
+		new File(Parameters.parameters.stringParameter("base")).delete();
+		MMNEAT.clearClasses();
+	}
+
+	/**
+	 * Time a phase that sleeps for SLEEP_MILLIS
+	 *
+	 * @param phase Phase to record
+	 * @return Milliseconds that passed while the phase was being timed
+	 */
+	private static double timePhase(Phase phase) throws InterruptedException {
+		long before = System.nanoTime();
+		long start = GenerationMetrics.start();
+		Thread.sleep(SLEEP_MILLIS);
+		GenerationMetrics.record(phase, start);
+		return (System.nanoTime() - before) / 1000000.0;
+	}
+
+	@Test
+	public void testEndGeneration() throws Exception {
+		double selectionMillis = timePhase(Phase.SELECTION);
+		double savingMillis = timePhase(Phase.SAVING);
+
+		// Constructing the inner phenotype is part of the outer construction, and is not timed again
+		long before = System.nanoTime();
+		long outer = GenerationMetrics.startPhenotype();
+		long inner = GenerationMetrics.startPhenotype();
+		Thread.sleep(SLEEP_MILLIS);
+		GenerationMetrics.recordPhenotype(inner);
+		Thread.sleep(SLEEP_MILLIS);
+		GenerationMetrics.recordPhenotype(outer);
+		double phenotypeMillis = (System.nanoTime() - before) / 1000000.0;
+
+		for (int i = 0; i < EVALUATIONS; i++) {
+			GenerationMetrics.recordEvaluationTime(EVALUATION_NANOS);
+		}
+		GenerationMetrics.endGeneration(0);
+
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName(GenerationMetrics.OBJECT_NAME);
+		assertTrue(server.isRegistered(name));
+		assertEquals(0, ((Integer) server.getAttribute(name, "Generation")).intValue());
+		double generationMBean = (Double) server.getAttribute(name, "GenerationMillis");
+		double selectionMBean = (Double) server.getAttribute(name, "SelectionMillis");
+		double savingMBean = (Double) server.getAttribute(name, "SavingMillis");
+		double phenotypeMBean = (Double) server.getAttribute(name, "PhenotypeConstructionMillis");
+		double evaluationsMBean = (Double) server.getAttribute(name, "Evaluations");
+		double utilizationMBean = (Double) server.getAttribute(name, "ThreadUtilization");
+
+		assertTrue(selectionMBean >= SLEEP_MILLIS && selectionMBean <= selectionMillis);
+		assertTrue(savingMBean >= SLEEP_MILLIS && savingMBean <= savingMillis);
+		assertTrue(phenotypeMBean >= 2 * SLEEP_MILLIS && phenotypeMBean <= phenotypeMillis);
+		assertEquals(0, (Double) server.getAttribute(name, "ChildGenerationMillis"), ERROR);
+		assertEquals(0, (Double) server.getAttribute(name, "MutationMillis"), ERROR);
+		assertEquals(0, (Double) server.getAttribute(name, "EvaluationMillis"), ERROR);
+		assertEquals(0, (Double) server.getAttribute(name, "LoggingMillis"), ERROR);
+		assertTrue(generationMBean >= selectionMBean + savingMBean + phenotypeMBean);
+		assertEquals(EVALUATIONS, evaluationsMBean, ERROR);
+		assertEquals(EVALUATIONS * 1000 / generationMBean, (Double) server.getAttribute(name, "EvaluationsPerSecond"), ERROR);
+		// One evaluation thread
+		assertEquals(EVALUATIONS * EVALUATION_NANOS / 1000000.0 / generationMBean, utilizationMBean, ERROR);
+
+		GenerationMetrics.close();
+		assertFalse(server.isRegistered(name));
+
+		File logFile = new File(FileUtilities.getSaveDirectory() + "/Test0_PhaseTiming_log.txt");
+		List<String> lines = Files.readAllLines(logFile.toPath());
+		assertEquals(1, lines.size());
+		String[] values = lines.get(0).split("\t");
+		ArrayList<String> labels = GenerationMetrics.getLabels();
+		assertEquals(labels.size() + 1, values.length);
+		assertEquals("0", values[0]);
+		assertEquals(generationMBean, Double.parseDouble(values[1 + labels.indexOf("Generation Time (ms)")]), ERROR);
+		assertEquals(selectionMBean, Double.parseDouble(values[1 + labels.indexOf("Selection Time (ms)")]), ERROR);
+		assertEquals(savingMBean, Double.parseDouble(values[1 + labels.indexOf("Saving Time (ms)")]), ERROR);
+		assertEquals(phenotypeMBean, Double.parseDouble(values[1 + labels.indexOf("Phenotype Construction Time (ms)")]), ERROR);
+		assertEquals(evaluationsMBean, Double.parseDouble(values[1 + labels.indexOf("Evaluations")]), ERROR);
+		assertEquals(utilizationMBean, Double.parseDouble(values[1 + labels.indexOf("Thread Utilization")]), ERROR);
+	}
+}
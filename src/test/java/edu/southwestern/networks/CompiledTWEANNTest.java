@@ -0,0 +1,107 @@
+package edu.southwestern.networks;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.southwestern.MMNEAT.MMNEAT;
+import edu.southwestern.evolution.EvolutionaryHistory;
+import edu.southwestern.evolution.genotypes.TWEANNGenotype;
+import edu.southwestern.parameters.Parameters;
+import edu.southwestern.util.random.RandomNumbers;
+
+public class CompiledTWEANNTest {
+
+	final static int MUTATIONS = 30;
+	final static int STEPS = 50;
+
+	@Before
+	public void setup() {
+		Parameters.initializeParameterCollections(
+				new String[] { "io:false", "netio:false", "allowMultipleFunctions:true", "recurrency:true", "mmpRate:0.1" });
+		MMNEAT.loadClasses();
+		EvolutionaryHistory.setInnovation(0);
+		EvolutionaryHistory.setHighestGenotypeId(0);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		MMNEAT.clearClasses();
+	}
+
+	@Test
+	public void test_identicalOutputs() {
+		TWEANNGenotype tg = new TWEANNGenotype(5, 3, 0);
+		MMNEAT.genotype = tg.copy();
+		EvolutionaryHistory.initArchetype(0);
+		for (int i = 0; i < MUTATIONS; i++) {
+			tg.mutate();
+		}
+
+		TWEANN plain = new TWEANN(tg);
+		TWEANN compiled = new CompiledTWEANN(tg);
+		assertEquals(plain.numModules(), compiled.numModules());
+		for (int i = 0; i < STEPS; i++) {
+			double[] inputs = RandomNumbers.randomArray(5);
+			// Recurrent state and preference fatigue carry over between steps
+			assertArrayEquals(plain.process(inputs), compiled.process(inputs), 0.0);
+			assertEquals(plain.lastModule(), compiled.lastModule());
+			for (int m = 0; m < plain.numModules(); m++) {
+				assertArrayEquals(plain.moduleOutput(m), compiled.moduleOutput(m), 0.0);
+			}
+			if (i == STEPS / 2) {
+				plain.flush();
+				compiled.flush();
+			}
+		}
+		assertArrayEquals(plain.getModuleUsage(), compiled.getModuleUsage());
+	}
+
+	@Test
+	public void test_copyKeepsChosenMode() {
+		// Standard multitask network with three modes
+		TWEANN multitask = new TWEANN(4, 6, false, ActivationFunctions.FTYPE_TANH, 3, 0);
+		multitask.chooseMode(2);
+		TWEANN copy = multitask.copy();
+		double[] inputs = RandomNumbers.randomArray(4);
+		assertArrayEquals(multitask.process(inputs), copy.process(inputs), 0.0);
+		assertEquals(2, copy.lastModule());
+
+		// Hierarchical multitask network: modules 1 and 3 belong to mode 1
+		Parameters.initializeParameterCollections(
+				new String[] { "io:false", "netio:false", "hierarchicalMultitask:true", "startingModes:2" });
+		TWEANN hierarchical = new TWEANN(4, 2, false, ActivationFunctions.FTYPE_TANH, 2, 0);
+		hierarchical.chooseMode(1);
+		copy = hierarchical.copy();
+		for (int i = 0; i < STEPS; i++) {
+			inputs = RandomNumbers.randomArray(4);
+			assertArrayEquals(hierarchical.process(inputs), copy.process(inputs), 0.0);
+			assertEquals(1, copy.lastModule() % 2);
+		}
+	}
+
+	@Test
+	public void test_batchMatchesFlushedProcess() {
+		TWEANNGenotype tg = new TWEANNGenotype(4, 3, 0);
+		MMNEAT.genotype = tg.copy();
+		EvolutionaryHistory.initArchetype(0);
+		for (int i = 0; i < MUTATIONS; i++) {
+			tg.mutate();
+		}
+
+		TWEANN net = new TWEANN(tg);
+		// More rows than one block so that several blocks are used
+		double[][] inputs = new double[TWEANN.BATCH_BLOCK_SIZE + 17][];
+		for (int i = 0; i < inputs.length; i++) {
+			inputs[i] = RandomNumbers.randomArray(4);
+		}
+		double[][] batch = net.processBatch(inputs);
+		for (int i = 0; i < inputs.length; i++) {
+			net.flush();
+			assertArrayEquals(net.process(inputs[i]), batch[i], 0.0);
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package edu.southwestern.networks.hyperneat;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import org.junit.After;
+import org.junit.Test;
+
+import edu.southwestern.MMNEAT.MMNEAT;
+import edu.southwestern.evolution.genotypes.HyperNEATCPPNGenotype;
+import edu.southwestern.networks.TWEANN;
+import edu.southwestern.parameters.Parameters;
+import edu.southwestern.tasks.rlglue.tetris.HyperNEATTetrisTask;
+import edu.southwestern.util.random.RandomNumbers;
+
+public class DenseSubstrateNetworkTest {
+
+	final static int STEPS = 10;
+
+	@After
+	public void tearDown() throws Exception {
+		MMNEAT.clearClasses();
+	}
+
+	/**
+	 * The dense network must produce exactly the outputs of the TWEANN built
+	 * from the substrate genotype of the same CPPN
+	 */
+	private static void assertSameOutputs() {
+		HyperNEATTask task = (HyperNEATTask) MMNEAT.task;
+		HyperNEATCPPNGenotype hcppn = new HyperNEATCPPNGenotype();
+		TWEANN plain = hcppn.getSubstrateGenotype(task).getPhenotype();
+		TWEANN dense = hcppn.getDenseSubstrateNetwork(task);
+		assertNotNull(dense);
+		assertEquals(plain.numInputs(), dense.numInputs());
+		assertEquals(plain.numOutputs(), dense.numOutputs());
+		for (int i = 0; i < STEPS; i++) {
+			double[] inputs = RandomNumbers.randomArray(plain.numInputs());
+			assertArrayEquals(plain.process(inputs), dense.process(inputs), 0.0);
+		}
+		// Copies have their own state but the same weights
+		TWEANN copy = dense.copy();
+		plain.flush();
+		double[] inputs = RandomNumbers.randomArray(plain.numInputs());
+		assertArrayEquals(plain.process(inputs), copy.process(inputs), 0.0);
+	}
+
+	@Test
+	public void test_fullyConnected() {
+		Parameters.initializeParameterCollections(new String[] { "io:false", "netio:false", "recurrency:false", "hyperNEAT:true",
+				"task:edu.southwestern.networks.hyperneat.HyperNEATSpeedTask", "evolveHyperNEATBias:true" });
+		MMNEAT.loadClasses();
+		assertSameOutputs();
+	}
+
+	@Test
+	public void test_convolutional() {
+		HyperNEATTetrisTask.hardSubstrateReset();
+		Parameters.initializeParameterCollections(new String[] { "io:false", "netio:false", "recurrency:false", "hyperNEAT:true",
+				"task:edu.southwestern.tasks.rlglue.tetris.HyperNEATTetrisTask",
+				"rlGlueEnvironment:org.rlcommunity.environments.tetris.Tetris",
+				"rlGlueExtractor:edu.southwestern.tasks.rlglue.featureextractors.tetris.RawTetrisStateExtractor",
+				"rlGlueAgent:edu.southwestern.tasks.rlglue.tetris.TetrisAfterStateAgent",
+				"splitRawTetrisInputs:true", "senseHolesDifferently:true",
+				"genotype:edu.southwestern.evolution.genotypes.HyperNEATCPPNGenotype",
+				"convolution:true", "HNProcessWidth:3" });
+		MMNEAT.loadClasses();
+		assertSameOutputs();
+	}
+}
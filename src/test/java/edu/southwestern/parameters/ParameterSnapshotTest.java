@@ -0,0 +1,55 @@
+package edu.southwestern.parameters;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.southwestern.MMNEAT.MMNEAT;
+
+public class ParameterSnapshotTest {
+
+	@Before
+	public void setUp() throws Exception {
+		Parameters.initializeParameterCollections(new String[] { "io:false", "netio:false", "stride:2", "animateNetwork:true", "doomInputWidth:37" });
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		MMNEAT.clearClasses();
+	}
+
+	/**
+	 * Typed fields and label lookups of a snapshot match the parameters
+	 */
+	@Test
+	public void snapshot_matches_parameters() {
+		ParameterSnapshot snapshot = Parameters.parameters.snapshot();
+		assertEquals(2, snapshot.stride);
+		assertTrue(snapshot.animateNetwork);
+		assertEquals(37, snapshot.doomInputWidth);
+		assertEquals(Parameters.parameters.booleanParameter("zeroPadding"), snapshot.zeroPadding);
+		assertEquals(Parameters.parameters.integerParameter("mu"), snapshot.integerParameter("mu"));
+		assertEquals(Parameters.parameters.stringParameter("base"), snapshot.stringParameter("base"));
+		assertEquals(Parameters.parameters.classParameter("ea"), snapshot.classParameter("ea"));
+	}
+
+	/**
+	 * The same snapshot is shared until a parameter changes, and old
+	 * snapshots keep the values from when they were taken
+	 */
+	@Test
+	public void change_creates_new_snapshot() {
+		ParameterSnapshot before = Parameters.parameters.snapshot();
+		assertSame(before, Parameters.parameters.snapshot());
+		Parameters.parameters.setInteger("stride", 3);
+		Parameters.parameters.setInteger("lastSavedGeneration", 12);
+		ParameterSnapshot after = Parameters.parameters.snapshot();
+		assertNotSame(before, after);
+		assertEquals(2, before.stride);
+		assertEquals(3, after.stride);
+		assertEquals(0, before.integerParameter("lastSavedGeneration"));
+		assertEquals(12, after.integerParameter("lastSavedGeneration"));
+	}
+}
@@ -0,0 +1,395 @@
+package edu.southwestern.tasks.farm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import edu.southwestern.MMNEAT.MMNEAT;
+import edu.southwestern.evolution.EvolutionaryHistory;
+import edu.southwestern.evolution.genotypes.Genotype;
+import edu.southwestern.evolution.genotypes.RealValuedGenotype;
+import edu.southwestern.parameters.Parameters;
+import edu.southwestern.scores.MultiObjectiveScore;
+import edu.southwestern.scores.Score;
+import edu.southwestern.tasks.LonerTask;
+import edu.southwestern.tasks.NoisyLonerTask;
+import edu.southwestern.util.datastructures.Pair;
+import edu.southwestern.util.random.RandomNumbers;
+
+/**
+ * Runs an EvaluationFarm with workers in this JVM. Each worker connects
+ * through a socket as a worker process would, but evaluates with a task that
+ * can make it slow, fail, die in the middle of a job, or stop sending heartbeats,
+ * or with a NoisyLonerTask whose trials draw random numbers.
+ */
+public class EvaluationFarmTest {
+
+	private static final int HEARTBEAT_MILLIS = 50;
+	// Long enough for the farm to give up on a worker that sends nothing
+	private static final long SILENT_MILLIS = 20 * HEARTBEAT_MILLIS;
+	private static final long TIMEOUT_MILLIS = 30000;
+
+	/**
+	 * What a worker does when it evaluates a genotype
+	 */
+	private enum Behavior {
+		NORMAL, FAIL, DIE, GO_SILENT, BLOCK
+	}
+
+	/**
+	 * Output of a worker that can stop sending anything, as a hung process would
+	 */
+	private static class SilenceableOutputStream extends FilterOutputStream {
+		volatile boolean silent = false;
+
+		SilenceableOutputStream(OutputStream out) {
+			super(out);
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			if (!silent) out.write(b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			if (!silent) out.write(b, off, len);
+		}
+
+		@Override
+		public void flush() throws IOException {
+			if (!silent) out.flush();
+		}
+	}
+
+	/**
+	 * EvaluationWorker on its own thread, which evaluates with a SumTask
+	 * unless given another task
+	 */
+	private static class TestWorker extends Thread {
+		final int port;
+		final Behavior behavior;
+		final long delayMillis;
+		final LonerTask<ArrayList<Double>> task;
+		final AtomicInteger evaluations = new AtomicInteger();
+		// Counted down once the worker starts its first evaluation
+		final CountDownLatch evaluating = new CountDownLatch(1);
+		// Lets a blocked evaluation finish
+		final CountDownLatch release = new CountDownLatch(1);
+		Socket socket;
+		SilenceableOutputStream output;
+		// Why the worker stopped, if it did not shut down normally
+		volatile IOException lost = null;
+
+		TestWorker(int port, Behavior behavior, long delayMillis, LonerTask<ArrayList<Double>> task) {
+			super("Test worker " + behavior);
+			setDaemon(true);
+			this.port = port;
+			this.behavior = behavior;
+			this.delayMillis = delayMillis;
+			this.task = task;
+		}
+
+		@Override
+		public void run() {
+			try {
+				socket = new Socket(InetAddress.getLoopbackAddress(), port);
+				output = new SilenceableOutputStream(socket.getOutputStream());
+				DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+				DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output));
+				new EvaluationWorker(in, out) {
+					@SuppressWarnings("rawtypes")
+					@Override
+					LonerTask setUpTask(String[] farmArgs) {
+						if (task == null) {
+							return new SumTask(TestWorker.this);
+						}
+						// Like a worker process, pick a master seed of its own while setting up
+						RandomNumbers.reset();
+						return task;
+					}
+				}.run();
+			} catch (IOException e) {
+				lost = e;
+			}
+		}
+	}
+
+	/**
+	 * Scores a genotype with the sum of its genes, after doing what its worker should do
+	 */
+	private static class SumTask extends LonerTask<ArrayList<Double>> {
+		private final TestWorker worker;
+
+		SumTask(TestWorker worker) {
+			this.worker = worker;
+		}
+
+		@Override
+		public Score<ArrayList<Double>> evaluate(Genotype<ArrayList<Double>> individual) {
+			worker.evaluations.incrementAndGet();
+			worker.evaluating.countDown();
+			try {
+				switch (worker.behavior) {
+				case FAIL:
+					throw new IllegalStateException("Evaluation failed on purpose");
+				case DIE:
+					// The result cannot be sent, so the worker exits
+					worker.socket.close();
+					break;
+				case GO_SILENT:
+					worker.output.silent = true;
+					Thread.sleep(SILENT_MILLIS);
+					break;
+				case BLOCK:
+					worker.release.await();
+					break;
+				default:
+					break;
+				}
+				Thread.sleep(worker.delayMillis);
+			} catch (IOException | InterruptedException e) {
+				throw new IllegalStateException(e);
+			}
+			return new MultiObjectiveScore<ArrayList<Double>>(individual, new double[] { sum(individual) }, null);
+		}
+
+		@Override
+		public int numObjectives() {
+			return 1;
+		}
+
+		@Override
+		public double getTimeStamp() {
+			return 0;
+		}
+	}
+
+	/**
+	 * Scores a genotype with a random number from each trial. With
+	 * parallelTrials, each trial draws from a stream derived from the master seed.
+	 */
+	private static class RandomTrialsTask extends NoisyLonerTask<ArrayList<Double>> {
+
+		RandomTrialsTask() {
+			MMNEAT.registerFitnessFunction("Random");
+		}
+
+		@Override
+		public Pair<double[], double[]> oneEval(Genotype<ArrayList<Double>> individual, int num) {
+			return new Pair<double[], double[]>(new double[] { RandomNumbers.generator().nextDouble() }, new double[0]);
+		}
+
+		@Override
+		public int numObjectives() {
+			return 1;
+		}
+
+		@Override
+		public double getTimeStamp() {
+			return 0;
+		}
+	}
+
+	private EvaluationFarm farm;
+	private final ArrayList<TestWorker> workers = new ArrayList<TestWorker>();
+	private final ExecutorService coordinator = Executors.newSingleThreadExecutor();
+
+	/**
+	 * Start a farm that launches no workers of its own
+	 *
+	 * @param backupTasks Whether idle workers take backup copies of running jobs
+	 * @param otherArgs Other parameters of the run
+	 */
+	private void startFarm(boolean backupTasks, String... otherArgs) throws IOException {
+		String[] args = new String[] { "io:false", "netio:false", "farmLocalWorkers:0",
+				"farmHeartbeatMillis:" + HEARTBEAT_MILLIS, "farmMaxRetries:3", "farmBackupTasks:" + backupTasks };
+		args = Arrays.copyOf(args, args.length + otherArgs.length);
+		System.arraycopy(otherArgs, 0, args, args.length - otherArgs.length, otherArgs.length);
+		Parameters.initializeParameterCollections(args);
+		MMNEAT.loadClasses();
+		EvolutionaryHistory.setHighestGenotypeId(0);
+		farm = new EvaluationFarm(0, 0, "");
+	}
+
+	private TestWorker startWorker(Behavior behavior, long delayMillis) {
+		return startWorker(behavior, delayMillis, null);
+	}
+
+	private TestWorker startWorker(Behavior behavior, long delayMillis, LonerTask<ArrayList<Double>> task) {
+		TestWorker worker = new TestWorker(farm.port(), behavior, delayMillis, task);
+		workers.add(worker);
+		worker.start();
+		return worker;
+	}
+
+	@After
+	public void tearDown() throws InterruptedException {
+		for (TestWorker worker : workers) {
+			worker.release.countDown();
+		}
+		if (farm != null) {
+			farm.close();
+		}
+		for (TestWorker worker : workers) {
+			worker.join(TIMEOUT_MILLIS);
+		}
+		coordinator.shutdownNow();
+		MMNEAT.clearClasses();
+	}
+
+	private static double sum(Genotype<ArrayList<Double>> genotype) {
+		double sum = 0;
+		for (double gene : genotype.getPhenotype()) {
+			sum += gene;
+		}
+		return sum;
+	}
+
+	private static ArrayList<Genotype<ArrayList<Double>>> population(int size) {
+		ArrayList<Genotype<ArrayList<Double>>> population = new ArrayList<Genotype<ArrayList<Double>>>(size);
+		for (int i = 0; i < size; i++) {
+			population.add(new RealValuedGenotype(new double[] { i, 0.5 }));
+		}
+		return population;
+	}
+
+	/**
+	 * Evaluate a population on another thread, so that workers can be started meanwhile
+	 */
+	private Future<ArrayList<Score<ArrayList<Double>>>> evaluateLater(ArrayList<Genotype<ArrayList<Double>>> population) {
+		return coordinator.submit(() -> farm.evaluateAll(population));
+	}
+
+	private static void assertScores(ArrayList<Genotype<ArrayList<Double>>> population, ArrayList<Score<ArrayList<Double>>> scores) {
+		assertEquals(population.size(), scores.size());
+		for (int i = 0; i < population.size(); i++) {
+			assertSame(population.get(i), scores.get(i).individual);
+			assertEquals(sum(population.get(i)), scores.get(i).scores[0], 0);
+		}
+	}
+
+	@Test
+	public void test_fastWorkersTakeMoreJobs() throws Exception {
+		startFarm(false);
+		TestWorker slow = startWorker(Behavior.NORMAL, 10 * HEARTBEAT_MILLIS);
+		TestWorker fast = startWorker(Behavior.NORMAL, 0);
+		ArrayList<Genotype<ArrayList<Double>>> population = population(20);
+		assertScores(population, farm.evaluateAll(population));
+		// Without backup tasks, each job is evaluated once
+		assertEquals(population.size(), slow.evaluations.get() + fast.evaluations.get());
+		assertTrue(fast.evaluations.get() > slow.evaluations.get());
+	}
+
+	@Test
+	public void test_backupTaskFinishesStuckJob() throws Exception {
+		startFarm(true);
+		TestWorker stuck = startWorker(Behavior.BLOCK, 0);
+		ArrayList<Genotype<ArrayList<Double>>> population = population(1);
+		Future<ArrayList<Score<ArrayList<Double>>>> scores = evaluateLater(population);
+		assertTrue(stuck.evaluating.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+		// The only job is taken, so the new worker can only run a backup copy of it
+		TestWorker backup = startWorker(Behavior.NORMAL, 0);
+		assertScores(population, scores.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+		assertEquals(1, backup.evaluations.get());
+		assertEquals(1, stuck.evaluations.get());
+	}
+
+	@Test
+	public void test_jobRetriedAfterWorkerDies() throws Exception {
+		startFarm(false);
+		TestWorker dying = startWorker(Behavior.DIE, 0);
+		ArrayList<Genotype<ArrayList<Double>>> population = population(5);
+		Future<ArrayList<Score<ArrayList<Double>>>> scores = evaluateLater(population);
+		dying.join(TIMEOUT_MILLIS);
+		assertFalse(dying.isAlive());
+		assertNotNull(dying.lost);
+		assertEquals(1, dying.evaluations.get());
+		// The job of the dead worker is queued again
+		TestWorker healthy = startWorker(Behavior.NORMAL, 0);
+		assertScores(population, scores.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+		assertEquals(population.size(), healthy.evaluations.get());
+	}
+
+	@Test
+	public void test_silentWorkerIsDropped() throws Exception {
+		startFarm(false);
+		TestWorker silent = startWorker(Behavior.GO_SILENT, 0);
+		ArrayList<Genotype<ArrayList<Double>>> population = population(3);
+		Future<ArrayList<Score<ArrayList<Double>>>> scores = evaluateLater(population);
+		assertTrue(silent.evaluating.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+		// Without backup tasks, the job of the silent worker is only run again once the farm gives up on it
+		TestWorker healthy = startWorker(Behavior.NORMAL, 0);
+		assertScores(population, scores.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+		assertEquals(population.size(), healthy.evaluations.get());
+		// The farm closed the connection, which the worker finds out about once it wakes up
+		silent.join(TIMEOUT_MILLIS);
+		assertFalse(silent.isAlive());
+		assertNotNull(silent.lost);
+		assertEquals(1, silent.evaluations.get());
+	}
+
+	@Test
+	public void test_failureFailsEvaluation() throws Exception {
+		startFarm(false);
+		TestWorker failing = startWorker(Behavior.FAIL, 0);
+		try {
+			farm.evaluateAll(population(1));
+			fail("Failed evaluation returned a score");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof IllegalStateException);
+			assertTrue(e.getCause().getMessage().contains("Evaluation failed on purpose"));
+		}
+		// The job is not retried, and the worker stays connected
+		Thread.sleep(10 * HEARTBEAT_MILLIS);
+		assertEquals(1, failing.evaluations.get());
+		assertTrue(failing.isAlive());
+	}
+
+	@Test
+	public void test_trialsUseMasterSeedOfFarm() throws Exception {
+		startFarm(false, "parallelTrials:true", "trials:3");
+		RandomTrialsTask task = new RandomTrialsTask();
+		ArrayList<Genotype<ArrayList<Double>>> population = population(5);
+		ArrayList<Score<ArrayList<Double>>> expected = new ArrayList<Score<ArrayList<Double>>>();
+		for (Genotype<ArrayList<Double>> genotype : population) {
+			expected.add(task.evaluate(genotype));
+		}
+		// Once this worker has taken a job, all jobs have been made with the master seed of the farm
+		TestWorker dying = startWorker(Behavior.DIE, 0);
+		Future<ArrayList<Score<ArrayList<Double>>>> scores = evaluateLater(population);
+		dying.join(TIMEOUT_MILLIS);
+		assertFalse(dying.isAlive());
+		startWorker(Behavior.NORMAL, 0, task);
+		ArrayList<Score<ArrayList<Double>>> actual = scores.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+		for (int i = 0; i < population.size(); i++) {
+			assertSame(population.get(i), actual.get(i).individual);
+			assertEquals(expected.get(i).scores[0], actual.get(i).scores[0], 0);
+		}
+	}
+}
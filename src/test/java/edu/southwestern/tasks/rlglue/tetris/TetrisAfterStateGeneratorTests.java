@@ -5,7 +5,11 @@ import static org.junit.Assert.*;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.Random;
 
 import org.junit.After;
 import org.junit.Before;
@@ -607,4 +611,71 @@ public class TetrisAfterStateGeneratorTests {
 			}
 		}
 	}
+	/**
+	 * Breadth first search that generateAfterStates used before placements were
+	 * searched on bit boards: every probe copies and updates a full TetrisState.
+	 */
+	private static HashSet<TetrisStateActionPair> searchTetrisStates(TetrisState ts) {
+		int[] actOrder = { TetrisState.FALL, TetrisState.NONE, TetrisState.LEFT, TetrisState.RIGHT, TetrisState.CW, TetrisState.CCW };
+		HashSet<TetrisStateActionPair> evaluated = new HashSet<TetrisStateActionPair>();
+		HashSet<TetrisState> seen = new HashSet<TetrisState>();
+		Queue<TetrisStateActionPair> fringe = new LinkedList<TetrisStateActionPair>();
+		fringe.add(new TetrisStateActionPair(ts));
+		seen.add(new TetrisState(ts));
+		while (!fringe.isEmpty()) {
+			TetrisStateActionPair pair = fringe.poll();
+			for (int action : actOrder) {
+				TetrisStateActionPair copy = new TetrisStateActionPair(pair);
+				if (copy.t1.take_action(action)) {
+					copy.t2.add(action);
+					copy.t1.update();
+					if (!copy.t1.blockMobile) {
+						evaluated.add(copy);
+					} else if (!seen.contains(copy.t1)) {
+						fringe.add(copy);
+						seen.add(copy.t1);
+					}
+				}
+			}
+		}
+		return evaluated;
+	}
+
+	/**
+	 * Random rough boards with overhangs: the placements must be the same afterstates,
+	 * reached by the same actions, as with the search over TetrisStates
+	 */
+	@Test
+	public void placements_match_state_search() {
+		Random random = new Random(0);
+		for (int board = 0; board < 20; board++) {
+			TetrisState start = new TetrisState();
+			for (int y = TetrisState.worldHeight - 1; y >= TetrisState.worldHeight - 8; y--) {
+				for (int x = 0; x < TetrisState.worldWidth; x++) {
+					if (random.nextDouble() < 0.6) {
+						start.worldState[y * TetrisState.worldWidth + x] = 1;
+					}
+				}
+			}
+			for (int block = 0; block < TetrisState.POSSIBLE_BLOCKS.size(); block++) {
+				start.currentBlockId = block;
+				start.currentRotation = 0;
+				start.currentX = TetrisState.worldWidth / 2 - 2;
+				start.currentY = 0;
+				HashMap<TetrisBitBoard, TetrisStateActionPair> expected = new HashMap<TetrisBitBoard, TetrisStateActionPair>();
+				for (TetrisStateActionPair pair : searchTetrisStates(start)) {
+					expected.put(new TetrisBitBoard(pair.t1), pair);
+				}
+				List<TetrisPlacement> placements = TetrisAfterStateGenerator.generatePlacements(start);
+				assertEquals(expected.size(), placements.size());
+				for (TetrisPlacement placement : placements) {
+					TetrisStateActionPair pair = expected.get(placement.board);
+					assertNotNull(pair);
+					assertEquals(pair.t2, placement.actions);
+					assertArrayEquals(pair.t1.get_observation(false).intArray, placement.getObservation().intArray);
+					assertEquals(pair.t1, placement.toTetrisState(start));
+				}
+			}
+		}
+	}
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package edu.southwestern.util.random;
+
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class RandomStreamsTest {
+
+	/**
+	 * Same master seed and path give the same stream, and a new master seed a different one
+	 */
+	@Test
+	public void seed_depends_on_master_seed_and_path() {
+		RandomNumbers.reset(7);
+		long first = RandomStreams.seed(3, 41, 2);
+		assertEquals(first, RandomStreams.seed(3, 41, 2));
+		assertEquals(RandomStreams.generator(3, 41, 2).nextLong(), new Random(first).nextLong());
+		RandomNumbers.reset(8);
+		assertFalse(first == RandomStreams.seed(3, 41, 2));
+	}
+
+	/**
+	 * Nearby paths, and paths with the same keys in another order, give different seeds
+	 */
+	@Test
+	public void nearby_paths_differ() {
+		RandomNumbers.reset(0);
+		HashSet<Long> seeds = new HashSet<Long>();
+		for (int generation = 0; generation < 10; generation++) {
+			for (int id = 0; id < 100; id++) {
+				assertTrue(seeds.add(RandomStreams.seed(generation, id)));
+			}
+		}
+		assertFalse(RandomStreams.seed(1, 2) == RandomStreams.seed(2, 1));
+		assertFalse(RandomStreams.seed() == RandomStreams.seed(0));
+	}
+
+	/**
+	 * RandomNumbers draws from the installed generator, and the previous one is restored
+	 */
+	@Test
+	public void with_generator_restores_previous() {
+		RandomNumbers.reset(0);
+		Random shared = RandomNumbers.generator();
+		Random stream = new Random(5);
+		double expected = new Random(5).nextDouble();
+		double drawn = RandomStreams.withGenerator(stream, () -> {
+			assertSame(stream, RandomNumbers.generator());
+			return RandomNumbers.generator().nextDouble();
+		});
+		assertEquals(expected, drawn, 0);
+		assertSame(shared, RandomNumbers.generator());
+		assertSame(shared, RandomStreams.withGenerator(null, RandomNumbers::generator));
+	}
+}
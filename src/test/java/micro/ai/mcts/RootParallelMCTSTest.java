@@ -0,0 +1,124 @@
+package micro.ai.mcts;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.southwestern.MMNEAT.MMNEAT;
+import edu.southwestern.parameters.Parameters;
+import edu.southwestern.tasks.Task;
+import edu.southwestern.tasks.microrts.MicroRTSInformation;
+import micro.ai.RandomBiasedAI;
+import micro.ai.evaluation.SimpleSqrtEvaluationFunction3;
+import micro.ai.mcts.naivemcts.NaiveMCTS;
+import micro.ai.mcts.uct.UCT;
+import micro.ai.mcts.uct.UCTUnitActions;
+import micro.rts.GameState;
+import micro.rts.PhysicalGameState;
+import micro.rts.Player;
+import micro.rts.PlayerAction;
+import micro.rts.units.Unit;
+import micro.rts.units.UnitTypeTable;
+
+public class RootParallelMCTSTest {
+
+	private static final int TREES = 3;
+	private static final int PLAYOUTS = 100;
+
+	private UnitTypeTable utt;
+	private GameState gs;
+
+	@Before
+	public void setUp() {
+		Parameters.initializeParameterCollections(new String[]{"io:false", "netio:false"});
+		utt = new UnitTypeTable();
+		// The default playout policies of the AIs get the unit type table from the task
+		MMNEAT.task = (Task) Proxy.newProxyInstance(Task.class.getClassLoader(), new Class<?>[]{Task.class, MicroRTSInformation.class},
+				(proxy, method, args) -> method.getName().equals("getUnitTypeTable") ? utt : null);
+		PhysicalGameState pgs = new PhysicalGameState(8, 8);
+		pgs.addPlayer(new Player(0, 5));
+		pgs.addPlayer(new Player(1, 5));
+		pgs.addUnit(new Unit(-1, utt.getUnitType("Resource"), 0, 0, 20));
+		pgs.addUnit(new Unit(0, utt.getUnitType("Base"), 2, 1, 0));
+		pgs.addUnit(new Unit(1, utt.getUnitType("Base"), 5, 6, 0));
+		pgs.addUnit(new Unit(0, utt.getUnitType("Worker"), 1, 1, 0));
+		pgs.addUnit(new Unit(1, utt.getUnitType("Worker"), 6, 6, 0));
+		gs = new GameState(pgs, utt);
+	}
+
+	@After
+	public void tearDown() {
+		MMNEAT.task = null;
+	}
+
+	@Test
+	public void test_iterationsBudgetIsSplit() {
+		NaiveMCTS serial = new NaiveMCTS(-1, PLAYOUTS, 100, 10, 0.3f, 0.0f, 0.4f, new RandomBiasedAI(utt), new SimpleSqrtEvaluationFunction3(), true);
+		RootParallelMCTS parallel = new RootParallelMCTS(serial, TREES);
+		int total = 0;
+		for(int i = 0; i < TREES; i++) {
+			total += parallel.iterationsBudget(i);
+		}
+		assertEquals(PLAYOUTS, total);
+		// Each tree gets its own playout policy
+		assertFalse(((NaiveMCTS) parallel.trees[0]).playoutPolicy == ((NaiveMCTS) parallel.trees[1]).playoutPolicy);
+	}
+
+	/**
+	 * The chosen action must have the most playouts when the roots of all trees are added up
+	 */
+	private static void assertMostVisited(RootParallelMCTS parallel, PlayerAction chosen) {
+		int chosenVisits = 0;
+		int visits = 0;
+		int maxVisits = 0;
+		for(int t = 0; t < parallel.getNumTrees(); t++) {
+			HasRootStatistics root = (HasRootStatistics) parallel.trees[t];
+			List<PlayerAction> actions = root.getRootActions();
+			for(int i = 0; i < actions.size(); i++) {
+				visits += root.getRootVisitCount(i);
+				int actionVisits = 0;
+				for(int t2 = 0; t2 < parallel.getNumTrees(); t2++) {
+					HasRootStatistics root2 = (HasRootStatistics) parallel.trees[t2];
+					int idx = root2.getRootActions().indexOf(actions.get(i));
+					if(idx != -1) actionVisits += root2.getRootVisitCount(idx);
+				}
+				maxVisits = Math.max(maxVisits, actionVisits);
+				if(actions.get(i).equals(chosen)) chosenVisits = actionVisits;
+			}
+		}
+		assertTrue(visits > 0);
+		assertEquals(maxVisits, chosenVisits);
+	}
+
+	@Test
+	public void test_naiveMCTS() throws Exception {
+		NaiveMCTS serial = new NaiveMCTS(-1, PLAYOUTS, 100, 10, 0.3f, 0.0f, 0.4f, new RandomBiasedAI(utt), new SimpleSqrtEvaluationFunction3(), true);
+		RootParallelMCTS parallel = new RootParallelMCTS(serial, TREES);
+		PlayerAction pa = parallel.getAction(0, gs);
+		assertFalse(pa.isEmpty());
+		assertMostVisited(parallel, pa);
+		// The action refers to units of a clone, but can be issued in the original state
+		gs.issueSafe(pa);
+	}
+
+	@Test
+	public void test_uct() throws Exception {
+		UCT serial = new UCT(-1, PLAYOUTS, 100, 10, new RandomBiasedAI(utt), new SimpleSqrtEvaluationFunction3());
+		RootParallelMCTS parallel = new RootParallelMCTS(serial, TREES);
+		PlayerAction pa = parallel.getAction(1, gs);
+		assertFalse(pa.isEmpty());
+		assertMostVisited(parallel, pa);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void test_needsRootStatistics() {
+		new RootParallelMCTS(new UCTUnitActions(-1, 100, 10, new RandomBiasedAI(utt), new SimpleSqrtEvaluationFunction3()), TREES);
+	}
+}
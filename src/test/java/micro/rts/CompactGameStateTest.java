@@ -0,0 +1,148 @@
+package micro.rts;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import micro.rts.units.Unit;
+import micro.rts.units.UnitTypeTable;
+
+public class CompactGameStateTest {
+
+	private static final int CYCLES = 1500;
+
+	private static PhysicalGameState mixedUnits(UnitTypeTable utt) {
+		PhysicalGameState pgs = new PhysicalGameState(8, 8);
+		pgs.setTerrain(3, 4, PhysicalGameState.TERRAIN_WALL);
+		pgs.addPlayer(new Player(0, 10));
+		pgs.addPlayer(new Player(1, 10));
+		pgs.addUnit(new Unit(-1, utt.getUnitType("Resource"), 0, 0, 10));
+		pgs.addUnit(new Unit(-1, utt.getUnitType("Resource"), 7, 7, 10));
+		pgs.addUnit(new Unit(0, utt.getUnitType("Base"), 2, 1, 0));
+		pgs.addUnit(new Unit(1, utt.getUnitType("Base"), 5, 6, 0));
+		pgs.addUnit(new Unit(0, utt.getUnitType("Barracks"), 1, 4, 0));
+		pgs.addUnit(new Unit(1, utt.getUnitType("Barracks"), 6, 3, 0));
+		pgs.addUnit(new Unit(0, utt.getUnitType("Worker"), 1, 1, 0));
+		pgs.addUnit(new Unit(1, utt.getUnitType("Worker"), 6, 6, 0));
+		pgs.addUnit(new Unit(0, utt.getUnitType("Light"), 3, 3, 0));
+		pgs.addUnit(new Unit(1, utt.getUnitType("Ranged"), 4, 3, 0));
+		pgs.addUnit(new Unit(1, utt.getUnitType("Heavy"), 4, 5, 0));
+		return pgs;
+	}
+
+	/**
+	 * Units, IDs, resources and pending actions must all match
+	 */
+	private static void assertSameState(GameState expected, CompactGameState actual) {
+		GameState converted = actual.toGameState();
+		assertEquals(expected.getTime(), converted.getTime());
+		assertTrue(expected.equals(converted));
+		List<Unit> units = expected.getUnits();
+		assertEquals(units.size(), actual.getNumUnits());
+		for (int s = 0; s < units.size(); s++) {
+			assertEquals(units.get(s).getID(), actual.getID(s));
+			assertEquals(units.get(s).getResources(), actual.getResources(s));
+			assertSame(expected.getPhysicalGameState().getUnitAt(units.get(s).getX(), units.get(s).getY()), units.get(s));
+			assertEquals(s, actual.getUnitAt(actual.getX(s), actual.getY(s)));
+		}
+		for (int p = 0; p < 2; p++) {
+			assertEquals(expected.getPlayer(p).getResources(), actual.getPlayerResources(p));
+		}
+	}
+
+	/**
+	 * Both representations receive the same random actions, and must stay identical
+	 */
+	@Test
+	public void test_lockstep() {
+		UnitTypeTable utt = new UnitTypeTable();
+		GameState gs = new GameState(mixedUnits(utt), utt);
+		CompactGameState cgs = new CompactGameState(gs);
+		Random random = new Random(17);
+		assertSameState(gs, cgs);
+		boolean gameover = false;
+		for (int i = 0; i < CYCLES && !gameover; i++) {
+			for (int player = 0; player < 2; player++) {
+				PlayerAction pa = new PlayerAction();
+				ResourceUsage reserved = gs.getResourceUsage();
+				List<Integer> slots = new ArrayList<Integer>();
+				List<Integer> chosen = new ArrayList<Integer>();
+				List<Unit> units = gs.getUnits();
+				for (int s = 0; s < units.size(); s++) {
+					Unit u = units.get(s);
+					if (u.getPlayer() != player || gs.getActionAssignment(u) != null) continue;
+					List<UnitAction> expected = u.getUnitActions(gs, 10);
+					int[] actions = new int[cgs.maxUnitActions(s)];
+					int count = cgs.unitActions(s, 10, actions);
+					assertEquals(expected.size(), count);
+					for (int a = 0; a < count; a++) {
+						assertEquals(expected.get(a), cgs.decode(actions[a]));
+						assertEquals(actions[a], cgs.encode(expected.get(a)));
+					}
+					// As in the AIs, only actions consistent with those already reserved by this player
+					// are chosen: actions of the other player in the same cycle still conflict
+					int a = random.nextInt(count);
+					ResourceUsage ru = expected.get(a).resourceUsage(u, gs.getPhysicalGameState());
+					if (!reserved.consistentWith(ru, gs)) {
+						a = count - 1;
+						ru = expected.get(a).resourceUsage(u, gs.getPhysicalGameState());
+					}
+					reserved = reserved.mergeIntoNew(ru);
+					pa.addUnitAction(u, expected.get(a));
+					slots.add(s);
+					chosen.add(actions[a]);
+				}
+				gs.issue(pa);
+				for (int k = 0; k < slots.size(); k++) {
+					cgs.issue(slots.get(k), chosen.get(k));
+				}
+			}
+			assertSameState(gs, cgs);
+			// Both draw the same damage and give produced units the same IDs
+			long seed = random.nextLong();
+			long nextID = Unit.next_ID;
+			UnitAction.r = new Random(seed);
+			gameover = gs.cycle();
+			UnitAction.r = new Random(seed);
+			Unit.next_ID = nextID;
+			assertEquals(gameover, cgs.cycle());
+			assertSameState(gs, cgs);
+			assertEquals(gs.winner(), cgs.winner());
+		}
+	}
+
+	@Test
+	public void test_cloneAndWriteTo() throws Exception {
+		UnitTypeTable utt = new UnitTypeTable();
+		GameState gs = new GameState(mixedUnits(utt), utt);
+		CompactGameState cgs = new CompactGameState(gs);
+		CompactGameState copy = cgs.clone();
+		// Move the light unit up in the copy only
+		int light = 8;
+		assertEquals("Light", copy.getType(light).name);
+		copy.issue(light, CompactGameState.encode(UnitAction.TYPE_MOVE, UnitAction.DIRECTION_UP, 0));
+		while (copy.getAction(light) != CompactGameState.NO_ACTION) copy.cycle();
+		assertEquals(3, cgs.getY(light));
+		assertEquals(2, copy.getY(light));
+		assertEquals(-1, cgs.getUnitAt(3, 2));
+		assertEquals(light, copy.getUnitAt(3, 2));
+
+		// Writing back reuses the units of the original state
+		Unit unit = gs.getUnits().get(light);
+		cgs.writeTo(gs);
+		assertSame(unit, gs.getUnits().get(light));
+		// Clones do not have the original units
+		copy.writeTo(gs);
+		assertNotSame(unit, gs.getUnits().get(light));
+		assertEquals(2, gs.getUnits().get(light).getY());
+		assertSame(gs.getUnits().get(light), gs.getPhysicalGameState().getUnitAt(3, 2));
+		assertEquals(copy.getTime(), gs.getTime());
+	}
+}
@@ -0,0 +1,128 @@
+package micro.rts;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import micro.ai.RandomAI;
+import micro.ai.core.AI;
+import micro.rts.units.Unit;
+import micro.rts.units.UnitTypeTable;
+
+/**
+ * Checks that the grid index of units stays consistent with the unit list
+ * while units are produced, move, and die.
+ */
+public class PhysicalGameStateTest {
+
+	private static final int CYCLES = 1000;
+
+	private static PhysicalGameState basesWorkers(UnitTypeTable utt) {
+		PhysicalGameState pgs = new PhysicalGameState(8, 8);
+		pgs.addPlayer(new Player(0, 20));
+		pgs.addPlayer(new Player(1, 20));
+		pgs.addUnit(new Unit(-1, utt.getUnitType("Resource"), 0, 0, 20));
+		pgs.addUnit(new Unit(-1, utt.getUnitType("Resource"), 7, 7, 20));
+		pgs.addUnit(new Unit(0, utt.getUnitType("Base"), 2, 1, 0));
+		pgs.addUnit(new Unit(1, utt.getUnitType("Base"), 5, 6, 0));
+		pgs.addUnit(new Unit(0, utt.getUnitType("Worker"), 1, 1, 0));
+		pgs.addUnit(new Unit(1, utt.getUnitType("Worker"), 6, 6, 0));
+		return pgs;
+	}
+
+	/**
+	 * Linear search that getUnitAt used before units were indexed
+	 */
+	private static Unit scanUnitAt(PhysicalGameState pgs, int x, int y) {
+		for (Unit u : pgs.getUnits()) {
+			if (u.getX() == x && u.getY() == y) return u;
+		}
+		return null;
+	}
+
+	/**
+	 * Check of every unit action that GameState.free used before units were indexed
+	 */
+	private static boolean scanFree(GameState gs, int x, int y) {
+		PhysicalGameState pgs = gs.getPhysicalGameState();
+		if (pgs.getTerrain(x, y) != PhysicalGameState.TERRAIN_NONE) return false;
+		if (scanUnitAt(pgs, x, y) != null) return false;
+		for (UnitActionAssignment ua : gs.getUnitActions().values()) {
+			if (ua.action.getType() == UnitAction.TYPE_MOVE || ua.action.getType() == UnitAction.TYPE_PRODUCE) {
+				int d = ua.action.getDirection();
+				if (ua.unit.getX() + UnitAction.DIRECTION_OFFSET_X[d] == x && ua.unit.getY() + UnitAction.DIRECTION_OFFSET_Y[d] == y) return false;
+			}
+		}
+		return true;
+	}
+
+	private static void assertConsistent(GameState gs) {
+		PhysicalGameState pgs = gs.getPhysicalGameState();
+		for (int x = 0; x < pgs.getWidth(); x++) {
+			for (int y = 0; y < pgs.getHeight(); y++) {
+				assertSame(scanUnitAt(pgs, x, y), pgs.getUnitAt(x, y));
+				assertEquals(scanFree(gs, x, y), gs.free(x, y));
+				for (int range = 0; range <= 3; range += 3) {
+					Set<Unit> around = new HashSet<Unit>();
+					for (Unit u : pgs.getUnits()) {
+						if (Math.abs(u.getX() - x) <= range && Math.abs(u.getY() - y) <= range) around.add(u);
+					}
+					assertEquals(around, new HashSet<Unit>(pgs.getUnitsAround(x, y, range)));
+				}
+			}
+		}
+		assertNull(pgs.getUnitAt(-1, 0));
+		assertNull(pgs.getUnitAt(0, pgs.getHeight()));
+	}
+
+	@Test
+	public void test_unitIndexDuringGame() throws Exception {
+		UnitTypeTable utt = new UnitTypeTable();
+		GameState gs = new GameState(basesWorkers(utt), utt);
+		AI[] ais = new AI[] { new RandomAI(utt), new RandomAI(utt) };
+		assertConsistent(gs);
+		boolean gameover = false;
+		for (int i = 0; i < CYCLES && !gameover; i++) {
+			for (int p = 0; p < ais.length; p++) {
+				gs.issueSafe(ais[p].getAction(p, gs));
+			}
+			assertConsistent(gs);
+			// Clones build their own index
+			assertConsistent(gs.clone());
+			gameover = gs.cycle();
+			assertConsistent(gs);
+		}
+	}
+
+	@Test
+	public void test_unitIndexSharingUnits() {
+		UnitTypeTable utt = new UnitTypeTable();
+		PhysicalGameState pgs = basesWorkers(utt);
+		PhysicalGameState shared = pgs.cloneKeepingUnits();
+		// Build both indexes, then move a worker through each state in turn
+		pgs.getUnitAt(0, 0);
+		shared.getUnitAt(0, 0);
+		Unit worker = pgs.getUnitAt(1, 1);
+		shared.moveUnit(worker, 1, 2);
+		assertSame(worker, pgs.getUnitAt(1, 2));
+		assertNull(pgs.getUnitAt(1, 1));
+		pgs.moveUnit(worker, 1, 3);
+		assertSame(worker, shared.getUnitAt(1, 3));
+		assertNull(shared.getUnitAt(1, 2));
+		assertConsistent(new GameState(pgs, utt));
+		assertConsistent(new GameState(shared, utt));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void test_addUnitOnOccupiedSpace() {
+		UnitTypeTable utt = new UnitTypeTable();
+		PhysicalGameState pgs = basesWorkers(utt);
+		pgs.getUnitAt(0, 0); // Build the index before adding
+		pgs.addUnit(new Unit(0, utt.getUnitType("Worker"), 1, 1, 0));
+	}
+}